@@ -0,0 +1,75 @@
+package com.connect4;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Az AIPlayer lépésválasztásának mérése rögzített mélységű kereséssel.
+ *
+ * <p>A gyorsítótárat minden hívás előtt ürítjük, így minden mérés egy
+ * teljes, hideg keresést jelent.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AIPlayerBenchmark {
+    /** A tábla mérete "sorok x oszlopok" alakban. */
+    @Param({"6x7", "8x8", "12x12"})
+    public String size;
+
+    /** Az oszlopok kitöltöttsége. */
+    @Param({"0.0", "0.5"})
+    public double fill;
+
+    /** A keresési mélység. */
+    @Param({"4", "8"})
+    public int depth;
+
+    /** A mért játékos. */
+    private AIPlayer player;
+
+    /** A tábla, amelyen a játékos lép. */
+    private Board board;
+
+    /**
+     * Elkészíti a játékost és a táblát.
+     */
+    @Setup
+    public void setUp() {
+        player = new AIPlayer("AI", 'X', depth);
+        board = BenchmarkBoards.create(size, fill, false);
+    }
+
+    /**
+     * Üríti a gyorsítótárat a következő mérés előtt.
+     */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        player.getTranspositionTable().clear();
+    }
+
+    /**
+     * Egy lépés kiválasztása.
+     *
+     * @return A választott oszlop.
+     */
+    @Benchmark
+    public int makeMove() {
+        return player.makeMove(board);
+    }
+}
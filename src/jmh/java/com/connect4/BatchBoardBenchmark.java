@@ -0,0 +1,96 @@
+package com.connect4;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Véletlen játszmák végigjátszásának mérése a szabványos táblán:
+ * játszmánként egy {@link Board} objektummal, illetve a
+ * {@link BatchBoard} tömbjeiben, egyszerre léptetve.
+ *
+ * <p>Egy művelet egy teljes játszma, így a két eredmény közvetlenül
+ * összevethető.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchBoardBenchmark {
+    /** A hívásonként végigjátszott játszmák száma. */
+    private static final int GAMES = 4096;
+
+    /** A játszmák tömbje. */
+    private BatchBoard batch;
+
+    /** A Board alapú játszmák véletlenszám-generátora. */
+    private SplittableRandom random;
+
+    /** A következő hívás magja. */
+    private long seed;
+
+    /**
+     * Elkészíti a játszmák tömbjét.
+     */
+    @Setup
+    public void setUp() {
+        batch = new BatchBoard(GAMES, Constants.DEFAULT_ROWS,
+                Constants.DEFAULT_COLUMNS);
+        random = new SplittableRandom(1);
+    }
+
+    /**
+     * Játszmánként új {@link Board}, véletlen szabályos lépésekkel a
+     * játszma végéig.
+     *
+     * @return A megtett lépések száma.
+     */
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public long boardPlayouts() {
+        long moves = 0;
+        for (int g = 0; g < GAMES; g++) {
+            Board board = new Board(Constants.DEFAULT_ROWS,
+                    Constants.DEFAULT_COLUMNS);
+            char token = 'X';
+            while (true) {
+                int column = random.nextInt(board.getColumns());
+                if (!board.isColumnValid(column)) {
+                    continue;
+                }
+                board.placeToken(column, token);
+                moves++;
+                if (board.checkWin() || board.isFull()) {
+                    break;
+                }
+                token = token == 'X' ? 'O' : 'X';
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Az összes játszma egyszerre, a {@link BatchBoard} tömbjeiben.
+     *
+     * @return A megtett lépések száma.
+     */
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public long batchPlayouts() {
+        batch.reset(seed++);
+        return batch.playOutRandom();
+    }
+}
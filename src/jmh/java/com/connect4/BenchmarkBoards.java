@@ -0,0 +1,84 @@
+package com.connect4;
+
+/**
+ * A BenchmarkBoards osztály determinisztikus táblákat készít a
+ * teljesítményméréshez.
+ *
+ * <p>A kitöltés a {@code (magasság + oszlop / 2) % 2} mintát követi,
+ * amelyben sehol sincs négy azonos token egy vonalban, így a nyerő
+ * és a nem nyerő változat csak az alsó sor elejére tett négyesben
+ * különbözik.</p>
+ */
+final class BenchmarkBoards {
+    private BenchmarkBoards() {
+        // Segédosztály, nem példányosítható
+    }
+
+    /**
+     * Beolvas egy "sorok x oszlopok" alakú méretet.
+     *
+     * @param size A méret, például "6x7".
+     * @return A sorok és az oszlopok száma.
+     */
+    static int[] parseSize(final String size) {
+        int x = size.indexOf('x');
+        return new int[] {Integer.parseInt(size.substring(0, x)),
+                Integer.parseInt(size.substring(x + 1))};
+    }
+
+    /**
+     * Elkészít egy adott méretű és kitöltöttségű táblát.
+     *
+     * @param size A méret, például "6x7".
+     * @param fill Az oszlopok kitöltöttsége 0 és 1 között.
+     * @param win  Igaz, ha a táblán legyen nyerő sorozat.
+     * @return Az elkészített tábla.
+     */
+    static Board create(final String size, final double fill,
+                        final boolean win) {
+        return create(size, fill, win, Constants.DEFAULT_WIN_LENGTH);
+    }
+
+    /**
+     * Elkészít egy adott méretű, kitöltöttségű és nyerő sorozathosszú
+     * táblát.
+     *
+     * @param size      A méret, például "6x7".
+     * @param fill      Az oszlopok kitöltöttsége 0 és 1 között.
+     * @param win       Igaz, ha a táblán legyen nyerő sorozat.
+     * @param winLength A nyerő sorozat hossza.
+     * @return Az elkészített tábla.
+     */
+    static Board create(final String size, final double fill,
+                        final boolean win, final int winLength) {
+        int[] dims = parseSize(size);
+        Board board = new Board(dims[0], dims[1], winLength);
+        int height = (int) (fill * dims[0]);
+        if (win) {
+            height = Math.max(height, 1);
+        }
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < dims[1]; col++) {
+                boolean run = win && row == 0 && col < winLength;
+                char token = run || (row + col / 2) % 2 == 0 ? 'X' : 'O';
+                board.placeToken(col, token);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Visszaadja a tábla első szabad oszlopát a középtől kifelé haladva.
+     *
+     * @param board A tábla.
+     * @return Az oszlop indexe, vagy -1, ha a tábla tele van.
+     */
+    static int freeColumn(final Board board) {
+        for (int col : SearchEngine.columnOrder(board.getColumns())) {
+            if (board.isColumnValid(col)) {
+                return col;
+            }
+        }
+        return -1;
+    }
+}
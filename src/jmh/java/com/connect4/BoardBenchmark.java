@@ -0,0 +1,123 @@
+package com.connect4;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A Board osztály gyakran hívott műveleteinek mérése különböző
+ * táblaméreteken és kitöltöttségi szinteken.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+    /** A tábla mérete "sorok x oszlopok" alakban. */
+    @Param({"6x7", "8x8", "12x12", "20x20", "50x50"})
+    public String size;
+
+    /** Az oszlopok kitöltöttsége. */
+    @Param({"0.0", "0.5", "0.9"})
+    public double fill;
+
+    /** Van-e nyerő négyes a táblán. */
+    @Param({"false", "true"})
+    public boolean win;
+
+    /** A mért tábla. */
+    private Board board;
+
+    /** A tábla másolata az egyenlőségvizsgálathoz. */
+    private Board same;
+
+    /** A lépéshez használt szabad oszlop. */
+    private int column;
+
+    /**
+     * Elkészíti a mért táblát.
+     */
+    @Setup
+    public void setUp() {
+        board = BenchmarkBoards.create(size, fill, win);
+        same = board.copy();
+        column = BenchmarkBoards.freeColumn(board);
+    }
+
+    /**
+     * Egy token lehelyezése, majd visszavonása.
+     *
+     * @return A lehelyezés sikeressége.
+     */
+    @Benchmark
+    public boolean placeToken() {
+        boolean placed = board.placeToken(column, 'X');
+        board.undo();
+        return placed;
+    }
+
+    /**
+     * Egy lépés a lépő játékos tokenjével, majd visszavonása a
+     * lépésveremből.
+     *
+     * @return A lépés sikeressége.
+     */
+    @Benchmark
+    public boolean playUndo() {
+        boolean placed = board.play(column);
+        board.undo();
+        return placed;
+    }
+
+    /**
+     * A győzelem ellenőrzése.
+     *
+     * @return Igaz, ha van nyerő négyes.
+     */
+    @Benchmark
+    public boolean checkWin() {
+        return board.checkWin();
+    }
+
+    /**
+     * A telítettség ellenőrzése.
+     *
+     * @return Igaz, ha a tábla tele van.
+     */
+    @Benchmark
+    public boolean isFull() {
+        return board.isFull();
+    }
+
+    /**
+     * A hash kód kiszámítása.
+     *
+     * @return A tábla hash kódja.
+     */
+    @Benchmark
+    public int hash() {
+        return board.hashCode();
+    }
+
+    /**
+     * Két azonos állású tábla összehasonlítása.
+     *
+     * @return Igaz, ha a táblák egyenlők.
+     */
+    @Benchmark
+    public boolean equalsCopy() {
+        return board.equals(same);
+    }
+}
@@ -0,0 +1,86 @@
+package com.connect4;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A {@link ThreatEvaluator} kiértékelési sebessége (kiértékelés/s)
+ * előre legenerált, véletlenszerű középjátékbeli állásokon.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluatorBenchmark {
+    /** Az előre elkészített állások száma (kettő hatványa). */
+    private static final int POSITIONS = 1024;
+
+    /** A tábla mérete "sorok x oszlopok" alakban. */
+    @Param({"6x7", "7x8"})
+    public String size;
+
+    /** A véletlen lépések száma állásonként. */
+    @Param({"12", "24"})
+    public int plies;
+
+    /** Az értékelő. */
+    private final ThreatEvaluator evaluator = new ThreatEvaluator();
+
+    /** Az állások. */
+    private Board[] boards;
+
+    /** A következő kiértékelendő állás indexe. */
+    private int next;
+
+    /**
+     * Elkészíti az állásokat véletlen, még el nem dőlt játszmákból.
+     */
+    @Setup
+    public void setUp() {
+        int[] dims = BenchmarkBoards.parseSize(size);
+        SplittableRandom random = new SplittableRandom(1);
+        boards = new Board[POSITIONS];
+        int count = 0;
+        while (count < POSITIONS) {
+            Board board = new Board(dims[0], dims[1], 'X', 'O');
+            int attempts = 0;
+            while (board.moveCount() < plies && attempts++ < plies * 2 * 2) {
+                int col = random.nextInt(dims[1]);
+                int slot = board.slotOf(board.getTokenToMove());
+                if (board.isColumnValid(col)
+                        && !board.isWinningMove(col, slot)) {
+                    board.play(col);
+                }
+            }
+            if (board.moveCount() == plies) {
+                boards[count++] = board;
+            }
+        }
+    }
+
+    /**
+     * Egy állás kiértékelése a lépő játékos szemszögéből.
+     *
+     * @return Az állás értéke.
+     */
+    @Benchmark
+    public int evaluate() {
+        Board board = boards[next];
+        next = (next + 1) & (POSITIONS - 1);
+        return evaluator.evaluate(board, board.moveCount() & 1);
+    }
+}
@@ -0,0 +1,97 @@
+package com.connect4;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A játékállás szöveges mentésének és betöltésének mérése.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PersistenceBenchmark {
+    /** A tábla mérete "sorok x oszlopok" alakban. */
+    @Param({"6x7", "8x8", "12x12", "20x20", "50x50"})
+    public String size;
+
+    /** Az oszlopok kitöltöttsége. */
+    @Param({"0.0", "0.5", "0.9"})
+    public double fill;
+
+    /** A mentést végző játék. */
+    private Game saved;
+
+    /** A betöltést végző játék. */
+    private Game loaded;
+
+    /** A mentés helye. */
+    private File saveFile;
+
+    /** A betöltendő, előre elkészített mentés. */
+    private File loadFile;
+
+    /**
+     * Elkészíti a játékokat és a betöltendő mentést.
+     *
+     * @throws IOException Ha az ideiglenes fájl nem hozható létre.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        int[] dims = BenchmarkBoards.parseSize(size);
+        saved = new Game(dims[0], dims[1], "A", "B", true);
+        Board source = BenchmarkBoards.create(size, fill, false);
+        for (int row = 0; row < dims[0]; row++) {
+            System.arraycopy(source.getGrid()[row], 0,
+                    saved.getBoard().getGrid()[row], 0, dims[1]);
+        }
+        loaded = new Game(dims[0], dims[1], "A", "B", true);
+        saveFile = File.createTempFile("connect4-save", ".txt");
+        loadFile = File.createTempFile("connect4-load", ".txt");
+        saved.saveGameToFile(loadFile.getPath());
+    }
+
+    /**
+     * Törli az ideiglenes fájlokat.
+     */
+    @TearDown
+    public void tearDown() {
+        saveFile.delete();
+        loadFile.delete();
+    }
+
+    /**
+     * A játékállás mentése.
+     */
+    @Benchmark
+    public void saveGameToFile() {
+        saved.saveGameToFile(saveFile.getPath());
+    }
+
+    /**
+     * A játékállás betöltése.
+     *
+     * @return A betöltött tábla.
+     */
+    @Benchmark
+    public Board loadGameFromFile() {
+        loaded.loadGameFromFile(loadFile.getPath());
+        return loaded.getBoard();
+    }
+}
@@ -0,0 +1,104 @@
+package com.connect4;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Egy képkocka kirajzolásának költsége: a korábbi, mezőnkénti
+ * {@code print} hívások, a {@link BoardRenderer} egyetlen írása, és a
+ * különbségi mód egy lépés után. A kimenet egy eldobó folyam, így csak a
+ * formázás és a {@link PrintStream} zárolása mérődik.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderBenchmark {
+    /** A tábla mérete "sorok x oszlopok" alakban. */
+    @Param({"6x7", "20x20"})
+    public String size;
+
+    /** A félig kitöltött tábla. */
+    private Board board;
+
+    /** A lépéshez használt szabad oszlop. */
+    private int column;
+
+    /** Az eldobó kimenet. */
+    private PrintStream out;
+
+    /** A mért kirajzoló. */
+    private BoardRenderer renderer;
+
+    /**
+     * Elkészíti a mért táblát és a kimenetet.
+     *
+     * @throws IOException Nem fordul elő.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        board = BenchmarkBoards.create(size, 0.5, false, 4);
+        column = BenchmarkBoards.freeColumn(board);
+        out = new PrintStream(OutputStream.nullOutputStream());
+        renderer = new BoardRenderer();
+        renderer.render(board, out);
+    }
+
+    /**
+     * A korábbi {@code displayBoard}: mezőnként egy összefűzés és egy
+     * {@code print} hívás.
+     */
+    @Benchmark
+    public void legacy() {
+        char[][] grid = board.getGrid();
+        out.println("Tábla:");
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getColumns(); col++) {
+                char displayChar = grid[row][col] == '\0'
+                        ? '.' : grid[row][col];
+                out.print(displayChar + " ");
+            }
+            out.println();
+        }
+    }
+
+    /**
+     * A teljes képkocka egyetlen írással.
+     *
+     * @throws IOException Nem fordul elő.
+     */
+    @Benchmark
+    public void fullFrame() throws IOException {
+        renderer.render(board, out);
+    }
+
+    /**
+     * Egy lépés és a visszavonása, mindkettő után a különbségi képkocka.
+     *
+     * @return A kiírt mezők száma.
+     * @throws IOException Nem fordul elő.
+     */
+    @Benchmark
+    public int diffAfterMove() throws IOException {
+        board.placeToken(column, 'X');
+        int changed = renderer.renderDiff(board, out);
+        board.undo();
+        return changed + renderer.renderDiff(board, out);
+    }
+}
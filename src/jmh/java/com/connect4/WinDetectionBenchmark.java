@@ -0,0 +1,75 @@
+package com.connect4;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A lépésenkénti győzelemfelismerés költsége a tábla méretének és a nyerő
+ * sorozat hosszának függvényében. A mért érték a tábla méretétől
+ * függetlenül közel állandó marad.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WinDetectionBenchmark {
+    /** A tábla mérete "sorok x oszlopok" alakban. */
+    @Param({"6x7", "12x12", "20x20", "50x50", "100x100"})
+    public String size;
+
+    /** A nyerő sorozat hossza. */
+    @Param({"4", "5", "6"})
+    public int winLength;
+
+    /** A félig kitöltött tábla. */
+    private Board board;
+
+    /** A lépéshez használt szabad oszlop. */
+    private int column;
+
+    /**
+     * Elkészíti a mért táblát.
+     */
+    @Setup
+    public void setUp() {
+        board = BenchmarkBoards.create(size, 0.5, false, winLength);
+        column = BenchmarkBoards.freeColumn(board);
+    }
+
+    /**
+     * Egy lépés a győzelem felismerésével, majd a visszavonása.
+     *
+     * @return Igaz, ha a lépés nyerő sorozatot hozott létre.
+     */
+    @Benchmark
+    public boolean playAndDetect() {
+        board.placeToken(column, 'X');
+        boolean won = board.checkWin();
+        board.undo();
+        return won;
+    }
+
+    /**
+     * A nyerő lépés előzetes vizsgálata a tábla módosítása nélkül, ahogy
+     * a keresőmotor minden csomópontban használja.
+     *
+     * @return Igaz, ha a lépés nyerne.
+     */
+    @Benchmark
+    public boolean isWinningMove() {
+        return board.isWinningMove(column, 0);
+    }
+}
@@ -2,8 +2,83 @@ package com.connect4;
 
 /**
  * Az AIPlayer osztály az AI játékost reprezentálja.
+ *
+ * <p>A lépést egy {@link SearchEngine} választja ki negamax kereséssel;
+ * a keresés mélysége és lépésenkénti időkorlátja konfigurálható. A
+ * játékos saját {@link TranspositionTable} gyorsítótárat tart fenn, amely
+ * a lépések között is megmarad. Egynél több szál esetén a keresést a
+ * {@link ParallelSearchEngine} végzi.</p>
+ *
+ * <p>Ha a játékosnak van {@link OpeningBook} nyitókönyve, a benne szereplő
+ * állásokban keresés nélkül a könyv lépését választja. Kis táblákon egy
+ * {@link Tablebase} is megadható; a benne szereplő állásokban a játékos
+ * keresés helyett a tökéletes lépést olvassa ki.</p>
+ *
+ * <p>A keresés mélységkorlátjánál alapértelmezés szerint a
+ * {@link ThreatEvaluator} értékeli az állásokat; ez lecserélhető.</p>
+ *
+ * <p>Bekapcsolt gondolkodás esetén ({@link #setPondering(boolean)}) a
+ * játékos az ellenfél ideje alatt a háttérben előre keres; lásd
+ * {@link Ponderer}.</p>
+ *
+ * <p>A {@link Difficulty#PERFECT} szintű játékos a megoldható táblákon a
+ * {@link Solver} tökéletes lépését választja. A kezdőállás megoldása
+ * egy magon perceket vehet igénybe, ezért ilyenkor érdemes nyitókönyvet
+ * is megadni.</p>
+ *
+ * <p>A többszálú keresőmotor és a háttérkeresés saját szálakat tart
+ * fenn; ezeket a {@link #close()} állítja le, ezért a játékost használat
+ * után le kell zárni.</p>
  */
-public class AIPlayer extends Player {
+public class AIPlayer extends Player implements AutoCloseable {
+    /** Az alapértelmezett keresési mélység. */
+    public static final int DEFAULT_DEPTH = 8;
+
+    /** Az alapértelmezett időkorlát lépésenként ezredmásodpercben. */
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 1000L;
+
+    /** A gyorsítótár méretének kettes alapú logaritmusa (4 MB). */
+    public static final int DEFAULT_TABLE_BITS = 18;
+
+    /** A keresések száma (a nyitókönyvből választott lépések nélkül). */
+    private static final Metrics.Counter SEARCHES =
+            Metrics.registry().counter("ai.searches");
+
+    /** A nyitókönyvből választott lépések száma. */
+    private static final Metrics.Counter BOOK_HITS =
+            Metrics.registry().counter("ai.book.hits");
+
+    /** A keresésenként bejárt csomópontok száma. */
+    private static final Metrics.Histogram SEARCH_NODES =
+            Metrics.registry().histogram("ai.search.nodes");
+
+    /** A keresések ideje. */
+    private static final Metrics.Histogram SEARCH_TIME =
+            Metrics.registry().histogram("ai.search.ns");
+
+    /** A lépéseket kiválasztó keresőmotor. */
+    private final Searcher engine;
+
+    /** A keresőmotor gyorsítótára. */
+    private final TranspositionTable table;
+
+    /** A mélységkorlátnál használt állásértékelő. */
+    private Evaluator evaluator;
+
+    /** A tökéletes játék megoldója, vagy null, ha a szint nem ilyen. */
+    private Solver solver;
+
+    /** A nyitókönyv, vagy null, ha nincs. */
+    private OpeningBook openingBook;
+
+    /** Az utolsó keresés eredménye (null, ha még nem keresett). */
+    private SearchResult lastSearchResult;
+
+    /** A kis táblák pontos értékeinek táblája, vagy null, ha nincs. */
+    private Tablebase tablebase;
+
+    /** Az ellenfél idejében kereső, vagy null, ha ki van kapcsolva. */
+    private Ponderer ponderer;
 
     /**
      * Konstruktor az AIPlayer osztályhoz.
@@ -12,7 +87,91 @@ public class AIPlayer extends Player {
      * @param token Az AI játékos tokenje.
      */
     public AIPlayer(final String name, final char token) {
+        this(name, token, DEFAULT_DEPTH, DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    /**
+     * Konstruktor nehézségi szinttel.
+     *
+     * @param name       Az AI játékos neve.
+     * @param token      Az AI játékos tokenje.
+     * @param difficulty A nehézségi szint.
+     */
+    public AIPlayer(final String name, final char token,
+                    final Difficulty difficulty) {
+        this(name, token, difficulty.getDepth(),
+                difficulty.getTimeLimitMillis());
+        if (difficulty == Difficulty.PERFECT) {
+            this.solver = new Solver();
+        }
+    }
+
+    /**
+     * Konstruktor rögzített keresési mélységgel, időkorlát nélkül.
+     *
+     * @param name     Az AI játékos neve.
+     * @param token    Az AI játékos tokenje.
+     * @param maxDepth A keresési mélység lépésekben.
+     */
+    public AIPlayer(final String name, final char token, final int maxDepth) {
+        this(name, token, maxDepth, 0L);
+    }
+
+    /**
+     * Konstruktor keresési mélységgel és lépésenkénti időkorláttal.
+     *
+     * @param name            Az AI játékos neve.
+     * @param token           Az AI játékos tokenje.
+     * @param maxDepth        A legnagyobb keresési mélység lépésekben.
+     * @param timeLimitMillis Az időkorlát ezredmásodpercben (0: nincs).
+     */
+    public AIPlayer(final String name, final char token, final int maxDepth,
+                    final long timeLimitMillis) {
+        this(name, token, maxDepth, timeLimitMillis, 1);
+    }
+
+    /**
+     * Konstruktor keresési mélységgel, időkorláttal és szálszámmal.
+     *
+     * @param name            Az AI játékos neve.
+     * @param token           Az AI játékos tokenje.
+     * @param maxDepth        A legnagyobb keresési mélység lépésekben.
+     * @param timeLimitMillis Az időkorlát ezredmásodpercben (0: nincs).
+     * @param threads         A keresőszálak száma.
+     */
+    public AIPlayer(final String name, final char token, final int maxDepth,
+                    final long timeLimitMillis, final int threads) {
         super(name, token);
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "Legalább egy keresőszál szükséges.");
+        }
+        this.table = new TranspositionTable(DEFAULT_TABLE_BITS);
+        if (threads > 1) {
+            this.engine = new ParallelSearchEngine(maxDepth, timeLimitMillis,
+                    table, threads);
+        } else {
+            this.engine = new SearchEngine(maxDepth, timeLimitMillis, table);
+        }
+        setEvaluator(new ThreatEvaluator());
+    }
+
+    /**
+     * Konstruktor tetszőleges keresőmotorral, például egy
+     * {@link MctsEngine} példánnyal. A játékos ilyenkor nem tart fenn
+     * saját gyorsítótárat; a lezárásakor a keresőmotort is lezárja, ha
+     * az {@link AutoCloseable}.
+     *
+     * @param name          Az AI játékos neve.
+     * @param token         Az AI játékos tokenje.
+     * @param searcherParam A lépéseket kiválasztó keresőmotor.
+     */
+    public AIPlayer(final String name, final char token,
+                    final Searcher searcherParam) {
+        super(name, token);
+        this.table = null;
+        this.engine = searcherParam;
+        setEvaluator(new ThreatEvaluator());
     }
 
     /**
@@ -22,11 +181,245 @@ public class AIPlayer extends Player {
      * @return Az oszlop, ahol az AI játékos lehelyezi a tokent.
      */
     public int makeMove(final Board board) {
+        SearchResult pondered = ponderer == null ? null
+                : ponderer.resolve(board);
+        int firstValid = -1;
+        int validCount = 0;
         for (int col = 0; col < board.getColumns(); col++) {
             if (board.isColumnValid(col)) {
-                return col; // Egyszerű AI, az első érvényes oszlopot választja
+                validCount++;
+                if (firstValid < 0) {
+                    firstValid = col;
+                }
+            }
+        }
+        if (validCount <= 1) {
+            return firstValid; // Nincs választás, vagy nincs érvényes oszlop
+        }
+        if (openingBook != null) {
+            SearchResult booked = openingBook.lookup(board, getToken());
+            if (booked != null && board.isColumnValid(booked.getBestMove())) {
+                if (Metrics.ENABLED) {
+                    BOOK_HITS.increment();
+                }
+                lastSearchResult = booked;
+                return booked.getBestMove();
             }
         }
-        return -1; // Nincs érvényes oszlop
+        if (pondered != null && board.isColumnValid(pondered.getBestMove())) {
+            lastSearchResult = pondered;
+            return pondered.getBestMove();
+        }
+        lastSearchResult = analyse(board, getToken());
+        if (Metrics.ENABLED) {
+            SEARCHES.increment();
+            SEARCH_NODES.record(lastSearchResult.getNodes());
+            SEARCH_TIME.record(lastSearchResult.getElapsedNanos());
+        }
+        return lastSearchResult.getBestMove();
+    }
+
+    /**
+     * Megkeresi a legjobb lépést a megadott tokenű játékos számára a
+     * nyitókönyv nélkül: a tablebase állásaiban a táblából, megoldható
+     * táblán a megoldóval, különben a keresőmotorral. A {@link Ponderer}
+     * az ellenfél lépésének jóslásához is ezt használja.
+     *
+     * @param board A játék tábla.
+     * @param token A lépő játékos tokenje.
+     * @return A keresés eredménye.
+     */
+    SearchResult analyse(final Board board, final char token) {
+        if (tablebase != null) {
+            SearchResult known = tablebase.bestMove(board, token);
+            if (known != null) {
+                return known;
+            }
+        }
+        if (solver != null && Solver.supports(board)) {
+            return solver.search(board, token);
+        }
+        return engine.search(board, token);
+    }
+
+    /**
+     * Be- vagy kikapcsolja az ellenfél idejében végzett háttérkeresést.
+     * Kikapcsoláskor a folyamatban lévő háttérkeresés leáll.
+     *
+     * @param enabled True a bekapcsoláshoz.
+     */
+    public void setPondering(final boolean enabled) {
+        if (enabled && ponderer == null) {
+            ponderer = new Ponderer(this);
+        } else if (!enabled && ponderer != null) {
+            ponderer.close();
+            ponderer = null;
+        }
+    }
+
+    /**
+     * Leállítja a háttérkeresést, és lezárja a keresőmotort, ha az
+     * {@link AutoCloseable} (például a {@link ParallelSearchEngine}
+     * szálkészletét). Lezárás után a játékos nem keres tovább.
+     */
+    @Override
+    public void close() {
+        setPondering(false);
+        if (engine instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) engine).close();
+            } catch (Exception e) {
+                throw new IllegalStateException(
+                        "A keresőmotor nem zárható le.", e);
+            }
+        }
+    }
+
+    /**
+     * Visszaadja az ellenfél idejében kereső objektumot a találati
+     * statisztikákhoz.
+     *
+     * @return A kereső, vagy null, ha a háttérkeresés ki van kapcsolva.
+     */
+    public Ponderer getPonderer() {
+        return ponderer;
+    }
+
+    /**
+     * Elindítja a háttérkeresést a saját lépése után, ha be van
+     * kapcsolva. A táblát nem módosítja.
+     *
+     * @param board  A tábla a lépés előtt.
+     * @param column A lépés oszlopa.
+     */
+    public void startPondering(final Board board, final int column) {
+        if (ponderer != null) {
+            ponderer.start(board, column);
+        }
+    }
+
+    /**
+     * Jelzi a háttérkeresésnek az ellenfél lépését; tévedés esetén a
+     * háttérkeresés azonnal leáll.
+     *
+     * @param column Az ellenfél lépésének oszlopa.
+     */
+    public void opponentMoved(final int column) {
+        if (ponderer != null) {
+            ponderer.opponentMoved(column);
+        }
+    }
+
+    /**
+     * Leállítja a folyamatban lévő háttérkeresést, például a játszma
+     * végén.
+     */
+    public void stopPondering() {
+        if (ponderer != null) {
+            ponderer.stop();
+        }
+    }
+
+    /**
+     * Beállítja a keresés mélységkorlátjánál használt állásértékelőt. A
+     * gyorsítótár korábbi bejegyzései más értékelőhöz tartoztak, ezért
+     * törlődnek.
+     *
+     * @param evaluatorParam Az értékelő, vagy null: ekkor a mélységkorlátnál
+     *                       minden állás döntetlen értékű.
+     */
+    public final void setEvaluator(final Evaluator evaluatorParam) {
+        this.evaluator = evaluatorParam;
+        engine.setEvaluator(evaluatorParam);
+        if (table != null) {
+            table.clear();
+        }
+    }
+
+    /**
+     * Visszaadja a mélységkorlátnál használt állásértékelőt.
+     *
+     * @return Az értékelő, vagy null.
+     */
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Beállítja a keresés előtt megnézett nyitókönyvet.
+     *
+     * @param book A nyitókönyv, vagy null a kikapcsoláshoz.
+     */
+    public void setOpeningBook(final OpeningBook book) {
+        this.openingBook = book;
+    }
+
+    /**
+     * Visszaadja a nyitókönyvet.
+     *
+     * @return A nyitókönyv, vagy null, ha nincs.
+     */
+    public OpeningBook getOpeningBook() {
+        return openingBook;
+    }
+
+    /**
+     * Beállítja a keresés előtt megnézett tablebase-t. A benne szereplő
+     * állásokban a játékos keresés nélkül a tökéletes lépést választja.
+     *
+     * @param base A tablebase, vagy null a kikapcsoláshoz.
+     */
+    public void setTablebase(final Tablebase base) {
+        this.tablebase = base;
+    }
+
+    /**
+     * Visszaadja a tablebase-t.
+     *
+     * @return A tablebase, vagy null, ha nincs.
+     */
+    public Tablebase getTablebase() {
+        return tablebase;
+    }
+
+    /**
+     * Visszaadja az utolsó keresés eredményét, benne a másodpercenként
+     * bejárt csomópontok számával.
+     *
+     * @return Az utolsó keresés eredménye, vagy null.
+     */
+    public SearchResult getLastSearchResult() {
+        return lastSearchResult;
+    }
+
+    /**
+     * Leállítja a folyamatban lévő keresést; másik szálból hívható. A
+     * {@link #makeMove(Board)} ekkor a legjobb addig talált lépéssel tér
+     * vissza.
+     */
+    public void cancelSearch() {
+        engine.cancel();
+        if (solver != null) {
+            solver.cancel();
+        }
+    }
+
+    /**
+     * Visszaadja a tökéletes játék megoldóját.
+     *
+     * @return A megoldó, vagy null, ha a játékos nem tökéletes szintű.
+     */
+    public Solver getSolver() {
+        return solver;
+    }
+
+    /**
+     * Visszaadja a keresőmotor gyorsítótárát a találati statisztikákhoz.
+     *
+     * @return Az állások gyorsítótára, vagy null, ha a játékos külső
+     *         keresőmotort használ.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
     }
 }
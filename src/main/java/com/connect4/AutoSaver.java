@@ -0,0 +1,403 @@
+package com.connect4;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Az AutoSaver osztály minden lépés után a háttérben menti a játék
+ * állását, így a játék ciklusa sosem vár a lemezre.
+ *
+ * <p>Két fájlt tart fenn. A pillanatkép a tábla a
+ * {@link Game#saveGameToFile(String)} formátumában; egy ideiglenes fájlba
+ * íródik, majd átnevezéssel cseréli a régit, így sosem félig írt. A gyors
+ * egymásutánban kért mentéseket összevonja: mindig csak a legutolsó
+ * állapot kerül lemezre. A napló ({@value #JOURNAL_SUFFIX} kiterjesztéssel)
+ * soronként egy lépést tartalmaz "oszlop token" alakban, és minden lépés
+ * bekerül, így egy összeomlott játszma a {@link #replay(Path, Board)}
+ * hívással lépésről lépésre pontosan visszaállítható.</p>
+ *
+ * <p>A lemezműveletek egyetlen háttérszálon futnak; a hívó szál csak egy
+ * rövid bájttömböt és egy pillanatkép-szöveget tesz egy-egy zármentes
+ * szerkezetbe. Minden kiírás után a fájlok tartalma {@code force} hívással
+ * lemezre kerül, így a mentés az operációs rendszer összeomlását és az
+ * áramszünetet is túléli. Az írás hibáját a {@link #getLastError()} adja
+ * vissza; naplóírási hiba után a naplózás leáll, hogy a napló ne
+ * tartalmazzon hézagot, és a visszajátszás egy hiánytalan előzményt
+ * adjon.</p>
+ */
+public final class AutoSaver implements Closeable {
+    /** A napló fájlnevének kiterjesztése. */
+    public static final String JOURNAL_SUFFIX = ".journal";
+
+    /** Az ideiglenes pillanatkép fájlnevének kiterjesztése. */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /** A pillanatkép fájl. */
+    private final Path snapshotFile;
+
+    /** A napló írására megnyitott csatorna. */
+    private final FileChannel journal;
+
+    /** A háttérszál. */
+    private final ExecutorService writer;
+
+    /** A még ki nem írt naplósorok. */
+    private final Queue<byte[]> pendingMoves = new ConcurrentLinkedQueue<>();
+
+    /** A legutolsó, még ki nem írt pillanatkép, vagy null. */
+    private final AtomicReference<String> pendingSnapshot =
+            new AtomicReference<>();
+
+    /** Igaz, ha már van ütemezett kiírás. */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /** A kért mentések száma. */
+    private final AtomicLong requests = new AtomicLong();
+
+    /** A ténylegesen kiírt pillanatképek száma. */
+    private final AtomicLong snapshotsWritten = new AtomicLong();
+
+    /** Az utolsó írási hiba, vagy null. */
+    private volatile IOException lastError;
+
+    /**
+     * Igaz, ha a napló írása egyszer már sikertelen volt. Csak a
+     * háttérszál használja.
+     */
+    private boolean journalFailed;
+
+    /**
+     * Konstruktor az AutoSaver osztályhoz. A naplót hozzáfűzésre nyitja
+     * meg, így egy visszaállított játszma naplója folytatódik.
+     *
+     * @param snapshotFileParam A pillanatkép fájl; a napló mellette, a
+     *                          {@value #JOURNAL_SUFFIX} kiterjesztéssel
+     *                          jön létre.
+     * @throws IOException Ha a napló nem nyitható meg.
+     */
+    public AutoSaver(final Path snapshotFileParam) throws IOException {
+        this.snapshotFile = snapshotFileParam.toAbsolutePath();
+        this.journal = FileChannel.open(journalOf(snapshotFile),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "connect4-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Visszaadja a pillanatkép fájlhoz tartozó napló útvonalát.
+     *
+     * @param snapshotFile A pillanatkép fájl.
+     * @return A napló útvonala.
+     */
+    public static Path journalOf(final Path snapshotFile) {
+        return snapshotFile.resolveSibling(
+                snapshotFile.getFileName() + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * Rögzít egy lépést: a naplóba tesz egy sort, és ütemezi a tábla
+     * pillanatképének mentését. Nem vár a lemezre.
+     *
+     * @param column A lépés oszlopa.
+     * @param token  A lerakott token.
+     * @param board  A tábla a lépés után.
+     */
+    public void record(final int column, final char token,
+                       final Board board) {
+        pendingMoves.add((column + " " + token + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        pendingSnapshot.set(toSaveText(board));
+        requests.incrementAndGet();
+        if (scheduled.compareAndSet(false, true)) {
+            writer.execute(this::drain);
+        }
+    }
+
+    /**
+     * A naplóba írja a tábla teljes állását oszloponként, alulról
+     * felfelé, így a napló egy nem üres (például fájlból betöltött)
+     * állásból is visszajátszható. Üres táblánál nem csinál semmit.
+     *
+     * @param board A tábla.
+     */
+    public void recordPosition(final Board board) {
+        for (int col = 0; col < board.getColumns(); col++) {
+            for (int row = board.getRows() - 1; row >= 0; row--) {
+                char token = board.tokenAt(row, col);
+                if (token == '\0') {
+                    break;
+                }
+                record(col, token, board);
+            }
+        }
+    }
+
+    /**
+     * Megvárja, hogy minden addig rögzített lépés lemezre kerüljön.
+     *
+     * @throws IOException          Ha a háttérírás sikertelen volt.
+     * @throws InterruptedException Ha a várakozást megszakítják.
+     */
+    public void flush() throws IOException, InterruptedException {
+        try {
+            writer.submit(this::drain).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        IOException error = lastError;
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Kiírja a függő mentéseket, és lezárja a naplót. A napló megmarad,
+     * így a játszma később folytatható.
+     *
+     * @throws IOException Ha a háttérírás vagy a lezárás sikertelen.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            writer.shutdown();
+            journal.close();
+        }
+    }
+
+    /**
+     * Kiírja a függő mentéseket, lezárja és törli a naplót: a játszma
+     * befejeződött, nincs mit folytatni. A pillanatkép megmarad.
+     *
+     * @throws IOException Ha a háttérírás, a lezárás vagy a törlés
+     *                     sikertelen.
+     */
+    public void complete() throws IOException {
+        close();
+        Files.deleteIfExists(journalOf(snapshotFile));
+    }
+
+    /**
+     * Visszajátssza egy napló lépéseit a táblán. A csonka (összeomláskor
+     * félbemaradt) utolsó sort és az első érvénytelen sort követő
+     * részt figyelmen kívül hagyja.
+     *
+     * @param snapshotFile A pillanatkép fájl, amelyhez a napló tartozik.
+     * @param board        Az üres tábla.
+     * @return A visszajátszott lépések száma (0, ha nincs napló).
+     * @throws IOException Ha a napló nem olvasható.
+     */
+    public static int replay(final Path snapshotFile, final Board board)
+            throws IOException {
+        String text;
+        try {
+            text = Files.readString(journalOf(snapshotFile.toAbsolutePath()),
+                    StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        int complete = text.lastIndexOf('\n') + 1;
+        int replayed = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new StringReader(text.substring(0, complete)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int space = line.indexOf(' ');
+                if (space <= 0 || space != line.length() - 2) {
+                    break;
+                }
+                int column;
+                try {
+                    column = Integer.parseInt(line.substring(0, space));
+                } catch (NumberFormatException e) {
+                    break;
+                }
+                if (!board.isColumnValid(column)
+                        || !board.placeToken(column, line.charAt(space + 1))) {
+                    break;
+                }
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Atomikusan kiír egy szöveget: előbb egy ideiglenes fájlba, amelyet
+     * lemezre kényszerít, majd átnevezéssel a helyére. Végül, ahol a
+     * platform engedi, a könyvtárat is lemezre kényszeríti, hogy az
+     * átnevezés is tartós legyen.
+     *
+     * @param file A célfájl.
+     * @param text A szöveg.
+     * @throws IOException Ha az írás vagy az átnevezés sikertelen.
+     */
+    public static void writeAtomically(final Path file, final String text)
+            throws IOException {
+        Path target = file.toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(
+                    text.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.getParent());
+    }
+
+    /**
+     * Lemezre kényszeríti egy könyvtár bejegyzéseit. Egyes platformokon
+     * (például Windowson) könyvtár nem nyitható meg csatornaként; ott a
+     * hívás nem csinál semmit.
+     *
+     * @param directory A könyvtár, vagy null.
+     */
+    private static void syncDirectory(final Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory,
+                StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // A platform nem támogatja a könyvtár szinkronizálását
+        }
+    }
+
+    /**
+     * Elkészíti a tábla mentési szövegét: soronként a mezők, az üres
+     * mezők helyén '.' jellel.
+     *
+     * @param board A tábla.
+     * @return A mentési szöveg.
+     */
+    static String toSaveText(final Board board) {
+        String newline = System.lineSeparator();
+        StringBuilder sb = new StringBuilder(
+                board.getRows() * (board.getColumns() + newline.length()));
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getColumns(); col++) {
+                char token = board.tokenAt(row, col);
+                sb.append(token == '\0' ? '.' : token);
+            }
+            sb.append(newline);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Visszaadja a kért mentések számát.
+     *
+     * @return A {@link #record(int, char, Board)} hívások száma.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Visszaadja a ténylegesen kiírt pillanatképek számát; az összevonás
+     * miatt legfeljebb a kért mentések száma.
+     *
+     * @return A kiírt pillanatképek száma.
+     */
+    public long getSnapshotCount() {
+        return snapshotsWritten.get();
+    }
+
+    /**
+     * Visszaadja az utolsó háttérírás hibáját.
+     *
+     * @return A hiba, vagy null, ha nem volt.
+     */
+    public IOException getLastError() {
+        return lastError;
+    }
+
+    /**
+     * A háttérszál feladata: kiírja a függő naplósorokat, majd a
+     * legutolsó pillanatképet.
+     */
+    private void drain() {
+        scheduled.set(false);
+        try {
+            writeJournal();
+        } catch (IOException e) {
+            lastError = e;
+            journalFailed = true;
+            pendingMoves.clear();
+        }
+        try {
+            String snapshot = pendingSnapshot.getAndSet(null);
+            if (snapshot != null) {
+                writeAtomically(snapshotFile, snapshot);
+                snapshotsWritten.incrementAndGet();
+            }
+        } catch (IOException e) {
+            lastError = e;
+        }
+    }
+
+    /**
+     * Kiírja a függő naplósorokat, és lemezre kényszeríti a naplót. Egy
+     * sor csak sikeres írás után kerül ki a sorból. Korábbi naplóírási
+     * hiba után a sorokat eldobja: a hiba utáni lépések hézag után
+     * következnének, és a visszajátszás más játszmát építene fel.
+     *
+     * @throws IOException Ha az írás sikertelen.
+     */
+    private void writeJournal() throws IOException {
+        if (journalFailed) {
+            pendingMoves.clear();
+            return;
+        }
+        byte[] move = pendingMoves.peek();
+        if (move == null) {
+            return;
+        }
+        while (move != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(move);
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+            pendingMoves.remove();
+            move = pendingMoves.peek();
+        }
+        journal.force(false);
+    }
+}
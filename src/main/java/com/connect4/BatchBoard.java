@@ -0,0 +1,460 @@
+package com.connect4;
+
+import java.util.Arrays;
+
+/**
+ * A BatchBoard osztály sok játszmát tárol egyszerre, egyszerű primitív
+ * tömbökben (tömbök struktúrája), és egy lépéssel mindegyiket egyszerre
+ * viszi tovább.
+ *
+ * <p>A {@link Board} minden játszmához külön objektumot, soronként külön
+ * tömböt tart fenn; sok rövid, véletlen játszma szimulációjánál ez rossz
+ * gyorsítótár-kihasználást jelent. Itt a játszmák adatai egymás után
+ * állnak: a két játékos bitmaszkja (a {@link Board} bitboard
+ * elrendezésében), az oszlopmagasságok, a lépésszám, a lépő játékos, az
+ * eredmény és a lépéssor. A {@link #stepRandom()} egyetlen szoros
+ * ciklusban minden folyamatban lévő játszmában megtesz egy véletlen
+ * szabályos lépést; a ciklusmag csak tömbindexelés és bitművelet, így a
+ * JIT jól optimalizálja.</p>
+ *
+ * <p>Ugyanazzal a lépéssorral egy játszma eredménye azonos a
+ * {@link Board} eredményével; a {@link #toBoard(int, char, char)} a
+ * lépéssort vissza is játssza egy táblára. A példány nem szálbiztos.</p>
+ */
+public final class BatchBoard {
+    /** A játszma folyamatban van. */
+    public static final int RUNNING = 0;
+
+    /** A kezdő játékos nyert. */
+    public static final int FIRST_WON = 1;
+
+    /** A második játékos nyert. */
+    public static final int SECOND_WON = 2;
+
+    /** A játszma döntetlen. */
+    public static final int DRAW = 3;
+
+    /** A splitmix64 keverés lépésköze. */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** A splitmix64 első szorzója. */
+    private static final long MIX_MULTIPLIER_1 = 0xBF58476D1CE4E5B9L;
+
+    /** A splitmix64 második szorzója. */
+    private static final long MIX_MULTIPLIER_2 = 0x94D049BB133111EBL;
+
+    /** A splitmix64 első eltolása. */
+    private static final int MIX_SHIFT_1 = 30;
+
+    /** A splitmix64 második eltolása. */
+    private static final int MIX_SHIFT_2 = 27;
+
+    /** A splitmix64 harmadik eltolása. */
+    private static final int MIX_SHIFT_3 = 31;
+
+    /** Az xorshift64* első eltolása. */
+    private static final int XORSHIFT_1 = 12;
+
+    /** Az xorshift64* második eltolása. */
+    private static final int XORSHIFT_2 = 25;
+
+    /** Az xorshift64* harmadik eltolása. */
+    private static final int XORSHIFT_3 = 27;
+
+    /** Az xorshift64* szorzója. */
+    private static final long XORSHIFT_MULTIPLIER = 0x2545F4914F6CDD1DL;
+
+    /** A játszmák száma. */
+    private final int games;
+
+    /** A tábla sorainak száma. */
+    private final int rows;
+
+    /** A tábla oszlopainak száma. */
+    private final int columns;
+
+    /** A nyeréshez szükséges sorozat hossza. */
+    private final int winLength;
+
+    /** Egy oszlop bitjeinek száma a bitmaszkban. */
+    private final int stride;
+
+    /** A tábla mezőinek száma. */
+    private final int cells;
+
+    /** Az oszlopok alsó mezőinek bitjei. */
+    private final long bottom;
+
+    /** A tábla összes mezőjének bitjei. */
+    private final long full;
+
+    /** A bitmaszk bitjeihez tartozó oszlopok. */
+    private final byte[] columnOfBit;
+
+    /** A bitmaszkok; a g. játszma két maszkja a 2g. és a 2g+1. elem. */
+    private final long[] masks;
+
+    /** Az oszlopmagasságok játszmánként egymás után. */
+    private final byte[] heights;
+
+    /** A játszmák lépésszáma. */
+    private final int[] moveCounts;
+
+    /** A lépő játékos maszkjának indexe (0 vagy 1) játszmánként. */
+    private final byte[] sideToMove;
+
+    /** A játszmák eredménye. */
+    private final byte[] results;
+
+    /** A lépéssorok oszlopai játszmánként egymás után. */
+    private final byte[] moves;
+
+    /** A véletlen lépések generátorainak állapota játszmánként. */
+    private final long[] randomStates;
+
+    /** A véletlen lépésekkel léptetett játszmák indexei; az első
+     * {@link #activeCount} elem érvényes. */
+    private final int[] active;
+
+    /** Az {@link #active} tömb érvényes elemeinek száma. */
+    private int activeCount;
+
+    /** A folyamatban lévő játszmák száma. */
+    private int running;
+
+    /**
+     * Konstruktor négyes sorozattal nyerő játszmákhoz.
+     *
+     * @param gamesParam   A játszmák száma.
+     * @param rowsParam    A tábla sorainak száma.
+     * @param columnsParam A tábla oszlopainak száma.
+     */
+    public BatchBoard(final int gamesParam, final int rowsParam,
+                      final int columnsParam) {
+        this(gamesParam, rowsParam, columnsParam,
+                Constants.DEFAULT_WIN_LENGTH);
+    }
+
+    /**
+     * Konstruktor a BatchBoard osztályhoz. Minden játszma üres táblával
+     * indul, és a véletlen lépések magja 0.
+     *
+     * @param gamesParam     A játszmák száma.
+     * @param rowsParam      A tábla sorainak száma.
+     * @param columnsParam   A tábla oszlopainak száma.
+     * @param winLengthParam A nyeréshez szükséges sorozat hossza.
+     * @throws IllegalArgumentException Ha a paraméterek érvénytelenek,
+     *                                  vagy a tábla nem fér el egy
+     *                                  {@code long} bitboardban.
+     */
+    public BatchBoard(final int gamesParam, final int rowsParam,
+                      final int columnsParam, final int winLengthParam) {
+        if (gamesParam < 1 || rowsParam < 1 || columnsParam < 1
+                || winLengthParam < 1) {
+            throw new IllegalArgumentException("Érvénytelen paraméterek.");
+        }
+        if ((long) (rowsParam + 1) * columnsParam > Long.SIZE) {
+            throw new IllegalArgumentException(
+                    "A tábla nem fér el egy bitboardban.");
+        }
+        this.games = gamesParam;
+        this.rows = rowsParam;
+        this.columns = columnsParam;
+        this.winLength = winLengthParam;
+        this.stride = rowsParam + 1;
+        this.cells = rowsParam * columnsParam;
+        long bottomBits = 0;
+        for (int col = 0; col < columnsParam; col++) {
+            bottomBits |= 1L << (col * stride);
+        }
+        this.bottom = bottomBits;
+        this.full = bottomBits * ((1L << rowsParam) - 1);
+        this.columnOfBit = new byte[Long.SIZE];
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            columnOfBit[bit] = (byte) (bit / stride);
+        }
+        this.masks = new long[2 * gamesParam];
+        this.heights = new byte[gamesParam * columnsParam];
+        this.moveCounts = new int[gamesParam];
+        this.sideToMove = new byte[gamesParam];
+        this.results = new byte[gamesParam];
+        this.moves = new byte[gamesParam * cells];
+        this.randomStates = new long[gamesParam];
+        this.active = new int[gamesParam];
+        reset(0L);
+    }
+
+    /**
+     * Minden játszmát üres táblára állít, és újra elindítja a véletlen
+     * lépések generátorait.
+     *
+     * @param seed A véletlen lépések magja; azonos maggal a játszmák
+     *             lépéssora azonos.
+     */
+    public void reset(final long seed) {
+        Arrays.fill(masks, 0L);
+        Arrays.fill(heights, (byte) 0);
+        Arrays.fill(moveCounts, 0);
+        Arrays.fill(sideToMove, (byte) 0);
+        Arrays.fill(results, (byte) RUNNING);
+        long state = seed;
+        for (int g = 0; g < games; g++) {
+            state += GOLDEN_GAMMA;
+            long z = state;
+            z = (z ^ (z >>> MIX_SHIFT_1)) * MIX_MULTIPLIER_1;
+            z = (z ^ (z >>> MIX_SHIFT_2)) * MIX_MULTIPLIER_2;
+            z ^= z >>> MIX_SHIFT_3;
+            // Az xorshift állapota nem lehet nulla
+            randomStates[g] = z == 0 ? GOLDEN_GAMMA : z;
+            active[g] = g;
+        }
+        activeCount = games;
+        running = games;
+    }
+
+    /**
+     * Megadja, hogy a játszmában lehet-e lépni az oszlopba.
+     *
+     * @param game   A játszma indexe.
+     * @param column Az oszlop.
+     * @return True, ha a játszma folyamatban van, és az oszlop nincs tele.
+     */
+    public boolean isColumnValid(final int game, final int column) {
+        return results[game] == RUNNING && column >= 0 && column < columns
+                && heights[game * columns + column] < rows;
+    }
+
+    /**
+     * Lép a játszmában a lépő játékossal.
+     *
+     * @param game   A játszma indexe.
+     * @param column Az oszlop.
+     * @return True, ha a lépés megtörtént; false, ha a játszma véget ért,
+     *         vagy az oszlop tele van.
+     * @throws IllegalArgumentException Ha az oszlop a táblán kívül esik.
+     */
+    public boolean play(final int game, final int column) {
+        if (column < 0 || column >= columns) {
+            throw new IllegalArgumentException("Invalid column index.");
+        }
+        if (!isColumnValid(game, column)) {
+            return false;
+        }
+        advance(game, 1L << (column * stride
+                + heights[game * columns + column]));
+        return true;
+    }
+
+    /**
+     * Minden folyamatban lévő játszmában megtesz egy egyenletes eloszlású
+     * véletlen szabályos lépést.
+     *
+     * @return A lépés után is folyamatban lévő játszmák száma.
+     */
+    public int stepRandom() {
+        int count = activeCount;
+        int i = 0;
+        while (i < count) {
+            int game = active[i];
+            if (results[game] == RUNNING && !stepRandom(game)) {
+                i++;
+            } else {
+                // A véget ért játszma helyére a lista utolsó eleme kerül
+                active[i] = active[--count];
+            }
+        }
+        activeCount = count;
+        return running;
+    }
+
+    /**
+     * Véletlen lépésekkel végigjátssza az összes folyamatban lévő
+     * játszmát.
+     *
+     * @return A megtett lépések száma.
+     */
+    public long playOutRandom() {
+        long before = totalMoves();
+        int left = running;
+        while (left > 0) {
+            left = stepRandom();
+        }
+        return totalMoves() - before;
+    }
+
+    /**
+     * Visszaadja a játszmák számát.
+     *
+     * @return A játszmák száma.
+     */
+    public int getGameCount() {
+        return games;
+    }
+
+    /**
+     * Visszaadja a folyamatban lévő játszmák számát.
+     *
+     * @return A játszmák száma.
+     */
+    public int getRunningCount() {
+        return running;
+    }
+
+    /**
+     * Visszaadja egy játszma eredményét.
+     *
+     * @param game A játszma indexe.
+     * @return {@link #RUNNING}, {@link #FIRST_WON}, {@link #SECOND_WON}
+     *         vagy {@link #DRAW}.
+     */
+    public int getResult(final int game) {
+        return results[game];
+    }
+
+    /**
+     * Megszámolja az adott eredményű játszmákat.
+     *
+     * @param result Az eredmény.
+     * @return A játszmák száma.
+     */
+    public int countResults(final int result) {
+        int count = 0;
+        for (int g = 0; g < games; g++) {
+            if (results[g] == result) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Visszaadja egy játszma lépésszámát.
+     *
+     * @param game A játszma indexe.
+     * @return A lépések száma.
+     */
+    public int getMoveCount(final int game) {
+        return moveCounts[game];
+    }
+
+    /**
+     * Visszaadja egy játszma egyik lépését.
+     *
+     * @param game  A játszma indexe.
+     * @param index A lépés sorszáma nullától.
+     * @return A lépés oszlopa.
+     */
+    public int getMove(final int game, final int index) {
+        if (index < 0 || index >= moveCounts[game]) {
+            throw new IndexOutOfBoundsException("Nincs ilyen lépés.");
+        }
+        return moves[game * cells + index];
+    }
+
+    /**
+     * Visszaadja a lépő játékos maszkjának indexét.
+     *
+     * @param game A játszma indexe.
+     * @return 0, ha a kezdő játékos lép, különben 1.
+     */
+    public int getSideToMove(final int game) {
+        return sideToMove[game];
+    }
+
+    /**
+     * Visszaadja egy játékos bitmaszkját a {@link Board} bitboard
+     * elrendezésében.
+     *
+     * @param game A játszma indexe.
+     * @param slot 0 a kezdő, 1 a második játékoshoz.
+     * @return A játékos tokenjeinek bitjei.
+     */
+    public long getMask(final int game, final int slot) {
+        return masks[2 * game + slot];
+    }
+
+    /**
+     * Visszajátssza egy játszma lépéssorát egy új táblára.
+     *
+     * @param game   A játszma indexe.
+     * @param first  A kezdő játékos tokenje.
+     * @param second A második játékos tokenje.
+     * @return A tábla a játszma jelenlegi állásában.
+     */
+    public Board toBoard(final int game, final char first,
+                         final char second) {
+        Board board = new Board(rows, columns, winLength, first, second);
+        for (int i = 0; i < moveCounts[game]; i++) {
+            board.placeToken(moves[game * cells + i],
+                    i % 2 == 0 ? first : second);
+        }
+        return board;
+    }
+
+    /**
+     * Megtesz egy véletlen szabályos lépést egy folyamatban lévő
+     * játszmában. A szabályos lépések mezői a foglalt mezők maszkjából
+     * egy összeadással adódnak; ezek közül a {@link Long#expand} választja
+     * ki a véletlen sorszámú bitet elágazás nélkül.
+     *
+     * @param game A játszma indexe.
+     * @return True, ha a lépéssel a játszma véget ért.
+     */
+    private boolean stepRandom(final int game) {
+        long x = randomStates[game];
+        x ^= x >>> XORSHIFT_1;
+        x ^= x << XORSHIFT_2;
+        x ^= x >>> XORSHIFT_3;
+        randomStates[game] = x;
+        long possible = (masks[2 * game] | masks[2 * game + 1]) + bottom
+                & full;
+        long pick = ((x * XORSHIFT_MULTIPLIER) >>> Integer.SIZE)
+                * Long.bitCount(possible) >>> Integer.SIZE;
+        long bit = Long.expand(1L << pick, possible);
+        return advance(game, bit);
+    }
+
+    /**
+     * Lerakja a lépő játékos tokenjét, és frissíti a játszma eredményét.
+     *
+     * @param game A játszma indexe.
+     * @param bit  Az oszlop legalsó szabad mezőjének bitje.
+     * @return True, ha a lépéssel a játszma véget ért.
+     */
+    private boolean advance(final int game, final long bit) {
+        int column = columnOfBit[Long.numberOfTrailingZeros(bit)];
+        int side = sideToMove[game];
+        int index = 2 * game + side;
+        long mask = masks[index] | bit;
+        masks[index] = mask;
+        heights[game * columns + column]++;
+        int count = moveCounts[game];
+        moves[game * cells + count] = (byte) column;
+        moveCounts[game] = count + 1;
+        sideToMove[game] = (byte) (side ^ 1);
+        // Nyerni legkorábban a kezdő játékos winLength-edik lépésével lehet
+        if (count >= 2 * winLength - 2
+                && Board.hasAlignment(mask, stride, winLength)) {
+            results[game] = (byte) (side == 0 ? FIRST_WON : SECOND_WON);
+        } else if (count + 1 == cells) {
+            results[game] = DRAW;
+        } else {
+            return false;
+        }
+        running--;
+        return true;
+    }
+
+    /**
+     * Visszaadja az összes játszma lépéseinek számát.
+     *
+     * @return A lépések száma.
+     */
+    private long totalMoves() {
+        long total = 0;
+        for (int g = 0; g < games; g++) {
+            total += moveCounts[g];
+        }
+        return total;
+    }
+}
@@ -1,9 +1,73 @@
 package com.connect4;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
 /**
  * A Board osztály felelős a Connect4 játék táblájának kezeléséért.
+ *
+ * <p>A tábla állapotát belül bitboard tárolja: játékosonként egy
+ * {@code long} maszk, ahol minden oszlop {@code rows + 1} bitet foglal (a
+ * legfelső egy őrbit), valamint oszloponkénti magasság-számlálók. A
+ * győzelem ellenőrzése minden lerakásnál csak az utolsó token játékosának
+ * vonalait nézi eltolás-és-ÉS műveletekkel, így nem foglal memóriát. Ha a
+ * tábla nem fér el 64 biten, egy cellatömbön a lerakott tokentől kifelé
+ * számolunk a négy irányban, így egy lépés ellenőrzése a tábla méretétől
+ * függetlenül O(K), ahol K a táblánként megadható nyerő sorozathossz
+ * (alapértelmezés szerint 4).</p>
+ *
+ * <p>A lépések egy veremben is tárolódnak, így a {@link #play(int)} és
+ * {@link #undo()} párokkal egy keresési fa memóriafoglalás és
+ * mátrixmásolás nélkül bejárható. A lépő játékos mindig az utolsó lépést
+ * tevő játékos ellenfele; az első lépéshez a tokeneket a
+ * {@link #Board(int, int, char, char)} konstruktorral lehet megadni.</p>
+ *
+ * <p>Minden lerakás és visszavonás inkrementálisan frissíti az állás
+ * Zobrist-kulcsát. A mezőnkénti kulcsokat SplitMix64 keverővel állítjuk elő
+ * a token karakteréből és a mező indexéből, így az azonos mátrixú táblák
+ * kulcsa a lépések sorrendjétől függetlenül megegyezik.</p>
+ *
+ * <p>A tábla a középső oszlopra tükrözött állás Zobrist-kulcsát és
+ * bitmaszkjait is lépésenként frissíti. A kettő közül a kisebbik kulcs
+ * ({@link #getCanonicalZobristKey()}) az állás és a tükörképe közös,
+ * kanonikus kulcsa: a gyorsítótárak és a nyitókönyv így a tükörállásokat
+ * egyetlen bejegyzésben tárolhatják. Ha a kanonikus alak a tükörkép
+ * ({@link #isMirrored()}), a tárolt lépéseket a
+ * {@link #mirrorColumn(int)} alakítja vissza.</p>
+ *
+ * <p>A {@link #getGrid()} által visszaadott mátrix adapterként továbbra is
+ * írható: a kiadása után a tábla minden lekérdezéskor összeveti a belső
+ * állapottal, és ha módosult, a bitboard újraépül a mátrixból. Ez
+ * lekérdezésenként a mátrix méretével arányos munka, ezért a keresők és
+ * a játék a mátrixot nem kérik el. Alátámasztás nélküli (lebegő)
+ * tokeneket a bitboard nem lát.</p>
  */
 public class Board {
+    /** A Zobrist-kulcsok keveréséhez használt aranymetszés-konstans. */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** A SplitMix64 első szorzója. */
+    private static final long MIX_MULTIPLIER_1 = 0xBF58476D1CE4E5B9L;
+
+    /** A SplitMix64 második szorzója. */
+    private static final long MIX_MULTIPLIER_2 = 0x94D049BB133111EBL;
+
+    /** A SplitMix64 első eltolása. */
+    private static final int MIX_SHIFT_1 = 30;
+
+    /** A SplitMix64 második eltolása. */
+    private static final int MIX_SHIFT_2 = 27;
+
+    /** A SplitMix64 harmadik eltolása. */
+    private static final int MIX_SHIFT_3 = 31;
+
+    /** A token karakterét a kulcsban a mezőindex fölé toló eltolás. */
+    private static final int TOKEN_SHIFT = 32;
+
+    /** A lépő fél kulcsához használt, egyetlen táblán sem létező mező. */
+    private static final int SIDE_CELL = Integer.MAX_VALUE;
+
     /** A táblázat sorainak száma. */
     private final int rows;
 
@@ -13,8 +77,8 @@ public class Board {
     /** A táblázat mátrixa. */
     private final char[][] grid;
 
-    /** A nyeréshez szükséges sorozatok száma. */
-    private static final int WINNING_COUNT = 4;
+    /** A nyeréshez szükséges, egy vonalban lévő tokenek száma. */
+    private final int winLength;
 
     /** HashCode mágikus szám. */
     private static final int HASH_MULTIPLIER = 31;
@@ -22,8 +86,63 @@ public class Board {
     /** A játékosok tokenjei. */
     private static final char EMPTY_SLOT = '\0';
 
-    /** Ellenőrzéshez szükséges mágikus számok. */
-    private static final int THREE = 3;
+    /** Egy oszlop által a bitboardban elfoglalt bitek száma (őrbittel). */
+    private final int stride;
+
+    /** Igaz, ha a tábla elfér egy {@code long} bitboardban. */
+    private final boolean bitboard;
+
+    /** A 64 bitbe nem férő táblák cellái oszloponként (0: üres). */
+    private final byte[] cells;
+
+    /** Az oszlopok legalsó bitjei a bitboardban (0, ha nem fér el). */
+    private final long bottomMask;
+
+    /** Oszloponként a lerakott tokenek száma. */
+    private final int[] heights;
+
+    /** A két játékos bitmaszkja, a tokenjük megjelenési sorrendjében. */
+    private final long[] masks = new long[2];
+
+    /** A két bitmaszkhoz tartozó token (üres, ha még nincs hozzárendelve). */
+    private final char[] slotTokens = new char[2];
+
+    /** Igaz, ha a tokeneket a konstruktor rögzítette. */
+    private boolean tokensPreset;
+
+    /** Bitmaszkonként a táblán lévő tokenek száma. */
+    private final int[] slotCounts = new int[2];
+
+    /** A kezdő játékos bitmaszkjának indexe. */
+    private int firstSlot;
+
+    /** A lépések verme: elemenként {@code oszlop << 1 | maszkindex}. */
+    private final int[] moveStack;
+
+    /** A táblán lévő tokenek (és a veremben lévő lépések) száma. */
+    private int tokenCount;
+
+    /** Az állás inkrementálisan frissített Zobrist-kulcsa. */
+    private long zobristKey;
+
+    /** A tükrözött állás inkrementálisan frissített Zobrist-kulcsa. */
+    private long mirrorZobristKey;
+
+    /** A tükrözött állás két bitmaszkja (0, ha nem fér el). */
+    private final long[] mirrorMasks = new long[2];
+
+    /** A tokenek száma az első nyerő lerakás után (0: nincs győztes). */
+    private int winPly;
+
+    /**
+     * Igaz, ha a mátrixot kiadtuk, így kívülről bármikor módosulhat. A
+     * jelző nem törlődik: a kiadott hivatkozás a tábla élete végéig
+     * írható marad.
+     */
+    private boolean gridExposed;
+
+    /** A {@link #displayBoard()} újrahasznált kirajzolója, vagy null. */
+    private BoardRenderer renderer;
 
     /**
      * Konstruktor a Board osztályhoz.
@@ -32,9 +151,120 @@ public class Board {
      * @param columnsParam Az oszlopok száma a táblán.
      */
     public Board(final int rowsParam, final int columnsParam) {
+        this(rowsParam, columnsParam, Constants.DEFAULT_WIN_LENGTH);
+    }
+
+    /**
+     * Konstruktor egyedi nyerő sorozathosszal (például ötös vagy hatos
+     * változatokhoz nagy táblán).
+     *
+     * @param rowsParam      A sorok száma a táblán.
+     * @param columnsParam   Az oszlopok száma a táblán.
+     * @param winLengthParam A nyeréshez szükséges tokenek száma egy
+     *                       vonalban.
+     */
+    public Board(final int rowsParam, final int columnsParam,
+                 final int winLengthParam) {
+        if (winLengthParam < 1) {
+            throw new IllegalArgumentException("Invalid win length.");
+        }
+        this.winLength = winLengthParam;
         this.rows = rowsParam;
         this.columns = columnsParam;
         this.grid = new char[rows][columns];
+        this.stride = rows + 1;
+        this.bitboard = (long) stride * columns <= Long.SIZE;
+        this.cells = bitboard ? null : new byte[rows * columns];
+        this.heights = new int[columns];
+        this.moveStack = new int[rows * columns];
+        long bottom = 0L;
+        for (int col = 0; bitboard && col < columns; col++) {
+            bottom |= 1L << (col * stride);
+        }
+        this.bottomMask = bottom;
+    }
+
+    /**
+     * Konstruktor rögzített tokenekkel, hogy a {@link #play(int)} már az
+     * első lépéstől használható legyen.
+     *
+     * @param rowsParam    A sorok száma a táblán.
+     * @param columnsParam Az oszlopok száma a táblán.
+     * @param firstToken   A kezdő játékos tokenje.
+     * @param secondToken  A második játékos tokenje.
+     */
+    public Board(final int rowsParam, final int columnsParam,
+                 final char firstToken, final char secondToken) {
+        this(rowsParam, columnsParam, Constants.DEFAULT_WIN_LENGTH,
+                firstToken, secondToken);
+    }
+
+    /**
+     * Konstruktor egyedi nyerő sorozathosszal és rögzített tokenekkel.
+     *
+     * @param rowsParam      A sorok száma a táblán.
+     * @param columnsParam   Az oszlopok száma a táblán.
+     * @param winLengthParam A nyeréshez szükséges tokenek száma egy
+     *                       vonalban.
+     * @param firstToken     A kezdő játékos tokenje.
+     * @param secondToken    A második játékos tokenje.
+     */
+    public Board(final int rowsParam, final int columnsParam,
+                 final int winLengthParam, final char firstToken,
+                 final char secondToken) {
+        this(rowsParam, columnsParam, winLengthParam);
+        if (firstToken == EMPTY_SLOT || secondToken == EMPTY_SLOT
+                || firstToken == secondToken) {
+            throw new IllegalArgumentException("Invalid token.");
+        }
+        slotTokens[0] = firstToken;
+        slotTokens[1] = secondToken;
+        tokensPreset = true;
+    }
+
+    /**
+     * Másoló konstruktor; a {@link #copy()} használja.
+     *
+     * @param other A lemásolandó, szinkronizált tábla.
+     */
+    private Board(final Board other) {
+        this.winLength = other.winLength;
+        this.rows = other.rows;
+        this.columns = other.columns;
+        this.grid = new char[rows][];
+        for (int row = 0; row < rows; row++) {
+            grid[row] = other.grid[row].clone();
+        }
+        this.stride = other.stride;
+        this.bitboard = other.bitboard;
+        this.cells = other.cells == null ? null : other.cells.clone();
+        this.bottomMask = other.bottomMask;
+        this.heights = other.heights.clone();
+        this.moveStack = other.moveStack.clone();
+        this.tokensPreset = other.tokensPreset;
+        this.firstSlot = other.firstSlot;
+        System.arraycopy(other.slotCounts, 0, slotCounts, 0,
+                slotCounts.length);
+        System.arraycopy(other.masks, 0, masks, 0, masks.length);
+        System.arraycopy(other.mirrorMasks, 0, mirrorMasks, 0,
+                mirrorMasks.length);
+        System.arraycopy(other.slotTokens, 0, slotTokens, 0,
+                slotTokens.length);
+        this.tokenCount = other.tokenCount;
+        this.zobristKey = other.zobristKey;
+        this.mirrorZobristKey = other.mirrorZobristKey;
+        this.winPly = other.winPly;
+    }
+
+    /**
+     * Független másolatot készít a tábláról, például a párhuzamos
+     * keresés szálai számára.
+     *
+     * @return A tábla másolata.
+     */
+    public Board copy() {
+        syncFromGrid();
+        return new Board(this);
     }
 
     /**
@@ -48,22 +278,26 @@ public class Board {
         if (column < 0 || column >= columns) {
             throw new IllegalArgumentException("Invalid column index.");
         }
-
-        for (int row = rows - 1; row >= 0; row--) {
-            if (grid[row][column] == EMPTY_SLOT) {
-                grid[row][column] = token;
-                return true;
-            }
+        syncFromGrid();
+        if (heights[column] >= rows) {
+            return false; // Oszlop tele van
         }
-        return false; // Oszlop tele van
+        place(column, assignSlot(token));
+        return true;
     }
 
     /**
      * Visszaadja a táblázatot.
      *
+     * <p>A mátrix írható; a módosításokat a tábla a következő
+     * lekérdezéskor átveszi, akárhányszor írnak bele. A kiadás után
+     * minden lekérdezés összeveti a mátrixot a belső állapottal, ezért
+     * csak olvasáshoz a sorok és oszlopok szerinti lekérdezés olcsóbb.</p>
+     *
      * @return A táblázat mátrixa.
      */
     public char[][] getGrid() {
+        gridExposed = true;
         return grid;
     }
 
@@ -76,6 +310,15 @@ public class Board {
         return rows;
     }
 
+    /**
+     * Visszaadja a nyeréshez szükséges, egy vonalban lévő tokenek számát.
+     *
+     * @return A nyerő sorozat hossza.
+     */
+    public int getWinLength() {
+        return winLength;
+    }
+
     /**
      * Visszaadja a táblázat oszlopainak számát.
      *
@@ -92,9 +335,11 @@ public class Board {
      * @return True, ha az oszlop érvényes, különben false.
      */
     public boolean isColumnValid(final int column) {
-        return column >= 0
-                && column < columns
-                && grid[0][column] == EMPTY_SLOT; // Az első sor ellenőrzése
+        if (column < 0 || column >= columns) {
+            return false;
+        }
+        syncFromGrid();
+        return heights[column] < rows;
     }
 
     /**
@@ -103,92 +348,679 @@ public class Board {
      * @return True, ha a tábla tele van, különben false.
      */
     public boolean isFull() {
-        for (int col = 0; col < columns; col++) {
-            if (grid[0][col] == EMPTY_SLOT) {
-                return false; // Ha bármelyik oszlopban van üres hely, nem tele
-            }
-        }
-        return true; // Minden oszlop tele van
+        syncFromGrid();
+        return tokenCount == rows * columns;
     }
 
     /**
      * Ellenőrzi, hogy van-e győztes a táblázatban.
      *
+     * <p>A nyerő sorozatot már a lerakáskor felismerjük, így a hívás
+     * állandó idejű.</p>
+     *
      * @return True, ha van győztes, különben false.
      */
     public boolean checkWin() {
-        // Ellenőrzés vízszintesen
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col <= columns - WINNING_COUNT; col++) {
-                if (grid[row][col] != EMPTY_SLOT) {
-                    if (grid[row][col] == grid[row][col + 1]
-                            && grid[row][col] == grid[row][col + 2]
-                            && grid[row][col] == grid[row][col + THREE]) {
-                        return true;
-                    }
+        syncFromGrid();
+        return winPly != 0;
+    }
+
+    /**
+     * Lerakja a megadott játékos tokenjét egy nem teli oszlopba.
+     *
+     * @param column Az oszlop.
+     * @param slot   A játékos bitmaszkjának indexe (0 vagy 1).
+     */
+    private void place(final int column, final int slot) {
+        int height = heights[column];
+        grid[rows - 1 - height][column] = slotTokens[slot];
+        heights[column] = height + 1;
+        moveStack[tokenCount] = column << 1 | slot;
+        if (tokenCount == 0 && !tokensPreset) {
+            firstSlot = slot;
+        }
+        slotCounts[slot]++;
+        tokenCount++;
+        int mirror = columns - 1 - column;
+        zobristKey ^= zobrist(slotTokens[slot], column * rows + height);
+        mirrorZobristKey ^= zobrist(slotTokens[slot], mirror * rows + height);
+        boolean aligned;
+        if (bitboard) {
+            masks[slot] |= 1L << (column * stride + height);
+            mirrorMasks[slot] |= 1L << (mirror * stride + height);
+            aligned = hasAlignment(masks[slot], stride, winLength);
+        } else {
+            cells[column * rows + height] = (byte) (slot + 1);
+            aligned = isLineThrough(column, height);
+        }
+        if (aligned && winPly == 0) {
+            winPly = tokenCount;
+        }
+    }
+
+    /**
+     * Lerakja a megadott játékos tokenjét. A keresőmotor használja a
+     * táblán helyben végzett lépésekhez; az oszlopnak érvényesnek kell
+     * lennie.
+     *
+     * @param column Az oszlop.
+     * @param slot   A játékos bitmaszkjának indexe (0 vagy 1).
+     */
+    void play(final int column, final int slot) {
+        syncFromGrid();
+        place(column, slot);
+    }
+
+    /**
+     * A lépő játékos tokenjét lerakja a megadott oszlopba, és a lépést a
+     * verembe teszi.
+     *
+     * @param column Az oszlop, ahova a token kerül.
+     * @return True, ha a token sikeresen elhelyezve, false, ha az oszlop
+     *         tele van.
+     * @throws IllegalStateException Ha a lépő játékos tokenje még nem
+     *                               ismert.
+     */
+    public boolean play(final int column) {
+        if (column < 0 || column >= columns) {
+            throw new IllegalArgumentException("Invalid column index.");
+        }
+        syncFromGrid();
+        int slot = sideToMove();
+        if (slotTokens[slot] == EMPTY_SLOT) {
+            throw new IllegalStateException(
+                    "A lépő játékos tokenje nem ismert.");
+        }
+        if (heights[column] >= rows) {
+            return false; // Oszlop tele van
+        }
+        place(column, slot);
+        return true;
+    }
+
+    /**
+     * Visszavonja az utolsó lépést.
+     *
+     * @throws IllegalStateException Ha a tábla üres.
+     */
+    public void undo() {
+        syncFromGrid();
+        if (tokenCount == 0) {
+            throw new IllegalStateException("Nincs visszavonható lépés.");
+        }
+        tokenCount--;
+        int move = moveStack[tokenCount];
+        int column = move >>> 1;
+        int slot = move & 1;
+        slotCounts[slot]--;
+        int height = heights[column] - 1;
+        heights[column] = height;
+        grid[rows - 1 - height][column] = EMPTY_SLOT;
+        int mirror = columns - 1 - column;
+        if (bitboard) {
+            masks[slot] &= ~(1L << (column * stride + height));
+            mirrorMasks[slot] &= ~(1L << (mirror * stride + height));
+        } else {
+            cells[column * rows + height] = 0;
+        }
+        zobristKey ^= zobrist(slotTokens[slot], column * rows + height);
+        mirrorZobristKey ^= zobrist(slotTokens[slot], mirror * rows + height);
+        if (tokenCount < winPly) {
+            winPly = 0;
+        }
+    }
+
+    /**
+     * Visszaadja a táblán lévő lépések számát.
+     *
+     * @return A lépések száma.
+     */
+    public int moveCount() {
+        syncFromGrid();
+        return tokenCount;
+    }
+
+    /**
+     * Visszaadja a megadott sorszámú lépés oszlopát. A {@link #getGrid()}
+     * mátrixán végzett módosítás után a lépéseket a tábla oszloponként,
+     * alulról felfelé sorolja fel.
+     *
+     * @param index A lépés sorszáma (0-tól).
+     * @return A lépés oszlopa.
+     */
+    public int getMove(final int index) {
+        syncFromGrid();
+        if (index < 0 || index >= tokenCount) {
+            throw new IndexOutOfBoundsException("Nincs ilyen lépés: " + index);
+        }
+        return moveStack[index] >>> 1;
+    }
+
+    /**
+     * Visszaadja a lépő játékos tokenjét: a kevesebb tokennel rendelkező
+     * játékosét, egyenlő számnál (így üres táblán is) a kezdő játékosét.
+     * A kezdő játékos a rögzített tokenű táblán az első token, egyébként
+     * az üres táblára elsőként lépő játékos; a mátrixból újraépített
+     * táblán egyenlő számnál a korábbi kezdő marad.
+     *
+     * @return A lépő token, vagy '\0', ha még nem ismert.
+     */
+    public char getTokenToMove() {
+        syncFromGrid();
+        return slotTokens[sideToMove()];
+    }
+
+    /**
+     * Visszaadja a lépő játékos bitmaszkjának indexét a
+     * {@link #getTokenToMove()} szabálya szerint. A megoldók ebből tudják
+     * meg, melyik maszk lép, akkor is, ha a mátrixból újraépített táblán
+     * nem a 0. maszk tulajdonosa kezdett.
+     *
+     * @return A maszk indexe (0 vagy 1).
+     */
+    int sideToMove() {
+        syncFromGrid();
+        int second = 1 - firstSlot;
+        return slotCounts[firstSlot] > slotCounts[second] ? second
+                : firstSlot;
+    }
+
+    /**
+     * Ellenőrzi, hogy a megadott játékos nyerne-e, ha ebbe az oszlopba
+     * lépne. A táblát nem módosítja; az oszlopnak érvényesnek kell lennie.
+     *
+     * @param column Az oszlop.
+     * @param slot   A játékos bitmaszkjának indexe (0 vagy 1).
+     * @return True, ha a lépés nyerő sorozatot hozna létre.
+     */
+    boolean isWinningMove(final int column, final int slot) {
+        syncFromGrid();
+        int height = heights[column];
+        if (bitboard) {
+            return hasAlignment(masks[slot]
+                    | 1L << (column * stride + height), stride, winLength);
+        }
+        int index = column * rows + height;
+        cells[index] = (byte) (slot + 1);
+        boolean aligned = isLineThrough(column, height);
+        cells[index] = 0;
+        return aligned;
+    }
+
+    /**
+     * Visszaadja az állás Zobrist-kulcsát. Azonos mátrixú táblák kulcsa
+     * megegyezik; a kulcs lépésenként állandó időben frissül.
+     *
+     * @return A 64 bites Zobrist-kulcs.
+     */
+    public long getZobristKey() {
+        syncFromGrid();
+        return zobristKey;
+    }
+
+    /**
+     * Visszaadja a középső oszlopra tükrözött állás Zobrist-kulcsát.
+     *
+     * @return A tükörkép 64 bites Zobrist-kulcsa.
+     */
+    public long getMirroredZobristKey() {
+        syncFromGrid();
+        return mirrorZobristKey;
+    }
+
+    /**
+     * Visszaadja az állás és a tükörképe közös, kanonikus kulcsát: a két
+     * Zobrist-kulcs közül a kisebbiket.
+     *
+     * @return A kanonikus 64 bites kulcs.
+     */
+    public long getCanonicalZobristKey() {
+        syncFromGrid();
+        return Math.min(zobristKey, mirrorZobristKey);
+    }
+
+    /**
+     * Megadja, hogy a kanonikus alak a tükörkép-e. Ilyenkor a kanonikus
+     * kulccsal tárolt lépéseket tükrözni kell.
+     *
+     * @return True, ha a tükrözött kulcs a kisebb.
+     */
+    public boolean isMirrored() {
+        syncFromGrid();
+        return mirrorZobristKey < zobristKey;
+    }
+
+    /**
+     * Visszaadja az oszlop tükörképét a középső oszlopra.
+     *
+     * @param column Az oszlop.
+     * @return A tükrözött oszlop.
+     */
+    public int mirrorColumn(final int column) {
+        return columns - 1 - column;
+    }
+
+    /**
+     * Megadja, hogy a tábla elfér-e egy {@code long} bitboardban.
+     *
+     * @return True, ha a {@link #getMask(int)} használható.
+     */
+    boolean isBitboard() {
+        return bitboard;
+    }
+
+    /**
+     * Visszaadja egy játékos bitmaszkját a kiértékelők számára.
+     *
+     * @param slot A bitmaszk indexe (0 vagy 1).
+     * @return A játékos tokenjeinek bitjei (0, ha a tábla nem bitboard).
+     */
+    long getMask(final int slot) {
+        syncFromGrid();
+        return masks[slot];
+    }
+
+    /**
+     * Visszaadja egy játékos bitmaszkját a tükrözött állásban.
+     *
+     * @param slot A bitmaszk indexe (0 vagy 1).
+     * @return A tükrözött tokenek bitjei (0, ha a tábla nem bitboard).
+     */
+    long getMirroredMask(final int slot) {
+        syncFromGrid();
+        return mirrorMasks[slot];
+    }
+
+    /**
+     * Visszaadja az oszlopok legalsó bitjeit.
+     *
+     * @return Az alsó sor maszkja (0, ha a tábla nem bitboard).
+     */
+    long getBottomMask() {
+        return bottomMask;
+    }
+
+    /**
+     * Visszaadja az állás tömör kulcsát: oszloponként a legfelső token
+     * fölötti bit jelzi a magasságot, alatta az egyesek a megadott
+     * bitmaszk tokenjeit. A kulcs a két token sorrendjével együtt
+     * egyértelműen azonosítja az állást.
+     *
+     * @param slot A kulcsban egyessel jelölt bitmaszk indexe (0 vagy 1),
+     *             vagy -1, ha az egyessel jelölt tokennek még nincs
+     *             maszkja.
+     * @return A 64 bites pozíciókulcs.
+     * @throws IllegalArgumentException Ha a tábla nem fér el 64 biten.
+     */
+    long positionKey(final int slot) {
+        if (!bitboard) {
+            throw new IllegalArgumentException(
+                    "A tábla nem fér el 64 biten.");
+        }
+        syncFromGrid();
+        long own = slot < 0 ? 0L : masks[slot];
+        return own + (masks[0] | masks[1]) + bottomMask;
+    }
+
+    /**
+     * Visszaadja a tükrözött állás tömör kulcsát a
+     * {@link #positionKey(int)} szerkezetével.
+     *
+     * @param slot A kulcsban egyessel jelölt bitmaszk indexe (0 vagy 1),
+     *             vagy -1, ha az egyessel jelölt tokennek még nincs
+     *             maszkja.
+     * @return A tükörkép 64 bites pozíciókulcsa.
+     * @throws IllegalArgumentException Ha a tábla nem fér el 64 biten.
+     */
+    long mirroredPositionKey(final int slot) {
+        if (!bitboard) {
+            throw new IllegalArgumentException(
+                    "A tábla nem fér el 64 biten.");
+        }
+        syncFromGrid();
+        long own = slot < 0 ? 0L : mirrorMasks[slot];
+        return own + (mirrorMasks[0] | mirrorMasks[1]) + bottomMask;
+    }
+
+    /**
+     * Visszaadja a lépő fél Zobrist-értékét, amelyet a keresők az állás
+     * kulcsához kevernek. A tokenhez tartozik, nem a maszk indexéhez, így
+     * a két fél kulcsa akkor is különbözik, ha a tokenek maszkjai más
+     * sorrendben jöttek létre.
+     *
+     * @param slot A lépő játékos bitmaszkjának indexe (0 vagy 1).
+     * @return A lépő token értéke.
+     */
+    long sideKey(final int slot) {
+        return zobrist(slotTokens[slot], SIDE_CELL);
+    }
+
+    /**
+     * Kiszámítja egy token egy mezőjéhez tartozó Zobrist-értéket.
+     *
+     * @param token A token karaktere.
+     * @param cell  A mező indexe (oszlop * sorok + magasság).
+     * @return A mezőhöz tartozó véletlenszerű 64 bites érték.
+     */
+    private static long zobrist(final char token, final int cell) {
+        long z = ((long) token << TOKEN_SHIFT | cell) * GOLDEN_GAMMA
+                + GOLDEN_GAMMA;
+        z = (z ^ (z >>> MIX_SHIFT_1)) * MIX_MULTIPLIER_1;
+        z = (z ^ (z >>> MIX_SHIFT_2)) * MIX_MULTIPLIER_2;
+        return z ^ (z >>> MIX_SHIFT_3);
+    }
+
+    /**
+     * Visszaadja a tokenhez tartozó bitmaszk indexét. A táblát nem
+     * módosítja.
+     *
+     * @param token A játékos tokenje.
+     * @return A maszk indexe (0 vagy 1), vagy -1, ha a tokenhez még nem
+     *         tartozik maszk.
+     */
+    int slotOf(final char token) {
+        syncFromGrid();
+        return findSlot(token);
+    }
+
+    /**
+     * Visszaadja a tokenhez tartozó bitmaszk indexét, szükség esetén
+     * hozzárendelve a következő szabad maszkot. Csak a tokent lerakó
+     * hívók használják: a {@link #placeToken(int, char)} és a
+     * keresőmotorok, mielőtt a táblán a token nevében lépnének.
+     *
+     * @param token A játékos tokenje.
+     * @return A maszk indexe (0 vagy 1).
+     * @throws IllegalArgumentException Ha a token érvénytelen, vagy a
+     *                                  táblán már két másik token van.
+     */
+    int bindSlot(final char token) {
+        syncFromGrid();
+        return assignSlot(token);
+    }
+
+    /**
+     * Megadja, hogy van-e még tokenhez nem rendelt bitmaszk. A táblát nem
+     * módosítja.
+     *
+     * @return True, ha egy új token még kaphatna maszkot.
+     */
+    boolean hasFreeSlot() {
+        syncFromGrid();
+        return slotTokens[slotTokens.length - 1] == EMPTY_SLOT;
+    }
+
+    /**
+     * Megkeresi a tokenhez tartozó bitmaszkot, szinkronizálás nélkül.
+     *
+     * @param token A játékos tokenje.
+     * @return A maszk indexe (0 vagy 1), vagy -1, ha nincs ilyen.
+     */
+    private int findSlot(final char token) {
+        if (token != EMPTY_SLOT) {
+            for (int slot = 0; slot < slotTokens.length; slot++) {
+                if (slotTokens[slot] == token) {
+                    return slot;
                 }
             }
         }
+        return -1;
+    }
 
-        // Ellenőrzés függőlegesen
-        for (int col = 0; col < columns; col++) {
-            for (int row = 0; row <= rows - WINNING_COUNT; row++) {
-                if (grid[row][col] != EMPTY_SLOT) {
-                    if (grid[row][col] == grid[row + 1][col]
-                            && grid[row][col] == grid[row + 2][col]
-                            && grid[row][col] == grid[row + THREE][col]) {
-                        return true;
-                    }
-                }
+    /**
+     * Visszaadja a tokenhez tartozó bitmaszk indexét, szükség esetén
+     * hozzárendelve a következő szabad maszkot, szinkronizálás nélkül.
+     *
+     * @param token A játékos tokenje.
+     * @return A maszk indexe (0 vagy 1).
+     */
+    private int assignSlot(final char token) {
+        if (token == EMPTY_SLOT) {
+            throw new IllegalArgumentException("Invalid token.");
+        }
+        for (int slot = 0; slot < slotTokens.length; slot++) {
+            if (slotTokens[slot] == token) {
+                return slot;
+            }
+            if (slotTokens[slot] == EMPTY_SLOT) {
+                slotTokens[slot] = token;
+                return slot;
             }
         }
+        throw new IllegalArgumentException(
+                "A táblán legfeljebb két különböző token lehet.");
+    }
+
+    /**
+     * Eltolás-és-ÉS művelettel ellenőrzi, hogy a maszkban van-e
+     * {@code winLength} egymás melletti bit valamelyik irányban. A négy
+     * irányt elágazás nélkül, együtt vizsgálja. A {@link Tablebase} és a
+     * {@link BatchBoard} is ezt használja.
+     *
+     * @param mask      Egy játékos bitmaszkja.
+     * @param stride    Egy oszlop bitjeinek száma (sorok + 1 őrbit).
+     * @param winLength A nyerő sorozat hossza.
+     * @return True, ha van nyerő sorozat.
+     */
+    static boolean hasAlignment(final long mask, final int stride,
+                                final int winLength) {
+        // Irányok: függőleges, vízszintes és a két átló
+        return (runStarts(mask, 1, winLength)
+                | runStarts(mask, stride, winLength)
+                | runStarts(mask, stride - 1, winLength)
+                | runStarts(mask, stride + 1, winLength)) != 0;
+    }
+
+    /**
+     * Ellenőrzi, hogy a maszkban van-e {@code winLength} bit
+     * {@code shift} távolságra egymástól.
+     *
+     * @param mask      Egy játékos bitmaszkja.
+     * @param shift     Az irányhoz tartozó biteltolás.
+     * @param winLength A nyerő sorozat hossza.
+     * @return True, ha van nyerő sorozat ebben az irányban.
+     */
+    static boolean hasRun(final long mask, final int shift,
+                          final int winLength) {
+        return runStarts(mask, shift, winLength) != 0;
+    }
+
+    /**
+     * Visszaadja egy irány {@code winLength} hosszú sorozatainak
+     * kezdőbitjeit. A sorozathosszt duplázva haladunk, így a költség
+     * O(log K); a szokásos négyes sorozatot ciklus nélkül vizsgálja. Az
+     * őrbitek miatt az oszlopok közötti átfedés kizárt.
+     *
+     * @param mask      Egy játékos bitmaszkja.
+     * @param shift     Az irányhoz tartozó biteltolás.
+     * @param winLength A nyerő sorozat hossza.
+     * @return A sorozatok kezdőbitjei (0, ha nincs ilyen).
+     */
+    private static long runStarts(final long mask, final int shift,
+                                  final int winLength) {
+        if (winLength == Constants.DEFAULT_WIN_LENGTH) {
+            long pairs = mask & mask >>> shift;
+            return pairs & pairs >>> 2 * shift;
+        }
+        // A runs i. bitje akkor 1, ha onnan length hosszú sorozat indul
+        long runs = mask;
+        int length = 1;
+        while (length * 2 <= winLength) {
+            runs &= runs >>> (length * shift);
+            length *= 2;
+        }
+        if (length < winLength) {
+            runs &= runs >>> ((winLength - length) * shift);
+        }
+        return runs;
+    }
+
+    /**
+     * Az utolsó lerakott tokentől kifelé számolva ellenőrzi a négy irányt.
+     * Csak a bitboardba nem férő tábláknál használjuk.
+     *
+     * @param column Az utolsó token oszlopa.
+     * @param height Az utolsó token magassága alulról.
+     * @return True, ha a token egy nyerő sorozat része.
+     */
+    private boolean isLineThrough(final int column, final int height) {
+        return countLine(column, height, 0, 1) >= winLength
+                || countLine(column, height, 1, 0) >= winLength
+                || countLine(column, height, 1, 1) >= winLength
+                || countLine(column, height, 1, -1) >= winLength;
+    }
 
-        // Ellenőrzés átlósan (\)
-        for (int row = 0; row <= rows - WINNING_COUNT; row++) {
-            for (int col = 0; col <= columns - WINNING_COUNT; col++) {
-                if (grid[row][col] != EMPTY_SLOT) {
-                    if (grid[row][col] == grid[row + 1][col + 1]
-                            && grid[row][col] == grid[row + 2][col + 2]
-                            && grid[row][col] == grid[row + THREE]
-                            [col + THREE]) {
-                        return true;
-                    }
+    /**
+     * Megszámolja az azonos tokeneket egy irányban mindkét oldalra.
+     *
+     * @param column Az induló oszlop.
+     * @param height Az induló magasság alulról.
+     * @param dCol   Az oszlopirányú lépés.
+     * @param dRow   A magasságirányú lépés.
+     * @return Az egy vonalban lévő azonos tokenek száma.
+     */
+    private int countLine(final int column, final int height,
+                          final int dCol, final int dRow) {
+        byte cell = cells[column * rows + height];
+        return 1 + countDirection(column, height, dCol, dRow, cell)
+                + countDirection(column, height, -dCol, -dRow, cell);
+    }
+
+    /**
+     * Megszámolja az azonos tokeneket egy irányban, legfeljebb a nyeréshez
+     * szükséges hosszig.
+     *
+     * @param column Az induló oszlop.
+     * @param height Az induló magasság alulról.
+     * @param dCol   Az oszlopirányú lépés.
+     * @param dRow   A magasságirányú lépés.
+     * @param cell   A keresett cellaérték.
+     * @return Az azonos tokenek száma az induló mezőn kívül.
+     */
+    private int countDirection(final int column, final int height,
+                               final int dCol, final int dRow,
+                               final byte cell) {
+        int count = 0;
+        int col = column + dCol;
+        int h = height + dRow;
+        while (count < winLength - 1
+                && col >= 0 && col < columns && h >= 0 && h < rows
+                && cells[col * rows + h] == cell) {
+            count++;
+            col += dCol;
+            h += dRow;
+        }
+        return count;
+    }
+
+    /**
+     * Ellenőrzi, hogy a mátrix tartalma megegyezik-e a belső állapottal.
+     *
+     * @return True, ha a mátrixot kívülről nem módosították.
+     */
+    private boolean gridMatchesState() {
+        for (int col = 0; col < columns; col++) {
+            for (int height = 0; height < rows; height++) {
+                char expected = EMPTY_SLOT;
+                if (height < heights[col]) {
+                    expected = slotTokens[slotAt(col, height)];
+                }
+                if (grid[rows - 1 - height][col] != expected) {
+                    return false;
                 }
             }
         }
+        return true;
+    }
 
-        // Ellenőrzés átlósan (/)
-        for (int row = WINNING_COUNT - 1; row < rows; row++) {
-            for (int col = 0; col <= columns - WINNING_COUNT; col++) {
-                if (grid[row][col] != EMPTY_SLOT) {
-                    if (grid[row][col] == grid[row - 1][col + 1]
-                            && grid[row][col] == grid[row - 2][col + 2]
-                            && grid[row][col] == grid[row - WINNING_COUNT + 1]
-                            [col + WINNING_COUNT - 1]) {
-                        return true;
-                    }
+    /**
+     * Visszaadja egy foglalt mező tokenjének bitmaszk-indexét.
+     *
+     * @param column Az oszlop.
+     * @param height A magasság alulról.
+     * @return A maszk indexe (0 vagy 1).
+     */
+    private int slotAt(final int column, final int height) {
+        if (bitboard) {
+            return (masks[0] & 1L << (column * stride + height)) != 0 ? 0 : 1;
+        }
+        return cells[column * rows + height] - 1;
+    }
+
+    /**
+     * Újraépíti a bitboardot a mátrixból, ha azt kiadtuk a
+     * {@link #getGrid()} hívással, és közben módosult. A csak olvasott
+     * mátrix a lépésvermet nem érinti.
+     */
+    private void syncFromGrid() {
+        if (!gridExposed || gridMatchesState()) {
+            return; // A mátrix nem módosult; a lépésverem megmarad
+        }
+        char firstToken = slotTokens[firstSlot];
+        masks[0] = 0L;
+        masks[1] = 0L;
+        mirrorMasks[0] = 0L;
+        mirrorMasks[1] = 0L;
+        if (!tokensPreset) {
+            slotTokens[0] = EMPTY_SLOT;
+            slotTokens[1] = EMPTY_SLOT;
+        }
+        tokenCount = 0;
+        slotCounts[0] = 0;
+        slotCounts[1] = 0;
+        zobristKey = 0L;
+        mirrorZobristKey = 0L;
+        winPly = 0;
+        if (cells != null) {
+            Arrays.fill(cells, (byte) 0);
+        }
+        for (int col = 0; col < columns; col++) {
+            heights[col] = 0;
+            for (int row = rows - 1; row >= 0; row--) {
+                char token = grid[row][col];
+                if (token == EMPTY_SLOT) {
+                    break;
                 }
+                place(col, assignSlot(token));
+            }
+        }
+        if (!tokensPreset) {
+            // Egyenlő számnál a korábbi kezdő játékos marad a kezdő
+            int known = findSlot(firstToken);
+            if (slotCounts[0] != slotCounts[1]) {
+                firstSlot = slotCounts[0] > slotCounts[1] ? 0 : 1;
+            } else {
+                firstSlot = known < 0 ? 0 : known;
             }
         }
-
-        return false; // Nincs győztes
     }
 
     /**
-     * Kiírja a táblát a konzolra.
+     * Kiírja a táblát a konzolra, képkockánként egyetlen írással.
      */
     public void displayBoard() {
-        System.out.println("Tábla:");
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < columns; col++) {
-                char displayChar = (grid[row][col] == EMPTY_SLOT)
-                        ? '.' : grid[row][col];
-                System.out.print(displayChar + " ");
-            }
-            System.out.println();
+        if (renderer == null) {
+            renderer = new BoardRenderer();
+        }
+        try {
+            renderer.render(this, System.out);
+        } catch (IOException e) {
+            // A PrintStream nem dob kivételt; a hibát a checkError() jelzi
+            throw new UncheckedIOException(e);
         }
     }
 
+    /**
+     * Visszaadja a mátrix egy mezőjét, a bitboard szinkronizálása nélkül.
+     *
+     * @param row A sor (felülről, 0-tól).
+     * @param col Az oszlop.
+     * @return A mező tokenje, vagy '\0', ha üres.
+     */
+    char tokenAt(final int row, final int col) {
+        return grid[row][col];
+    }
+
     /**
      * Ellenőrzi, hogy két Board objektum egyenlő-e.
      *
@@ -205,8 +1037,14 @@ public class Board {
         }
         Board board = (Board) o;
 
-        // Ellenőrzi, hogy a méretek megegyeznek-e
-        if (this.rows != board.rows || this.columns != board.columns) {
+        // Ellenőrzi, hogy a méretek és a szabályok megegyeznek-e
+        if (this.rows != board.rows || this.columns != board.columns
+                || this.winLength != board.winLength) {
+            return false;
+        }
+
+        // Eltérő kulcsú táblák mátrixa biztosan különbözik
+        if (this.getZobristKey() != board.getZobristKey()) {
             return false;
         }
 
@@ -222,18 +1060,15 @@ public class Board {
     }
 
     /**
-     * Visszaadja a Board objektum hash kódját.
+     * Visszaadja a Board objektum hash kódját a Zobrist-kulcsból, a
+     * mátrix bejárása nélkül.
      *
      * @return A Board hash kódja.
      */
     @Override
     public int hashCode() {
-        int result = HASH_MULTIPLIER * rows + columns;
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < columns; col++) {
-                result = HASH_MULTIPLIER * result + grid[row][col];
-            }
-        }
-        return result;
+        long key = getZobristKey();
+        return HASH_MULTIPLIER * (HASH_MULTIPLIER * rows + columns)
+                + Long.hashCode(key);
     }
 }
@@ -0,0 +1,271 @@
+package com.connect4;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A BoardRenderer osztály a táblát egy újrahasznált bájtpufferbe
+ * formázza, és képkockánként egyetlen írással adja át a kimenetnek.
+ *
+ * <p>A teljes képkocka formátuma megegyezik a korábbi
+ * {@link Board#displayBoard()} kimenetével: egy "Tábla:" fejléc, majd
+ * soronként a mezők szóközzel elválasztva, az üres mezők helyén '.'
+ * jellel. A puffer csak akkor nő, ha egy nagyobb tábla nem fér bele,
+ * így az ismételt kirajzolás nem foglal memóriát.</p>
+ *
+ * <p>A különbségi mód ({@link #renderDiff(Board, OutputStream)}) csak az
+ * előző képkocka óta megváltozott mezőket írja ki, soronként
+ * "sor oszlop token" alakban (üres mezőnél '.'), ami a távoli nézőknek
+ * lépésenként egyetlen rövid sor. A példány nem szálbiztos.</p>
+ */
+public final class BoardRenderer {
+    /** A fejléc UTF-8 kódolásban. */
+    private static final byte[] HEADER =
+            "Tábla:".getBytes(StandardCharsets.UTF_8);
+
+    /** A sorvége jel UTF-8 kódolásban. */
+    private static final byte[] NEWLINE =
+            System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    /** Egy karakter UTF-8 kódjának legnagyobb hossza (BMP). */
+    private static final int MAX_CHAR_BYTES = 3;
+
+    /** Egy különbségi sor számjegyeinek legnagyobb száma sorszámonként. */
+    private static final int MAX_INDEX_DIGITS = 10;
+
+    /** A legnagyobb egybájtos (ASCII) karakter utáni első érték. */
+    private static final int ONE_BYTE_LIMIT = 0x80;
+
+    /** A legnagyobb kétbájtos karakter utáni első érték. */
+    private static final int TWO_BYTE_LIMIT = 0x800;
+
+    /** A kétbájtos UTF-8 kód első bájtjának előtagja. */
+    private static final int TWO_BYTE_LEAD = 0xC0;
+
+    /** A hárombájtos UTF-8 kód első bájtjának előtagja. */
+    private static final int THREE_BYTE_LEAD = 0xE0;
+
+    /** A folytató bájtok előtagja. */
+    private static final int CONTINUATION = 0x80;
+
+    /** A folytató bájtok hasznos bitjei. */
+    private static final int CONTINUATION_MASK = 0x3F;
+
+    /** A folytató bájtok hasznos bitjeinek száma. */
+    private static final int CONTINUATION_BITS = 6;
+
+    /** A tízes számrendszer alapja. */
+    private static final int RADIX = 10;
+
+    /** A formázott képkocka. */
+    private byte[] buffer = new byte[0];
+
+    /** A puffer kitöltött hossza. */
+    private int length;
+
+    /** Az utoljára kirajzolt mezők soronként, vagy null. */
+    private char[] previous;
+
+    /** Az utoljára kirajzolt tábla sorainak száma. */
+    private int previousRows;
+
+    /** Az utoljára kirajzolt tábla oszlopainak száma. */
+    private int previousColumns;
+
+    /**
+     * Kirajzolja a teljes táblát egyetlen írással, és megjegyzi a
+     * különbségi módhoz.
+     *
+     * @param board A tábla.
+     * @param out   A kimenet.
+     * @throws IOException Ha az írás sikertelen.
+     */
+    public void render(final Board board, final OutputStream out)
+            throws IOException {
+        formatFrame(board);
+        remember(board);
+        out.write(buffer, 0, length);
+        out.flush();
+    }
+
+    /**
+     * Csak az előző képkocka óta megváltozott mezőket írja ki, egyetlen
+     * írással. Az első híváskor, vagy ha a tábla mérete megváltozott,
+     * teljes képkockát rajzol.
+     *
+     * @param board A tábla.
+     * @param out   A kimenet.
+     * @return A kiírt mezők száma (teljes képkockánál az összes mező).
+     * @throws IOException Ha az írás sikertelen.
+     */
+    public int renderDiff(final Board board, final OutputStream out)
+            throws IOException {
+        int rows = board.getRows();
+        int columns = board.getColumns();
+        if (previous == null || rows != previousRows
+                || columns != previousColumns) {
+            render(board, out);
+            return rows * columns;
+        }
+        length = 0;
+        int changed = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                char token = board.tokenAt(row, col);
+                int index = row * columns + col;
+                if (previous[index] != token) {
+                    previous[index] = token;
+                    ensureCapacity(length + 2 * MAX_INDEX_DIGITS
+                            + MAX_CHAR_BYTES + 2 + NEWLINE.length);
+                    appendInt(row);
+                    buffer[length++] = ' ';
+                    appendInt(col);
+                    buffer[length++] = ' ';
+                    appendChar(displayChar(token));
+                    appendBytes(NEWLINE);
+                    changed++;
+                }
+            }
+        }
+        if (changed > 0) {
+            out.write(buffer, 0, length);
+            out.flush();
+        }
+        return changed;
+    }
+
+    /**
+     * Elfelejti az utolsó képkockát; a következő különbségi kirajzolás
+     * teljes képkocka lesz.
+     */
+    public void reset() {
+        previous = null;
+    }
+
+    /**
+     * Visszaadja a teljes képkockát szövegként. Teszteknél és
+     * naplózáshoz használt; foglal memóriát.
+     *
+     * @param board A tábla.
+     * @return A képkocka.
+     */
+    public String toText(final Board board) {
+        formatFrame(board);
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A pufferbe formázza a teljes képkockát.
+     *
+     * @param board A tábla.
+     */
+    private void formatFrame(final Board board) {
+        int rows = board.getRows();
+        int columns = board.getColumns();
+        ensureCapacity(HEADER.length + NEWLINE.length
+                + rows * (columns * (MAX_CHAR_BYTES + 1) + NEWLINE.length));
+        length = 0;
+        appendBytes(HEADER);
+        appendBytes(NEWLINE);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                appendChar(displayChar(board.tokenAt(row, col)));
+                buffer[length++] = ' ';
+            }
+            appendBytes(NEWLINE);
+        }
+    }
+
+    /**
+     * Megjegyzi a tábla mezőit a különbségi módhoz.
+     *
+     * @param board A tábla.
+     */
+    private void remember(final Board board) {
+        int rows = board.getRows();
+        int columns = board.getColumns();
+        if (previous == null || previous.length != rows * columns) {
+            previous = new char[rows * columns];
+        }
+        previousRows = rows;
+        previousColumns = columns;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                previous[row * columns + col] = board.tokenAt(row, col);
+            }
+        }
+    }
+
+    /**
+     * Visszaadja a mező kirajzolt karakterét.
+     *
+     * @param token A mező tokenje.
+     * @return A token, vagy '.', ha a mező üres.
+     */
+    private static char displayChar(final char token) {
+        return token == '\0' ? '.' : token;
+    }
+
+    /**
+     * Legalább a megadott méretűre növeli a puffert, a tartalmát
+     * megtartva.
+     *
+     * @param capacity A szükséges méret.
+     */
+    private void ensureCapacity(final int capacity) {
+        if (buffer.length < capacity) {
+            byte[] grown = new byte[Math.max(capacity, 2 * buffer.length)];
+            System.arraycopy(buffer, 0, grown, 0, length);
+            buffer = grown;
+        }
+    }
+
+    /**
+     * Hozzáfűz egy bájtsorozatot a pufferhez.
+     *
+     * @param bytes A bájtok.
+     */
+    private void appendBytes(final byte[] bytes) {
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    /**
+     * Hozzáfűz egy karaktert UTF-8 kódolásban.
+     *
+     * @param c A karakter.
+     */
+    private void appendChar(final char c) {
+        if (c < ONE_BYTE_LIMIT) {
+            buffer[length++] = (byte) c;
+        } else if (c < TWO_BYTE_LIMIT) {
+            buffer[length++] = (byte) (TWO_BYTE_LEAD | c >> CONTINUATION_BITS);
+            buffer[length++] = (byte) (CONTINUATION | c & CONTINUATION_MASK);
+        } else {
+            buffer[length++] = (byte) (THREE_BYTE_LEAD
+                    | c >> (2 * CONTINUATION_BITS));
+            buffer[length++] = (byte) (CONTINUATION
+                    | c >> CONTINUATION_BITS & CONTINUATION_MASK);
+            buffer[length++] = (byte) (CONTINUATION | c & CONTINUATION_MASK);
+        }
+    }
+
+    /**
+     * Hozzáfűz egy nemnegatív egész számot tízes számrendszerben.
+     *
+     * @param value A szám.
+     */
+    private void appendInt(final int value) {
+        int digits = 1;
+        for (int v = value / RADIX; v > 0; v /= RADIX) {
+            digits++;
+        }
+        int v = value;
+        for (int i = length + digits - 1; i >= length; i--) {
+            buffer[i] = (byte) ('0' + v % RADIX);
+            v /= RADIX;
+        }
+        length += digits;
+    }
+}
@@ -0,0 +1,46 @@
+package com.connect4;
+
+import java.util.Scanner;
+
+/**
+ * A ConsoleMoveSource osztály a konzolon begépelt oszlopszámokat adja
+ * lépésként.
+ */
+public final class ConsoleMoveSource implements MoveSource {
+    /** A bemenet. */
+    private final Scanner scanner;
+
+    /**
+     * Konstruktor a ConsoleMoveSource osztályhoz.
+     *
+     * @param scannerParam A bemenet.
+     */
+    public ConsoleMoveSource(final Scanner scannerParam) {
+        this.scanner = scannerParam;
+    }
+
+    /**
+     * Beolvassa a következő oszlopszámot. Az érvényességét nem ellenőrzi.
+     *
+     * @param board A játék tábla.
+     * @param token A lépő játékos tokenje.
+     * @return A beolvasott oszlop, vagy -1, ha elfogyott a bemenet.
+     */
+    @Override
+    public int nextMove(final Board board, final char token) {
+        if (!scanner.hasNextInt()) {
+            return -1;
+        }
+        return scanner.nextInt();
+    }
+
+    /**
+     * A konzolon egy ember lép.
+     *
+     * @return Mindig true.
+     */
+    @Override
+    public boolean isInteractive() {
+        return true;
+    }
+}
@@ -10,6 +10,9 @@ public final class Constants {
     /** Az alapértelmezett oszlopok száma. */
     public static final int DEFAULT_COLUMNS = 7;
 
+    /** A nyeréshez alapértelmezésben szükséges tokenek száma egy vonalban. */
+    public static final int DEFAULT_WIN_LENGTH = 4;
+
     // Privát konstruktor, hogy megakadályozzuk az objektumok létrehozását.
     private Constants() {
         throw new UnsupportedOperationException(
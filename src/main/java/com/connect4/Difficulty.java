@@ -0,0 +1,58 @@
+package com.connect4;
+
+/**
+ * A Difficulty felsorolás az {@link AIPlayer} nehézségi szintjeit írja
+ * le: a keresés mélységét és lépésenkénti időkorlátját.
+ *
+ * <p>A {@link #PERFECT} szinten a játékos a {@link Solver} segítségével
+ * tökéletesen játszik; a megoldóval nem kezelhető táblákon a
+ * {@link #HARD} szint keresésére tér vissza.</p>
+ */
+public enum Difficulty {
+    /** Könnyű: sekély keresés. */
+    EASY(2, 0L),
+
+    /** Közepes: mérsékelt mélységű keresés. */
+    MEDIUM(5, 0L),
+
+    /** Nehéz: az alapértelmezett mélység és időkorlát. */
+    HARD(AIPlayer.DEFAULT_DEPTH, AIPlayer.DEFAULT_TIME_LIMIT_MILLIS),
+
+    /** Tökéletes: a játszma végéig tartó megoldás. */
+    PERFECT(AIPlayer.DEFAULT_DEPTH, AIPlayer.DEFAULT_TIME_LIMIT_MILLIS);
+
+    /** A keresési mélység lépésekben. */
+    private final int depth;
+
+    /** Az időkorlát ezredmásodpercben (0: nincs). */
+    private final long timeLimitMillis;
+
+    /**
+     * Konstruktor a Difficulty felsoroláshoz.
+     *
+     * @param depthParam           A keresési mélység.
+     * @param timeLimitMillisParam Az időkorlát ezredmásodpercben.
+     */
+    Difficulty(final int depthParam, final long timeLimitMillisParam) {
+        this.depth = depthParam;
+        this.timeLimitMillis = timeLimitMillisParam;
+    }
+
+    /**
+     * Visszaadja a keresési mélységet.
+     *
+     * @return A mélység lépésekben.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Visszaadja a lépésenkénti időkorlátot.
+     *
+     * @return Az időkorlát ezredmásodpercben (0: nincs).
+     */
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+}
@@ -0,0 +1,82 @@
+package com.connect4;
+
+/**
+ * Az EngineMoveSource osztály egy {@link AIPlayer} lépéseit adja. A
+ * {@link #cancel()} a folyamatban lévő keresést állítja le, amely ekkor
+ * a legjobb addig talált lépéssel tér vissza. Ha a játékosnak be van
+ * kapcsolva a háttérkeresése, a forrás a saját lépése után, a
+ * {@link #moveChosen} értesítésre elindítja, és továbbítja neki az
+ * ellenfél lépéseit.
+ */
+public final class EngineMoveSource implements MoveSource {
+    /** A gép játékosa. */
+    private final AIPlayer player;
+
+    /**
+     * Konstruktor az EngineMoveSource osztályhoz.
+     *
+     * @param playerParam A gép játékosa.
+     */
+    public EngineMoveSource(final AIPlayer playerParam) {
+        this.player = playerParam;
+    }
+
+    /**
+     * Visszaadja a gép játékosát.
+     *
+     * @return A játékos.
+     */
+    public AIPlayer getPlayer() {
+        return player;
+    }
+
+    /**
+     * Kiszámítja a gép lépését.
+     *
+     * @param board A játék tábla.
+     * @param token A lépő játékos tokenje; meg kell egyeznie a gép
+     *              tokenjével.
+     * @return A választott oszlop, vagy -1, ha nincs érvényes lépés.
+     * @throws IllegalArgumentException Ha a token nem a gépé.
+     */
+    @Override
+    public int nextMove(final Board board, final char token) {
+        if (token != player.getToken()) {
+            throw new IllegalArgumentException(
+                    "A gép tokenje " + player.getToken() + ", nem " + token
+                    + ".");
+        }
+        return player.makeMove(board);
+    }
+
+    /**
+     * Elindítja a gép háttérkeresését a saját lépése után, ha be van
+     * kapcsolva.
+     *
+     * @param board  A tábla a lépés előtt.
+     * @param column A választott oszlop.
+     */
+    @Override
+    public void moveChosen(final Board board, final int column) {
+        player.startPondering(board, column);
+    }
+
+    /**
+     * Továbbítja az ellenfél lépését a gép háttérkeresésének.
+     *
+     * @param board  A tábla az ellenfél lépése után.
+     * @param column Az ellenfél lépésének oszlopa.
+     */
+    @Override
+    public void opponentMoved(final Board board, final int column) {
+        player.opponentMoved(column);
+    }
+
+    /**
+     * Leállítja a gép folyamatban lévő keresését.
+     */
+    @Override
+    public void cancel() {
+        player.cancelSearch();
+    }
+}
@@ -0,0 +1,21 @@
+package com.connect4;
+
+/**
+ * Az Evaluator interfész egy állás statikus értékelését írja le, amelyet a
+ * {@link SearchEngine} a keresés mélységkorlátjánál használ.
+ *
+ * <p>Az értéknek jóval a nyerő értékek alatt kell maradnia (abszolút
+ * értékben {@link SearchEngine#WIN_THRESHOLD} alatt), és a hívásnak
+ * olcsónak kell lennie, mert minden levélcsomópontban lefut.</p>
+ */
+public interface Evaluator {
+    /**
+     * Kiértékeli az állást a lépő játékos szemszögéből.
+     *
+     * @param board A játék tábla.
+     * @param slot  A lépő játékos bitmaszkjának indexe (0: a táblán
+     *              elsőként megjelent token, 1: a másik).
+     * @return Pozitív érték, ha az állás a lépő játékosnak kedvez.
+     */
+    int evaluate(Board board, int slot);
+}
@@ -1,16 +1,57 @@
 package com.connect4;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 /**
  * A Game osztály kezeli a Connect4 játék logikáját.
  */
 public class Game {
+    /** A mérési jelentés fájlját megadó rendszertulajdonság. */
+    static final String METRICS_FILE_PROPERTY = "connect4.metrics.file";
+
+    /** Az automatikus mentés fájlját megadó rendszertulajdonság. */
+    static final String AUTOSAVE_PROPERTY = "connect4.autosave";
+
+    /**
+     * A gép háttérkeresését (az ember ideje alatt) szabályozó
+     * rendszertulajdonság; alapértelmezés szerint be van kapcsolva.
+     */
+    static final String PONDER_PROPERTY = "connect4.ponder";
+
+    /** Az interaktív forrás lépésére várakozás ideje. */
+    private static final Metrics.Histogram INPUT_TIME =
+            Metrics.registry().histogram("game.input.ns");
+
+    /** A token lerakásának ideje. */
+    private static final Metrics.Histogram PLACE_TIME =
+            Metrics.registry().histogram("game.placeToken.ns");
+
+    /** A győzelem ellenőrzésének ideje. */
+    private static final Metrics.Histogram WIN_CHECK_TIME =
+            Metrics.registry().histogram("game.checkWin.ns");
+
+    /** A teli tábla ellenőrzésének ideje. */
+    private static final Metrics.Histogram FULL_CHECK_TIME =
+            Metrics.registry().histogram("game.isFull.ns");
+
+    /** A tábla kirajzolásának ideje. */
+    private static final Metrics.Histogram DISPLAY_TIME =
+            Metrics.registry().histogram("game.displayBoard.ns");
+
+    /** A gép (nem interaktív forrás) gondolkodási ideje. */
+    private static final Metrics.Histogram AI_TIME =
+            Metrics.registry().histogram("game.ai.ns");
+
+    /** A lerakott tokenek száma. */
+    private static final Metrics.Counter MOVES =
+            Metrics.registry().counter("game.moves");
+
     /** A játék tábla. */
     private final Board board;
 
@@ -26,6 +67,18 @@ public class Game {
     /** A gép játékosa. */
     private final AIPlayer aiPlayer;
 
+    /** Az automatikus mentés, vagy null, ha ki van kapcsolva. */
+    private AutoSaver autoSaver;
+
+    /** Az első játékos lépéseinek forrása (null: konzol). */
+    private MoveSource firstSource;
+
+    /** A második játékos lépéseinek forrása (null: a mód szerint). */
+    private MoveSource secondSource;
+
+    /** A lépésenkénti időkeret ezredmásodpercben (0: nincs keret). */
+    private long moveTimeBudgetMillis;
+
     /**
      * Konstruktor a Game osztályhoz.
      *
@@ -62,18 +115,78 @@ public class Game {
     }
 
     /**
-     * Betölti a játék állását egy fájlból.
+     * Beállítja a játékosok lépéseinek forrását. Alapértelmezés szerint
+     * mindkét ember a konzolon lép, a gép pedig a saját keresőjével.
+     *
+     * @param first  Az első játékos forrása, vagy null: konzol.
+     * @param second A második játékos forrása, vagy null: a játék módja
+     *               szerinti konzol vagy gép.
+     */
+    public void setMoveSources(final MoveSource first,
+                               final MoveSource second) {
+        this.firstSource = first;
+        this.secondSource = second;
+    }
+
+    /**
+     * Be- vagy kikapcsolja, hogy a gép az ember gondolkodási ideje alatt
+     * a háttérben előre keressen.
+     *
+     * @param enabled True a bekapcsoláshoz.
+     */
+    public void setPondering(final boolean enabled) {
+        aiPlayer.setPondering(enabled);
+    }
+
+    /**
+     * Beállítja a lépésenkénti időkeretet. A keretet túllépő keresést a
+     * {@link MoveScheduler} leállítja, és a legjobb addig talált lépés
+     * érvényes.
+     *
+     * @param millis Az időkeret ezredmásodpercben (0: nincs keret).
+     * @throws IllegalArgumentException Ha a keret negatív.
+     */
+    public void setMoveTimeBudget(final long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException(
+                    "Az időkeret nem lehet negatív.");
+        }
+        this.moveTimeBudgetMillis = millis;
+    }
+
+    /**
+     * Betölti a játék állását egy fájlból. Ha a fájl kevesebb sort
+     * tartalmaz, mint a tábla, a táblát nem módosítja; a rövid sorok
+     * hiányzó mezőit üresnek tekinti. A tokeneket oszloponként alulról
+     * rakja le, így az alátámasztás nélküli tokeneket elhagyja.
      *
      * @param filename A fájl neve.
      */
     public void loadGameFromFile(final String filename) {
         try (BufferedReader reader = new BufferedReader(
                 new FileReader(filename))) {
-            String line;
-            for (int row = 0; row < board.getRows(); row++) {
-                line = reader.readLine();
-                for (int col = 0; col < board.getColumns(); col++) {
-                    board.getGrid()[row][col] = line.charAt(col);
+            String[] lines = new String[board.getRows()];
+            for (int row = 0; row < lines.length; row++) {
+                lines[row] = reader.readLine();
+                if (lines[row] == null) {
+                    System.out.println("Hiányos mentési fájl: "
+                            + row + " sor a várt " + lines.length
+                            + " helyett.");
+                    return;
+                }
+            }
+            while (board.moveCount() > 0) {
+                board.undo();
+            }
+            for (int col = 0; col < board.getColumns(); col++) {
+                for (int row = lines.length - 1; row >= 0; row--) {
+                    // A mentésben a '.' jelöli az üres mezőt
+                    char cell = col < lines[row].length()
+                            ? lines[row].charAt(col) : '.';
+                    if (cell == '.') {
+                        break;
+                    }
+                    board.placeToken(col, cell);
                 }
             }
         } catch (IOException e) {
@@ -84,21 +197,15 @@ public class Game {
     }
 
     /**
-     * Elmenti a játék állását egy fájlba.
+     * Elmenti a játék állását egy fájlba. Előbb egy ideiglenes fájlba ír,
+     * majd átnevezéssel cseréli a régit, így a mentés sosem félig írt.
      *
      * @param filename A fájl neve.
      */
     public void saveGameToFile(final String filename) {
-        try (BufferedWriter writer = new BufferedWriter(
-                new FileWriter(filename))) {
-            for (int row = 0; row < board.getRows(); row++) {
-                for (int col = 0; col < board.getColumns(); col++) {
-                    writer.write(board.getGrid()[row][col] == '\0'
-                            ? '.'
-                            : board.getGrid()[row][col]);
-                }
-                writer.newLine();
-            }
+        try {
+            AutoSaver.writeAtomically(Paths.get(filename),
+                    AutoSaver.toSaveText(board));
         } catch (IOException e) {
             System.out.println("Hiba a fájl mentése során: "
                     +
@@ -112,75 +219,221 @@ public class Game {
     public void start() {
         Scanner scanner = new Scanner(System.in);
         System.out.println("A játék kezdődik!");
+        MoveSource console = new ConsoleMoveSource(scanner);
+        MoveSource first = firstSource != null ? firstSource : console;
+        MoveSource second = secondSource;
+        if (second == null) {
+            second = isHumanVsHuman ? console : new EngineMoveSource(aiPlayer);
+        }
+        try (MoveScheduler scheduler = new MoveScheduler()) {
+            play(scheduler, first, second);
+        } finally {
+            aiPlayer.stopPondering();
+            if (autoSaver != null) {
+                finishAutoSave();
+            }
+            if (Metrics.ENABLED) {
+                dumpMetrics();
+            }
+        }
+    }
 
-        // Játékosok választása
+    /**
+     * Bekapcsolja az automatikus mentést. Üres táblánál, ha a fájlhoz
+     * tartozik egy félbeszakadt játszma naplója, előbb annak lépéseit
+     * játssza vissza, így a játszma pontosan ott folytatódik. Egyébként
+     * új naplót kezd, amely a tábla aktuális (például betöltött) állásával
+     * indul.
+     *
+     * @param file A pillanatkép fájl.
+     * @return A naplóból visszajátszott lépések száma.
+     * @throws IOException Ha a napló nem olvasható vagy nem nyitható meg.
+     */
+    public int enableAutoSave(final Path file) throws IOException {
+        int replayed = board.moveCount() == 0
+                ? AutoSaver.replay(file, board) : 0;
+        if (replayed == 0) {
+            Files.deleteIfExists(AutoSaver.journalOf(file.toAbsolutePath()));
+        }
+        autoSaver = new AutoSaver(file);
+        if (replayed == 0) {
+            autoSaver.recordPosition(board);
+        }
+        return replayed;
+    }
+
+    /**
+     * Lezárja az automatikus mentést. Befejezett játszma naplóját törli;
+     * félbemaradt játszmáé megmarad a folytatáshoz.
+     */
+    private void finishAutoSave() {
+        try {
+            if (board.checkWin() || board.isFull()) {
+                autoSaver.complete();
+            } else {
+                autoSaver.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Hiba az automatikus mentés során: "
+                    + e.getMessage());
+        } finally {
+            autoSaver = null;
+        }
+    }
+
+    /**
+     * A játék fő ciklusa. A soron következő játékost a táblán lévő
+     * tokenek száma adja meg, így egy betöltött vagy visszaállított
+     * játszmában, ahol az első játékos lépett utoljára, a második
+     * játékos folytatja.
+     *
+     * @param scheduler A lépéseket időkerettel kérő ütemező.
+     * @param first     Az első játékos lépéseinek forrása.
+     * @param second    A második játékos lépéseinek forrása.
+     */
+    private void play(final MoveScheduler scheduler, final MoveSource first,
+                      final MoveSource second) {
+        Player opponent = isHumanVsHuman ? player2 : aiPlayer;
         while (true) {
-            board.displayBoard();
-            System.out.println(player1.getName() + " lépése (oszlop: 0-"
-                    + (board.getColumns() - 1) + "):");
+            boolean firstToMove = board.moveCount() % 2 == 0;
+            Player player = firstToMove ? player1 : opponent;
+            MoveSource source = firstToMove ? first : second;
+            if (source.isInteractive()) {
+                display();
+                System.out.println(player.getName() + " lépése (oszlop: 0-"
+                        + (board.getColumns() - 1) + "):");
+            }
 
+            int column = requestMove(scheduler, source, player.getToken());
+            if (column < 0) {
+                System.out.println("Nincs több bemenet a játékos lépéséhez.");
+                break;
+            }
+            if (!board.isColumnValid(column)) {
+                System.out.println("Érvénytelen lépés! Próbáld újra.");
+                continue;
+            }
+            place(column, player.getToken());
+            (firstToMove ? second : first).opponentMoved(board, column);
+            if (checkWin()) {
+                display();
+                System.out.println(player.getName()
+                        + (player == aiPlayer ? " (a gép) nyert!" : " nyert!"));
+                break;
+            }
+            if (isDraw()) {
+                break;
+            }
+        }
+    }
 
-            // Ellenőrizni kell, hogy van-e következő bemenet
-            if (scanner.hasNextInt()) {
-                int column = scanner.nextInt();
+    /**
+     * Ellenőrzi, hogy a játék döntetlennel zárult-e, és ha igen, kiírja.
+     *
+     * @return True, ha a tábla megtelt.
+     */
+    private boolean isDraw() {
+        if (isFull()) {
+            display();
+            System.out.println("A játék döntetlennel zárult!");
+            return true;
+        }
+        return false;
+    }
 
-                if (board.isColumnValid(column)) {
-                    board.placeToken(column, player1.getToken());
-                    if (board.checkWin()) {
-                        board.displayBoard();
-                        System.out.println(player1.getName() + " nyert!");
-                        break;
-                    }
+    /**
+     * Lépést kér egy forrástól az időkereten belül. Az interaktív
+     * források várakozási idejét és a gép gondolkodási idejét külön
+     * méri.
+     *
+     * @param scheduler A lépéseket időkerettel kérő ütemező.
+     * @param source    A lépés forrása.
+     * @param token     A lépő játékos tokenje.
+     * @return A választott oszlop, vagy -1, ha a forrás nem adott lépést.
+     */
+    private int requestMove(final MoveScheduler scheduler,
+                            final MoveSource source, final char token) {
+        long start = Metrics.start();
+        int column = scheduler.requestMove(source, board, token,
+                moveTimeBudgetMillis);
+        if (Metrics.ENABLED) {
+            (source.isInteractive() ? INPUT_TIME : AI_TIME)
+                    .recordSince(start);
+        }
+        return column;
+    }
 
-                    if (isHumanVsHuman) {
-                        board.displayBoard();
-                        System.out.println(player2.getName()
-                                +
-                                " lépése (oszlop: 0-"
-                                + (board.getColumns() - 1) + "):");
-
-                        if (scanner.hasNextInt()) {
-                            column = scanner.nextInt();
-                            if (board.isColumnValid(column)) {
-                                board.placeToken(column, player2.getToken());
-                                if (board.checkWin()) {
-                                    board.displayBoard();
-                                    System.out.println(player2.getName()
-                                            + " nyert!");
-                                    break;
-                                }
-                            }
-                        } else {
-                            System.out.println("Nincs több bemenet a játékos "
-                                    + "lépéséhez.");
-                            break;
-                        }
-
-                    } else {
-                        // Gép lépése
-                        int aiColumn = aiPlayer.makeMove(board);
-                        board.placeToken(aiColumn, aiPlayer.getToken());
-                        if (board.checkWin()) {
-                            board.displayBoard();
-                            System.out.println(aiPlayer.getName()
-                                    + " (a gép) nyert!");
-                            break;
-                        }
-                    }
+    /**
+     * Lerak egy tokent a táblára.
+     *
+     * @param column Az oszlop.
+     * @param token  A token.
+     */
+    private void place(final int column, final char token) {
+        long start = Metrics.start();
+        board.placeToken(column, token);
+        if (Metrics.ENABLED) {
+            PLACE_TIME.recordSince(start);
+            MOVES.increment();
+        }
+        if (autoSaver != null) {
+            autoSaver.record(column, token, board);
+        }
+    }
 
-                } else {
-                    System.out.println("Érvénytelen lépés! Próbáld újra.");
-                }
+    /**
+     * Ellenőrzi, hogy van-e győztes.
+     *
+     * @return True, ha van győztes.
+     */
+    private boolean checkWin() {
+        long start = Metrics.start();
+        boolean won = board.checkWin();
+        if (Metrics.ENABLED) {
+            WIN_CHECK_TIME.recordSince(start);
+        }
+        return won;
+    }
 
-                if (board.isFull()) {
-                    board.displayBoard();
-                    System.out.println("A játék döntetlennel zárult!");
-                    break;
-                }
-            } else {
-                System.out.println("Nincs több bemenet a játékos lépéséhez.");
-                break;
-            }
+    /**
+     * Ellenőrzi, hogy megtelt-e a tábla.
+     *
+     * @return True, ha a tábla tele van.
+     */
+    private boolean isFull() {
+        long start = Metrics.start();
+        boolean full = board.isFull();
+        if (Metrics.ENABLED) {
+            FULL_CHECK_TIME.recordSince(start);
+        }
+        return full;
+    }
+
+    /**
+     * Kirajzolja a táblát.
+     */
+    private void display() {
+        long start = Metrics.start();
+        board.displayBoard();
+        if (Metrics.ENABLED) {
+            DISPLAY_TIME.recordSince(start);
+        }
+    }
+
+    /**
+     * Kiírja a mérési jelentést a {@code connect4.metrics.file}
+     * rendszertulajdonságban megadott fájlba, ha van ilyen.
+     */
+    private static void dumpMetrics() {
+        String file = System.getProperty(METRICS_FILE_PROPERTY);
+        if (file == null || file.isEmpty()) {
+            return;
+        }
+        try {
+            Metrics.registry().dumpToFile(file);
+        } catch (IOException e) {
+            System.out.println("Hiba a mérések mentése során: "
+                    + e.getMessage());
         }
     }
 
@@ -191,6 +444,9 @@ public class Game {
      * @param args Parancssori argumentumok.
      */
     public static void main(final String[] args) {
+        if (Metrics.ENABLED) {
+            Metrics.registerMBean();
+        }
         Scanner scanner = new Scanner(System.in);
         System.out.println("Adja meg az első játékos nevét:");
         String name1 = scanner.nextLine();
@@ -204,6 +460,10 @@ public class Game {
         Game game = new Game(Constants.DEFAULT_ROWS,
                 Constants.DEFAULT_COLUMNS, name1, name2,
                 isHumanVsHuman);
+        if (!isHumanVsHuman) {
+            game.setPondering(Boolean.parseBoolean(
+                    System.getProperty(PONDER_PROPERTY, "true")));
+        }
 
         // Fájl betöltése
         System.out.println("Kérjük, adja meg a fájl nevét (ha nem akar "
@@ -214,6 +474,22 @@ public class Game {
             game.loadGameFromFile(filename);
         }
 
+        // Automatikus mentés; betöltött fájl nélkül egy félbeszakadt
+        // játszma folytatódik
+        String autoSaveFile = System.getProperty(AUTOSAVE_PROPERTY);
+        if (autoSaveFile != null && !autoSaveFile.isEmpty()) {
+            try {
+                int resumed = game.enableAutoSave(Paths.get(autoSaveFile));
+                if (resumed > 0) {
+                    System.out.println("A félbeszakadt játszma folytatódik ("
+                            + resumed + " lépés).");
+                }
+            } catch (IOException e) {
+                System.out.println("Az automatikus mentés nem indítható: "
+                        + e.getMessage());
+            }
+        }
+
         game.start(); // Játék indítása
 
         // Fájl mentése
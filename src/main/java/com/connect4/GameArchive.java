@@ -0,0 +1,353 @@
+package com.connect4;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A GameArchive osztály sok játszmát tárol egy csak hozzáfűzhető bináris
+ * fájlban, mellette egy indexfájllal a közvetlen eléréshez.
+ *
+ * <p>Az adatfájl egy fejléc után hossz-előtagos {@link GameRecord}
+ * rekordokat tartalmaz; az indexfájl ({@code <név>.idx}) rekordonként egy
+ * 8 bájtos fájlpozíciót. Hozzáfűzéskor előbb az adat, utána az index
+ * íródik, így az index sosem mutat hiányzó adatra. Ha megnyitáskor az index
+ * nem egyezik az adatfájllal (például egy félbeszakadt írás után), az
+ * indexet az adatfájl végigolvasásával újraépítjük, a csonka utolsó
+ * rekordot pedig levágjuk.</p>
+ *
+ * <p>Minden írás és olvasás {@link FileChannel} és újrahasznált
+ * {@link ByteBuffer} pufferek segítségével történik. A metódusok
+ * szinkronizáltak, így egy példány több szálból is használható.</p>
+ */
+public final class GameArchive implements Closeable {
+    /** Az adatfájl azonosítója ("C4GA"). */
+    static final int MAGIC = 0x43344741;
+
+    /** A fájlformátum verziója. */
+    static final int VERSION = 1;
+
+    /** Az adatfájl fejlécének mérete bájtban. */
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    /** A rekordok hossz-előtagjának mérete bájtban. */
+    private static final int LENGTH_BYTES = Integer.BYTES;
+
+    /** Egy indexbejegyzés mérete bájtban. */
+    private static final int INDEX_ENTRY_BYTES = Long.BYTES;
+
+    /** Az indexfájl kiterjesztése. */
+    private static final String INDEX_SUFFIX = ".idx";
+
+    /** Az olvasáskor és íráskor használt puffer kezdeti mérete. */
+    private static final int INITIAL_BUFFER_BYTES = 256;
+
+    /** Az index újraépítésekor használt írópuffer mérete. */
+    private static final int SCAN_BUFFER_BYTES = 65536;
+
+    /** Az adatfájl csatornája. */
+    private final FileChannel data;
+
+    /** Az indexfájl csatornája. */
+    private final FileChannel index;
+
+    /** A hozzáfűzés és az olvasás közös puffere. */
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+
+    /** Az indexbejegyzések írására és olvasására szolgáló puffer. */
+    private final ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+
+    /** A tárolt játszmák száma. */
+    private long count;
+
+    /** Az adatfájl vége, ahova a következő rekord kerül. */
+    private long end;
+
+    /**
+     * Privát konstruktor; az {@link #open(Path)} használja.
+     *
+     * @param dataParam  Az adatfájl csatornája.
+     * @param indexParam Az indexfájl csatornája.
+     */
+    private GameArchive(final FileChannel dataParam,
+                        final FileChannel indexParam) {
+        this.data = dataParam;
+        this.index = indexParam;
+    }
+
+    /**
+     * Megnyit egy archívumot, szükség esetén létrehozva azt.
+     *
+     * @param path Az adatfájl elérési útja; az index mellette jön létre.
+     * @return A megnyitott archívum.
+     * @throws IOException Ha a fájl nem olvasható, vagy nem archívum.
+     */
+    public static GameArchive open(final Path path) throws IOException {
+        Path indexPath = path.resolveSibling(path.getFileName()
+                + INDEX_SUFFIX);
+        FileChannel data = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel index;
+        try {
+            index = FileChannel.open(indexPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            data.close();
+            throw e;
+        }
+        GameArchive archive = new GameArchive(data, index);
+        try {
+            archive.init();
+        } catch (IOException | RuntimeException e) {
+            archive.close();
+            throw e;
+        }
+        return archive;
+    }
+
+    /**
+     * Ellenőrzi a fejlécet, és szükség esetén újraépíti az indexet.
+     *
+     * @throws IOException Ha a fájl nem olvasható, vagy nem archívum.
+     */
+    private void init() throws IOException {
+        if (data.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            writeFully(data, header, 0);
+            index.truncate(0);
+            end = HEADER_BYTES;
+            return;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (readFully(data, header, 0) < HEADER_BYTES
+                || header.getInt(0) != MAGIC
+                || header.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("A fájl nem játszma-archívum.");
+        }
+        count = index.size() / INDEX_ENTRY_BYTES;
+        end = count == 0 ? HEADER_BYTES : recordEnd(count - 1);
+        if (index.size() % INDEX_ENTRY_BYTES != 0 || end != data.size()) {
+            rebuildIndex();
+        }
+    }
+
+    /**
+     * Visszaadja egy indexelt rekord végének pozícióját, vagy -1-et, ha
+     * az indexbejegyzés nem mutat érvényes rekordra.
+     *
+     * @param i A rekord sorszáma.
+     * @return A rekordot követő első bájt pozíciója.
+     * @throws IOException Ha a fájl nem olvasható.
+     */
+    private long recordEnd(final long i) throws IOException {
+        long offset = offsetOf(i);
+        if (offset < HEADER_BYTES || offset + LENGTH_BYTES > data.size()) {
+            return -1L;
+        }
+        ByteBuffer length = ByteBuffer.allocate(LENGTH_BYTES);
+        readFully(data, length, offset);
+        return offset + LENGTH_BYTES + length.getInt(0);
+    }
+
+    /**
+     * Újraépíti az indexet az adatfájl végigolvasásával, és levágja a
+     * csonka utolsó rekordot.
+     *
+     * @throws IOException Ha a fájl nem olvasható vagy írható.
+     */
+    private void rebuildIndex() throws IOException {
+        index.truncate(0);
+        count = 0;
+        long size = data.size();
+        long position = HEADER_BYTES;
+        ByteBuffer entries = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        ByteBuffer length = ByteBuffer.allocate(LENGTH_BYTES);
+        while (position + LENGTH_BYTES <= size) {
+            length.clear();
+            readFully(data, length, position);
+            int recordBytes = length.getInt(0);
+            if (recordBytes < GameRecord.HEADER_BYTES
+                    || position + LENGTH_BYTES + recordBytes > size) {
+                break;
+            }
+            if (!entries.hasRemaining()) {
+                entries.flip();
+                writeFully(index, entries, count * INDEX_ENTRY_BYTES
+                        - entries.remaining());
+                entries.clear();
+            }
+            entries.putLong(position);
+            count++;
+            position += LENGTH_BYTES + recordBytes;
+        }
+        entries.flip();
+        writeFully(index, entries, count * INDEX_ENTRY_BYTES
+                - entries.remaining());
+        data.truncate(position);
+        end = position;
+    }
+
+    /**
+     * Hozzáfűz egy játszmát az archívum végéhez.
+     *
+     * @param game A tárolandó játszma.
+     * @return A játszma sorszáma az archívumban.
+     * @throws IOException Ha az írás nem sikerül.
+     */
+    public synchronized long append(final GameRecord game)
+            throws IOException {
+        int recordBytes = game.encodedSize();
+        ensureCapacity(LENGTH_BYTES + recordBytes);
+        buffer.clear();
+        buffer.putInt(recordBytes);
+        game.writeTo(buffer);
+        buffer.flip();
+        writeFully(data, buffer, end);
+        entry.clear();
+        entry.putLong(end).flip();
+        writeFully(index, entry, count * INDEX_ENTRY_BYTES);
+        end += LENGTH_BYTES + recordBytes;
+        return count++;
+    }
+
+    /**
+     * Beolvassa a megadott sorszámú játszmát.
+     *
+     * @param i A játszma sorszáma.
+     * @return A beolvasott játszma.
+     * @throws IOException Ha az olvasás nem sikerül, vagy a rekord sérült.
+     */
+    public synchronized GameRecord read(final long i) throws IOException {
+        if (i < 0 || i >= count) {
+            throw new IndexOutOfBoundsException("Nincs ilyen játszma: " + i);
+        }
+        long offset = offsetOf(i);
+        buffer.clear().limit(LENGTH_BYTES);
+        if (readFully(data, buffer, offset) < LENGTH_BYTES) {
+            throw new IOException("Sérült rekord: " + i);
+        }
+        int recordBytes = buffer.getInt(0);
+        // A sérült hossz ne foglaljon puffert, hanem olvasási hiba legyen
+        if (recordBytes < GameRecord.HEADER_BYTES
+                || recordBytes > data.size() - offset - LENGTH_BYTES) {
+            throw new IOException("Sérült rekord: " + i
+                    + " (érvénytelen hossz: " + recordBytes + ")");
+        }
+        ensureCapacity(recordBytes);
+        buffer.clear().limit(recordBytes);
+        if (readFully(data, buffer, offset + LENGTH_BYTES) < recordBytes) {
+            throw new IOException("Sérült rekord: " + i);
+        }
+        buffer.flip();
+        try {
+            return GameRecord.readFrom(buffer);
+        } catch (RuntimeException e) {
+            throw new IOException("Sérült rekord: " + i, e);
+        }
+    }
+
+    /**
+     * Visszaadja a tárolt játszmák számát.
+     *
+     * @return A játszmák száma.
+     */
+    public synchronized long size() {
+        return count;
+    }
+
+    /**
+     * Kiírja a függőben lévő módosításokat a lemezre.
+     *
+     * @throws IOException Ha a kiírás nem sikerül.
+     */
+    public synchronized void flush() throws IOException {
+        data.force(false);
+        index.force(false);
+    }
+
+    /**
+     * Bezárja az archívum fájljait.
+     *
+     * @throws IOException Ha a bezárás nem sikerül.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            data.close();
+        } finally {
+            index.close();
+        }
+    }
+
+    /**
+     * Beolvassa egy rekord pozícióját az indexből.
+     *
+     * @param i A rekord sorszáma.
+     * @return A rekord pozíciója az adatfájlban.
+     * @throws IOException Ha az index nem olvasható.
+     */
+    private long offsetOf(final long i) throws IOException {
+        entry.clear();
+        if (readFully(index, entry, i * INDEX_ENTRY_BYTES)
+                < INDEX_ENTRY_BYTES) {
+            throw new IOException("Sérült index: " + i);
+        }
+        return entry.getLong(0);
+    }
+
+    /**
+     * Gondoskodik róla, hogy a közös puffer elférjen a megadott méret.
+     *
+     * @param bytes A szükséges méret bájtban.
+     */
+    private void ensureCapacity(final int bytes) {
+        if (buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocate(Math.max(bytes,
+                    2 * buffer.capacity()));
+        }
+    }
+
+    /**
+     * A puffer teljes tartalmát kiírja a megadott pozíciótól.
+     *
+     * @param channel  A cél csatorna.
+     * @param source   A kiírandó puffer.
+     * @param position A kezdő pozíció a fájlban.
+     * @throws IOException Ha az írás nem sikerül.
+     */
+    private static void writeFully(final FileChannel channel,
+                                   final ByteBuffer source,
+                                   final long position) throws IOException {
+        long at = position;
+        while (source.hasRemaining()) {
+            at += channel.write(source, at);
+        }
+    }
+
+    /**
+     * A puffert a fájl végéig feltölti a megadott pozíciótól.
+     *
+     * @param channel  A forrás csatorna.
+     * @param target   A feltöltendő puffer.
+     * @param position A kezdő pozíció a fájlban.
+     * @return A beolvasott bájtok száma.
+     * @throws IOException Ha az olvasás nem sikerül.
+     */
+    private static int readFully(final FileChannel channel,
+                                 final ByteBuffer target,
+                                 final long position) throws IOException {
+        int total = 0;
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,432 @@
+package com.connect4;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * A GameImporter osztály nagy, soronként egy lépéssort (például
+ * {@code "4453"}) tartalmazó szöveges adathalmazokat olvas be és játszik
+ * vissza állandó memóriával.
+ *
+ * <p>A feldolgozás három lépcsős csővezeték: egy olvasó szál a sorokat egy
+ * korlátos sorba teszi, a munkaszálak a sorokat egy-egy újrahasznált
+ * {@link Board} táblán visszajátsszák, az eredményeket pedig a hívó szál
+ * egy második korlátos sorból adja át a fogyasztónak. A korlátos sorok
+ * visszanyomást adnak: ha a fogyasztó lassú, az olvasó megáll, így a
+ * memóriában egyszerre legfeljebb a két sor kapacitásnyi játszma van,
+ * a bemenet méretétől függetlenül. Az eredmények sorrendje több
+ * munkaszál esetén eltérhet a bemenetétől; a sorszámot a
+ * {@link ReplayResult#getIndex()} adja meg.</p>
+ */
+public final class GameImporter {
+    /** Az alapértelmezett sorkapacitás. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /** Az olvasó puffer mérete bájtban. */
+    private static final int READ_BUFFER_BYTES = 65536;
+
+    /** Nanoszekundum ezredmásodpercenként. */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /** A parancs helye a parancssori argumentumok között. */
+    private static final int ARG_COMMAND = 0;
+
+    /** A forrásfájl helye a parancssori argumentumok között. */
+    private static final int ARG_SOURCE = 1;
+
+    /** A célfájl helye a parancssori argumentumok között. */
+    private static final int ARG_TARGET = 2;
+
+    /** A bemenet végét jelző elem a sorokban. */
+    private static final Line END = new Line(-1, null);
+
+    /** A munkaszál végét jelző elem az eredmények sorában. */
+    private static final ReplayResult DONE =
+            new ReplayResult(-1, null, '\0', 0, "vége");
+
+    /** A sorok száma. */
+    private final int rows;
+
+    /** Az oszlopok száma. */
+    private final int columns;
+
+    /** A munkaszálak száma. */
+    private final int workers;
+
+    /** A korlátos sorok kapacitása. */
+    private final int queueCapacity;
+
+    /**
+     * Konstruktor a GameImporter osztályhoz.
+     *
+     * @param rowsParam          A sorok száma.
+     * @param columnsParam       Az oszlopok száma (legfeljebb
+     *                           {@value GameRecord#MAX_TEXT_COLUMNS}).
+     * @param workersParam       A munkaszálak száma.
+     * @param queueCapacityParam A korlátos sorok kapacitása.
+     * @throws IllegalArgumentException Ha valamelyik paraméter
+     *                                  érvénytelen.
+     */
+    public GameImporter(final int rowsParam, final int columnsParam,
+                        final int workersParam,
+                        final int queueCapacityParam) {
+        if (rowsParam < 1 || columnsParam < 1
+                || columnsParam > GameRecord.MAX_TEXT_COLUMNS) {
+            throw new IllegalArgumentException("Érvénytelen táblaméret.");
+        }
+        if (workersParam < 1 || queueCapacityParam < 1) {
+            throw new IllegalArgumentException(
+                    "A szálak száma és a sorkapacitás legalább 1.");
+        }
+        this.rows = rowsParam;
+        this.columns = columnsParam;
+        this.workers = workersParam;
+        this.queueCapacity = queueCapacityParam;
+    }
+
+    /**
+     * Beolvassa és visszajátssza egy szöveges fájl játszmáit.
+     *
+     * @param path A fájl útvonala.
+     * @param sink Az eredmények fogyasztója (a hívó szálon fut).
+     * @return A feldolgozás összesítése.
+     * @throws IOException          Ha a fájl nem olvasható.
+     * @throws InterruptedException Ha a várakozást megszakítják.
+     */
+    public ImportSummary importFile(final Path path,
+                                    final Consumer<ReplayResult> sink)
+            throws IOException, InterruptedException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(path),
+                        StandardCharsets.US_ASCII), READ_BUFFER_BYTES)) {
+            return importGames(reader, sink);
+        }
+    }
+
+    /**
+     * Beolvassa és visszajátssza a játszmákat: soronként az első
+     * szóközzel elválasztott mező a lépéssor, az üres sorokat kihagyja.
+     * A hibás sorok érvénytelen {@link ReplayResult} eredményt adnak, és
+     * nem állítják le a feldolgozást. Ha az olvasó vagy egy munkaszál
+     * váratlan kivétellel leáll, a többi eredmény átadása után a metódus
+     * ugyanezt a kivételt dobja tovább.
+     *
+     * @param reader A bemenet.
+     * @param sink   Az eredmények fogyasztója (a hívó szálon fut).
+     * @return A feldolgozás összesítése.
+     * @throws IOException          Ha a bemenet nem olvasható.
+     * @throws InterruptedException Ha a várakozást megszakítják.
+     */
+    public ImportSummary importGames(final BufferedReader reader,
+                                     final Consumer<ReplayResult> sink)
+            throws IOException, InterruptedException {
+        BlockingQueue<Line> lines = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<ReplayResult> results =
+                new ArrayBlockingQueue<>(queueCapacity);
+        ImportSummary summary = new ImportSummary();
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(workers + 1);
+        try {
+            Future<?> producer = executor.submit(() -> {
+                read(reader, lines);
+                return null;
+            });
+            List<Future<?>> replayers = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                replayers.add(executor.submit(() -> {
+                    replayAll(lines, results);
+                    return null;
+                }));
+            }
+            int running = workers;
+            while (running > 0) {
+                ReplayResult result = results.take();
+                if (result == DONE) {
+                    running--;
+                } else {
+                    summary.add(result);
+                    sink.accept(result);
+                }
+            }
+            for (Future<?> replayer : replayers) {
+                replayer.get();
+            }
+            producer.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+        summary.setElapsedNanos(System.nanoTime() - start);
+        return summary;
+    }
+
+    /**
+     * Beolvassa a bemenet sorait a sorba, majd munkaszálanként egy
+     * végjelet tesz utánuk. Olvasási hiba vagy váratlan kivétel esetén is
+     * lezárja a sort, hogy a munkaszálak leálljanak; megszakításkor
+     * viszont nem vár tovább.
+     *
+     * @param reader A bemenet.
+     * @param lines  A sorok korlátos sora.
+     * @throws IOException          Ha a bemenet nem olvasható.
+     * @throws InterruptedException Ha a várakozást megszakítják.
+     */
+    private void read(final BufferedReader reader,
+                      final BlockingQueue<Line> lines)
+            throws IOException, InterruptedException {
+        try {
+            long index = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                String moves = firstField(text);
+                if (!moves.isEmpty()) {
+                    lines.put(new Line(index++, moves));
+                }
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            endAll(lines);
+            throw e;
+        }
+        endAll(lines);
+    }
+
+    /**
+     * Munkaszálanként egy végjelet tesz a sorba.
+     *
+     * @param lines A sorok korlátos sora.
+     * @throws InterruptedException Ha a várakozást megszakítják.
+     */
+    private void endAll(final BlockingQueue<Line> lines)
+            throws InterruptedException {
+        for (int i = 0; i < workers; i++) {
+            lines.put(END);
+        }
+    }
+
+    /**
+     * Egy munkaszál ciklusa: a végjelig visszajátssza a sorokat egy
+     * újrahasznált táblán. Végül, váratlan kivétel esetén is, egy
+     * végjelet tesz az eredmények közé, hogy a hívó ne várjon rá
+     * tovább; megszakításkor viszont nem vár tovább.
+     *
+     * @param lines   A sorok korlátos sora.
+     * @param results Az eredmények korlátos sora.
+     * @throws InterruptedException Ha a várakozást megszakítják.
+     */
+    private void replayAll(final BlockingQueue<Line> lines,
+                           final BlockingQueue<ReplayResult> results)
+            throws InterruptedException {
+        try {
+            Board board = new Board(rows, columns, 'X', 'O');
+            Line line = lines.take();
+            while (line != END) {
+                results.put(replay(board, line));
+                line = lines.take();
+            }
+        } catch (RuntimeException | Error e) {
+            results.put(DONE);
+            throw e;
+        }
+        results.put(DONE);
+    }
+
+    /**
+     * Visszajátszik egy lépéssort, majd a táblát üresre visszavonja.
+     *
+     * @param board Az üres, újrahasznált tábla.
+     * @param line  A beolvasott sor.
+     * @return A visszajátszás eredménye.
+     */
+    private ReplayResult replay(final Board board, final Line line) {
+        GameRecord game;
+        try {
+            game = GameRecord.parseMoves(line.text, rows, columns);
+        } catch (IllegalArgumentException e) {
+            return new ReplayResult(line.index, null, '\0', 0,
+                    e.getMessage());
+        }
+        char winner = '\0';
+        String error = null;
+        int ply = 0;
+        for (int move : game.getMoves()) {
+            if (winner != '\0') {
+                error = "Lépés a játszma vége után: " + (ply + 1) + ".";
+                break;
+            }
+            if (!board.isColumnValid(move)) {
+                error = "A(z) " + (ply + 1) + ". lépés oszlopa tele van.";
+                break;
+            }
+            int slot = ply % 2;
+            if (board.isWinningMove(move, slot)) {
+                winner = board.getTokenToMove();
+            }
+            board.play(move);
+            ply++;
+        }
+        for (int i = 0; i < ply; i++) {
+            board.undo();
+        }
+        return new ReplayResult(line.index, game, winner, ply, error);
+    }
+
+    /**
+     * Visszaadja a sor első, szóközzel elválasztott mezőjét.
+     *
+     * @param text A sor.
+     * @return Az első mező, vagy üres szöveg.
+     */
+    private static String firstField(final String text) {
+        String trimmed = text.strip();
+        int end = 0;
+        while (end < trimmed.length()
+                && !Character.isWhitespace(trimmed.charAt(end))) {
+            end++;
+        }
+        return trimmed.substring(0, end);
+    }
+
+    /**
+     * Kiírja egy archívum játszmáit soronként egy lépéssorként.
+     *
+     * @param archive Az archívum.
+     * @param writer  A kimenet.
+     * @return A kiírt játszmák száma.
+     * @throws IOException Ha az archívum nem olvasható, vagy az írás
+     *                     sikertelen.
+     */
+    public static long exportArchive(final GameArchive archive,
+                                     final Writer writer)
+            throws IOException {
+        BufferedWriter out = writer instanceof BufferedWriter
+                ? (BufferedWriter) writer
+                : new BufferedWriter(writer, READ_BUFFER_BYTES);
+        long size = archive.size();
+        for (long i = 0; i < size; i++) {
+            out.write(archive.read(i).toMoveString());
+            out.newLine();
+        }
+        out.flush();
+        return size;
+    }
+
+    /**
+     * A program belépési pontja.
+     *
+     * <p>{@code import <szövegfájl> [archívum]}: beolvassa a lépéssorokat
+     * a szabványos 6x7-es táblára, és az érvényeseket az archívumba
+     * fűzi. {@code export <archívum> <szövegfájl>}: kiírja az archívum
+     * játszmáit lépéssorként.</p>
+     *
+     * @param args A parancs és a fájlnevek.
+     * @throws IOException          Ha a fájlok nem olvashatók vagy
+     *                              írhatók.
+     * @throws InterruptedException Ha a várakozást megszakítják.
+     */
+    public static void main(final String[] args)
+            throws IOException, InterruptedException {
+        if (args.length <= ARG_SOURCE) {
+            System.out.println("Használat: import <szövegfájl> [archívum]"
+                    + " | export <archívum> <szövegfájl>");
+            return;
+        }
+        Path source = Paths.get(args[ARG_SOURCE]);
+        if ("export".equals(args[ARG_COMMAND]) && args.length > ARG_TARGET) {
+            long start = System.nanoTime();
+            long count;
+            try (GameArchive archive = GameArchive.open(source);
+                 Writer writer = Files.newBufferedWriter(
+                         Paths.get(args[ARG_TARGET]),
+                         StandardCharsets.US_ASCII)) {
+                count = exportArchive(archive, writer);
+            }
+            System.out.printf("%d játszma kiírva (%.1f ms).%n", count,
+                    (System.nanoTime() - start) / NANOS_PER_MILLI);
+            return;
+        }
+        GameImporter importer = new GameImporter(Constants.DEFAULT_ROWS,
+                Constants.DEFAULT_COLUMNS,
+                Runtime.getRuntime().availableProcessors(),
+                DEFAULT_QUEUE_CAPACITY);
+        ImportSummary summary;
+        if (args.length > ARG_TARGET) {
+            try (GameArchive archive = GameArchive.open(
+                    Paths.get(args[ARG_TARGET]))) {
+                summary = importer.importFile(source, result -> {
+                    if (result.isValid()) {
+                        append(archive, result.getGame());
+                    }
+                });
+            }
+        } else {
+            summary = importer.importFile(source, result -> { });
+        }
+        System.out.println(summary);
+    }
+
+    /**
+     * Hozzáfűz egy játszmát az archívumhoz, az I/O hibát ellenőrizetlen
+     * kivételként továbbadva.
+     *
+     * @param archive Az archívum.
+     * @param game    A játszma.
+     */
+    private static void append(final GameArchive archive,
+                               final GameRecord game) {
+        try {
+            archive.append(game);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Egy beolvasott, még fel nem dolgozott sor.
+     */
+    private static final class Line {
+        /** A sor sorszáma a nem üres sorok között. */
+        private final long index;
+
+        /** A lépéssor. */
+        private final String text;
+
+        /**
+         * Konstruktor a Line osztályhoz.
+         *
+         * @param indexParam A sor sorszáma.
+         * @param textParam  A lépéssor.
+         */
+        Line(final long indexParam, final String textParam) {
+            this.index = indexParam;
+            this.text = textParam;
+        }
+    }
+}
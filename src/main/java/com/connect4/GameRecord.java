@@ -0,0 +1,361 @@
+package com.connect4;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A GameRecord osztály egy lejátszott játszmát ír le a tábla méretével, a
+ * két token kezdési sorrendjével és a lépések oszlopaival.
+ *
+ * <p>Binárisan a fejléc után a lépések tömörítve kerülnek tárolásra:
+ * legfeljebb {@value #NIBBLE_COLUMNS} oszlopos tábláknál két lépés jut egy
+ * bájtra, különben lépésenként egy bájt. Egy 6x7-es játszma így legfeljebb
+ * 29 bájt.</p>
+ */
+public final class GameRecord {
+    /** A legnagyobb tárolható sor- és oszlopszám. */
+    public static final int MAX_DIMENSION = 0xFF;
+
+    /** A félbájtos lépéskódolást még használó legnagyobb oszlopszám. */
+    static final int NIBBLE_COLUMNS = 16;
+
+    /** A bináris fejléc mérete bájtban. */
+    static final int HEADER_BYTES = 8;
+
+    /** Egy félbájt bitjeinek száma. */
+    private static final int NIBBLE_BITS = 4;
+
+    /** Egy félbájt maszkja. */
+    private static final int NIBBLE_MASK = 0x0F;
+
+    /** Egy bájt maszkja. */
+    private static final int BYTE_MASK = 0xFF;
+
+    /** Egy előjel nélküli rövid egész maszkja. */
+    private static final int SHORT_MASK = 0xFFFF;
+
+    /** A szöveges lépéssorral leírható legnagyobb oszlopszám. */
+    public static final int MAX_TEXT_COLUMNS = 9;
+
+    /** HashCode mágikus szám. */
+    private static final int HASH_MULTIPLIER = 31;
+
+    /** A sorok száma. */
+    private final int rows;
+
+    /** Az oszlopok száma. */
+    private final int columns;
+
+    /** A kezdő játékos tokenje. */
+    private final char firstToken;
+
+    /** A második játékos tokenje. */
+    private final char secondToken;
+
+    /** A lépések oszlopai a lejátszás sorrendjében. */
+    private final int[] moves;
+
+    /**
+     * Konstruktor a GameRecord osztályhoz.
+     *
+     * @param rowsParam        A sorok száma.
+     * @param columnsParam     Az oszlopok száma.
+     * @param firstTokenParam  A kezdő játékos tokenje.
+     * @param secondTokenParam A második játékos tokenje.
+     * @param movesParam       A lépések oszlopai (a tömböt lemásoljuk).
+     * @throws IllegalArgumentException Ha a méret, a tokenek vagy a
+     *                                  lépések érvénytelenek.
+     */
+    public GameRecord(final int rowsParam, final int columnsParam,
+                      final char firstTokenParam, final char secondTokenParam,
+                      final int[] movesParam) {
+        if (rowsParam < 1 || rowsParam > MAX_DIMENSION
+                || columnsParam < 1 || columnsParam > MAX_DIMENSION) {
+            throw new IllegalArgumentException("Érvénytelen táblaméret.");
+        }
+        if (firstTokenParam == '\0' || secondTokenParam == '\0'
+                || firstTokenParam == secondTokenParam) {
+            throw new IllegalArgumentException("Érvénytelen tokenek.");
+        }
+        if (movesParam.length > rowsParam * columnsParam) {
+            throw new IllegalArgumentException("Túl sok lépés.");
+        }
+        for (int move : movesParam) {
+            if (move < 0 || move >= columnsParam) {
+                throw new IllegalArgumentException(
+                        "Érvénytelen oszlop: " + move);
+            }
+        }
+        this.rows = rowsParam;
+        this.columns = columnsParam;
+        this.firstToken = firstTokenParam;
+        this.secondToken = secondTokenParam;
+        this.moves = movesParam.clone();
+    }
+
+    /**
+     * Visszaadja a sorok számát.
+     *
+     * @return A sorok száma.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Visszaadja az oszlopok számát.
+     *
+     * @return Az oszlopok száma.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Visszaadja a kezdő játékos tokenjét.
+     *
+     * @return A kezdő token.
+     */
+    public char getFirstToken() {
+        return firstToken;
+    }
+
+    /**
+     * Visszaadja a második játékos tokenjét.
+     *
+     * @return A második token.
+     */
+    public char getSecondToken() {
+        return secondToken;
+    }
+
+    /**
+     * Visszaadja a lépések számát.
+     *
+     * @return A lépések száma.
+     */
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    /**
+     * Visszaadja a lépések oszlopait.
+     *
+     * @return A lépések másolata.
+     */
+    public int[] getMoves() {
+        return moves.clone();
+    }
+
+    /**
+     * Visszajátssza a játszmát egy új táblán, a kezdő tokentől
+     * felváltva.
+     *
+     * @return A játszma végállását tartalmazó tábla.
+     * @throws IllegalArgumentException Ha egy lépés teli oszlopba esne.
+     */
+    public Board toBoard() {
+        Board board = new Board(rows, columns);
+        for (int i = 0; i < moves.length; i++) {
+            char token = i % 2 == 0 ? firstToken : secondToken;
+            if (!board.placeToken(moves[i], token)) {
+                throw new IllegalArgumentException(
+                        "A(z) " + i + ". lépés oszlopa tele van.");
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Visszaadja a játszma középső oszlopra tükrözött változatát.
+     *
+     * @return Az új, tükrözött játszma.
+     */
+    public GameRecord mirror() {
+        int[] mirrored = new int[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            mirrored[i] = columns - 1 - moves[i];
+        }
+        return new GameRecord(rows, columns, firstToken, secondToken,
+                mirrored);
+    }
+
+    /**
+     * Visszaadja a játszma kanonikus alakját: önmagát vagy a tükörképét,
+     * amelyiknek a lépéssora lexikografikusan kisebb. A tükrözött
+     * játszmák kanonikus alakja megegyezik, így egy archívum vagy halmaz
+     * egyetlen példányban tárolhatja őket.
+     *
+     * @return A kanonikus játszma.
+     */
+    public GameRecord canonical() {
+        for (int move : moves) {
+            int mirrored = columns - 1 - move;
+            if (move != mirrored) {
+                return move < mirrored ? this : mirror();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Beolvas egy szöveges lépéssort, például {@code "4453"}: minden
+     * számjegy egy lépés egytől számozott oszlopa, a kezdő 'X' és a
+     * második 'O' játékostól felváltva. A lépések érvényességét (teli
+     * oszlop, lépés a játszma vége után) nem ellenőrzi.
+     *
+     * @param text    A lépéssor.
+     * @param rows    A sorok száma.
+     * @param columns Az oszlopok száma (legfeljebb
+     *                {@value #MAX_TEXT_COLUMNS}).
+     * @return A játszma.
+     * @throws IllegalArgumentException Ha a lépéssor hibás.
+     */
+    public static GameRecord parseMoves(final CharSequence text,
+                                        final int rows, final int columns) {
+        if (columns > MAX_TEXT_COLUMNS) {
+            throw new IllegalArgumentException(
+                    "A lépéssor legfeljebb " + MAX_TEXT_COLUMNS
+                    + " oszlopot írhat le.");
+        }
+        int[] moveList = new int[text.length()];
+        for (int i = 0; i < moveList.length; i++) {
+            int column = text.charAt(i) - '1';
+            if (column < 0 || column >= columns) {
+                throw new IllegalArgumentException("Érvénytelen lépés a(z) "
+                        + (i + 1) + ". helyen: " + text.charAt(i));
+            }
+            moveList[i] = column;
+        }
+        return new GameRecord(rows, columns, 'X', 'O', moveList);
+    }
+
+    /**
+     * Visszaadja a játszma szöveges lépéssorát a
+     * {@link #parseMoves(CharSequence, int, int)} formátumában.
+     *
+     * @return A lépéssor.
+     * @throws IllegalStateException Ha a tábla túl széles a szöveges
+     *                               alakhoz.
+     */
+    public String toMoveString() {
+        if (columns > MAX_TEXT_COLUMNS) {
+            throw new IllegalStateException(
+                    "A lépéssor legfeljebb " + MAX_TEXT_COLUMNS
+                    + " oszlopot írhat le.");
+        }
+        StringBuilder sb = new StringBuilder(moves.length);
+        for (int move : moves) {
+            sb.append((char) ('1' + move));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Visszaadja a bináris alak méretét bájtban.
+     *
+     * @return A kódolt méret.
+     */
+    int encodedSize() {
+        return HEADER_BYTES + packedBytes(columns, moves.length);
+    }
+
+    /**
+     * Kiszámítja a tömörített lépések méretét bájtban.
+     *
+     * @param columnCount Az oszlopok száma.
+     * @param moveCount   A lépések száma.
+     * @return A lépések kódolt mérete.
+     */
+    private static int packedBytes(final int columnCount,
+                                   final int moveCount) {
+        return columnCount <= NIBBLE_COLUMNS ? (moveCount + 1) / 2 : moveCount;
+    }
+
+    /**
+     * Kiírja a játszma bináris alakját a puffer aktuális pozíciójára.
+     *
+     * @param buffer A cél puffer, legalább {@link #encodedSize()} szabad
+     *               hellyel.
+     */
+    void writeTo(final ByteBuffer buffer) {
+        buffer.put((byte) rows);
+        buffer.put((byte) columns);
+        buffer.putChar(firstToken);
+        buffer.putChar(secondToken);
+        buffer.putShort((short) moves.length);
+        if (columns > NIBBLE_COLUMNS) {
+            for (int move : moves) {
+                buffer.put((byte) move);
+            }
+            return;
+        }
+        for (int i = 0; i < moves.length; i += 2) {
+            int low = i + 1 < moves.length ? moves[i + 1] : 0;
+            buffer.put((byte) (moves[i] << NIBBLE_BITS | low));
+        }
+    }
+
+    /**
+     * Beolvas egy játszmát a puffer aktuális pozíciójáról.
+     *
+     * @param buffer A forrás puffer.
+     * @return A beolvasott játszma.
+     * @throws IllegalArgumentException Ha az adat nem érvényes játszma.
+     */
+    static GameRecord readFrom(final ByteBuffer buffer) {
+        int rowCount = buffer.get() & BYTE_MASK;
+        int columnCount = buffer.get() & BYTE_MASK;
+        char first = buffer.getChar();
+        char second = buffer.getChar();
+        int[] moveList = new int[buffer.getShort() & SHORT_MASK];
+        if (columnCount > NIBBLE_COLUMNS) {
+            for (int i = 0; i < moveList.length; i++) {
+                moveList[i] = buffer.get() & BYTE_MASK;
+            }
+        } else {
+            for (int i = 0; i < moveList.length; i += 2) {
+                int packed = buffer.get() & BYTE_MASK;
+                moveList[i] = packed >>> NIBBLE_BITS;
+                if (i + 1 < moveList.length) {
+                    moveList[i + 1] = packed & NIBBLE_MASK;
+                }
+            }
+        }
+        return new GameRecord(rowCount, columnCount, first, second, moveList);
+    }
+
+    /**
+     * Ellenőrzi, hogy két játszma egyenlő-e.
+     *
+     * @param o Az összehasonlítandó objektum.
+     * @return True, ha egyenlő, különben false.
+     */
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GameRecord)) {
+            return false;
+        }
+        GameRecord other = (GameRecord) o;
+        return rows == other.rows && columns == other.columns
+                && firstToken == other.firstToken
+                && secondToken == other.secondToken
+                && Arrays.equals(moves, other.moves);
+    }
+
+    /**
+     * Visszaadja a játszma hash kódját.
+     *
+     * @return A hash kód.
+     */
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(moves);
+        result = HASH_MULTIPLIER * result + rows * MAX_DIMENSION + columns;
+        return HASH_MULTIPLIER * result
+                + (firstToken << Character.SIZE | secondToken);
+    }
+}
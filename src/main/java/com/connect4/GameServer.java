@@ -0,0 +1,217 @@
+package com.connect4;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A GameServer osztály sok játszmát szolgál ki egy folyamaton belül, a
+ * helyi gépen elérhető TCP porton.
+ *
+ * <p>Minden kapcsolat egy {@link GameSession} munkamenet a saját virtuális
+ * szálán, így több tízezer egyidejű játszma sem köt le platformszálakat. A
+ * lépések a konzol helyett a munkamenet szöveges protokollján érkeznek. A
+ * megadott ideig tétlen munkameneteket a szerver lezárja.</p>
+ */
+public final class GameServer implements AutoCloseable {
+    /** Az alapértelmezett port. */
+    public static final int DEFAULT_PORT = 4004;
+
+    /** Az alapértelmezett tétlenségi időkorlát ezredmásodpercben. */
+    public static final int DEFAULT_IDLE_TIMEOUT_MILLIS = 60_000;
+
+    /** A várakozó kapcsolatok sorának hossza. */
+    private static final int BACKLOG = 4096;
+
+    /** A leállításkor a munkamenetekre várás ideje másodpercben. */
+    private static final int SHUTDOWN_SECONDS = 5;
+
+    /** Az első sikertelen fogadás utáni várakozás ezredmásodpercben. */
+    private static final long ACCEPT_BACKOFF_MILLIS = 10L;
+
+    /** A sikertelen fogadások utáni leghosszabb várakozás. */
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1_000L;
+
+    /** A szerver socket. */
+    private final ServerSocket serverSocket;
+
+    /** A tétlenségi időkorlát ezredmásodpercben. */
+    private final int idleTimeoutMillis;
+
+    /** A munkamenetek virtuális szálait indító végrehajtó. */
+    private final ExecutorService executor =
+            Executors.newVirtualThreadPerTaskExecutor();
+
+    /** Az aktív munkamenetek. */
+    private final Set<GameSession> sessions = ConcurrentHashMap.newKeySet();
+
+    /** Az összes elfogadott kapcsolat száma. */
+    private final AtomicLong accepted = new AtomicLong();
+
+    /** A tétlenség miatt lezárt munkamenetek száma. */
+    private final AtomicLong evicted = new AtomicLong();
+
+    /** Igaz, ha a szervert leállították. */
+    private volatile boolean closed;
+
+    /**
+     * Konstruktor a GameServer osztályhoz; a socketet a helyi címhez köti.
+     *
+     * @param port                   A port (0: tetszőleges szabad port).
+     * @param idleTimeoutMillisParam A tétlenségi időkorlát
+     *                               ezredmásodpercben (0: nincs).
+     * @throws IOException Ha a port nem foglalható le.
+     */
+    public GameServer(final int port, final int idleTimeoutMillisParam)
+            throws IOException {
+        if (idleTimeoutMillisParam < 0) {
+            throw new IllegalArgumentException(
+                    "Az időkorlát nem lehet negatív.");
+        }
+        this.serverSocket = new ServerSocket(port, BACKLOG,
+                InetAddress.getLoopbackAddress());
+        this.idleTimeoutMillis = idleTimeoutMillisParam;
+    }
+
+    /**
+     * Elindítja a kapcsolatok fogadását egy virtuális szálon.
+     */
+    public void start() {
+        executor.execute(this::acceptLoop);
+    }
+
+    /**
+     * Fogadja a kapcsolatokat, és mindegyiknek munkamenetet indít. Ismétlődő
+     * fogadási hiba (például elfogyott fájlleírók) esetén egyre hosszabban
+     * vár, hogy ne pörögjön; a lezárt socketnél kilép.
+     */
+    private void acceptLoop() {
+        long backoff = ACCEPT_BACKOFF_MILLIS;
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                backoff = ACCEPT_BACKOFF_MILLIS;
+                socket.setSoTimeout(idleTimeoutMillis);
+                socket.setTcpNoDelay(true);
+                GameSession session = new GameSession(this, socket);
+                sessions.add(session);
+                accepted.incrementAndGet();
+                executor.execute(session);
+            } catch (IOException e) {
+                if (closed || serverSocket.isClosed()) {
+                    return;
+                }
+                System.out.println("Hiba a kapcsolat fogadása során: "
+                        + e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(2 * backoff, MAX_ACCEPT_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * Jelzi, hogy egy munkamenet tétlenség miatt zárult le.
+     */
+    void sessionEvicted() {
+        evicted.incrementAndGet();
+    }
+
+    /**
+     * Eltávolít egy lezárt munkamenetet.
+     *
+     * @param session A munkamenet.
+     */
+    void sessionClosed(final GameSession session) {
+        sessions.remove(session);
+    }
+
+    /**
+     * Visszaadja a portot, amelyen a szerver figyel.
+     *
+     * @return A port száma.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Visszaadja az aktív munkamenetek számát.
+     *
+     * @return Az aktív munkamenetek száma.
+     */
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * Visszaadja az összes elfogadott kapcsolat számát.
+     *
+     * @return Az elfogadott kapcsolatok száma.
+     */
+    public long getAcceptedSessions() {
+        return accepted.get();
+    }
+
+    /**
+     * Visszaadja a tétlenség miatt lezárt munkamenetek számát.
+     *
+     * @return A lezárt munkamenetek száma.
+     */
+    public long getEvictedSessions() {
+        return evicted.get();
+    }
+
+    /**
+     * Leállítja a szervert és lezárja az összes munkamenetet.
+     *
+     * @throws IOException Ha a szerver socket nem zárható le.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (GameSession session : sessions) {
+            session.close();
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A program belépési pontja: elindítja a szervert, és a folyamat
+     * leállításáig fut.
+     *
+     * @param args Opcionálisan a port és a tétlenségi időkorlát
+     *             másodpercben.
+     * @throws IOException          Ha a port nem foglalható le.
+     * @throws InterruptedException Ha a várakozást megszakítják.
+     */
+    public static void main(final String[] args)
+            throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int idleMillis = args.length > 1
+                ? (int) TimeUnit.SECONDS.toMillis(Integer.parseInt(args[1]))
+                : DEFAULT_IDLE_TIMEOUT_MILLIS;
+        GameServer server = new GameServer(port, idleMillis);
+        server.start();
+        System.out.println("A szerver fut a(z) " + server.getPort()
+                + ". porton.");
+        Thread.currentThread().join();
+    }
+}
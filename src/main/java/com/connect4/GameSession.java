@@ -0,0 +1,246 @@
+package com.connect4;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A GameSession osztály egy {@link GameServer} kapcsolatot szolgál ki a
+ * saját virtuális szálán.
+ *
+ * <p>A protokoll soronkénti szöveges parancsokból áll; minden parancsra
+ * egy sor a válasz, {@code OK} vagy {@code ERR} kezdettel:</p>
+ * <ul>
+ *   <li>{@code NEW [sorok oszlopok [mélység]]} – új játszma; pozitív
+ *       mélység esetén a szerver az 'O' játékos lépéseit is megteszi. A
+ *       mélységet a szerver legfeljebb {@value #MAX_DEPTH}-re veszi, és
+ *       egy lépésre legfeljebb {@value #AI_MOVE_MILLIS} ms-ot keres.</li>
+ *   <li>{@code MOVE oszlop} – a lépő játékos lépése; a válasz
+ *       {@code OK [AI oszlop] NEXT|DRAW|WIN token}.</li>
+ *   <li>{@code BOARD} – a tábla sorai '/' jellel elválasztva, az üres
+ *       mezők '.' jellel.</li>
+ *   <li>{@code QUIT} – a kapcsolat lezárása ({@code BYE}).</li>
+ * </ul>
+ */
+final class GameSession implements Runnable {
+    /** A kezdő (emberi) játékos tokenje. */
+    private static final char FIRST = 'X';
+
+    /** A második játékos (vagy a szerver AI) tokenje. */
+    private static final char SECOND = 'O';
+
+    /** A NEW parancs argumentumainak száma mélységgel együtt. */
+    private static final int NEW_WITH_DEPTH = 4;
+
+    /** A legnagyobb engedélyezett táblaméret a szerveren. */
+    private static final int MAX_DIMENSION = 64;
+
+    /** A szerver AI legnagyobb keresési mélysége. */
+    static final int MAX_DEPTH = 12;
+
+    /** A szerver AI egy lépésre jutó keresési ideje ezredmásodpercben. */
+    static final long AI_MOVE_MILLIS = 500L;
+
+    /**
+     * A munkamenetenkénti gyorsítótár méretének kettes alapú logaritmusa;
+     * kicsi, mert egy szerveren sok ezer munkamenet futhat.
+     */
+    private static final int TABLE_BITS = 14;
+
+    /** A szerver, amelyhez a munkamenet tartozik. */
+    private final GameServer server;
+
+    /** A kliens kapcsolata. */
+    private final Socket socket;
+
+    /** Az aktuális játszma táblája. */
+    private Board board;
+
+    /** A szerver oldali AI keresője, vagy null, ha két ember játszik. */
+    private SearchEngine engine;
+
+    /** Igaz, ha a játszma véget ért. */
+    private boolean finished;
+
+    /**
+     * Konstruktor a GameSession osztályhoz.
+     *
+     * @param serverParam A szerver.
+     * @param socketParam A kliens kapcsolata.
+     */
+    GameSession(final GameServer serverParam, final Socket socketParam) {
+        this.server = serverParam;
+        this.socket = socketParam;
+        this.board = new Board(Constants.DEFAULT_ROWS,
+                Constants.DEFAULT_COLUMNS, FIRST, SECOND);
+    }
+
+    /**
+     * Beolvassa és végrehajtja a kliens parancsait a kapcsolat végéig
+     * vagy a tétlenségi időkorlát lejártáig.
+     */
+    @Override
+    public void run() {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                     socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String response = handle(line.trim());
+                out.write(response);
+                out.newLine();
+                out.flush();
+                if ("BYE".equals(response)) {
+                    break;
+                }
+            }
+        } catch (SocketTimeoutException e) {
+            server.sessionEvicted();
+        } catch (IOException e) {
+            // A kliens bontotta a kapcsolatot; nincs teendő
+        } finally {
+            close();
+            server.sessionClosed(this);
+        }
+    }
+
+    /**
+     * Végrehajt egy parancsot.
+     *
+     * @param command A parancs sora.
+     * @return A válasz sora.
+     */
+    String handle(final String command) {
+        String[] parts = command.split("\\s+");
+        try {
+            switch (parts[0].toUpperCase()) {
+                case "NEW":
+                    return newGame(parts);
+                case "MOVE":
+                    if (parts.length != 2) {
+                        return "ERR Használat: MOVE oszlop";
+                    }
+                    return move(Integer.parseInt(parts[1]));
+                case "BOARD":
+                    return "OK " + render();
+                case "QUIT":
+                    return "BYE";
+                default:
+                    return "ERR Ismeretlen parancs: " + parts[0];
+            }
+        } catch (NumberFormatException e) {
+            return "ERR Érvénytelen szám.";
+        }
+    }
+
+    /**
+     * Új játszmát kezd.
+     *
+     * @param parts A parancs szavai.
+     * @return A válasz sora.
+     */
+    private String newGame(final String[] parts) {
+        int rows = Constants.DEFAULT_ROWS;
+        int columns = Constants.DEFAULT_COLUMNS;
+        int depth = 0;
+        if (parts.length == 2 || parts.length > NEW_WITH_DEPTH) {
+            return "ERR Használat: NEW [sorok oszlopok [mélység]]";
+        }
+        if (parts.length > 2) {
+            rows = Integer.parseInt(parts[1]);
+            columns = Integer.parseInt(parts[2]);
+        }
+        if (parts.length >= NEW_WITH_DEPTH) {
+            depth = Integer.parseInt(parts[NEW_WITH_DEPTH - 1]);
+        }
+        if (rows < 1 || columns < 1 || rows > MAX_DIMENSION
+                || columns > MAX_DIMENSION || depth < 0) {
+            return "ERR Érvénytelen játszma-beállítás.";
+        }
+        board = new Board(rows, columns, FIRST, SECOND);
+        engine = depth > 0 ? new SearchEngine(Math.min(depth, MAX_DEPTH),
+                AI_MOVE_MILLIS, new TranspositionTable(TABLE_BITS)) : null;
+        finished = false;
+        return "OK";
+    }
+
+    /**
+     * Megteszi a lépő játékos lépését, majd szükség esetén az AI
+     * válaszát.
+     *
+     * @param column Az oszlop.
+     * @return A válasz sora.
+     */
+    private String move(final int column) {
+        if (finished) {
+            return "ERR A játszma véget ért.";
+        }
+        if (!board.isColumnValid(column)) {
+            return "ERR Érvénytelen oszlop: " + column;
+        }
+        char mover = board.getTokenToMove();
+        board.play(column);
+        if (board.checkWin() || board.isFull() || engine == null) {
+            return "OK " + state(mover);
+        }
+        char aiToken = board.getTokenToMove();
+        int aiColumn = engine.search(board, aiToken).getBestMove();
+        board.play(aiColumn);
+        return "OK AI " + aiColumn + " " + state(aiToken);
+    }
+
+    /**
+     * Leírja a játszma állapotát az utolsó lépés után.
+     *
+     * @param mover Az utolsó lépést tevő játékos tokenje.
+     * @return NEXT, DRAW vagy WIN és a győztes tokenje.
+     */
+    private String state(final char mover) {
+        if (board.checkWin()) {
+            finished = true;
+            return "WIN " + mover;
+        }
+        if (board.isFull()) {
+            finished = true;
+            return "DRAW";
+        }
+        return "NEXT";
+    }
+
+    /**
+     * Egy sorba írja a tábla állását.
+     *
+     * @return A sorok '/' jellel elválasztva.
+     */
+    private String render() {
+        StringBuilder sb = new StringBuilder(
+                board.getRows() * (board.getColumns() + 1));
+        for (int row = 0; row < board.getRows(); row++) {
+            if (row > 0) {
+                sb.append('/');
+            }
+            for (int col = 0; col < board.getColumns(); col++) {
+                char token = board.tokenAt(row, col);
+                sb.append(token == '\0' ? '.' : token);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Lezárja a kapcsolatot.
+     */
+    void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // A lezárás hibája nem érinti a többi munkamenetet
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.connect4;
+
+/**
+ * Az ImportSummary osztály egy {@link GameImporter} futás összesítését
+ * tárolja: a feldolgozott játszmák számát kimenetelek szerint és a
+ * feldolgozás sebességét.
+ */
+public final class ImportSummary {
+    /** Egy másodperc nanoszekundumban. */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /** A feldolgozott rekordok száma. */
+    private long games;
+
+    /** A hibás rekordok száma. */
+    private long invalid;
+
+    /** A kezdő játékos győzelmeinek száma. */
+    private long firstWins;
+
+    /** A második játékos győzelmeinek száma. */
+    private long secondWins;
+
+    /** A döntetlenek száma. */
+    private long draws;
+
+    /** A visszajátszott lépések száma. */
+    private long moves;
+
+    /** A feldolgozás ideje nanoszekundumban. */
+    private long elapsedNanos;
+
+    /**
+     * Hozzáadja egy játszma eredményét az összesítéshez.
+     *
+     * @param result A visszajátszás eredménye.
+     */
+    void add(final ReplayResult result) {
+        games++;
+        if (!result.isValid()) {
+            invalid++;
+            return;
+        }
+        moves += result.getEndPly();
+        GameRecord game = result.getGame();
+        if (result.getWinner() == game.getFirstToken()) {
+            firstWins++;
+        } else if (result.getWinner() == game.getSecondToken()) {
+            secondWins++;
+        } else if (result.isDraw()) {
+            draws++;
+        }
+    }
+
+    /**
+     * Beállítja a feldolgozás idejét.
+     *
+     * @param nanos Az idő nanoszekundumban.
+     */
+    void setElapsedNanos(final long nanos) {
+        this.elapsedNanos = nanos;
+    }
+
+    /**
+     * Visszaadja a feldolgozott rekordok számát.
+     *
+     * @return A rekordok száma.
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Visszaadja a hibás rekordok számát.
+     *
+     * @return A hibás rekordok száma.
+     */
+    public long getInvalid() {
+        return invalid;
+    }
+
+    /**
+     * Visszaadja a kezdő játékos győzelmeinek számát.
+     *
+     * @return A győzelmek száma.
+     */
+    public long getFirstWins() {
+        return firstWins;
+    }
+
+    /**
+     * Visszaadja a második játékos győzelmeinek számát.
+     *
+     * @return A győzelmek száma.
+     */
+    public long getSecondWins() {
+        return secondWins;
+    }
+
+    /**
+     * Visszaadja a döntetlenek számát.
+     *
+     * @return A döntetlenek száma.
+     */
+    public long getDraws() {
+        return draws;
+    }
+
+    /**
+     * Visszaadja a visszajátszott lépések számát.
+     *
+     * @return A lépések száma.
+     */
+    public long getMoves() {
+        return moves;
+    }
+
+    /**
+     * Visszaadja a feldolgozás idejét.
+     *
+     * @return Az idő nanoszekundumban.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Visszaadja a másodpercenként feldolgozott játszmák számát.
+     *
+     * @return A játszma/s érték (0, ha nem telt el mérhető idő).
+     */
+    public double getGamesPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0.0;
+        }
+        return games * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    /**
+     * Visszaadja az összesítés szöveges alakját.
+     *
+     * @return Az összesítés egy sorban.
+     */
+    @Override
+    public String toString() {
+        return String.format("játszmák=%d hibás=%d X=%d O=%d döntetlen=%d "
+                        + "lépések=%d (%.0f játszma/s)", games, invalid,
+                firstWins, secondWins, draws, moves, getGamesPerSecond());
+    }
+}
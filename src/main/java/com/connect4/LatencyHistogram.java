@@ -0,0 +1,177 @@
+package com.connect4;
+
+import java.util.Arrays;
+
+/**
+ * A LatencyHistogram osztály késleltetési értékeket gyűjt logaritmikus
+ * vödrökben, a HdrHistogram mintájára.
+ *
+ * <p>Minden kettőhatvány-nagyságrendet {@value #SUB_BUCKETS} egyenlő
+ * részre oszt, így a percentilisek relatív hibája legfeljebb kb. 3%. A
+ * rögzítés nem foglal memóriát és nem szálbiztos: szálanként egy
+ * példányt érdemes használni, majd az {@link #add(LatencyHistogram)}
+ * metódussal összevonni őket.</p>
+ */
+public final class LatencyHistogram {
+    /** A nagyságrendenkénti alvödrök számának kettes alapú logaritmusa. */
+    private static final int SUB_BITS = 5;
+
+    /** A nagyságrendenkénti alvödrök száma. */
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /** A legnagyobb rögzíthető nagyságrend kitevője. */
+    private static final int MAX_MAGNITUDE = 62;
+
+    /** A vödrök száma. */
+    private static final int BUCKET_COUNT =
+            (MAX_MAGNITUDE - SUB_BITS + 2) * SUB_BUCKETS;
+
+    /** A százalékos értékek osztója. */
+    private static final double PERCENT = 100.0;
+
+    /** A vödrönkénti darabszámok. */
+    private final long[] counts = new long[BUCKET_COUNT];
+
+    /** A rögzített értékek száma. */
+    private long totalCount;
+
+    /** A rögzített értékek összege. */
+    private long sum;
+
+    /** A legkisebb rögzített érték. */
+    private long min = Long.MAX_VALUE;
+
+    /** A legnagyobb rögzített érték. */
+    private long max;
+
+    /**
+     * Rögzít egy nemnegatív értéket (például nanoszekundumban mért időt).
+     *
+     * @param value A rögzítendő érték; a negatív értéket nullának vesszük.
+     */
+    public void record(final long value) {
+        long v = Math.max(value, 0L);
+        counts[indexOf(v)]++;
+        totalCount++;
+        sum += v;
+        min = Math.min(min, v);
+        max = Math.max(max, v);
+    }
+
+    /**
+     * Hozzáadja egy másik hisztogram értékeit ehhez.
+     *
+     * @param other A hozzáadandó hisztogram.
+     */
+    public void add(final LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Kiüríti a hisztogramot.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0L);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Visszaadja a rögzített értékek számát.
+     *
+     * @return A darabszám.
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Visszaadja a legkisebb rögzített értéket.
+     *
+     * @return A minimum, vagy 0, ha üres.
+     */
+    public long getMin() {
+        return totalCount == 0 ? 0L : min;
+    }
+
+    /**
+     * Visszaadja a legnagyobb rögzített értéket.
+     *
+     * @return A maximum, vagy 0, ha üres.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Visszaadja a rögzített értékek átlagát.
+     *
+     * @return Az átlag, vagy 0, ha üres.
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : (double) sum / totalCount;
+    }
+
+    /**
+     * Visszaadja azt az értéket, amelynél a rögzített értékek adott
+     * százaléka nem nagyobb.
+     *
+     * @param percentile A percentilis 0 és 100 között.
+     * @return Az érték a vödör felbontásával, legfeljebb a maximum.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        if (totalCount == 0) {
+            return 0L;
+        }
+        double clamped = Math.min(Math.max(percentile, 0.0), PERCENT);
+        long target = Math.max(1L,
+                (long) Math.ceil(clamped / PERCENT * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.max(min, Math.min(max, highestValueOf(i)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Kiszámítja az érték vödrének indexét.
+     *
+     * @param value A nemnegatív érték.
+     * @return A vödör indexe.
+     */
+    private static int indexOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Visszaadja a vödörbe eső legnagyobb értéket.
+     *
+     * @param index A vödör indexe.
+     * @return A vödör felső határa.
+     */
+    private static long highestValueOf(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,216 @@
+package com.connect4;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A LoadTestClient osztály egyszerre sok játszmát játszik egy
+ * {@link GameServer} ellen, és méri a lépések válaszidejét.
+ *
+ * <p>Minden játszma egy saját kapcsolat a saját virtuális szálán. Először
+ * minden kapcsolat felépül, így a lépések valóban egyidejűleg futó
+ * játszmákban történnek; ezután a kliensek véletlenszerű érvényes
+ * lépésekkel játszanak a játszma végéig. A {@code MOVE} parancsok
+ * oda-vissza idejét szálanként egy {@link LatencyHistogram} gyűjti.</p>
+ */
+public final class LoadTestClient {
+    /** Az alapértelmezett egyidejű játszmaszám. */
+    public static final int DEFAULT_GAMES = 10_000;
+
+    /** Nanoszekundum mikroszekundumonként. */
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    /** Nanoszekundum másodpercenként. */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /** A kiírt 50. percentilis. */
+    private static final double P50 = 50.0;
+
+    /** A kiírt 99. percentilis. */
+    private static final double P99 = 99.0;
+
+    /** A kiírt 99,9. percentilis. */
+    private static final double P999 = 99.9;
+
+    /** Az "AI oszlop állapot" válasz részeinek száma. */
+    private static final int AI_REPLY_PARTS = 3;
+
+    /** Az AI mélység helye a parancssori argumentumok között. */
+    private static final int ARG_DEPTH = 1;
+
+    /** A port helye a parancssori argumentumok között. */
+    private static final int ARG_PORT = 2;
+
+    // Privát konstruktor, hogy megakadályozzuk az objektumok létrehozását.
+    private LoadTestClient() {
+        throw new UnsupportedOperationException(
+                "Ez az osztály nem hozható létre."
+        );
+    }
+
+    /**
+     * Lejátssza a játszmákat a szerver ellen, és kiírja az összesítést.
+     *
+     * @param port    A szerver portja a helyi gépen.
+     * @param games   Az egyidejű játszmák száma.
+     * @param aiDepth A szerver AI keresési mélysége (0: a kliens mindkét
+     *                oldalt játssza).
+     * @param out     Az összesítés kimenete.
+     * @return A lépések válaszidejei nanoszekundumban.
+     * @throws InterruptedException Ha a várakozást megszakítják.
+     */
+    public static LatencyHistogram run(final int port, final int games,
+                                       final int aiDepth,
+                                       final PrintStream out)
+            throws InterruptedException {
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch connected = new CountDownLatch(games);
+        long start = System.nanoTime();
+        try (ExecutorService executor =
+                     Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < games; i++) {
+                long seed = i;
+                executor.execute(() -> {
+                    LatencyHistogram local = new LatencyHistogram();
+                    try {
+                        play(port, aiDepth, seed, connected, local);
+                    } catch (IOException | RuntimeException e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        synchronized (latency) {
+                            latency.add(local);
+                        }
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+        out.printf("Játszmák: %d (sikertelen: %d), lépések: %d, %.1f s, "
+                        + "%.0f lépés/s%n", games, failures.get(),
+                latency.getCount(), seconds, latency.getCount() / seconds);
+        out.printf("Lépés válaszidő (µs): p50 %.1f, p99 %.1f, p99.9 %.1f,"
+                        + " max %.1f%n",
+                latency.getValueAtPercentile(P50) / NANOS_PER_MICRO,
+                latency.getValueAtPercentile(P99) / NANOS_PER_MICRO,
+                latency.getValueAtPercentile(P999) / NANOS_PER_MICRO,
+                latency.getMax() / NANOS_PER_MICRO);
+        return latency;
+    }
+
+    /**
+     * Lejátszik egy játszmát egy saját kapcsolaton.
+     *
+     * @param port      A szerver portja.
+     * @param aiDepth   A szerver AI keresési mélysége.
+     * @param seed      A véletlen lépések magja.
+     * @param connected A felépült kapcsolatokat számláló retesz.
+     * @param latency   A lépések válaszidejeinek gyűjtője.
+     * @throws IOException Ha a kapcsolat megszakad, vagy hibás a válasz.
+     */
+    private static void play(final int port, final int aiDepth,
+                             final long seed, final CountDownLatch connected,
+                             final LatencyHistogram latency)
+            throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        Board board = new Board(Constants.DEFAULT_ROWS,
+                Constants.DEFAULT_COLUMNS, 'X', 'O');
+        boolean counted = false;
+        try (Socket socket = new Socket("localhost", port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                     socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            connected.countDown();
+            counted = true;
+            connected.await();
+            request(in, out, "NEW " + board.getRows() + " "
+                    + board.getColumns() + " " + aiDepth);
+            String state = "NEXT";
+            while (state.startsWith("NEXT")) {
+                int column = random.nextInt(board.getColumns());
+                while (!board.isColumnValid(column)) {
+                    column = (column + 1) % board.getColumns();
+                }
+                board.play(column);
+                long sent = System.nanoTime();
+                String response = request(in, out, "MOVE " + column);
+                latency.record(System.nanoTime() - sent);
+                state = response.substring("OK ".length());
+                if (state.startsWith("AI ")) {
+                    String[] parts = state.split(" ", AI_REPLY_PARTS);
+                    board.play(Integer.parseInt(parts[1]));
+                    state = parts[2];
+                }
+            }
+            request(in, out, "QUIT");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Megszakítva.", e);
+        } finally {
+            if (!counted) {
+                connected.countDown();
+            }
+        }
+    }
+
+    /**
+     * Elküld egy parancsot, és beolvassa a választ.
+     *
+     * @param in      A válaszok olvasója.
+     * @param out     A parancsok írója.
+     * @param command A parancs.
+     * @return A válasz sora.
+     * @throws IOException Ha a kapcsolat megszakad, vagy hibás a válasz.
+     */
+    private static String request(final BufferedReader in,
+                                  final BufferedWriter out,
+                                  final String command) throws IOException {
+        out.write(command);
+        out.newLine();
+        out.flush();
+        String response = in.readLine();
+        if (response == null || response.startsWith("ERR")) {
+            throw new IOException("Hibás válasz: " + response);
+        }
+        return response;
+    }
+
+    /**
+     * A program belépési pontja. Port megadása nélkül egy beágyazott
+     * szervert indít ugyanebben a folyamatban.
+     *
+     * @param args Opcionálisan a játszmák száma, a szerver AI mélysége és
+     *             a szerver portja.
+     * @throws IOException          Ha a beágyazott szerver nem indul el.
+     * @throws InterruptedException Ha a várakozást megszakítják.
+     */
+    public static void main(final String[] args)
+            throws IOException, InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0])
+                : DEFAULT_GAMES;
+        int depth = args.length > ARG_DEPTH
+                ? Integer.parseInt(args[ARG_DEPTH]) : 0;
+        if (args.length > ARG_PORT) {
+            run(Integer.parseInt(args[ARG_PORT]), games, depth, System.out);
+            return;
+        }
+        try (GameServer server = new GameServer(0,
+                GameServer.DEFAULT_IDLE_TIMEOUT_MILLIS)) {
+            server.start();
+            run(server.getPort(), games, depth, System.out);
+        }
+    }
+}
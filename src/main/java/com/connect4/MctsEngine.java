@@ -0,0 +1,673 @@
+package com.connect4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Az MctsEngine osztály Monte Carlo fakereséssel (MCTS) választ lépést,
+ * az alfa-béta kereső alternatívájaként.
+ *
+ * <p>A fában a lépést az UCT képlet választja ki; a levélből induló
+ * lejátszás véletlenszerű, de a nyerő lépést mindig megteszi, és az
+ * ellenfél azonnali győzelmét mindig blokkolja. Nyerő lépés esetén a
+ * csomópontnak csak ez az egy gyermeke jön létre. A keresés a lejátszások
+ * számáig, az időkorlátig vagy a {@link #cancel()} hívásáig tart; a
+ * választott lépés a legtöbbször meglátogatott gyökérlépés.</p>
+ *
+ * <p>A fa csomópontjai nem külön objektumok: egy előre lefoglalt, primitív
+ * tömbökből álló arénában élnek, és egy csomópont gyermekei egymás utáni
+ * indexeket kapnak. Az aréna keresésről keresésre újrahasznosul, így a
+ * keresés közben nem keletkezik szemét. Ha az aréna megtelt, a fa nem
+ * nő tovább, de a lejátszások folytatódnak.</p>
+ *
+ * <p>Több szál esetén a lejátszások párhuzamosan futnak, mindegyik szál
+ * a saját táblamásolatán. A fa kiválasztási és visszaterjesztési lépései
+ * egy közös zár alatt futnak; a kiválasztott úton a szálak ideiglenes
+ * vereséget (virtual loss) jegyeznek be, így a párhuzamos szálak más-más
+ * ágakat járnak be. Az állásértékelőre nincs szükség, a beállítottat a
+ * motor figyelmen kívül hagyja.</p>
+ */
+public final class MctsEngine implements Searcher, AutoCloseable {
+    /** Az aréna alapértelmezett mérete csomópontokban (2^21). */
+    public static final int DEFAULT_NODE_CAPACITY = 2_097_152;
+
+    /** Egy csomópont mérete az arénában bájtban. */
+    public static final int BYTES_PER_NODE =
+            3 * Integer.BYTES + Double.BYTES + 3 * Byte.BYTES;
+
+    /** Az aréna legkisebb mérete csomópontokban. */
+    private static final int MIN_NODE_CAPACITY = Byte.MAX_VALUE + 1;
+
+    /** Az UCT képlet felfedezési együtthatója. */
+    private static final double EXPLORATION = Math.sqrt(2.0);
+
+    /** A várható eredményből számolt érték skálája. */
+    private static final int SCORE_SCALE = 1000;
+
+    /** Ennyi lejátszásonként nézzük meg az órát. */
+    private static final long TIME_CHECK_MASK = 63L;
+
+    /** A döntetlen jutalma. */
+    private static final double DRAW_REWARD = 0.5;
+
+    /** A még ki nem fejtett csomópont gyermekindexe. */
+    private static final int NO_CHILDREN = -1;
+
+    /** A lejátszás döntetlen eredménye. */
+    private static final int DRAW_RESULT = -1;
+
+    /** A nem végállapotú csomópont jelölése. */
+    private static final byte OPEN = 0;
+
+    /** A csomópontba lépő játékos nyert. */
+    private static final byte WIN = 1;
+
+    /** A csomópontba lépéssel a tábla döntetlenül megtelt. */
+    private static final byte DRAW = 2;
+
+    /** A parancssori jelentés alapértelmezett lejátszásszáma. */
+    private static final long DEFAULT_REPORT_PLAYOUTS = 200_000L;
+
+    /** Egy mebibájt bájtban. */
+    private static final double BYTES_PER_MIB = 1024.0 * 1024.0;
+
+    /** A lejátszások száma. */
+    private static final Metrics.Counter PLAYOUTS =
+            Metrics.registry().counter("mcts.playouts");
+
+    /** A fa mérete keresésenként csomópontokban. */
+    private static final Metrics.Histogram TREE_NODES =
+            Metrics.registry().histogram("mcts.tree.nodes");
+
+    /** A lejátszások legnagyobb száma keresésenként (0: nincs korlát). */
+    private final long maxPlayouts;
+
+    /** Az időkorlát ezredmásodpercben (0: nincs korlát). */
+    private final long timeLimitMillis;
+
+    /** A lejátszó szálak száma. */
+    private final int threads;
+
+    /** Az aréna mérete csomópontokban. */
+    private final int capacity;
+
+    /** A csomópont első gyermekének indexe, vagy {@link #NO_CHILDREN}. */
+    private final int[] firstChild;
+
+    /** A csomópont gyermekeinek száma. */
+    private final byte[] childCount;
+
+    /** A csomópontba vezető lépés oszlopa. */
+    private final byte[] move;
+
+    /** A csomópont végállapota: {@link #OPEN}, {@link #WIN}, {@link #DRAW}. */
+    private final byte[] terminal;
+
+    /** A csomópont látogatásainak száma. */
+    private final int[] visits;
+
+    /** A csomóponton éppen áthaladó lejátszások száma. */
+    private final int[] virtualLoss;
+
+    /** A csomópontba lépő játékos jutalmainak összege. */
+    private final double[] value;
+
+    /** A fa kiválasztási és visszaterjesztési lépéseit védő zár. */
+    private final Object treeLock = new Object();
+
+    /** A lejátszó szálak készlete, vagy null egy szál esetén. */
+    private final ExecutorService pool;
+
+    /** A kiosztott lejátszások száma. */
+    private final AtomicLong started = new AtomicLong();
+
+    /** A befejezett lejátszások száma. */
+    private final AtomicLong completed = new AtomicLong();
+
+    /** A használt csomópontok száma. */
+    private int nodeCount;
+
+    /** A fa legnagyobb elért mélysége az aktuális keresésben. */
+    private int deepest;
+
+    /** Igaz, ha a keresést kívülről leállították. */
+    private volatile boolean cancelled;
+
+    /** Igaz, ha az időkorlát lejárt. */
+    private volatile boolean timeUp;
+
+    /** A véletlenszám-generátorok magja. */
+    private long seed;
+
+    /** A legnagyobb fa mérete csomópontokban. */
+    private int peakNodes;
+
+    /** Az utolsó keresés lejátszásainak száma másodpercenként. */
+    private double lastPlayoutsPerSecond;
+
+    /**
+     * Konstruktor az MctsEngine osztályhoz.
+     *
+     * @param maxPlayoutsParam     A lejátszások legnagyobb száma
+     *                             keresésenként (0: nincs korlát).
+     * @param timeLimitMillisParam Az időkorlát ezredmásodpercben (0: nincs
+     *                             korlát).
+     * @param threadsParam         A lejátszó szálak száma.
+     * @param capacityParam        Az aréna mérete csomópontokban.
+     */
+    public MctsEngine(final long maxPlayoutsParam,
+                      final long timeLimitMillisParam,
+                      final int threadsParam, final int capacityParam) {
+        if (maxPlayoutsParam < 0 || timeLimitMillisParam < 0) {
+            throw new IllegalArgumentException(
+                    "A korlátok nem lehetnek negatívak.");
+        }
+        if (maxPlayoutsParam == 0 && timeLimitMillisParam == 0) {
+            throw new IllegalArgumentException(
+                    "Lejátszás- vagy időkorlát szükséges.");
+        }
+        if (threadsParam < 1) {
+            throw new IllegalArgumentException(
+                    "Legalább egy lejátszó szál szükséges.");
+        }
+        if (capacityParam < MIN_NODE_CAPACITY) {
+            throw new IllegalArgumentException("Az aréna legalább "
+                    + MIN_NODE_CAPACITY + " csomópontos lehet.");
+        }
+        this.maxPlayouts = maxPlayoutsParam;
+        this.timeLimitMillis = timeLimitMillisParam;
+        this.threads = threadsParam;
+        this.capacity = capacityParam;
+        this.firstChild = new int[capacityParam];
+        this.childCount = new byte[capacityParam];
+        this.move = new byte[capacityParam];
+        this.terminal = new byte[capacityParam];
+        this.visits = new int[capacityParam];
+        this.virtualLoss = new int[capacityParam];
+        this.value = new double[capacityParam];
+        this.pool = threadsParam > 1
+                ? Executors.newFixedThreadPool(threadsParam, task -> {
+                    Thread thread = new Thread(task, "connect4-mcts");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    /**
+     * Beállítja a lejátszások véletlenszám-generátorainak magját. Egy
+     * szálon és lejátszáskorláttal a keresés így determinisztikus.
+     *
+     * @param seedParam A mag.
+     */
+    public void setSeed(final long seedParam) {
+        this.seed = seedParam;
+    }
+
+    /**
+     * A motor nem használ állásértékelőt; a hívás hatástalan.
+     *
+     * @param evaluator Figyelmen kívül hagyva.
+     */
+    @Override
+    public void setEvaluator(final Evaluator evaluator) {
+        // A lejátszások a játszma végéig tartanak
+    }
+
+    /**
+     * Megkeresi a legjobb lépést a megadott tokenű játékos számára. A
+     * tábla a keresés végére visszakerül az eredeti állapotába.
+     *
+     * @param board A játék tábla.
+     * @param token A lépő játékos tokenje.
+     * @return A keresés eredménye: a legtöbbet látogatott gyökérlépés,
+     *         a várható eredményből számolt érték (-1000 és 1000 között,
+     *         azonnali győzelemnél a kereső győzelmi értéke), a fa elért
+     *         mélysége és a lejátszások száma.
+     */
+    @Override
+    public SearchResult search(final Board board, final char token) {
+        long start = System.nanoTime();
+        if (board.getColumns() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Legfeljebb "
+                    + Byte.MAX_VALUE + " oszlopos tábla kereshető.");
+        }
+        cancelled = false;
+        timeUp = false;
+        started.set(0);
+        completed.set(0);
+        int slot = board.bindSlot(token);
+        synchronized (treeLock) {
+            nodeCount = 1;
+            deepest = 0;
+            initNode(0, -1, OPEN);
+            if (board.checkWin() || board.isFull()
+                    || !expand(0, board, slot)) {
+                return new SearchResult(-1, 0, 0, 0,
+                        System.nanoTime() - start);
+            }
+        }
+
+        long deadline = start
+                + timeLimitMillis * SearchEngine.NANOS_PER_MILLI;
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(new Worker(board.copy(), slot, random.split(),
+                    deadline));
+        }
+        if (pool == null) {
+            workers.get(0).call();
+        } else {
+            try {
+                for (Future<Void> future : pool.invokeAll(workers)) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("A keresés hibára futott.",
+                        e.getCause());
+            }
+        }
+        return result(start);
+    }
+
+    /**
+     * Leállítja a folyamatban lévő keresést; másik szálból hívható. A
+     * keresés az addig gyűjtött statisztikák alapján választ.
+     */
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Leállítja a lejátszó szálak készletét.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Visszaadja az utolsó keresés lejátszásainak számát másodpercenként.
+     *
+     * @return A lejátszások száma másodpercenként.
+     */
+    public double getLastPlayoutsPerSecond() {
+        return lastPlayoutsPerSecond;
+    }
+
+    /**
+     * Visszaadja az eddigi legnagyobb fa méretét.
+     *
+     * @return A csomópontok száma.
+     */
+    public int getPeakNodes() {
+        return peakNodes;
+    }
+
+    /**
+     * Visszaadja az eddigi legnagyobb fa által használt memóriát.
+     *
+     * @return A memória bájtban.
+     */
+    public long getPeakTreeBytes() {
+        return (long) peakNodes * BYTES_PER_NODE;
+    }
+
+    /**
+     * Visszaadja az előre lefoglalt aréna méretét.
+     *
+     * @return A memória bájtban.
+     */
+    public long getArenaBytes() {
+        return (long) capacity * BYTES_PER_NODE;
+    }
+
+    /**
+     * Visszaadja az aréna méretét.
+     *
+     * @return Az aréna mérete csomópontokban.
+     */
+    public int getNodeCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Kiválasztja a legtöbbet látogatott gyökérlépést, és frissíti a
+     * statisztikákat.
+     *
+     * @param start A keresés kezdete nanoszekundumban.
+     * @return A keresés eredménye.
+     */
+    private SearchResult result(final long start) {
+        long elapsed = System.nanoTime() - start;
+        long playouts = completed.get();
+        synchronized (treeLock) {
+            int best = firstChild[0];
+            int end = firstChild[0] + childCount[0];
+            for (int child = best + 1; child < end; child++) {
+                if (visits[child] > visits[best]) {
+                    best = child;
+                }
+            }
+            int score;
+            if (terminal[best] == WIN) {
+                score = SearchEngine.WIN_SCORE - 1;
+            } else if (visits[best] == 0) {
+                score = 0;
+            } else {
+                double expected = value[best] / visits[best];
+                score = (int) Math.round((2 * expected - 1) * SCORE_SCALE);
+            }
+            SearchResult result = new SearchResult(move[best], score,
+                    deepest, playouts, elapsed);
+            peakNodes = Math.max(peakNodes, nodeCount);
+            lastPlayoutsPerSecond = result.getNodesPerSecond();
+            if (Metrics.ENABLED) {
+                PLAYOUTS.add(playouts);
+                TREE_NODES.record(nodeCount);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Előkészít egy csomópontot az arénában.
+     *
+     * @param node  A csomópont indexe.
+     * @param col   A csomópontba vezető lépés oszlopa.
+     * @param state A csomópont végállapota.
+     */
+    private void initNode(final int node, final int col, final byte state) {
+        firstChild[node] = NO_CHILDREN;
+        childCount[node] = 0;
+        move[node] = (byte) col;
+        terminal[node] = state;
+        visits[node] = 0;
+        virtualLoss[node] = 0;
+        value[node] = 0.0;
+    }
+
+    /**
+     * Kifejti a csomópontot: létrehozza a gyermekeit. Nyerő lépés esetén
+     * csak azt az egyet. A zár alatt hívandó.
+     *
+     * @param node  A csomópont indexe.
+     * @param board A tábla a csomópont állásában.
+     * @param side  A lépő játékos bitmaszkjának indexe.
+     * @return False, ha az arénában nincs elég hely.
+     */
+    private boolean expand(final int node, final Board board,
+                           final int side) {
+        int columns = board.getColumns();
+        int count = 0;
+        int winning = -1;
+        for (int col = 0; col < columns; col++) {
+            if (board.isColumnValid(col)) {
+                if (board.isWinningMove(col, side)) {
+                    winning = col;
+                    break;
+                }
+                count++;
+            }
+        }
+        int needed = winning >= 0 ? 1 : count;
+        if (needed == 0 || nodeCount + needed > capacity) {
+            return false;
+        }
+        int first = nodeCount;
+        nodeCount += needed;
+        firstChild[node] = first;
+        childCount[node] = (byte) needed;
+        if (winning >= 0) {
+            initNode(first, winning, WIN);
+            return true;
+        }
+        boolean fills = board.moveCount() + 1
+                == board.getRows() * board.getColumns();
+        int child = first;
+        for (int col = 0; col < columns; col++) {
+            if (board.isColumnValid(col)) {
+                initNode(child++, col, fills ? DRAW : OPEN);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Kiválasztja a csomópont UCT szerint legjobb gyermekét; a még nem
+     * látogatott gyermekeket előnyben részesíti. A zár alatt hívandó.
+     *
+     * @param node A kifejtett csomópont.
+     * @return A kiválasztott gyermek indexe.
+     */
+    private int bestChild(final int node) {
+        double logParent = Math.log(
+                Math.max(1, visits[node] + virtualLoss[node]));
+        int first = firstChild[node];
+        int end = first + childCount[node];
+        int best = first;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < end; child++) {
+            int n = visits[child] + virtualLoss[child];
+            if (n == 0) {
+                return child;
+            }
+            double score = value[child] / n
+                    + EXPLORATION * Math.sqrt(logParent / n);
+            if (score > bestScore) {
+                bestScore = score;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A program belépési pontja: a szabványos üres táblán keres, majd
+     * kiírja a lejátszások sebességét és a fa memóriaigényét.
+     *
+     * @param args Opcionálisan: a lejátszások száma és a szálak száma.
+     */
+    public static void main(final String[] args) {
+        long playouts = args.length > 0 ? Long.parseLong(args[0])
+                : DEFAULT_REPORT_PLAYOUTS;
+        int threadCount = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        try (MctsEngine engine = new MctsEngine(playouts, 0, threadCount,
+                DEFAULT_NODE_CAPACITY)) {
+            SearchResult result = engine.search(new Board(
+                    Constants.DEFAULT_ROWS, Constants.DEFAULT_COLUMNS), 'X');
+            System.out.println(result);
+            System.out.printf("Lejátszás/s: %.0f, szálak: %d%n",
+                    engine.getLastPlayoutsPerSecond(), threadCount);
+            System.out.printf("Fa: %d csomópont, %.1f MiB"
+                    + " (aréna: %.1f MiB)%n", engine.getPeakNodes(),
+                    engine.getPeakTreeBytes() / BYTES_PER_MIB,
+                    engine.getArenaBytes() / BYTES_PER_MIB);
+        }
+    }
+
+    /**
+     * Egy lejátszó szál: a saját táblamásolatán ismétli a kiválasztást, a
+     * lejátszást és a visszaterjesztést.
+     */
+    private final class Worker implements Callable<Void> {
+        /** A szál táblamásolata a gyökérállásban. */
+        private final Board board;
+
+        /** A gyökérben lépő játékos bitmaszkjának indexe. */
+        private final int rootSide;
+
+        /** A szál véletlenszám-generátora. */
+        private final SplittableRandom random;
+
+        /** Az időkorlát lejárta nanoszekundumban. */
+        private final long deadline;
+
+        /** A kiválasztott út csomópontjai. */
+        private final int[] path;
+
+        /** A lejátszás szabad oszlopai. */
+        private final int[] candidates;
+
+        /**
+         * Konstruktor a Worker osztályhoz.
+         *
+         * @param boardParam    A szál táblamásolata.
+         * @param rootSideParam A gyökérben lépő játékos maszkjának indexe.
+         * @param randomParam   A szál véletlenszám-generátora.
+         * @param deadlineParam Az időkorlát lejárta nanoszekundumban.
+         */
+        Worker(final Board boardParam, final int rootSideParam,
+               final SplittableRandom randomParam, final long deadlineParam) {
+            this.board = boardParam;
+            this.rootSide = rootSideParam;
+            this.random = randomParam;
+            this.deadline = deadlineParam;
+            this.path = new int[boardParam.getRows()
+                    * boardParam.getColumns() + 1];
+            this.candidates = new int[boardParam.getColumns()];
+        }
+
+        /**
+         * Lejátszásokat végez, amíg a keresés be nem fejeződik.
+         *
+         * @return Semmi.
+         */
+        @Override
+        public Void call() {
+            int rootMoves = board.moveCount();
+            while (!cancelled && !timeUp) {
+                long n = started.getAndIncrement();
+                if (maxPlayouts > 0 && n >= maxPlayouts) {
+                    break;
+                }
+                if (timeLimitMillis > 0 && (n & TIME_CHECK_MASK) == 0
+                        && System.nanoTime() - deadline > 0) {
+                    timeUp = true;
+                    break;
+                }
+                int length = select();
+                int leaf = path[length - 1];
+                int side = (length - 1) % 2 == 0 ? rootSide : 1 - rootSide;
+                int winner;
+                if (terminal[leaf] == WIN) {
+                    winner = 1 - side;
+                } else if (terminal[leaf] == DRAW) {
+                    winner = DRAW_RESULT;
+                } else {
+                    winner = playout(side);
+                }
+                backpropagate(length, winner);
+                while (board.moveCount() > rootMoves) {
+                    board.undo();
+                }
+                completed.incrementAndGet();
+            }
+            return null;
+        }
+
+        /**
+         * A gyökértől egy levélig halad, közben lépéseket tesz a táblán,
+         * bejegyzi az ideiglenes vereségeket, és szükség esetén kifejti a
+         * levelet.
+         *
+         * @return A kiválasztott út hossza.
+         */
+        private int select() {
+            synchronized (treeLock) {
+                int node = 0;
+                int length = 0;
+                int side = rootSide;
+                path[length++] = node;
+                virtualLoss[node]++;
+                while (terminal[node] == OPEN) {
+                    if (firstChild[node] == NO_CHILDREN
+                            && (visits[node] == 0
+                            || !expand(node, board, side))) {
+                        break;
+                    }
+                    node = bestChild(node);
+                    board.play(move[node], side);
+                    side = 1 - side;
+                    virtualLoss[node]++;
+                    path[length++] = node;
+                }
+                deepest = Math.max(deepest, length - 1);
+                return length;
+            }
+        }
+
+        /**
+         * Lejátssza a játszmát a végéig: nyerő lépést mindig megtesz, az
+         * ellenfél nyerő lépését mindig blokkolja, egyébként véletlenül
+         * választ.
+         *
+         * @param sideParam A lépő játékos bitmaszkjának indexe.
+         * @return A győztes maszkjának indexe, vagy {@link #DRAW_RESULT}.
+         */
+        private int playout(final int sideParam) {
+            int side = sideParam;
+            int cells = board.getRows() * board.getColumns();
+            int columns = board.getColumns();
+            while (board.moveCount() < cells) {
+                int count = 0;
+                int block = -1;
+                for (int col = 0; col < columns; col++) {
+                    if (board.isColumnValid(col)) {
+                        if (board.isWinningMove(col, side)) {
+                            return side;
+                        }
+                        if (board.isWinningMove(col, 1 - side)) {
+                            block = col;
+                        }
+                        candidates[count++] = col;
+                    }
+                }
+                int col = block >= 0 ? block
+                        : candidates[random.nextInt(count)];
+                board.play(col, side);
+                side = 1 - side;
+            }
+            return DRAW_RESULT;
+        }
+
+        /**
+         * Visszaterjeszti az eredményt az út mentén, és törli az
+         * ideiglenes vereségeket.
+         *
+         * @param length Az út hossza.
+         * @param winner A győztes maszkjának indexe, vagy
+         *               {@link #DRAW_RESULT}.
+         */
+        private void backpropagate(final int length, final int winner) {
+            synchronized (treeLock) {
+                for (int i = 0; i < length; i++) {
+                    int node = path[i];
+                    int mover = i % 2 == 1 ? rootSide : 1 - rootSide;
+                    virtualLoss[node]--;
+                    visits[node]++;
+                    if (winner == DRAW_RESULT) {
+                        value[node] += DRAW_REWARD;
+                    } else if (winner == mover) {
+                        value[node] += 1.0;
+                    }
+                }
+            }
+        }
+    }
+}
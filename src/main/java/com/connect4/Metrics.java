@@ -0,0 +1,280 @@
+package com.connect4;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * A Metrics osztály a játék és az AI mérőpontjainak regisztere:
+ * számlálókat és {@link LatencyHistogram} alapú hisztogramokat tart
+ * név szerint.
+ *
+ * <p>A mérés a {@code connect4.metrics} rendszertulajdonsággal kapcsolható
+ * be ({@code -Dconnect4.metrics=true}). A mérőpontok az {@link #ENABLED}
+ * konstansra feltételesek; mivel ez {@code static final}, kikapcsolt
+ * mérésnél a JIT a teljes ágat, az időméréssel együtt, kiejti, így a
+ * mérőpontok költsége nulla. A mérőket érdemes egyszer, statikus mezőbe
+ * lekérni, hogy a mérőpont ne keressen a regiszterben.</p>
+ *
+ * <p>A regiszter jelentése fájlba írható ({@link #dumpToFile(String)}),
+ * vagy a {@link #registerMBean()} után a {@value #OBJECT_NAME} néven
+ * JMX-en olvasható.</p>
+ */
+public final class Metrics implements MetricsMXBean {
+    /** Megadja, hogy a mérőpontok gyűjtenek-e adatot. */
+    public static final boolean ENABLED =
+            Boolean.getBoolean("connect4.metrics");
+
+    /** A regiszter JMX neve. */
+    public static final String OBJECT_NAME = "com.connect4:type=Metrics";
+
+    /** A jelentésben kiírt 50. percentilis. */
+    private static final double P50 = 50.0;
+
+    /** A jelentésben kiírt 99. percentilis. */
+    private static final double P99 = 99.0;
+
+    /** A közös regiszter. */
+    private static final Metrics REGISTRY = new Metrics();
+
+    /** A számlálók név szerint. */
+    private final ConcurrentMap<String, Counter> counters =
+            new ConcurrentHashMap<>();
+
+    /** A hisztogramok név szerint. */
+    private final ConcurrentMap<String, Histogram> histograms =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Konstruktor a Metrics osztályhoz. Teszteknél használt; a mérőpontok
+     * a {@link #registry()} közös példányát használják.
+     */
+    Metrics() {
+    }
+
+    /**
+     * Visszaadja a közös regisztert.
+     *
+     * @return A regiszter.
+     */
+    public static Metrics registry() {
+        return REGISTRY;
+    }
+
+    /**
+     * Visszaadja az időmérés kezdőpontját, ha a mérés be van kapcsolva.
+     *
+     * @return A {@link System#nanoTime()} értéke, vagy 0.
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Visszaadja a megadott nevű számlálót, szükség esetén létrehozva.
+     *
+     * @param name A számláló neve.
+     * @return A számláló.
+     */
+    public Counter counter(final String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Visszaadja a megadott nevű hisztogramot, szükség esetén
+     * létrehozva.
+     *
+     * @param name A hisztogram neve; az időt mérők neve szokás szerint
+     *             {@code .ns} végű.
+     * @return A hisztogram.
+     */
+    public Histogram histogram(final String name) {
+        return histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((name, counter) -> result.put(name, counter.get()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getHistogramCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        histograms.forEach((name, histogram) ->
+                result.put(name, histogram.snapshot().getCount()));
+        return result;
+    }
+
+    @Override
+    public String getReport() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Long> entry : getCounters().entrySet()) {
+            sb.append(entry.getKey()).append(' ').append(entry.getValue())
+                    .append(System.lineSeparator());
+        }
+        for (String name : new TreeMap<>(histograms).keySet()) {
+            LatencyHistogram h = histograms.get(name).snapshot();
+            sb.append(String.format("%s n=%d átlag=%.0f p50=%d p99=%d "
+                            + "max=%d%n", name, h.getCount(), h.getMean(),
+                    h.getValueAtPercentile(P50),
+                    h.getValueAtPercentile(P99), h.getMax()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Kiírja a jelentést egy fájlba. Előbb egy ideiglenes fájlba ír, majd
+     * átnevezi, így az olvasó sosem lát félig írt jelentést.
+     *
+     * @param path A fájl útvonala.
+     * @throws IOException Ha az írás sikertelen.
+     */
+    @Override
+    public void dumpToFile(final String path) throws IOException {
+        Path target = Paths.get(path).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.writeString(temp, getReport(), StandardCharsets.UTF_8);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        histograms.values().forEach(Histogram::reset);
+    }
+
+    /**
+     * Bejegyzi a közös regisztert a platform MBean szerverbe a
+     * {@value #OBJECT_NAME} néven. Ismételt hívásnál nem csinál semmit.
+     *
+     * @throws IllegalStateException Ha a bejegyzés sikertelen.
+     */
+    public static synchronized void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(REGISTRY, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException(
+                    "A mérési MBean nem jegyezhető be.", e);
+        }
+    }
+
+    /**
+     * Szálbiztos, versengés alatt is olcsó számláló.
+     */
+    public static final class Counter {
+        /** Az érték. */
+        private final LongAdder value = new LongAdder();
+
+        /**
+         * Konstruktor a Counter osztályhoz.
+         */
+        Counter() {
+        }
+
+        /**
+         * Eggyel növeli a számlálót.
+         */
+        public void increment() {
+            value.increment();
+        }
+
+        /**
+         * Növeli a számlálót.
+         *
+         * @param delta A növekmény.
+         */
+        public void add(final long delta) {
+            value.add(delta);
+        }
+
+        /**
+         * Visszaadja a számláló értékét.
+         *
+         * @return Az érték.
+         */
+        public long get() {
+            return value.sum();
+        }
+
+        /**
+         * Lenullázza a számlálót.
+         */
+        void reset() {
+            value.reset();
+        }
+    }
+
+    /**
+     * Szálbiztos hisztogram egy {@link LatencyHistogram} körül.
+     */
+    public static final class Histogram {
+        /** A gyűjtött értékek. */
+        private final LatencyHistogram values = new LatencyHistogram();
+
+        /**
+         * Konstruktor a Histogram osztályhoz.
+         */
+        Histogram() {
+        }
+
+        /**
+         * Rögzít egy értéket.
+         *
+         * @param value A nemnegatív érték.
+         */
+        public synchronized void record(final long value) {
+            values.record(value);
+        }
+
+        /**
+         * Rögzíti a megadott kezdőpont óta eltelt időt nanoszekundumban.
+         *
+         * @param startNanos A {@link Metrics#start()} által adott
+         *                   kezdőpont.
+         */
+        public void recordSince(final long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Visszaadja a gyűjtött értékek másolatát.
+         *
+         * @return A pillanatkép.
+         */
+        public synchronized LatencyHistogram snapshot() {
+            LatencyHistogram copy = new LatencyHistogram();
+            copy.add(values);
+            return copy;
+        }
+
+        /**
+         * Kiüríti a hisztogramot.
+         */
+        synchronized void reset() {
+            values.reset();
+        }
+    }
+}
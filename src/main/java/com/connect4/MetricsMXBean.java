@@ -0,0 +1,51 @@
+package com.connect4;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A MetricsMXBean interfész a {@link Metrics} regisztert teszi elérhetővé
+ * JMX-en keresztül (például JConsole-ból vagy VisualVM-ből).
+ */
+public interface MetricsMXBean {
+    /**
+     * Megadja, hogy a mérőpontok gyűjtenek-e adatot.
+     *
+     * @return True, ha a mérés be van kapcsolva.
+     */
+    boolean isEnabled();
+
+    /**
+     * Visszaadja a számlálók aktuális értékét.
+     *
+     * @return A számlálók név szerint.
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * Visszaadja a hisztogramok mintaszámát.
+     *
+     * @return A mintaszámok név szerint.
+     */
+    Map<String, Long> getHistogramCounts();
+
+    /**
+     * Visszaadja a teljes mérési jelentést szövegesen.
+     *
+     * @return A jelentés.
+     */
+    String getReport();
+
+    /**
+     * Kiírja a jelentést egy fájlba.
+     *
+     * @param path A fájl útvonala.
+     * @throws IOException Ha az írás sikertelen.
+     */
+    void dumpToFile(String path) throws IOException;
+
+    /**
+     * Lenullázza az összes számlálót és hisztogramot.
+     */
+    void reset();
+}
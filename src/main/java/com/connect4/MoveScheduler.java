@@ -0,0 +1,153 @@
+package com.connect4;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A MoveScheduler osztály lépésenkénti időkeretet ad a
+ * {@link MoveSource} forrásoknak.
+ *
+ * <p>Minden lépéskéréshez egy őrzőt ütemez egy háttérszálon; ha a forrás
+ * a keret lejártáig nem válaszol, az őrző a válaszig ismételten meghívja
+ * a {@link MoveSource#cancel()} metódusát, a kereső pedig a legjobb addig
+ * talált lépéssel tér vissza. Az ismétlés kell, mert a keresők induláskor
+ * törlik a leállítási jelzést, így egy keresés előtt (például a
+ * háttérkeresés feloldása közben) lejárt keret jelzése elveszne. A lépés
+ * után a forrás {@link MoveSource#moveChosen} értesítése már a kereten
+ * kívül fut. Így a gép lépésének késleltetése a keret
+ * plusz egy rövid leállási idő alatt marad. A lépések válaszidejét és a
+ * túllépések számát a példány gyűjti. A lépéskérés egyszerre csak egy
+ * szálból hívható.</p>
+ */
+public final class MoveScheduler implements AutoCloseable {
+    /** A leállítási jelzés ismétlési ideje a keret lejárta után. */
+    private static final long CANCEL_REPEAT_MILLIS = 5L;
+
+    /** Az őrzők ütemezője. */
+    private final ScheduledExecutorService watchdog;
+
+    /** A lépések válaszideje nanoszekundumban. */
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /** A kerettúllépés miatt leállított lépések száma. */
+    private long overruns;
+
+    /**
+     * Konstruktor a MoveScheduler osztályhoz.
+     */
+    public MoveScheduler() {
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "connect4-move-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Lépést kér a forrástól a megadott időkereten belül.
+     *
+     * @param source       A lépés forrása.
+     * @param board        A játék tábla.
+     * @param token        A lépő játékos tokenje.
+     * @param budgetMillis Az időkeret ezredmásodpercben (0: nincs keret).
+     * @return A forrás lépése, vagy -1, ha nem adott lépést.
+     */
+    public int requestMove(final MoveSource source, final Board board,
+                           final char token, final long budgetMillis) {
+        AtomicBoolean expired = new AtomicBoolean();
+        ScheduledFuture<?> guard = budgetMillis > 0
+                ? watchdog.scheduleWithFixedDelay(() -> {
+                    expired.set(true);
+                    source.cancel();
+                }, budgetMillis, CANCEL_REPEAT_MILLIS, TimeUnit.MILLISECONDS)
+                : null;
+        long start = System.nanoTime();
+        int column;
+        try {
+            column = source.nextMove(board, token);
+        } finally {
+            latency.record(System.nanoTime() - start);
+            if (guard != null) {
+                guard.cancel(false);
+                // Ha az őrző már lefutott, a lépés túllépte a keretet
+                if (expired.get()) {
+                    overruns++;
+                }
+            }
+        }
+        if (column >= 0) {
+            source.moveChosen(board, column);
+        }
+        return column;
+    }
+
+    /**
+     * Lejátszik egy játszmát két forrás között rögzített lépésenkénti
+     * időkerettel, a tábla aktuális állásából.
+     *
+     * @param board        A játék tábla; a játszma végállására kerül.
+     * @param first        A kezdő játékos forrása.
+     * @param second       A második játékos forrása.
+     * @param firstToken   A kezdő játékos tokenje.
+     * @param secondToken  A második játékos tokenje.
+     * @param budgetMillis Az időkeret lépésenként ezredmásodpercben.
+     * @return A játszma lépései a tábla üres állásától.
+     * @throws IllegalStateException Ha egy forrás érvénytelen oszlopot ad.
+     */
+    public GameRecord playMatch(final Board board, final MoveSource first,
+                                final MoveSource second,
+                                final char firstToken,
+                                final char secondToken,
+                                final long budgetMillis) {
+        while (!board.checkWin() && !board.isFull()) {
+            boolean firstToMove = board.moveCount() % 2 == 0;
+            MoveSource mover = firstToMove ? first : second;
+            char token = firstToMove ? firstToken : secondToken;
+            int column = requestMove(mover, board, token, budgetMillis);
+            if (column < 0) {
+                break;
+            }
+            if (!board.isColumnValid(column)) {
+                throw new IllegalStateException("Érvénytelen lépés a(z) "
+                        + token + " játékostól: " + column);
+            }
+            board.placeToken(column, token);
+            (firstToMove ? second : first).opponentMoved(board, column);
+        }
+        int[] moves = new int[board.moveCount()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = board.getMove(i);
+        }
+        return new GameRecord(board.getRows(), board.getColumns(),
+                firstToken, secondToken, moves);
+    }
+
+    /**
+     * Visszaadja a lépések válaszidejeit.
+     *
+     * @return A hisztogram nanoszekundumban.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Visszaadja a kerettúllépés miatt leállított lépések számát.
+     *
+     * @return A túllépések száma.
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * Leállítja az őrzők ütemezőjét.
+     */
+    @Override
+    public void close() {
+        watchdog.shutdownNow();
+    }
+}
@@ -0,0 +1,59 @@
+package com.connect4;
+
+/**
+ * A MoveSource interfész egy játékos lépéseinek forrását írja le: a
+ * konzolon gépelő embert, a keresőmotort, egy távoli klienst vagy egy
+ * rögzített játszma visszajátszását. A {@link Game} és a
+ * {@link MoveScheduler} csak ezen keresztül kér lépést, így a játékosok
+ * tetszőlegesen párosíthatók.
+ */
+public interface MoveSource {
+    /**
+     * Visszaadja a következő lépést. A tábla a hívás végére visszakerül az
+     * eredeti állapotába.
+     *
+     * @param board A játék tábla.
+     * @param token A lépő játékos tokenje.
+     * @return A választott oszlop, vagy -1, ha a forrás nem ad több
+     *         lépést (elfogyott a bemenet, megszakadt a kapcsolat).
+     */
+    int nextMove(Board board, char token);
+
+    /**
+     * Megkéri a forrást, hogy a folyamatban lévő {@link #nextMove} hívás
+     * mielőbb térjen vissza a legjobb addig ismert lépéssel. Másik szálból
+     * hívható; a leállítani nem tudó források figyelmen kívül hagyják.
+     */
+    default void cancel() {
+    }
+
+    /**
+     * Értesíti a forrást, hogy a {@link #nextMove} visszaadta a lépését. A
+     * {@link MoveScheduler} az időkereten kívül hívja, így itt indítható
+     * a háttérkeresés anélkül, hogy a keret leállítaná.
+     *
+     * @param board  A tábla a lépés előtt.
+     * @param column A választott oszlop.
+     */
+    default void moveChosen(final Board board, final int column) {
+    }
+
+    /**
+     * Értesíti a forrást az ellenfél lépéséről.
+     *
+     * @param board  A tábla az ellenfél lépése után.
+     * @param column Az ellenfél lépésének oszlopa.
+     */
+    default void opponentMoved(final Board board, final int column) {
+    }
+
+    /**
+     * Megadja, hogy a forrás egy emberre vár-e; ilyenkor a játék előtte
+     * kirajzolja a táblát és kiírja a felszólítást.
+     *
+     * @return True, ha a forrás interaktív.
+     */
+    default boolean isInteractive() {
+        return false;
+    }
+}
@@ -0,0 +1,254 @@
+package com.connect4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Az OpeningBook osztály előre kiszámolt nyitóállások legjobb lépéseit
+ * adja vissza egy memóriába leképezett fájlból.
+ *
+ * <p>A fájl egy fejléc után kulcs szerint rendezett, 16 bájtos rekordokat
+ * tartalmaz: a lépésre következő játékos szemszögéből vett
+ * {@link PositionCodec} kulcsot, a legjobb lépést és a hozzá tartozó
+ * értéket. A kulcsok kanonikusak: egy állás és a tükörképe egyetlen
+ * rekordon osztozik, a lépést pedig a keresés a tábla irányához
+ * igazítja. A keresés bináris kereséssel, közvetlenül a leképezett fájlon
+ * történik, így a megnyitás szinte azonnali, és a lapokat az operációs
+ * rendszer a folyamatok között megosztja. A könyv csak olvasható, ezért
+ * több szálból is használható.</p>
+ */
+public final class OpeningBook {
+    /** A könyvfájl azonosítója ("C4OB"). */
+    static final int MAGIC = 0x43344F42;
+
+    /** A fájlformátum verziója. */
+    static final int VERSION = 2;
+
+    /** A fejléc mérete bájtban. */
+    static final int HEADER_BYTES = 28;
+
+    /** Egy rekord mérete bájtban. */
+    static final int RECORD_BYTES = 16;
+
+    /** A rekordban a lépés eltolása. */
+    private static final int MOVE_OFFSET = Long.BYTES;
+
+    /** A rekordban az érték eltolása. */
+    private static final int SCORE_OFFSET = MOVE_OFFSET + Integer.BYTES;
+
+    /** A fejlécben a sorok számának eltolása. */
+    private static final int ROWS_OFFSET = 8;
+
+    /** A fejlécben az oszlopok számának eltolása. */
+    private static final int COLUMNS_OFFSET = 12;
+
+    /** A fejlécben a nyerő sorozathossz eltolása. */
+    private static final int WIN_LENGTH_OFFSET = 16;
+
+    /** A fejlécben a keresési mélység eltolása. */
+    private static final int DEPTH_OFFSET = 20;
+
+    /** A fejlécben a rekordok számának eltolása. */
+    private static final int COUNT_OFFSET = 24;
+
+    /** A leképezett fájl tartalma. */
+    private final ByteBuffer records;
+
+    /** A tábla sorainak száma. */
+    private final int rows;
+
+    /** A tábla oszlopainak száma. */
+    private final int columns;
+
+    /** A nyeréshez szükséges sorozathossz. */
+    private final int winLength;
+
+    /** A bejegyzések kiszámításakor használt keresési mélység. */
+    private final int depth;
+
+    /** A bejegyzések száma. */
+    private final int size;
+
+    /**
+     * Privát konstruktor; az {@link #open(Path)} használja.
+     *
+     * @param recordsParam A leképezett, ellenőrzött fájltartalom.
+     */
+    private OpeningBook(final ByteBuffer recordsParam) {
+        this.records = recordsParam;
+        this.rows = recordsParam.getInt(ROWS_OFFSET);
+        this.columns = recordsParam.getInt(COLUMNS_OFFSET);
+        this.winLength = recordsParam.getInt(WIN_LENGTH_OFFSET);
+        this.depth = recordsParam.getInt(DEPTH_OFFSET);
+        this.size = recordsParam.getInt(COUNT_OFFSET);
+    }
+
+    /**
+     * Memóriába képez le egy könyvfájlt.
+     *
+     * @param path A könyvfájl elérési útja.
+     * @return A megnyitott könyv.
+     * @throws IOException Ha a fájl nem olvasható, vagy nem könyvfájl.
+     */
+    public static OpeningBook open(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("A fájl nem nyitókönyv.");
+            }
+            MappedByteBuffer mapped = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (mapped.getInt(0) != MAGIC
+                    || mapped.getInt(Integer.BYTES) != VERSION
+                    || HEADER_BYTES + (long) mapped.getInt(COUNT_OFFSET)
+                    * RECORD_BYTES != fileSize) {
+                throw new IOException("A fájl nem nyitókönyv.");
+            }
+            return new OpeningBook(mapped);
+        }
+    }
+
+    /**
+     * Kiírja a bejegyzéseket egy könyvfájlba, kulcs szerint rendezve.
+     *
+     * @param path        A könyvfájl elérési útja.
+     * @param rowCount    A tábla sorainak száma.
+     * @param columnCount A tábla oszlopainak száma.
+     * @param winLength   A nyeréshez szükséges sorozathossz.
+     * @param searchDepth A bejegyzések keresési mélysége.
+     * @param entries     A pozíciókulcsokhoz tartozó keresési eredmények.
+     * @throws IOException Ha az írás nem sikerül.
+     */
+    public static void write(final Path path, final int rowCount,
+                             final int columnCount, final int winLength,
+                             final int searchDepth,
+                             final Map<Long, SearchResult> entries)
+            throws IOException {
+        long[] keys = new long[entries.size()];
+        int i = 0;
+        for (long key : entries.keySet()) {
+            keys[i++] = key;
+        }
+        Arrays.sort(keys);
+        ByteBuffer buffer = ByteBuffer.allocate(
+                HEADER_BYTES + keys.length * RECORD_BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(rowCount)
+                .putInt(columnCount).putInt(winLength).putInt(searchDepth)
+                .putInt(keys.length);
+        for (long key : keys) {
+            SearchResult result = entries.get(key);
+            buffer.putLong(key).putInt(result.getBestMove())
+                    .putInt(result.getScore());
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Megkeresi az állást a könyvben.
+     *
+     * @param board A tábla.
+     * @param token A lépésre következő játékos tokenje.
+     * @return A tárolt lépés és érték (nulla csomóponttal), vagy null, ha
+     *         az állás nincs a könyvben, vagy a tábla mérete, illetve a
+     *         nyerő sorozathossz eltér a könyvétől.
+     */
+    public SearchResult lookup(final Board board, final char token) {
+        if (board.getRows() != rows || board.getColumns() != columns
+                || board.getWinLength() != winLength) {
+            return null;
+        }
+        int entry = indexOf(PositionCodec.encodeCanonical(board, token));
+        if (entry < 0) {
+            return null;
+        }
+        int offset = HEADER_BYTES + entry * RECORD_BYTES;
+        int move = records.getInt(offset + MOVE_OFFSET);
+        if (move >= 0 && PositionCodec.isMirrored(board, token)) {
+            move = board.mirrorColumn(move); // A könyv a tükörképet tárolja
+        }
+        return new SearchResult(move, records.getInt(offset + SCORE_OFFSET),
+                depth, 0L, 0L);
+    }
+
+    /**
+     * Bináris kereséssel megkeresi a kulcs rekordját.
+     *
+     * @param key A pozíciókulcs.
+     * @return A rekord sorszáma, vagy -1, ha nincs ilyen.
+     */
+    private int indexOf(final long key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = records.getLong(HEADER_BYTES + mid * RECORD_BYTES);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Visszaadja a tábla sorainak számát.
+     *
+     * @return A sorok száma.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Visszaadja a tábla oszlopainak számát.
+     *
+     * @return Az oszlopok száma.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Visszaadja a nyeréshez szükséges sorozathosszt.
+     *
+     * @return A nyerő sorozathossz.
+     */
+    public int getWinLength() {
+        return winLength;
+    }
+
+    /**
+     * Visszaadja a bejegyzések kiszámításakor használt keresési mélységet.
+     *
+     * @return A keresési mélység.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Visszaadja a bejegyzések számát.
+     *
+     * @return A bejegyzések száma.
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,228 @@
+package com.connect4;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Az OpeningBookGenerator osztály a {@link SearchEngine} segítségével
+ * elkészíti a nyitókönyvet.
+ *
+ * <p>A kezdőállásból indulva szintenként felsorolja a megadott lépésszámig
+ * elérhető, még nem eldőlt állásokat (az azonos és az egymás tükörképét
+ * adó állásokat egyszer, kanonikus kulccsal), majd mindegyiket rögzített
+ * mélységig kiértékeli. A haladást a megadott kimenetre írja.</p>
+ */
+public final class OpeningBookGenerator {
+    /** Az alapértelmezett lépésszám, ameddig a könyv terjed. */
+    public static final int DEFAULT_PLIES = 6;
+
+    /** Az alapértelmezett keresési mélység. */
+    public static final int DEFAULT_SEARCH_DEPTH = 12;
+
+    /** A generálás közös gyorsítótárának mérete (32 MB). */
+    private static final int TABLE_BITS = 21;
+
+    /** A haladásjelzések száma a generálás során. */
+    private static final int PROGRESS_STEPS = 100;
+
+    /** Nanoszekundum másodpercenként. */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /** A százalékszámítás szorzója. */
+    private static final int PERCENT = 100;
+
+    /** A sorok számának helye a parancssori argumentumok között. */
+    private static final int ARG_ROWS = 3;
+
+    /** Az oszlopok számának helye a parancssori argumentumok között. */
+    private static final int ARG_COLUMNS = 4;
+
+    /** A nyerő sorozathossz helye a parancssori argumentumok között. */
+    private static final int ARG_WIN_LENGTH = 5;
+
+    /** A kezdő játékos tokenje. */
+    private static final char FIRST = 'X';
+
+    /** A második játékos tokenje. */
+    private static final char SECOND = 'O';
+
+    // Privát konstruktor, hogy megakadályozzuk az objektumok létrehozását.
+    private OpeningBookGenerator() {
+        throw new UnsupportedOperationException(
+                "Ez az osztály nem hozható létre."
+        );
+    }
+
+    /**
+     * Elkészíti és kiírja a nyitókönyvet az alapértelmezett nyerő
+     * sorozathosszal.
+     *
+     * @param path        A könyvfájl elérési útja.
+     * @param rows        A tábla sorainak száma.
+     * @param columns     A tábla oszlopainak száma.
+     * @param plies       A legnagyobb lépésszám, ameddig a könyv terjed.
+     * @param searchDepth Az állásonkénti keresési mélység.
+     * @param progress    A haladásjelzés kimenete.
+     * @return A könyvbe került állások száma.
+     * @throws IOException Ha a kiírás nem sikerül.
+     */
+    public static int generate(final Path path, final int rows,
+                               final int columns, final int plies,
+                               final int searchDepth,
+                               final PrintStream progress)
+            throws IOException {
+        return generate(path, rows, columns, Constants.DEFAULT_WIN_LENGTH,
+                plies, searchDepth, progress);
+    }
+
+    /**
+     * Elkészíti és kiírja a nyitókönyvet.
+     *
+     * @param path        A könyvfájl elérési útja.
+     * @param rows        A tábla sorainak száma.
+     * @param columns     A tábla oszlopainak száma.
+     * @param winLength   A nyeréshez szükséges sorozathossz.
+     * @param plies       A legnagyobb lépésszám, ameddig a könyv terjed.
+     * @param searchDepth Az állásonkénti keresési mélység.
+     * @param progress    A haladásjelzés kimenete.
+     * @return A könyvbe került állások száma.
+     * @throws IOException Ha a kiírás nem sikerül.
+     */
+    public static int generate(final Path path, final int rows,
+                               final int columns, final int winLength,
+                               final int plies, final int searchDepth,
+                               final PrintStream progress)
+            throws IOException {
+        if (!PositionCodec.fits(rows, columns)) {
+            throw new IllegalArgumentException(
+                    "A tábla nem fér el 64 biten.");
+        }
+        if (plies < 0) {
+            throw new IllegalArgumentException(
+                    "A lépésszám nem lehet negatív.");
+        }
+        List<Set<Long>> levels = enumerate(rows, columns, winLength, plies);
+        int total = 0;
+        for (Set<Long> level : levels) {
+            total += level.size();
+        }
+        SearchEngine engine = new SearchEngine(searchDepth, 0L,
+                new TranspositionTable(TABLE_BITS));
+        Map<Long, SearchResult> entries = new HashMap<>();
+        int step = Math.max(1, total / PROGRESS_STEPS);
+        long start = System.nanoTime();
+        for (int ply = 0; ply < levels.size(); ply++) {
+            char mover = ply % 2 == 0 ? FIRST : SECOND;
+            char other = mover == FIRST ? SECOND : FIRST;
+            for (long key : levels.get(ply)) {
+                Board board = PositionCodec.decode(key, rows, columns,
+                        winLength, mover, other);
+                entries.put(key, engine.search(board, mover));
+                int done = entries.size();
+                if (done % step == 0 || done == total) {
+                    progress.printf("\rNyitókönyv: %d/%d állás (%d%%), "
+                            + "%.1f s", done, total, done * PERCENT / total,
+                            (System.nanoTime() - start) / NANOS_PER_SECOND);
+                }
+            }
+        }
+        progress.println();
+        OpeningBook.write(path, rows, columns, winLength, searchDepth,
+                entries);
+        return entries.size();
+    }
+
+    /**
+     * Felsorolja a legfeljebb {@code plies} lépéssel elérhető, még nem
+     * eldőlt állások kanonikus kulcsait, a lépő játékos szemszögéből.
+     *
+     * @param rows      A tábla sorainak száma.
+     * @param columns   A tábla oszlopainak száma.
+     * @param winLength A nyeréshez szükséges sorozathossz.
+     * @param plies     A legnagyobb lépésszám.
+     * @return Lépésszámonként az állások kulcsai.
+     */
+    static List<Set<Long>> enumerate(final int rows, final int columns,
+                                     final int winLength, final int plies) {
+        List<Set<Long>> levels = new ArrayList<>();
+        Set<Long> level = new LinkedHashSet<>();
+        level.add(PositionCodec.encodeCanonical(
+                new Board(rows, columns, winLength), FIRST));
+        for (int ply = 0; !level.isEmpty(); ply++) {
+            levels.add(level);
+            if (ply == plies) {
+                break;
+            }
+            char mover = ply % 2 == 0 ? FIRST : SECOND;
+            char other = mover == FIRST ? SECOND : FIRST;
+            Set<Long> next = new LinkedHashSet<>();
+            for (long key : level) {
+                Board board = PositionCodec.decode(key, rows, columns,
+                        winLength, mover, other);
+                int slot = board.bindSlot(mover);
+                for (int col = 0; col < columns; col++) {
+                    if (!board.isColumnValid(col)
+                            || board.isWinningMove(col, slot)) {
+                        continue;
+                    }
+                    board.play(col, slot);
+                    if (!board.isFull()) {
+                        next.add(PositionCodec.encodeCanonical(board,
+                                other));
+                    }
+                    board.undo();
+                }
+            }
+            level = next;
+        }
+        return levels;
+    }
+
+    /**
+     * A program belépési pontja.
+     *
+     * @param args A könyvfájl neve, opcionálisan a lépésszám, a keresési
+     *             mélység, a sorok és az oszlopok száma, valamint a nyerő
+     *             sorozathossz.
+     * @throws IOException Ha a kiírás nem sikerül.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Használat: OpeningBookGenerator <fájl> "
+                    + "[lépésszám] [mélység] [sorok] [oszlopok] "
+                    + "[sorozathossz]");
+            return;
+        }
+        int plies = intArg(args, 1, DEFAULT_PLIES);
+        int depth = intArg(args, 2, DEFAULT_SEARCH_DEPTH);
+        int rows = intArg(args, ARG_ROWS, Constants.DEFAULT_ROWS);
+        int columns = intArg(args, ARG_COLUMNS, Constants.DEFAULT_COLUMNS);
+        int winLength = intArg(args, ARG_WIN_LENGTH,
+                Constants.DEFAULT_WIN_LENGTH);
+        int count = generate(Paths.get(args[0]), rows, columns, winLength,
+                plies, depth, System.out);
+        System.out.println("Kész: " + count + " állás.");
+    }
+
+    /**
+     * Beolvas egy egész számú parancssori argumentumot.
+     *
+     * @param args         A parancssori argumentumok.
+     * @param index        Az argumentum helye.
+     * @param defaultValue Az érték, ha az argumentum hiányzik.
+     * @return Az argumentum értéke.
+     */
+    private static int intArg(final String[] args, final int index,
+                              final int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index])
+                : defaultValue;
+    }
+}
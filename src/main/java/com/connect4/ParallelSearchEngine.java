@@ -0,0 +1,295 @@
+package com.connect4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A ParallelSearchEngine osztály a gyökérlépések szétosztásával több
+ * szálon keres.
+ *
+ * <p>Minden mélységben az első (legígéretesebb) gyökérlépést teljes
+ * ablakkal értékeli ki, majd a többit párhuzamosan, egy
+ * {@link ForkJoinPool} szálain, az első lépés értékét alsó korlátként
+ * használva. A szálak saját táblamásolaton dolgoznak, és egy közös, zár
+ * nélküli {@link TranspositionTable} gyorsítótárat használnak, amelyből
+ * csak az azonos mélységű bejegyzések adhatnak vágást. Így rögzített
+ * mélységnél a választott lépés és értéke nem függ a szálak számától és
+ * ütemezésétől.</p>
+ */
+public final class ParallelSearchEngine implements Searcher, AutoCloseable {
+    /** A legnagyobb keresési mélység. */
+    private final int maxDepth;
+
+    /** Az időkorlát ezredmásodpercben (0: nincs korlát). */
+    private final long timeLimitMillis;
+
+    /** A szálak közös gyorsítótára. */
+    private final TranspositionTable table;
+
+    /** A munkaszálak mélységkorlátnál használt értékelője. */
+    private volatile Evaluator evaluator;
+
+    /** A gyökérlépéseket kiértékelő szálkészlet. */
+    private final ForkJoinPool pool;
+
+    /** A futó munkaszálak keresői, hogy a leállítás elérje őket. */
+    private final Set<SearchEngine> active = ConcurrentHashMap.newKeySet();
+
+    /** Igaz, ha a keresést kívülről leállították. */
+    private volatile boolean cancelled;
+
+    /**
+     * Konstruktor a ParallelSearchEngine osztályhoz.
+     *
+     * @param maxDepthParam        A legnagyobb keresési mélység.
+     * @param timeLimitMillisParam Az időkorlát lépésenként ezredmásodpercben
+     *                             (0: nincs korlát).
+     * @param tableParam           A szálak közös gyorsítótára.
+     * @param threads              A keresőszálak száma.
+     */
+    public ParallelSearchEngine(final int maxDepthParam,
+                                final long timeLimitMillisParam,
+                                final TranspositionTable tableParam,
+                                final int threads) {
+        if (maxDepthParam < 1) {
+            throw new IllegalArgumentException(
+                    "A keresési mélységnek legalább 1-nek kell lennie.");
+        }
+        if (timeLimitMillisParam < 0) {
+            throw new IllegalArgumentException(
+                    "Az időkorlát nem lehet negatív.");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "Legalább egy keresőszál szükséges.");
+        }
+        this.maxDepth = maxDepthParam;
+        this.timeLimitMillis = timeLimitMillisParam;
+        this.table = tableParam;
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Visszaadja a keresőszálak számát.
+     *
+     * @return A szálak száma.
+     */
+    public int getThreads() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Beállítja a munkaszálak mélységkorlátnál használt állásértékelőjét.
+     * Az értékelőt a szálak egyszerre hívják, ezért állapotmentesnek kell
+     * lennie.
+     *
+     * @param evaluatorParam Az értékelő, vagy null.
+     */
+    @Override
+    public void setEvaluator(final Evaluator evaluatorParam) {
+        this.evaluator = evaluatorParam;
+    }
+
+    /**
+     * Megkeresi a legjobb lépést a megadott tokenű játékos számára. A
+     * tábla a keresés végére visszakerül az eredeti állapotába.
+     *
+     * @param board A játék tábla.
+     * @param token A lépő játékos tokenje.
+     * @return A keresés eredménye.
+     */
+    @Override
+    public SearchResult search(final Board board, final char token) {
+        long start = System.nanoTime();
+        long deadline = start + timeLimitMillis * SearchEngine.NANOS_PER_MILLI;
+        cancelled = false;
+        int slot = board.bindSlot(token);
+        int[] rootOrder = SearchEngine.columnOrder(board.getColumns());
+        int validCount = 0;
+        for (int col : rootOrder) {
+            if (board.isColumnValid(col)) {
+                if (board.isWinningMove(col, slot)) {
+                    return new SearchResult(col, SearchEngine.WIN_SCORE - 1,
+                            1, 1, System.nanoTime() - start);
+                }
+                rootOrder[validCount++] = col;
+            }
+        }
+        if (validCount == 0) {
+            return new SearchResult(-1, 0, 0, 0, System.nanoTime() - start);
+        }
+        int[] moves = new int[validCount];
+        System.arraycopy(rootOrder, 0, moves, 0, validCount);
+
+        int bestMove = moves[0];
+        int bestScore = 0;
+        int completedDepth = 0;
+        long nodes = 0;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            // Az első lépés teljes ablakkal, a többi az értékét használja
+            RootTask first = new RootTask(board, slot, moves[0], depth,
+                    -SearchEngine.INFINITE_SCORE, deadline);
+            first.call();
+            nodes += first.nodes;
+            if (first.stopped) {
+                break;
+            }
+            List<RootTask> tasks = new ArrayList<>();
+            for (int i = 1; i < moves.length; i++) {
+                tasks.add(new RootTask(board, slot, moves[i], depth,
+                        first.score, deadline));
+            }
+            invokeAll(tasks);
+
+            boolean stopped = false;
+            int iterationMove = first.column;
+            int iterationScore = first.score;
+            for (RootTask task : tasks) {
+                nodes += task.nodes;
+                stopped |= task.stopped;
+                if (task.score > iterationScore) {
+                    iterationScore = task.score;
+                    iterationMove = task.column;
+                }
+            }
+            if (stopped) {
+                break;
+            }
+            bestMove = iterationMove;
+            bestScore = iterationScore;
+            completedDepth = depth;
+            SearchEngine.moveToFront(moves, iterationMove);
+            if (Math.abs(bestScore) > SearchEngine.WIN_THRESHOLD) {
+                break; // Kikényszerített eredmény, a mélyítés nem változtat
+            }
+        }
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Leállítja a folyamatban lévő keresést az összes munkaszálon. A
+     * keresés a legutolsó teljesen befejezett iteráció legjobb lépésével
+     * tér vissza.
+     */
+    @Override
+    public void cancel() {
+        cancelled = true;
+        for (SearchEngine worker : active) {
+            worker.cancel();
+        }
+    }
+
+    /**
+     * Leállítja a szálkészletet.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Lefuttatja a feladatokat a szálkészleten, és megvárja mindegyiket.
+     *
+     * @param tasks A gyökérlépések feladatai.
+     */
+    private void invokeAll(final List<RootTask> tasks) {
+        List<Future<Integer>> futures = pool.invokeAll(tasks);
+        try {
+            for (Future<Integer> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("A keresés megszakadt.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A keresőszál hibára futott.",
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Egy gyökérlépés kiértékelése a saját táblamásolatán.
+     */
+    private final class RootTask implements Callable<Integer> {
+        /** A kiértékelendő oszlop. */
+        private final int column;
+
+        /** A tábla másolata. */
+        private final Board board;
+
+        /** A lépő játékos bitmaszkjának indexe. */
+        private final int slot;
+
+        /** A keresési mélység. */
+        private final int depth;
+
+        /** Az alsó korlát. */
+        private final int alpha;
+
+        /** Az időkorlát lejárta nanoszekundumban. */
+        private final long deadline;
+
+        /** A lépés értéke. */
+        private int score;
+
+        /** A bejárt csomópontok száma. */
+        private long nodes;
+
+        /** Igaz, ha az időkorlát leállította a keresést. */
+        private boolean stopped;
+
+        /**
+         * Konstruktor a RootTask osztályhoz.
+         *
+         * @param source         Az eredeti tábla, amelyről másolat készül.
+         * @param slotParam      A lépő játékos bitmaszkjának indexe.
+         * @param columnParam    A kiértékelendő oszlop.
+         * @param depthParam     A keresési mélység.
+         * @param alphaParam     Az alsó korlát.
+         * @param deadlineParam  Az időkorlát lejárta nanoszekundumban.
+         */
+        RootTask(final Board source, final int slotParam,
+                 final int columnParam, final int depthParam,
+                 final int alphaParam, final long deadlineParam) {
+            this.board = source.copy();
+            this.slot = slotParam;
+            this.column = columnParam;
+            this.depth = depthParam;
+            this.alpha = alphaParam;
+            this.deadline = deadlineParam;
+        }
+
+        /**
+         * Kiértékeli a lépést.
+         *
+         * @return A lépés értéke.
+         */
+        @Override
+        public Integer call() {
+            SearchEngine worker = new SearchEngine(depth, timeLimitMillis,
+                    table, true);
+            worker.setEvaluator(evaluator);
+            active.add(worker);
+            try {
+                // A leállítás a hozzáadás előtt is érkezhetett
+                if (cancelled) {
+                    worker.cancel();
+                }
+                score = worker.scoreMove(board, slot, column, depth, alpha,
+                        deadline);
+            } finally {
+                active.remove(worker);
+            }
+            nodes = worker.getNodes();
+            stopped = worker.isStopped();
+            return score;
+        }
+    }
+}
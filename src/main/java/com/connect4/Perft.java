@@ -0,0 +1,367 @@
+package com.connect4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A Perft osztály egy állásból megszámolja az összes szabályos, adott
+ * hosszúságú lépéssort és az útközben elért végállásokat.
+ *
+ * <p>A bejárás csak a {@link Board} nyilvános műveleteit használja
+ * ({@link Board#isColumnValid(int)}, {@link Board#placeToken(int, char)},
+ * {@link Board#checkWin()}, {@link Board#isFull()} és
+ * {@link Board#undo()}), így egyetlen számmal ellenőrzi a tábla
+ * helyességét, a csomópontok másodpercenkénti számával pedig a
+ * sebességét. Véget ért játszmát nem folytat: a nyerő vagy a táblát
+ * megtöltő lépés után az ág lezárul.</p>
+ *
+ * <p>A referencia mód egy szálon, rekurzívan számol. A párhuzamos mód a
+ * gyökér lépései szerint osztja fel a munkát egy {@link ForkJoinPool}
+ * szálai között, mindegyik ág a tábla saját másolatán; az eredménye
+ * azonos a referencia móddal.</p>
+ */
+public final class Perft {
+    /** A számlálók között a lépéssorok indexe. */
+    private static final int NODES = 0;
+
+    /** A számlálók között a gyökérben lépő játékos nyeréseinek indexe. */
+    private static final int MOVER_WINS = 1;
+
+    /** A számlálók között az ellenfél nyeréseinek indexe. */
+    private static final int OPPONENT_WINS = 2;
+
+    /** A számlálók között a döntetlenek indexe. */
+    private static final int DRAWS = 3;
+
+    /** A számlálók száma. */
+    private static final int COUNTERS = 4;
+
+    /** Az alapértelmezett legnagyobb mélység a parancssori futtatáshoz. */
+    private static final int DEFAULT_MAX_DEPTH = 8;
+
+    /** A másodpercenkénti nanoszekundumok száma. */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /** Az ezredmásodpercenkénti nanoszekundumok száma. */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * Privát konstruktor, hogy megakadályozza a példányosítást.
+     */
+    private Perft() {
+        throw new UnsupportedOperationException(
+                "Ez egy segédosztály, nem példányosítható.");
+    }
+
+    /**
+     * A számlálás eredménye.
+     */
+    public static final class Result {
+        /** A pontosan a megadott hosszúságú lépéssorok száma. */
+        private final long nodes;
+
+        /** A gyökérben lépő játékos nyerő végállásainak száma. */
+        private final long moverWins;
+
+        /** Az ellenfél nyerő végállásainak száma. */
+        private final long opponentWins;
+
+        /** A döntetlen végállások száma. */
+        private final long draws;
+
+        /** A számlálás ideje nanoszekundumban. */
+        private final long elapsedNanos;
+
+        /**
+         * Konstruktor a Result osztályhoz.
+         *
+         * @param counts            A számlálók.
+         * @param elapsedNanosParam A számlálás ideje nanoszekundumban.
+         */
+        Result(final long[] counts, final long elapsedNanosParam) {
+            this.nodes = counts[NODES];
+            this.moverWins = counts[MOVER_WINS];
+            this.opponentWins = counts[OPPONENT_WINS];
+            this.draws = counts[DRAWS];
+            this.elapsedNanos = elapsedNanosParam;
+        }
+
+        /**
+         * Visszaadja a pontosan a megadott hosszúságú lépéssorok számát.
+         * A mélységen belül véget ért játszmák rövidebb lépéssorai nem
+         * számítanak bele.
+         *
+         * @return A lépéssorok száma.
+         */
+        public long getNodes() {
+            return nodes;
+        }
+
+        /**
+         * Visszaadja a gyökérben lépő játékos nyerő végállásainak számát
+         * a megadott mélységig.
+         *
+         * @return A nyerő végállások száma.
+         */
+        public long getMoverWins() {
+            return moverWins;
+        }
+
+        /**
+         * Visszaadja az ellenfél nyerő végállásainak számát a megadott
+         * mélységig.
+         *
+         * @return A nyerő végállások száma.
+         */
+        public long getOpponentWins() {
+            return opponentWins;
+        }
+
+        /**
+         * Visszaadja a döntetlen (teli táblás) végállások számát a
+         * megadott mélységig.
+         *
+         * @return A döntetlenek száma.
+         */
+        public long getDraws() {
+            return draws;
+        }
+
+        /**
+         * Visszaadja a számlálás idejét.
+         *
+         * @return Az idő nanoszekundumban.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Visszaadja a másodpercenként megszámolt lépéssorok számát.
+         *
+         * @return A sebesség, vagy 0, ha az idő nem mérhető.
+         */
+        public double getNodesPerSecond() {
+            return elapsedNanos > 0
+                    ? nodes * NANOS_PER_SECOND / elapsedNanos : 0.0;
+        }
+
+        /**
+         * Visszaadja az eredmény egysoros összefoglalóját.
+         *
+         * @return Az összefoglaló.
+         */
+        @Override
+        public String toString() {
+            return String.format("lépéssorok=%d nyer=%d veszít=%d"
+                            + " döntetlen=%d %.1f ms (%.0f/s)",
+                    nodes, moverWins, opponentWins, draws,
+                    elapsedNanos / NANOS_PER_MILLI, getNodesPerSecond());
+        }
+    }
+
+    /**
+     * Egy szálon megszámolja a lépéssorokat (referencia mód). A táblát
+     * a bejárás végére visszaállítja.
+     *
+     * @param board    A kiinduló állás.
+     * @param toMove   A lépő játékos tokenje.
+     * @param opponent Az ellenfél tokenje.
+     * @param depth    A lépéssorok hossza.
+     * @return Az eredmény.
+     * @throws IllegalArgumentException Ha a mélység negatív.
+     */
+    public static Result count(final Board board, final char toMove,
+                               final char opponent, final int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("A mélység nem lehet negatív.");
+        }
+        long start = System.nanoTime();
+        long[] counts = new long[COUNTERS];
+        if (depth == 0) {
+            counts[NODES] = 1;
+        } else {
+            walk(board, toMove, opponent, depth, true, counts);
+        }
+        return new Result(counts, System.nanoTime() - start);
+    }
+
+    /**
+     * Több szálon megszámolja a lépéssorokat: a gyökér minden lépése
+     * külön feladat a tábla saját másolatán. A táblát nem módosítja.
+     *
+     * @param board    A kiinduló állás.
+     * @param toMove   A lépő játékos tokenje.
+     * @param opponent Az ellenfél tokenje.
+     * @param depth    A lépéssorok hossza.
+     * @param threads  A szálak száma.
+     * @return Az eredmény, azonos a {@link #count} eredményével.
+     * @throws IllegalArgumentException Ha a mélység negatív, vagy a
+     *                                  szálszám kisebb egynél.
+     */
+    public static Result countParallel(final Board board, final char toMove,
+                                       final char opponent, final int depth,
+                                       final int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "Legalább egy szál szükséges.");
+        }
+        if (depth <= 1) {
+            return count(board.copy(), toMove, opponent, depth);
+        }
+        long start = System.nanoTime();
+        List<RootTask> tasks = new ArrayList<>();
+        for (int col = 0; col < board.getColumns(); col++) {
+            if (board.isColumnValid(col)) {
+                tasks.add(new RootTask(board.copy(), toMove, opponent, col,
+                        depth));
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long[] counts = new long[COUNTERS];
+        try {
+            for (RootTask task : tasks) {
+                pool.execute(task);
+            }
+            for (RootTask task : tasks) {
+                long[] part = task.join();
+                for (int i = 0; i < COUNTERS; i++) {
+                    counts[i] += part[i];
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return new Result(counts, System.nanoTime() - start);
+    }
+
+    /**
+     * Bejárja az állás összes lépését a megadott mélységig.
+     *
+     * @param board    A tábla; a bejárás végére visszaáll.
+     * @param toMove   A lépő játékos tokenje.
+     * @param opponent Az ellenfél tokenje.
+     * @param depth    A hátralévő lépések száma (legalább 1).
+     * @param rootSide True, ha a gyökérben lépő játékos lép.
+     * @param counts   A számlálók.
+     */
+    private static void walk(final Board board, final char toMove,
+                             final char opponent, final int depth,
+                             final boolean rootSide, final long[] counts) {
+        for (int col = 0; col < board.getColumns(); col++) {
+            if (board.isColumnValid(col)) {
+                visit(board, toMove, opponent, col, depth, rootSide, counts);
+            }
+        }
+    }
+
+    /**
+     * Megteszi a lépést, megszámolja, és ha a játszma folytatódik, a
+     * következő szinten folytatja a bejárást.
+     *
+     * @param board    A tábla; a bejárás végére visszaáll.
+     * @param toMove   A lépő játékos tokenje.
+     * @param opponent Az ellenfél tokenje.
+     * @param column   A lépés oszlopa.
+     * @param depth    A hátralévő lépések száma a lépéssel együtt.
+     * @param rootSide True, ha a gyökérben lépő játékos lép.
+     * @param counts   A számlálók.
+     */
+    private static void visit(final Board board, final char toMove,
+                              final char opponent, final int column,
+                              final int depth, final boolean rootSide,
+                              final long[] counts) {
+        board.placeToken(column, toMove);
+        if (depth == 1) {
+            counts[NODES]++;
+        }
+        if (board.checkWin()) {
+            counts[rootSide ? MOVER_WINS : OPPONENT_WINS]++;
+        } else if (board.isFull()) {
+            counts[DRAWS]++;
+        } else if (depth > 1) {
+            walk(board, opponent, toMove, depth - 1, !rootSide, counts);
+        }
+        board.undo();
+    }
+
+    /**
+     * A gyökér egy lépésének bejárása a tábla saját másolatán.
+     */
+    private static final class RootTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        /** A tábla saját másolata. */
+        private final transient Board board;
+
+        /** A gyökérben lépő játékos tokenje. */
+        private final char toMove;
+
+        /** Az ellenfél tokenje. */
+        private final char opponent;
+
+        /** A gyökérlépés oszlopa. */
+        private final int column;
+
+        /** A lépéssorok hossza. */
+        private final int depth;
+
+        /**
+         * Konstruktor a RootTask osztályhoz.
+         *
+         * @param boardParam    A tábla saját másolata.
+         * @param toMoveParam   A gyökérben lépő játékos tokenje.
+         * @param opponentParam Az ellenfél tokenje.
+         * @param columnParam   A gyökérlépés oszlopa.
+         * @param depthParam    A lépéssorok hossza.
+         */
+        RootTask(final Board boardParam, final char toMoveParam,
+                 final char opponentParam, final int columnParam,
+                 final int depthParam) {
+            this.board = boardParam;
+            this.toMove = toMoveParam;
+            this.opponent = opponentParam;
+            this.column = columnParam;
+            this.depth = depthParam;
+        }
+
+        /**
+         * Bejárja a gyökérlépés alatti részfát.
+         *
+         * @return A részfa számlálói.
+         */
+        @Override
+        protected long[] compute() {
+            long[] counts = new long[COUNTERS];
+            visit(board, toMove, opponent, column, depth, true, counts);
+            return counts;
+        }
+    }
+
+    /**
+     * Kiírja a szabványos tábla kezdőállásának számlálóit mélységenként,
+     * referencia és párhuzamos módban.
+     *
+     * @param args Opcionálisan a legnagyobb mélység és a szálak száma.
+     */
+    public static void main(final String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0])
+                : DEFAULT_MAX_DEPTH;
+        int threads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        Board board = new Board(Constants.DEFAULT_ROWS,
+                Constants.DEFAULT_COLUMNS);
+        for (int depth = 0; depth <= maxDepth; depth++) {
+            Result reference = count(board, 'X', 'O', depth);
+            Result parallel = countParallel(board, 'X', 'O', depth,
+                    threads);
+            System.out.printf("perft(%d) %s | párhuzamos (%d szál)"
+                            + " %.1f ms, %s%n", depth, reference, threads,
+                    parallel.getElapsedNanos() / NANOS_PER_MILLI,
+                    parallel.getNodes() == reference.getNodes()
+                            ? "egyezik" : "ELTÉR");
+        }
+    }
+}
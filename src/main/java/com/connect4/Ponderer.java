@@ -0,0 +1,329 @@
+package com.connect4;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A Ponderer osztály az ellenfél gondolkodási ideje alatt előre keres a
+ * gép számára.
+ *
+ * <p>A gép lépése után egy háttérszálon először az ellenfél szemszögéből
+ * keres: ez megjósolja a válaszát, és közben a közös
+ * {@link TranspositionTable} gyorsítótárat is feltölti. Ezután a jósolt
+ * válasz utáni állásban a gép saját lépését keresi. Ha az ellenfél
+ * valóban a jósolt lépést teszi (találat), a {@link #resolve(Board)} az
+ * előre kiszámolt eredményt adja, befejezett keresés esetén azonnal.
+ * Eltérő lépésnél (tévedés) a háttérkeresést leállítja; a gyorsítótárba
+ * került állások ekkor is gyorsítják a következő keresést.</p>
+ *
+ * <p>A háttérkeresés ugyanazt a keresőt használja, mint a
+ * {@link AIPlayer#makeMove(Board)}, ezért a gép lépése előtt mindig meg
+ * kell hívni a {@link #resolve(Board)} metódust; az {@link AIPlayer}
+ * ezt maga intézi. A metódusok egyetlen (a játékot vezérlő) szálból
+ * hívhatók.</p>
+ */
+public final class Ponderer implements AutoCloseable {
+    /** A leállított háttérkeresésre várakozás egy lépésének ideje. */
+    private static final long CANCEL_POLL_MILLIS = 1L;
+
+    /** A találatok száma. */
+    private static final Metrics.Counter HITS =
+            Metrics.registry().counter("ai.ponder.hits");
+
+    /** A tévedések száma. */
+    private static final Metrics.Counter MISSES =
+            Metrics.registry().counter("ai.ponder.misses");
+
+    /** A találatonként megtakarított gondolkodási idő. */
+    private static final Metrics.Histogram SAVED_TIME =
+            Metrics.registry().histogram("ai.ponder.saved.ns");
+
+    /** A gép játékosa, amelynek a keresőjét használjuk. */
+    private final AIPlayer player;
+
+    /** A háttérszál. */
+    private final ExecutorService worker;
+
+    /** A folyamatban lévő háttérkeresés, vagy null. */
+    private Future<SearchResult> pending;
+
+    /** Az állás a gép lépése után, a háttérkeresés indulásakor. */
+    private Board base;
+
+    /** A jósolt válasz oszlopa, vagy -1, amíg nem ismert. */
+    private volatile int predicted = -1;
+
+    /** Igaz, ha a háttérkeresés eredményére már nincs szükség. */
+    private volatile boolean abandoned;
+
+    /** A találatok száma. */
+    private long hits;
+
+    /** A tévedések száma. */
+    private long misses;
+
+    /** Az összes megtakarított idő nanoszekundumban. */
+    private long savedNanos;
+
+    /**
+     * Konstruktor a Ponderer osztályhoz.
+     *
+     * @param playerParam A gép játékosa.
+     */
+    public Ponderer(final AIPlayer playerParam) {
+        this.player = playerParam;
+        this.worker = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "connect4-ponder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Elindítja a háttérkeresést a gép lépése után. Ha a lépéssel a
+     * játszma véget ér, vagy az ellenfél tokenje még nem ismert, nem
+     * csinál semmit. A táblát nem módosítja.
+     *
+     * @param board  A tábla a gép lépése előtt.
+     * @param column A gép lépésének oszlopa.
+     */
+    public void start(final Board board, final int column) {
+        stop();
+        if (!board.isColumnValid(column)) {
+            return;
+        }
+        char own = player.getToken();
+        Board next = board.copy();
+        next.placeToken(column, own);
+        char opponent = next.getTokenToMove();
+        if (opponent == '\0' || opponent == own || next.checkWin()
+                || next.isFull()) {
+            return;
+        }
+        Board work = next.copy();
+        base = next;
+        predicted = -1;
+        abandoned = false;
+        pending = worker.submit(() -> ponder(work, opponent, own));
+    }
+
+    /**
+     * Értesíti az ellenfél lépéséről. Ha az nem a jósolt lépés, a
+     * háttérkeresést azonnal leállítja, és nem vár rá.
+     *
+     * @param column Az ellenfél lépésének oszlopa.
+     */
+    public void opponentMoved(final int column) {
+        if (pending != null && predicted != column) {
+            abandoned = true;
+            player.cancelSearch();
+        }
+    }
+
+    /**
+     * Lezárja a háttérkeresést a gép következő lépése előtt. Találatnál
+     * megvárja és visszaadja az előre kiszámolt eredményt; tévedésnél
+     * leállítja a keresést, és null értéket ad.
+     *
+     * @param board A tábla a gép lépése előtt.
+     * @return Az előre kiszámolt eredmény, vagy null, ha nincs ilyen.
+     */
+    public SearchResult resolve(final Board board) {
+        if (pending == null) {
+            return null;
+        }
+        Future<SearchResult> task = pending;
+        pending = null;
+        int guess = predicted;
+        if (guess < 0 || !matches(board, guess)) {
+            stop(task);
+            miss();
+            return null;
+        }
+        long start = System.nanoTime();
+        SearchResult result = await(task);
+        if (result == null) {
+            miss();
+            return null;
+        }
+        long saved = Math.max(0L,
+                result.getElapsedNanos() - (System.nanoTime() - start));
+        hits++;
+        savedNanos += saved;
+        if (Metrics.ENABLED) {
+            HITS.increment();
+            SAVED_TIME.record(saved);
+        }
+        return result;
+    }
+
+    /**
+     * Leállítja a folyamatban lévő háttérkeresést, és megvárja a végét.
+     */
+    public void stop() {
+        if (pending != null) {
+            stop(pending);
+            pending = null;
+        }
+    }
+
+    /**
+     * Leállítja a háttérkeresést és a háttérszálat.
+     */
+    @Override
+    public void close() {
+        stop();
+        worker.shutdown();
+    }
+
+    /**
+     * Visszaadja a találatok számát.
+     *
+     * @return A találatok száma.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Visszaadja a tévedések számát.
+     *
+     * @return A tévedések száma.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Visszaadja a találati arányt.
+     *
+     * @return A találatok aránya a lezárt háttérkeresések között, vagy 0,
+     *         ha még nem volt ilyen.
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Visszaadja a találatokkal megtakarított összes gondolkodási időt:
+     * a háttérben már elvégzett keresési időt, amelyre a lépéskor nem
+     * kellett várni.
+     *
+     * @return A megtakarított idő nanoszekundumban.
+     */
+    public long getSavedNanos() {
+        return savedNanos;
+    }
+
+    /**
+     * Visszaadja a jósolt választ.
+     *
+     * @return A jósolt válasz oszlopa, vagy -1, amíg nem ismert.
+     */
+    int getPredictedMove() {
+        return predicted;
+    }
+
+    /**
+     * A háttérszál feladata: megjósolja az ellenfél válaszát, majd
+     * kiszámolja rá a gép lépését.
+     *
+     * @param work     A tábla a gép lépése után; a szál saját másolata.
+     * @param opponent Az ellenfél tokenje.
+     * @param own      A gép tokenje.
+     * @return A gép lépése a jósolt válasz után, vagy null, ha nincs mit
+     *         keresni.
+     */
+    private SearchResult ponder(final Board work, final char opponent,
+                                final char own) {
+        int reply = player.analyse(work, opponent).getBestMove();
+        if (abandoned || reply < 0 || !work.isColumnValid(reply)) {
+            return null;
+        }
+        work.placeToken(reply, opponent);
+        if (work.checkWin() || work.isFull()) {
+            return null;
+        }
+        predicted = reply;
+        return player.analyse(work, own);
+    }
+
+    /**
+     * Megadja, hogy a tábla a jósolt válasz utáni állás-e.
+     *
+     * @param board A tábla.
+     * @param guess A jósolt válasz oszlopa.
+     * @return True, ha az ellenfél a jósolt lépést tette.
+     */
+    private boolean matches(final Board board, final int guess) {
+        if (board.moveCount() != base.moveCount() + 1) {
+            return false;
+        }
+        Board expected = base.copy();
+        expected.placeToken(guess, base.getTokenToMove());
+        return expected.equals(board);
+    }
+
+    /**
+     * Megvárja a háttérkeresés eredményét.
+     *
+     * @param task A háttérkeresés.
+     * @return Az eredmény, vagy null, ha nincs.
+     */
+    private SearchResult await(final Future<SearchResult> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stop(task);
+            return null;
+        } catch (CancellationException e) {
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Leállítja a háttérkeresést, és megvárja a végét. A jelzést
+     * ismételten elküldi, mert egy éppen induló keresés törli azt.
+     *
+     * @param task A háttérkeresés.
+     */
+    private void stop(final Future<SearchResult> task) {
+        abandoned = true;
+        if (task.cancel(false)) {
+            return;
+        }
+        while (true) {
+            player.cancelSearch();
+            try {
+                task.get(CANCEL_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                // Még fut: a jelzést újra elküldjük
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (CancellationException | ExecutionException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rögzít egy tévedést.
+     */
+    private void miss() {
+        misses++;
+        if (Metrics.ENABLED) {
+            MISSES.increment();
+        }
+    }
+}
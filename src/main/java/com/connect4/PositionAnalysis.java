@@ -0,0 +1,209 @@
+package com.connect4;
+
+/**
+ * A PositionAnalysis osztály egy állás elemzésének eredményét tárolja:
+ * minden oszlop értékét és fő változatát a lépő játékos szemszögéből,
+ * vagy a hibát, ha a bemenet nem érvényes állás.
+ */
+public final class PositionAnalysis {
+    /** A szabálytalan (teli) oszlop értéke. */
+    public static final int NO_SCORE = Integer.MIN_VALUE;
+
+    /** Az állás sorszáma a bemenetben (nullától). */
+    private final long index;
+
+    /** Az állás lépéssora, vagy null, ha táblaként érkezett. */
+    private final String moves;
+
+    /** Az oszlopok értéke, szabálytalan oszlopnál {@link #NO_SCORE}. */
+    private final int[] scores;
+
+    /** Az oszlopok fő változata, az oszlop lépésével kezdve. */
+    private final int[][] variations;
+
+    /** A legjobb oszlop, vagy -1, ha nincs szabályos lépés. */
+    private final int bestMove;
+
+    /** A keresési mélység. */
+    private final int depth;
+
+    /** A bejárt csomópontok száma. */
+    private final long nodes;
+
+    /** A hiba leírása, vagy null, ha az állás érvényes. */
+    private final String error;
+
+    /**
+     * Konstruktor a PositionAnalysis osztályhoz. A legjobb oszlop a
+     * legnagyobb értékű; egyenlőségnél a középhez közelebbi.
+     *
+     * @param indexParam      Az állás sorszáma.
+     * @param movesParam      Az állás lépéssora, vagy null.
+     * @param scoresParam     Az oszlopok értéke.
+     * @param variationsParam Az oszlopok fő változata.
+     * @param depthParam      A keresési mélység.
+     * @param nodesParam      A bejárt csomópontok száma.
+     */
+    public PositionAnalysis(final long indexParam, final String movesParam,
+                            final int[] scoresParam,
+                            final int[][] variationsParam,
+                            final int depthParam, final long nodesParam) {
+        this.index = indexParam;
+        this.moves = movesParam;
+        this.scores = scoresParam;
+        this.variations = variationsParam;
+        this.depth = depthParam;
+        this.nodes = nodesParam;
+        this.error = null;
+        int best = -1;
+        for (int col : SearchEngine.columnOrder(scoresParam.length)) {
+            if (scoresParam[col] != NO_SCORE
+                    && (best < 0 || scoresParam[col] > scoresParam[best])) {
+                best = col;
+            }
+        }
+        this.bestMove = best;
+    }
+
+    /**
+     * Konstruktor egy érvénytelen bemenet eredményéhez.
+     *
+     * @param indexParam Az állás sorszáma.
+     * @param movesParam A lépéssor, vagy null.
+     * @param errorParam A hiba leírása.
+     */
+    public PositionAnalysis(final long indexParam, final String movesParam,
+                            final String errorParam) {
+        this.index = indexParam;
+        this.moves = movesParam;
+        this.scores = new int[0];
+        this.variations = new int[0][];
+        this.bestMove = -1;
+        this.depth = 0;
+        this.nodes = 0;
+        this.error = errorParam;
+    }
+
+    /**
+     * Visszaadja az állás sorszámát a bemenetben.
+     *
+     * @return A sorszám nullától.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Visszaadja az állás lépéssorát.
+     *
+     * @return A lépéssor, vagy null, ha az állás táblaként érkezett.
+     */
+    public String getMoves() {
+        return moves;
+    }
+
+    /**
+     * Visszaadja az elemzett oszlopok számát.
+     *
+     * @return Az oszlopok száma (0, ha a bemenet érvénytelen).
+     */
+    public int getColumnCount() {
+        return scores.length;
+    }
+
+    /**
+     * Visszaadja egy oszlop értékét a lépő játékos szemszögéből, a
+     * {@link SearchEngine} skáláján.
+     *
+     * @param column Az oszlop.
+     * @return Az érték, vagy {@link #NO_SCORE}, ha az oszlop tele van.
+     */
+    public int getScore(final int column) {
+        return scores[column];
+    }
+
+    /**
+     * Visszaadja egy oszlop fő változatát.
+     *
+     * @param column Az oszlop.
+     * @return A változat lépéseinek oszlopai az oszlop lépésével kezdve;
+     *         üres, ha az oszlop tele van.
+     */
+    public int[] getVariation(final int column) {
+        return variations[column].clone();
+    }
+
+    /**
+     * Visszaadja a legjobb oszlopot.
+     *
+     * @return Az oszlop, vagy -1, ha nincs szabályos lépés.
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Visszaadja a keresési mélységet.
+     *
+     * @return A mélység lépésekben.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Visszaadja a bejárt csomópontok számát.
+     *
+     * @return A csomópontok száma.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Visszaadja a hiba leírását.
+     *
+     * @return A hiba, vagy null, ha az állás érvényes.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Megadja, hogy a bemenet érvényes állás volt-e.
+     *
+     * @return True, ha az elemzés elkészült.
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+
+    /**
+     * Visszaadja az eredmény egysoros összefoglalóját: a sorszámot, a
+     * legjobb oszlopot, majd oszloponként az értéket (teli oszlopnál
+     * '-') és a fő változatot egytől számozott oszlopokkal.
+     *
+     * @return Az összefoglaló.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(index);
+        if (error != null) {
+            return sb.append(" hiba: ").append(error).toString();
+        }
+        sb.append(" legjobb=").append(bestMove + 1);
+        for (int col = 0; col < scores.length; col++) {
+            sb.append(' ').append(col + 1).append(':');
+            if (scores[col] == NO_SCORE) {
+                sb.append('-');
+                continue;
+            }
+            sb.append(scores[col]).append('/');
+            for (int move : variations[col]) {
+                sb.append(move + 1);
+            }
+        }
+        return sb.toString();
+    }
+}
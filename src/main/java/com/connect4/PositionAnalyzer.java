@@ -0,0 +1,485 @@
+package com.connect4;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * A PositionAnalyzer osztály állások tömeges elemzését végzi a játszmák
+ * utólagos áttekintéséhez: minden szabályos oszlopra értéket és fő
+ * változatot ad, nem csak a legjobb lépést.
+ *
+ * <p>Az állásokat egy munkalopó {@link ForkJoinPool} dolgozza fel; egy
+ * állás oszlopai külön részfeladatok, így a szabad szálak a hosszabb
+ * elemzésekből is átvehetnek munkát. Az oszlopokat rögzített mélységű,
+ * teljes ablakos negamax keresés értékeli ki; a feladatok egyetlen,
+ * az elemző élettartama alatt közös {@link TranspositionTable}
+ * gyorsítótáron osztoznak, így a kötegben ismétlődő állások (például a
+ * közös nyitások) csak egyszer kerülnek kiértékelésre. A gyorsítótárból
+ * csak azonos mélységű bejegyzések adnak vágást, ezért az értékek nem
+ * függnek a szálak ütemezésétől. A fő változatot a keresés után a
+ * gyorsítótár tárolt lépései adják; ha egy bejegyzést közben egy másik
+ * feladat felülírt, a változat rövidebb vagy mélyebb lépéseiben eltérő
+ * lehet.</p>
+ *
+ * <p>A köteg eredményei elkészülésük sorrendjében, a hívó szálán
+ * érkeznek. Egyszerre legfeljebb szálanként {@value #IN_FLIGHT_PER_THREAD}
+ * állás van feldolgozás alatt, így a bemenet tetszőlegesen hosszú lehet.
+ * Az elemző egyszerre egy köteget dolgoz fel.</p>
+ */
+public final class PositionAnalyzer implements AutoCloseable {
+    /** Az alapértelmezett keresési mélység. */
+    public static final int DEFAULT_DEPTH = 8;
+
+    /** Az alapértelmezett gyorsítótár mérete (2^20 bejegyzés). */
+    public static final int DEFAULT_TABLE_BITS = 20;
+
+    /** A szálanként egyszerre feldolgozás alatt álló állások száma. */
+    static final int IN_FLIGHT_PER_THREAD = 4;
+
+    /** A szálak számának helye a parancssori argumentumok között. */
+    private static final int ARG_THREADS = 2;
+
+    /** Ennyi nanoszekundum egy másodperc. */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /** A keresési mélység. */
+    private final int depth;
+
+    /** A tábla sorainak száma a lépéssorokhoz. */
+    private int rows = Constants.DEFAULT_ROWS;
+
+    /** A tábla oszlopainak száma a lépéssorokhoz. */
+    private int columns = Constants.DEFAULT_COLUMNS;
+
+    /** A feladatok közös gyorsítótára. */
+    private final TranspositionTable table;
+
+    /** A mélységkorlátnál használt, állapot nélküli értékelő. */
+    private final Evaluator evaluator = new ThreatEvaluator();
+
+    /** A munkalopó szálkészlet. */
+    private final ForkJoinPool pool;
+
+    /**
+     * Konstruktor a PositionAnalyzer osztályhoz.
+     *
+     * @param depthParam A keresési mélység oszloponként.
+     * @param threads    A munkaszálak száma.
+     * @param tableBits  A közös gyorsítótár méretének kettes alapú
+     *                   logaritmusa.
+     */
+    public PositionAnalyzer(final int depthParam, final int threads,
+                            final int tableBits) {
+        if (depthParam < 1) {
+            throw new IllegalArgumentException(
+                    "A keresési mélységnek legalább 1-nek kell lennie.");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "Legalább egy munkaszál szükséges.");
+        }
+        this.depth = depthParam;
+        this.table = new TranspositionTable(tableBits);
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Beállítja a lépéssorként érkező állások táblaméretét.
+     *
+     * @param rowsParam    A sorok száma.
+     * @param columnsParam Az oszlopok száma.
+     */
+    public void setBoardSize(final int rowsParam, final int columnsParam) {
+        this.rows = rowsParam;
+        this.columns = columnsParam;
+    }
+
+    /**
+     * Visszaadja a közös gyorsítótárat a találati statisztikákhoz.
+     *
+     * @return A gyorsítótár.
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Elemez egy állást. A táblát nem módosítja.
+     *
+     * @param board A tábla.
+     * @param token A lépő játékos tokenje.
+     * @return Az elemzés eredménye.
+     */
+    public PositionAnalysis analyse(final Board board, final char token) {
+        return pool.invoke(new PositionTask(0, null, board.copy(), token,
+                null));
+    }
+
+    /**
+     * Elemzi a táblák kötegét. A lépő játékos a tábla
+     * {@link Board#getTokenToMove()} tokenje; ha ez még nem ismert, a
+     * lépésszám párosságától függően 'X' vagy 'O'. A táblákat nem
+     * módosítja.
+     *
+     * @param boards A táblák.
+     * @param sink   Az eredmények fogadója; a hívó szálán, az elemzések
+     *               elkészülésének sorrendjében kapja meg őket.
+     * @return Az elemzett állások száma.
+     */
+    public long analyseBoards(final Iterable<Board> boards,
+                              final Consumer<PositionAnalysis> sink) {
+        Iterator<Board> iterator = boards.iterator();
+        try {
+            return run(index -> iterator.hasNext()
+                    ? boardTask(index, iterator.next()) : null, sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Elemzi a soronként egy lépéssort tartalmazó bemenetet, a
+     * {@link GameRecord#parseMoves(CharSequence, int, int)} formátumában.
+     * Az érvénytelen sorok hibás eredményt adnak; az üres sor a kezdőállás.
+     *
+     * @param in   A bemenet.
+     * @param sink Az eredmények fogadója; a hívó szálán, az elemzések
+     *             elkészülésének sorrendjében kapja meg őket.
+     * @return Az elemzett sorok száma.
+     * @throws IOException Ha a bemenet nem olvasható.
+     */
+    public long analyseMoveStrings(final BufferedReader in,
+                                   final Consumer<PositionAnalysis> sink)
+            throws IOException {
+        return run(index -> {
+            String line = in.readLine();
+            return line == null ? null : moveTask(index, line.trim());
+        }, sink);
+    }
+
+    /**
+     * Leállítja a szálkészletet.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * A kötegek bemenete: sorszám szerint adja a következő feladatot.
+     */
+    private interface TaskSource {
+        /**
+         * Visszaadja a következő feladatot.
+         *
+         * @param index A feladat sorszáma.
+         * @return A feladat, vagy null, ha a bemenet elfogyott.
+         * @throws IOException Ha a bemenet nem olvasható.
+         */
+        PositionTask next(long index) throws IOException;
+    }
+
+    /**
+     * Feldolgoz egy köteget korlátozott számú, egyszerre futó állással.
+     *
+     * @param source A feladatok forrása.
+     * @param sink   Az eredmények fogadója.
+     * @return Az eredmények száma.
+     * @throws IOException Ha a bemenet nem olvasható.
+     */
+    private long run(final TaskSource source,
+                     final Consumer<PositionAnalysis> sink)
+            throws IOException {
+        BlockingQueue<PositionAnalysis> done = new LinkedBlockingQueue<>();
+        int maxInFlight = pool.getParallelism() * IN_FLIGHT_PER_THREAD;
+        int inFlight = 0;
+        long delivered = 0;
+        try {
+            for (long index = 0;; index++) {
+                PositionTask task = source.next(index);
+                if (task == null) {
+                    break;
+                }
+                if (task.error != null) {
+                    sink.accept(new PositionAnalysis(index, task.moves,
+                            task.error));
+                    delivered++;
+                    continue;
+                }
+                for (; inFlight >= maxInFlight; inFlight--) {
+                    sink.accept(done.take());
+                    delivered++;
+                }
+                task.done = done;
+                pool.execute(task);
+                inFlight++;
+                for (PositionAnalysis ready = done.poll(); ready != null;
+                        ready = done.poll()) {
+                    sink.accept(ready);
+                    inFlight--;
+                    delivered++;
+                }
+            }
+            for (; inFlight > 0; inFlight--) {
+                sink.accept(done.take());
+                delivered++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Az elemzés megszakadt.", e);
+        }
+        return delivered;
+    }
+
+    /**
+     * Elkészíti egy tábla feladatát.
+     *
+     * @param index A sorszám.
+     * @param board A tábla.
+     * @return A feladat.
+     */
+    private PositionTask boardTask(final long index, final Board board) {
+        char token = board.getTokenToMove();
+        if (token == '\0') {
+            token = board.moveCount() % 2 == 0 ? 'X' : 'O';
+        }
+        return new PositionTask(index, null, board.copy(), token, null);
+    }
+
+    /**
+     * Elkészíti egy lépéssor feladatát; a lépéssort visszajátssza.
+     *
+     * @param index A sorszám.
+     * @param moves A lépéssor.
+     * @return A feladat, hibás lépéssornál a hibával.
+     */
+    private PositionTask moveTask(final long index, final String moves) {
+        GameRecord record;
+        try {
+            record = GameRecord.parseMoves(moves, rows, columns);
+        } catch (IllegalArgumentException e) {
+            return new PositionTask(index, moves, null, '\0',
+                    e.getMessage());
+        }
+        Board board = new Board(rows, columns, 'X', 'O');
+        int[] sequence = record.getMoves();
+        for (int i = 0; i < sequence.length; i++) {
+            if (board.checkWin() || !board.isColumnValid(sequence[i])) {
+                return new PositionTask(index, moves, null, '\0',
+                        "Érvénytelen lépés a(z) " + (i + 1) + ". helyen.");
+            }
+            board.placeToken(sequence[i], i % 2 == 0 ? 'X' : 'O');
+        }
+        return new PositionTask(index, moves, board,
+                sequence.length % 2 == 0 ? 'X' : 'O', null);
+    }
+
+    /**
+     * Egy állás elemzése: oszloponként egy részfeladatot indít.
+     */
+    private final class PositionTask extends RecursiveTask<PositionAnalysis> {
+        private static final long serialVersionUID = 1L;
+
+        /** Az állás sorszáma. */
+        private final long index;
+
+        /** Az állás lépéssora, vagy null. */
+        private final String moves;
+
+        /** A tábla; a feladat saját másolata. */
+        private final transient Board board;
+
+        /** A lépő játékos tokenje. */
+        private final char token;
+
+        /** A bemenet hibája, vagy null. */
+        private final String error;
+
+        /** A kész eredmények sora, vagy null egyedi elemzésnél. */
+        private transient BlockingQueue<PositionAnalysis> done;
+
+        /**
+         * Konstruktor a PositionTask osztályhoz.
+         *
+         * @param indexParam A sorszám.
+         * @param movesParam A lépéssor, vagy null.
+         * @param boardParam A tábla, vagy null hibás bemenetnél.
+         * @param tokenParam A lépő játékos tokenje.
+         * @param errorParam A bemenet hibája, vagy null.
+         */
+        PositionTask(final long indexParam, final String movesParam,
+                     final Board boardParam, final char tokenParam,
+                     final String errorParam) {
+            this.index = indexParam;
+            this.moves = movesParam;
+            this.board = boardParam;
+            this.token = tokenParam;
+            this.error = errorParam;
+        }
+
+        /**
+         * Elemzi az állást, és az eredményt a kész eredmények sorába is
+         * beteszi.
+         *
+         * @return Az elemzés eredménye.
+         */
+        @Override
+        protected PositionAnalysis compute() {
+            PositionAnalysis result;
+            try {
+                result = analyseColumns();
+            } catch (RuntimeException e) {
+                result = new PositionAnalysis(index, moves,
+                        String.valueOf(e));
+            }
+            if (done != null) {
+                done.add(result);
+            }
+            return result;
+        }
+
+        /**
+         * Kiértékeli az állás összes szabályos oszlopát.
+         *
+         * @return Az elemzés eredménye.
+         */
+        private PositionAnalysis analyseColumns() {
+            int cols = board.getColumns();
+            int[] scores = new int[cols];
+            int[][] variations = new int[cols][];
+            if (board.checkWin()) {
+                return new PositionAnalysis(index, moves,
+                        "A játszma már véget ért.");
+            }
+            int slot = board.bindSlot(token);
+            List<ColumnTask> tasks = new ArrayList<>();
+            for (int col = 0; col < cols; col++) {
+                scores[col] = PositionAnalysis.NO_SCORE;
+                variations[col] = new int[0];
+                if (board.isColumnValid(col)) {
+                    tasks.add(new ColumnTask(board.copy(), slot, col));
+                }
+            }
+            invokeAll(tasks);
+            long nodes = 0;
+            for (ColumnTask task : tasks) {
+                scores[task.column] = task.score;
+                variations[task.column] = task.variation;
+                nodes += task.nodes;
+            }
+            return new PositionAnalysis(index, moves, scores, variations,
+                    depth, nodes);
+        }
+    }
+
+    /**
+     * Egy oszlop kiértékelése a saját táblamásolaton és keresőn.
+     */
+    private final class ColumnTask extends RecursiveTask<Void> {
+        private static final long serialVersionUID = 1L;
+
+        /** A tábla saját másolata. */
+        private final transient Board board;
+
+        /** A lépő játékos bitmaszkjának indexe. */
+        private final int slot;
+
+        /** A kiértékelt oszlop. */
+        private final int column;
+
+        /** Az oszlop értéke. */
+        private int score;
+
+        /** Az oszlop fő változata. */
+        private int[] variation;
+
+        /** A bejárt csomópontok száma. */
+        private long nodes;
+
+        /**
+         * Konstruktor a ColumnTask osztályhoz.
+         *
+         * @param boardParam  A tábla saját másolata.
+         * @param slotParam   A lépő játékos maszkjának indexe.
+         * @param columnParam Az oszlop.
+         */
+        ColumnTask(final Board boardParam, final int slotParam,
+                   final int columnParam) {
+            this.board = boardParam;
+            this.slot = slotParam;
+            this.column = columnParam;
+        }
+
+        /**
+         * Kiértékeli az oszlopot, és kiolvassa a fő változatát.
+         *
+         * @return Semmi.
+         */
+        @Override
+        protected Void compute() {
+            if (board.isWinningMove(column, slot)) {
+                score = SearchEngine.WIN_SCORE - 1;
+                variation = new int[] {column};
+                nodes = 1;
+                return null;
+            }
+            SearchEngine engine = new SearchEngine(depth, 0, table, true);
+            engine.setEvaluator(evaluator);
+            score = engine.scoreMove(board, slot, column, depth,
+                    -SearchEngine.INFINITE_SCORE, 0L);
+            nodes = engine.getNodes();
+            board.play(column, slot);
+            int[] rest = engine.principalVariation(board, 1 - slot,
+                    depth - 1);
+            board.undo();
+            variation = new int[rest.length + 1];
+            variation[0] = column;
+            System.arraycopy(rest, 0, variation, 1, rest.length);
+            return null;
+        }
+    }
+
+    /**
+     * A program belépési pontja: elemzi egy fájl lépéssorait, az
+     * eredményeket soronként kiírja, végül az átviteli sebességet.
+     *
+     * @param args A lépéssorok fájlja, opcionálisan a keresési mélység és
+     *             a szálak száma.
+     * @throws IOException Ha a fájl nem olvasható.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Használat: PositionAnalyzer <fájl>"
+                    + " [mélység] [szálak]");
+            return;
+        }
+        int searchDepth = args.length > 1 ? Integer.parseInt(args[1])
+                : DEFAULT_DEPTH;
+        int threads = args.length > ARG_THREADS
+                ? Integer.parseInt(args[ARG_THREADS])
+                : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        long count;
+        try (PositionAnalyzer analyzer = new PositionAnalyzer(searchDepth,
+                threads, DEFAULT_TABLE_BITS);
+             BufferedReader in = Files.newBufferedReader(Paths.get(args[0]),
+                     StandardCharsets.UTF_8)) {
+            count = analyzer.analyseMoveStrings(in, System.out::println);
+        }
+        double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+        System.out.printf("%d állás, %.1f állás/s%n", count,
+                seconds > 0 ? count / seconds : 0.0);
+    }
+}
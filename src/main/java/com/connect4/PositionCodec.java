@@ -0,0 +1,211 @@
+package com.connect4;
+
+/**
+ * A PositionCodec osztály egy állást egyetlen 64 bites kulccsá alakít és
+ * vissza.
+ *
+ * <p>Oszloponként {@code rows + 1} bitet használunk: a legfelső token
+ * fölötti bit jelzi az oszlop magasságát, alatta az egyesek a megadott
+ * token, a nullák a másik token mezői. Így például a szabványos 6x7-es
+ * tábla bármely állása 49 biten elfér. Csak a 64 bitbe férő táblák
+ * kódolhatók.</p>
+ *
+ * <p>Egy állás és a középső oszlopra vett tükörképe játékelméletileg
+ * azonos. A kanonikus kulcs a kettő közül a kisebbik, így a tükörállások
+ * egyetlen bejegyzésben tárolhatók; a kanonikus alakhoz tartozó lépést a
+ * {@link Board#mirrorColumn(int)} alakítja vissza, ha a tábla a
+ * tükörképe a kanonikus alaknak.</p>
+ */
+public final class PositionCodec {
+
+    // Privát konstruktor, hogy megakadályozzuk az objektumok létrehozását.
+    private PositionCodec() {
+        throw new UnsupportedOperationException(
+                "Ez az osztály nem hozható létre."
+        );
+    }
+
+    /**
+     * Ellenőrzi, hogy a megadott méretű tábla kódolható-e.
+     *
+     * @param rows    A sorok száma.
+     * @param columns Az oszlopok száma.
+     * @return True, ha a tábla elfér egy 64 bites kulcsban.
+     */
+    public static boolean fits(final int rows, final int columns) {
+        return rows > 0 && columns > 0
+                && (long) (rows + 1) * columns <= Long.SIZE;
+    }
+
+    /**
+     * Kódolja a tábla állását.
+     *
+     * @param board A tábla.
+     * @param token Az egyessel jelölt token.
+     * @return A 64 bites pozíciókulcs.
+     * @throws IllegalArgumentException Ha a tábla nem kódolható, vagy a
+     *                                  tokennel együtt kettőnél több
+     *                                  különböző token lenne rajta.
+     */
+    public static long encode(final Board board, final char token) {
+        if (!fits(board.getRows(), board.getColumns())) {
+            throw new IllegalArgumentException(
+                    "A tábla nem fér el 64 biten.");
+        }
+        return board.positionKey(keySlot(board, token));
+    }
+
+    /**
+     * Kódolja a tábla állásának kanonikus alakját: a tábla és a
+     * tükörképe kulcsa közül a kisebbiket. A tükrözött kulcsot a tábla
+     * lépésenként frissíti, így a számítás állandó idejű.
+     *
+     * @param board A tábla.
+     * @param token Az egyessel jelölt token.
+     * @return A kanonikus 64 bites pozíciókulcs.
+     * @throws IllegalArgumentException Ha a tábla nem kódolható.
+     */
+    public static long encodeCanonical(final Board board, final char token) {
+        long key = encode(board, token);
+        return Math.min(key,
+                board.mirroredPositionKey(keySlot(board, token)));
+    }
+
+    /**
+     * Megadja, hogy a tábla a kanonikus alakjának tükörképe-e, vagyis a
+     * kanonikus kulccsal tárolt lépést tükrözni kell.
+     *
+     * @param board A tábla.
+     * @param token Az egyessel jelölt token.
+     * @return True, ha a tükrözött kulcs a kisebb.
+     * @throws IllegalArgumentException Ha a tábla nem kódolható.
+     */
+    public static boolean isMirrored(final Board board, final char token) {
+        long key = encode(board, token);
+        return board.mirroredPositionKey(keySlot(board, token)) < key;
+    }
+
+    /**
+     * Megkeresi a kulcsban egyessel jelölt token bitmaszkját a tábla
+     * módosítása nélkül. A táblán még nem szereplő tokenhez nem rendel
+     * maszkot; ekkor a kulcsban egyetlen egyes sem lesz.
+     *
+     * @param board A tábla.
+     * @param token Az egyessel jelölt token.
+     * @return A maszk indexe, vagy -1, ha a token még nincs a táblán.
+     * @throws IllegalArgumentException Ha a token érvénytelen, vagy a
+     *                                  táblán már két másik token van.
+     */
+    private static int keySlot(final Board board, final char token) {
+        if (token == '\0') {
+            throw new IllegalArgumentException("Invalid token.");
+        }
+        int slot = board.slotOf(token);
+        if (slot < 0 && !board.hasFreeSlot()) {
+            throw new IllegalArgumentException(
+                    "A táblán legfeljebb két különböző token lehet.");
+        }
+        return slot;
+    }
+
+    /**
+     * Tükrözi a kulcsot a középső oszlopra: az oszlopok sorrendjét
+     * megfordítja.
+     *
+     * @param key     A pozíciókulcs.
+     * @param rows    A sorok száma.
+     * @param columns Az oszlopok száma.
+     * @return A tükörkép kulcsa.
+     */
+    public static long mirror(final long key, final int rows,
+                              final int columns) {
+        int stride = rows + 1;
+        long columnMask = stride == Long.SIZE ? -1L : (1L << stride) - 1;
+        long result = 0L;
+        for (int col = 0; col < columns; col++) {
+            long bits = key >>> (col * stride) & columnMask;
+            result |= bits << ((columns - 1 - col) * stride);
+        }
+        return result;
+    }
+
+    /**
+     * Visszaadja a kulcs kanonikus alakját: a kulcs és a tükörképe közül
+     * a kisebbiket.
+     *
+     * @param key     A pozíciókulcs.
+     * @param rows    A sorok száma.
+     * @param columns Az oszlopok száma.
+     * @return A kanonikus kulcs.
+     */
+    public static long canonical(final long key, final int rows,
+                                 final int columns) {
+        return Math.min(key, mirror(key, rows, columns));
+    }
+
+    /**
+     * Visszaállítja a kulcs által leírt állást egy új, alapértelmezett
+     * nyerő sorozathosszú táblára.
+     *
+     * @param key     A pozíciókulcs.
+     * @param rows    A sorok száma.
+     * @param columns Az oszlopok száma.
+     * @param token   Az egyessel jelölt token.
+     * @param other   A nullával jelölt token.
+     * @return Az állást tartalmazó új tábla.
+     * @throws IllegalArgumentException Ha a méret nem kódolható, vagy a
+     *                                  kulcs nem érvényes állás.
+     */
+    public static Board decode(final long key, final int rows,
+                               final int columns, final char token,
+                               final char other) {
+        return decode(key, rows, columns, Constants.DEFAULT_WIN_LENGTH,
+                token, other);
+    }
+
+    /**
+     * Visszaállítja a kulcs által leírt állást egy új táblára.
+     *
+     * <p>A kulcs a lépések sorrendjét nem őrzi meg, ezért a tábla a
+     * tokeneket oszloponként, alulról felfelé rakja le: a
+     * {@link Board#getMove(int)} ezt a lerakási sorrendet adja vissza, nem
+     * a tényleges játszmáét. A soron következő játékos a kevesebb tokennel
+     * rendelkező; egyenlő számnál a {@code token}.</p>
+     *
+     * @param key       A pozíciókulcs.
+     * @param rows      A sorok száma.
+     * @param columns   Az oszlopok száma.
+     * @param winLength A nyeréshez szükséges sorozathossz.
+     * @param token     Az egyessel jelölt token.
+     * @param other     A nullával jelölt token.
+     * @return Az állást tartalmazó új tábla.
+     * @throws IllegalArgumentException Ha a méret nem kódolható, vagy a
+     *                                  kulcs nem érvényes állás.
+     */
+    public static Board decode(final long key, final int rows,
+                               final int columns, final int winLength,
+                               final char token, final char other) {
+        if (!fits(rows, columns)) {
+            throw new IllegalArgumentException(
+                    "A tábla nem fér el 64 biten.");
+        }
+        int stride = rows + 1;
+        long columnMask = stride == Long.SIZE ? -1L : (1L << stride) - 1;
+        if (columns * stride < Long.SIZE && key >>> (columns * stride) != 0) {
+            throw new IllegalArgumentException("Érvénytelen pozíciókulcs.");
+        }
+        Board board = new Board(rows, columns, winLength, token, other);
+        for (int col = 0; col < columns; col++) {
+            long bits = key >>> (col * stride) & columnMask;
+            if (bits == 0) {
+                throw new IllegalArgumentException(
+                        "Érvénytelen pozíciókulcs.");
+            }
+            int height = Long.SIZE - 1 - Long.numberOfLeadingZeros(bits);
+            for (int h = 0; h < height; h++) {
+                board.placeToken(col, (bits >>> h & 1L) != 0 ? token : other);
+            }
+        }
+        return board;
+    }
+}
@@ -0,0 +1,68 @@
+package com.connect4;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A RemoteMoveSource osztály egy távoli játékos lépéseit olvassa egy
+ * szöveges kapcsolatról: a távoli fél soronként egy oszlopszámot küld,
+ * az ellenfél lépéseit pedig {@code MOVE <oszlop>} sorokban kapja meg.
+ *
+ * <p>A blokkoló olvasás nem szakítható meg, ezért a {@link #cancel()}
+ * hatástalan; a válaszidőt a távoli félnek kell betartania.</p>
+ */
+public final class RemoteMoveSource implements MoveSource {
+    /** A távoli fél lépései. */
+    private final BufferedReader in;
+
+    /** A távoli félnek küldött értesítések. */
+    private final Writer out;
+
+    /**
+     * Konstruktor a RemoteMoveSource osztályhoz.
+     *
+     * @param inParam  A távoli fél lépései.
+     * @param outParam A távoli félnek küldött értesítések.
+     */
+    public RemoteMoveSource(final BufferedReader inParam,
+                            final Writer outParam) {
+        this.in = inParam;
+        this.out = outParam;
+    }
+
+    /**
+     * Beolvassa a távoli fél következő lépését.
+     *
+     * @param board A játék tábla.
+     * @param token A lépő játékos tokenje.
+     * @return A kapott oszlop, vagy -1, ha a kapcsolat lezárult, hibás,
+     *         vagy nem számot küldött.
+     */
+    @Override
+    public int nextMove(final Board board, final char token) {
+        try {
+            String line = in.readLine();
+            return line == null ? -1 : Integer.parseInt(line.trim());
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Elküldi az ellenfél lépését a távoli félnek. A kapcsolat hibáját a
+     * következő {@link #nextMove} jelzi.
+     *
+     * @param board  A tábla az ellenfél lépése után.
+     * @param column Az ellenfél lépésének oszlopa.
+     */
+    @Override
+    public void opponentMoved(final Board board, final int column) {
+        try {
+            out.write("MOVE " + column + "\n");
+            out.flush();
+        } catch (IOException e) {
+            // A megszakadt kapcsolatot a következő olvasás -1-gyel jelzi
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.connect4;
+
+/**
+ * A ReplayMoveSource osztály egy rögzített játszma lépéseit adja vissza.
+ * A lépést a táblán lévő tokenek száma választja ki, így ugyanaz a
+ * példány mindkét játékos forrása lehet.
+ */
+public final class ReplayMoveSource implements MoveSource {
+    /** A lépések oszlopai. */
+    private final int[] moves;
+
+    /**
+     * Konstruktor a ReplayMoveSource osztályhoz.
+     *
+     * @param game A visszajátszandó játszma.
+     */
+    public ReplayMoveSource(final GameRecord game) {
+        this.moves = game.getMoves();
+    }
+
+    /**
+     * Visszaadja a játszma soron következő lépését.
+     *
+     * @param board A játék tábla.
+     * @param token A lépő játékos tokenje.
+     * @return Az oszlop, vagy -1, ha a játszma lépései elfogytak.
+     */
+    @Override
+    public int nextMove(final Board board, final char token) {
+        int ply = board.moveCount();
+        return ply < moves.length ? moves[ply] : -1;
+    }
+}
@@ -0,0 +1,107 @@
+package com.connect4;
+
+/**
+ * A ReplayResult osztály egy beolvasott játszma visszajátszásának
+ * eredményét tárolja: a győztest, a játszma végének lépésszámát, vagy a
+ * hibát, ha a rekord nem érvényes játszma.
+ */
+public final class ReplayResult {
+    /** A rekord sorszáma a bemenetben (nullától). */
+    private final long index;
+
+    /** A játszma, vagy null, ha a rekord nem olvasható. */
+    private final GameRecord game;
+
+    /** A győztes tokenje ('\0', ha nincs győztes). */
+    private final char winner;
+
+    /** A lépésszám, amelynél a játszma véget ért vagy a lépések elfogytak. */
+    private final int endPly;
+
+    /** A hiba leírása, vagy null, ha a játszma érvényes. */
+    private final String error;
+
+    /**
+     * Konstruktor a ReplayResult osztályhoz.
+     *
+     * @param indexParam  A rekord sorszáma.
+     * @param gameParam   A játszma, vagy null.
+     * @param winnerParam A győztes tokenje, vagy '\0'.
+     * @param endPlyParam A játszma végének lépésszáma.
+     * @param errorParam  A hiba leírása, vagy null.
+     */
+    public ReplayResult(final long indexParam, final GameRecord gameParam,
+                        final char winnerParam, final int endPlyParam,
+                        final String errorParam) {
+        this.index = indexParam;
+        this.game = gameParam;
+        this.winner = winnerParam;
+        this.endPly = endPlyParam;
+        this.error = errorParam;
+    }
+
+    /**
+     * Visszaadja a rekord sorszámát a bemenetben.
+     *
+     * @return A sorszám nullától.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Visszaadja a játszmát.
+     *
+     * @return A játszma, vagy null, ha a rekord nem olvasható.
+     */
+    public GameRecord getGame() {
+        return game;
+    }
+
+    /**
+     * Visszaadja a győztes tokenjét.
+     *
+     * @return A győztes tokenje, vagy '\0', ha nincs győztes.
+     */
+    public char getWinner() {
+        return winner;
+    }
+
+    /**
+     * Visszaadja a lépésszámot, amelynél a játszma véget ért (vagy a
+     * lépések elfogytak).
+     *
+     * @return A lépésszám.
+     */
+    public int getEndPly() {
+        return endPly;
+    }
+
+    /**
+     * Megadja, hogy a játszma érvényes-e.
+     *
+     * @return True, ha a rekord hibátlanul visszajátszható.
+     */
+    public boolean isValid() {
+        return error == null;
+    }
+
+    /**
+     * Megadja, hogy a játszma döntetlennel, teli táblával ért-e véget.
+     *
+     * @return True, ha érvényes, nincs győztes, és a tábla megtelt.
+     */
+    public boolean isDraw() {
+        return error == null && winner == '\0'
+                && endPly == game.getRows() * game.getColumns();
+    }
+
+    /**
+     * Visszaadja a hiba leírását.
+     *
+     * @return A hiba, vagy null, ha a játszma érvényes.
+     */
+    public String getError() {
+        return error;
+    }
+}
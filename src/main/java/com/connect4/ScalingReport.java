@@ -0,0 +1,135 @@
+package com.connect4;
+
+import java.io.PrintStream;
+
+/**
+ * A ScalingReport osztály a párhuzamos keresés gyorsulását méri 1, 2, 4,
+ * 8 és 16 szálon, egy rögzített állás-készleten és rögzített mélységen.
+ *
+ * <p>A mérés előtt egy bemelegítő kört futtat a JIT-fordító miatt.
+ * Minden szálszámnál friss gyorsítótárral keres, ellenőrzi, hogy a
+ * választott lépések és értékek megegyeznek az egyszálú eredménnyel, és
+ * táblázatban kiírja az időt, a csomópontszámot és a gyorsulást.</p>
+ */
+public final class ScalingReport {
+    /** A mért szálszámok. */
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+
+    /** Az alapértelmezett keresési mélység. */
+    private static final int DEFAULT_DEPTH = 12;
+
+    /** A gyorsítótár méretének kettes alapú logaritmusa. */
+    private static final int TABLE_BITS = 22;
+
+    /**
+     * A szabványos tesztállások lépéssorként, a
+     * {@link GameRecord#parseMoves} formátumában (egytől számozott
+     * oszlopok, felváltva X és O lép).
+     */
+    private static final String[] POSITIONS = {
+        "",
+        "4",
+        "44",
+        "4354",
+        "443355",
+        "34454336",
+        "4433557766",
+        "445566332277",
+    };
+
+    /** Egy ezredmásodperc nanoszekundumban. */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    // Privát konstruktor, hogy megakadályozzuk az objektumok létrehozását.
+    private ScalingReport() {
+        throw new UnsupportedOperationException(
+                "Ez az osztály nem hozható létre."
+        );
+    }
+
+    /**
+     * Lefuttatja a mérést és kiírja a jelentést.
+     *
+     * @param depth A keresési mélység.
+     * @param out   A kimenet.
+     */
+    public static void run(final int depth, final PrintStream out) {
+        out.printf("Párhuzamos keresés skálázódása, mélység: %d, "
+                + "állások: %d, processzorok: %d%n", depth, POSITIONS.length,
+                Runtime.getRuntime().availableProcessors());
+        out.printf("%8s %12s %14s %10s %10s%n", "szálak", "idő (ms)",
+                "csomópont", "gyorsulás", "egyezik");
+
+        searchAll(depth, 1); // Bemelegítés
+        SearchResult[] reference = null;
+        double baseMillis = 0.0;
+        for (int threads : THREAD_COUNTS) {
+            long start = System.nanoTime();
+            SearchResult[] results = searchAll(depth, threads);
+            double millis = (System.nanoTime() - start) / NANOS_PER_MILLI;
+            long nodes = 0;
+            for (SearchResult result : results) {
+                nodes += result.getNodes();
+            }
+            if (reference == null) {
+                reference = results;
+                baseMillis = millis;
+            }
+            out.printf("%8d %12.1f %14d %9.2fx %10s%n", threads, millis,
+                    nodes, baseMillis / millis,
+                    sameResults(reference, results) ? "igen" : "NEM");
+        }
+    }
+
+    /**
+     * Friss gyorsítótárral végigkeresi az összes tesztállást.
+     *
+     * @param depth   A keresési mélység.
+     * @param threads A keresőszálak száma.
+     * @return Az állásonkénti eredmények.
+     */
+    private static SearchResult[] searchAll(final int depth,
+                                            final int threads) {
+        SearchResult[] results = new SearchResult[POSITIONS.length];
+        try (ParallelSearchEngine engine = new ParallelSearchEngine(depth,
+                0L, new TranspositionTable(TABLE_BITS), threads)) {
+            for (int i = 0; i < POSITIONS.length; i++) {
+                char token = POSITIONS[i].length() % 2 == 0 ? 'X' : 'O';
+                Board board = GameRecord.parseMoves(POSITIONS[i],
+                        Constants.DEFAULT_ROWS, Constants.DEFAULT_COLUMNS)
+                        .toBoard();
+                results[i] = engine.search(board, token);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Összeveti két mérés lépéseit és értékeit.
+     *
+     * @param expected Az egyszálú eredmények.
+     * @param actual   A vizsgált eredmények.
+     * @return True, ha minden lépés és érték egyezik.
+     */
+    private static boolean sameResults(final SearchResult[] expected,
+                                       final SearchResult[] actual) {
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i].getBestMove() != actual[i].getBestMove()
+                    || expected[i].getScore() != actual[i].getScore()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A program belépési pontja.
+     *
+     * @param args Opcionálisan a keresési mélység.
+     */
+    public static void main(final String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0])
+                : DEFAULT_DEPTH;
+        run(depth, System.out);
+    }
+}
@@ -0,0 +1,540 @@
+package com.connect4;
+
+import java.util.Arrays;
+
+/**
+ * A SearchEngine osztály negamax keresést végez alfa-béta vágással.
+ *
+ * <p>A lépéseket a középső oszlopoktól kifelé rendezi, és iteratív
+ * mélyítéssel dolgozik, így időkorlát esetén mindig az utolsó teljesen
+ * befejezett iteráció eredményét adja vissza. A lépéseket helyben, a
+ * táblán végzi el és vonja vissza, ezért csomópontonként nem foglal
+ * memóriát.</p>
+ *
+ * <p>Ha kap egy {@link TranspositionTable} gyorsítótárat, a különböző
+ * lépéssorrendekkel elért azonos állásokat nem értékeli ki újra, és a
+ * tárolt legjobb lépést próbálja elsőként. A gyorsítótár kanonikus
+ * kulcsokkal dolgozik, így egy állás és a tükörképe egy bejegyzésen
+ * osztozik.</p>
+ *
+ * <p>A mélységkorlátnál a beállított {@link Evaluator} értékeli az
+ * állást; értékelő nélkül minden el nem dőlt állás döntetlen.</p>
+ */
+public final class SearchEngine implements Searcher {
+    /** A nyerő állás értéke; a gyorsabb győzelem többet ér. */
+    static final int WIN_SCORE = 1_000_000;
+
+    /** A legnagyobb lehetséges értéknél nagyobb korlát. */
+    static final int INFINITE_SCORE = WIN_SCORE + 1;
+
+    /** Ennél nagyobb abszolút értékű érték nyerést vagy vereséget jelent. */
+    static final int WIN_THRESHOLD = WIN_SCORE / 2;
+
+    /** Ennyi csomópontonként nézzük meg az órát. */
+    private static final long TIME_CHECK_MASK = 1023L;
+
+    /** Egy ezredmásodperc nanoszekundumban. */
+    static final long NANOS_PER_MILLI = 1_000_000L;
+
+    /** A legnagyobb keresési mélység. */
+    private final int maxDepth;
+
+    /** Az időkorlát ezredmásodpercben (0: nincs korlát). */
+    private final long timeLimitMillis;
+
+    /** Az állások gyorsítótára (null: nincs gyorsítótár). */
+    private final TranspositionTable table;
+
+    /**
+     * Igaz, ha a gyorsítótárból csak a pontosan azonos mélységű
+     * bejegyzéseket használjuk; a párhuzamos keresés így determinisztikus.
+     */
+    private final boolean exactDepthOnly;
+
+    /** A mélységkorlátnál használt értékelő (null: döntetlen). */
+    private Evaluator evaluator;
+
+    /** Az aktuális keresésben bejárt csomópontok száma. */
+    private long nodes;
+
+    /** Az időkorlát lejártának időpontja nanoszekundumban. */
+    private long deadline;
+
+    /** Igaz, ha az aktuális keresésnek van időkorlátja. */
+    private boolean timed;
+
+    /** Igaz, ha a keresést az időkorlát miatt le kellett állítani. */
+    private boolean stopped;
+
+    /** Igaz, ha a keresést kívülről leállították. */
+    private volatile boolean cancelled;
+
+    /** A középről kifelé rendezett oszlopsorrend. */
+    private int[] order = new int[0];
+
+    /**
+     * Konstruktor a SearchEngine osztályhoz.
+     *
+     * @param maxDepthParam        A legnagyobb keresési mélység.
+     * @param timeLimitMillisParam Az időkorlát lépésenként ezredmásodpercben
+     *                             (0: nincs korlát).
+     */
+    public SearchEngine(final int maxDepthParam,
+                        final long timeLimitMillisParam) {
+        this(maxDepthParam, timeLimitMillisParam, null);
+    }
+
+    /**
+     * Konstruktor gyorsítótárral.
+     *
+     * @param maxDepthParam        A legnagyobb keresési mélység.
+     * @param timeLimitMillisParam Az időkorlát lépésenként ezredmásodpercben
+     *                             (0: nincs korlát).
+     * @param tableParam           Az állások gyorsítótára, vagy null.
+     */
+    public SearchEngine(final int maxDepthParam,
+                        final long timeLimitMillisParam,
+                        final TranspositionTable tableParam) {
+        this(maxDepthParam, timeLimitMillisParam, tableParam, false);
+    }
+
+    /**
+     * Konstruktor a párhuzamos keresés munkaszálai számára.
+     *
+     * @param maxDepthParam        A legnagyobb keresési mélység.
+     * @param timeLimitMillisParam Az időkorlát ezredmásodpercben.
+     * @param tableParam           Az állások gyorsítótára, vagy null.
+     * @param exactDepthOnlyParam  Igaz, ha csak az azonos mélységű
+     *                             bejegyzések adhatnak vágást.
+     */
+    SearchEngine(final int maxDepthParam, final long timeLimitMillisParam,
+                 final TranspositionTable tableParam,
+                 final boolean exactDepthOnlyParam) {
+        if (maxDepthParam < 1) {
+            throw new IllegalArgumentException(
+                    "A keresési mélységnek legalább 1-nek kell lennie.");
+        }
+        if (timeLimitMillisParam < 0) {
+            throw new IllegalArgumentException(
+                    "Az időkorlát nem lehet negatív.");
+        }
+        this.maxDepth = maxDepthParam;
+        this.timeLimitMillis = timeLimitMillisParam;
+        this.table = tableParam;
+        this.exactDepthOnly = exactDepthOnlyParam;
+    }
+
+    /**
+     * Visszaadja a legnagyobb keresési mélységet.
+     *
+     * @return A mélység lépésekben.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Visszaadja a lépésenkénti időkorlátot.
+     *
+     * @return Az időkorlát ezredmásodpercben (0: nincs korlát).
+     */
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    /**
+     * Visszaadja az állások gyorsítótárát.
+     *
+     * @return A gyorsítótár, vagy null.
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Beállítja a mélységkorlátnál használt állásértékelőt.
+     *
+     * @param evaluatorParam Az értékelő, vagy null.
+     */
+    @Override
+    public void setEvaluator(final Evaluator evaluatorParam) {
+        this.evaluator = evaluatorParam;
+    }
+
+    /**
+     * Visszaadja a mélységkorlátnál használt állásértékelőt.
+     *
+     * @return Az értékelő, vagy null.
+     */
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Megkeresi a legjobb lépést a megadott tokenű játékos számára. A
+     * tábla a keresés végére visszakerül az eredeti állapotába.
+     *
+     * @param board A játék tábla.
+     * @param token A lépő játékos tokenje.
+     * @return A keresés eredménye.
+     */
+    @Override
+    public SearchResult search(final Board board, final char token) {
+        long start = System.nanoTime();
+        nodes = 0;
+        stopped = false;
+        cancelled = false;
+        timed = timeLimitMillis > 0;
+        deadline = start + timeLimitMillis * NANOS_PER_MILLI;
+
+        int slot = board.bindSlot(token);
+        int[] rootOrder = columnOrder(board.getColumns());
+        order = rootOrder.clone();
+        int bestMove = -1;
+        for (int col : rootOrder) {
+            if (board.isColumnValid(col)) {
+                if (board.isWinningMove(col, slot)) {
+                    return new SearchResult(col, WIN_SCORE - 1, 1, 1,
+                            System.nanoTime() - start);
+                }
+                if (bestMove < 0) {
+                    bestMove = col;
+                }
+            }
+        }
+
+        int bestScore = 0;
+        int completedDepth = 0;
+        for (int depth = 1; depth <= maxDepth && bestMove >= 0; depth++) {
+            int alpha = -INFINITE_SCORE;
+            int iterationMove = -1;
+            for (int col : rootOrder) {
+                if (!board.isColumnValid(col)) {
+                    continue;
+                }
+                board.play(col, slot);
+                int score = -negamax(board, 1 - slot, depth - 1,
+                        -INFINITE_SCORE, -alpha, 1);
+                board.undo();
+                if (stopped) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    iterationMove = col;
+                }
+            }
+            if (stopped) {
+                break;
+            }
+            bestMove = iterationMove;
+            bestScore = alpha;
+            completedDepth = depth;
+            moveToFront(rootOrder, iterationMove);
+            if (Math.abs(bestScore) > WIN_THRESHOLD) {
+                break; // Kikényszerített eredmény, a mélyítés nem változtat
+            }
+        }
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Kiértékel egy gyökérlépést a megadott alsó korláttal. A párhuzamos
+     * keresés munkaszálai hívják, mindegyik a saját táblamásolatán.
+     *
+     * @param board          A játék tábla.
+     * @param slot           A lépő játékos bitmaszkjának indexe.
+     * @param column         A kiértékelendő oszlop.
+     * @param depth          A keresési mélység a gyökértől.
+     * @param alpha          Az alsó korlát; ennél nem nagyobb érték csak
+     *                       felső korlátként érvényes.
+     * @param deadlineNanos  Az időkorlát lejárta nanoszekundumban.
+     * @return A lépés értéke a lépő játékos szemszögéből.
+     */
+    int scoreMove(final Board board, final int slot, final int column,
+                  final int depth, final int alpha,
+                  final long deadlineNanos) {
+        nodes = 0;
+        stopped = false;
+        timed = timeLimitMillis > 0;
+        deadline = deadlineNanos;
+        if (order.length != board.getColumns()) {
+            order = columnOrder(board.getColumns());
+        }
+        board.play(column, slot);
+        int score = -negamax(board, 1 - slot, depth - 1, -INFINITE_SCORE,
+                -alpha, 1);
+        board.undo();
+        return score;
+    }
+
+    /**
+     * Kiolvassa a fő változatot a gyorsítótárból: az állásból a tárolt
+     * legjobb lépéseket követi, amíg van ilyen, és egy azonnali nyerő
+     * lépéssel zár, ha van. A tábla a hívás végére visszakerül az
+     * eredeti állapotába.
+     *
+     * @param board     A játék tábla.
+     * @param slot      A lépő játékos bitmaszkjának indexe.
+     * @param maxLength A változat legnagyobb hossza.
+     * @return A változat lépéseinek oszlopai.
+     */
+    int[] principalVariation(final Board board, final int slot,
+                             final int maxLength) {
+        int[] line = new int[maxLength];
+        int length = 0;
+        int side = slot;
+        while (length < maxLength && !board.isFull()) {
+            int col = winningMove(board, side);
+            boolean wins = col >= 0;
+            if (!wins && table != null) {
+                long entry = table.probe(board.getCanonicalZobristKey()
+                        ^ board.sideKey(side));
+                col = entry == 0L ? -1 : TranspositionTable.moveOf(entry);
+                if (col >= 0 && board.isMirrored()) {
+                    col = board.mirrorColumn(col);
+                }
+            }
+            if (col < 0 || !board.isColumnValid(col)) {
+                break;
+            }
+            board.play(col, side);
+            line[length++] = col;
+            side = 1 - side;
+            if (wins) {
+                break;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            board.undo();
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    /**
+     * Visszaadja a lépő játékos egy azonnal nyerő lépését.
+     *
+     * @param board A játék tábla.
+     * @param slot  A lépő játékos bitmaszkjának indexe.
+     * @return A nyerő oszlop, vagy -1, ha nincs ilyen.
+     */
+    private static int winningMove(final Board board, final int slot) {
+        for (int col = 0; col < board.getColumns(); col++) {
+            if (board.isColumnValid(col) && board.isWinningMove(col, slot)) {
+                return col;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Leállítja a folyamatban lévő keresést. A keresés a legutolsó
+     * teljesen befejezett iteráció legjobb lépésével tér vissza.
+     */
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Visszaadja az utolsó keresésben bejárt csomópontok számát.
+     *
+     * @return A csomópontok száma.
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Megadja, hogy az utolsó keresést az időkorlát vagy a
+     * {@link #cancel()} leállította-e.
+     *
+     * @return True, ha a keresés nem fejeződött be.
+     */
+    boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * A negamax keresés alfa-béta vágással.
+     *
+     * @param board      A játék tábla.
+     * @param slot       A lépő játékos bitmaszkjának indexe.
+     * @param depth      A hátralévő mélység.
+     * @param alphaParam Az alsó korlát.
+     * @param betaParam  A felső korlát.
+     * @param ply        A gyökértől megtett lépések száma.
+     * @return Az állás értéke a lépő játékos szemszögéből.
+     */
+    private int negamax(final Board board, final int slot, final int depth,
+                        final int alphaParam, final int betaParam,
+                        final int ply) {
+        nodes++;
+        if ((nodes & TIME_CHECK_MASK) == 0 && (cancelled
+                || timed && System.nanoTime() - deadline > 0)) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        for (int col : order) {
+            if (board.isColumnValid(col) && board.isWinningMove(col, slot)) {
+                return WIN_SCORE - ply - 1;
+            }
+        }
+        if (board.isFull()) {
+            return 0;
+        }
+        if (depth == 0) {
+            return evaluator == null ? 0 : evaluator.evaluate(board, slot);
+        }
+
+        // Azonnali győzelem nincs, így legjobb esetben két lépés múlva nyer
+        int alpha = alphaParam;
+        int beta = Math.min(betaParam, WIN_SCORE - ply - 2);
+        if (alpha >= beta) {
+            return beta;
+        }
+
+        long key = 0L;
+        int hashMove = -1;
+        boolean mirrored = false;
+        if (table != null) {
+            // Az állás és a tükörképe közös bejegyzést használ
+            key = board.getCanonicalZobristKey() ^ board.sideKey(slot);
+            mirrored = board.isMirrored();
+            long entry = table.probe(key);
+            if (entry != 0L) {
+                hashMove = TranspositionTable.moveOf(entry);
+                if (mirrored && hashMove >= 0) {
+                    hashMove = board.mirrorColumn(hashMove);
+                }
+                int entryDepth = TranspositionTable.depthOf(entry);
+                if (exactDepthOnly ? entryDepth == depth
+                        : entryDepth >= depth) {
+                    int score = fromTable(TranspositionTable.scoreOf(entry),
+                            ply);
+                    int bound = TranspositionTable.boundOf(entry);
+                    if (bound == TranspositionTable.EXACT) {
+                        return score;
+                    } else if (bound == TranspositionTable.LOWER_BOUND) {
+                        alpha = Math.max(alpha, score);
+                    } else {
+                        beta = Math.min(beta, score);
+                    }
+                    if (alpha >= beta) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        int alphaOriginal = alpha;
+        int best = -INFINITE_SCORE;
+        int bestMove = -1;
+        for (int i = -1; i < order.length; i++) {
+            // Először a gyorsítótárban tárolt lépést próbáljuk
+            int col = i < 0 ? hashMove : order[i];
+            if (col < 0 || (i >= 0 && col == hashMove)
+                    || !board.isColumnValid(col)) {
+                continue;
+            }
+            board.play(col, slot);
+            int score = -negamax(board, 1 - slot, depth - 1, -beta, -alpha,
+                    ply + 1);
+            board.undo();
+            if (score > best) {
+                best = score;
+                bestMove = col;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (table != null && !stopped) {
+            int bound;
+            if (best <= alphaOriginal) {
+                bound = TranspositionTable.UPPER_BOUND;
+            } else if (best >= beta) {
+                bound = TranspositionTable.LOWER_BOUND;
+            } else {
+                bound = TranspositionTable.EXACT;
+            }
+            table.store(key, depth, bound, toTable(best, ply),
+                    mirrored && bestMove >= 0 ? board.mirrorColumn(bestMove)
+                            : bestMove);
+        }
+        return best;
+    }
+
+    /**
+     * A nyerő értéket a gyökértől független alakra hozza a tároláshoz.
+     *
+     * @param score Az érték a gyökértől mért távolsággal.
+     * @param ply   A gyökértől megtett lépések száma.
+     * @return A tárolható érték.
+     */
+    private static int toTable(final int score, final int ply) {
+        if (score > WIN_THRESHOLD) {
+            return score + ply;
+        }
+        if (score < -WIN_THRESHOLD) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * A tárolt nyerő értéket visszaalakítja az aktuális mélységre.
+     *
+     * @param score A tárolt érték.
+     * @param ply   A gyökértől megtett lépések száma.
+     * @return Az érték a gyökértől mért távolsággal.
+     */
+    private static int fromTable(final int score, final int ply) {
+        if (score > WIN_THRESHOLD) {
+            return score - ply;
+        }
+        if (score < -WIN_THRESHOLD) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Visszaadja a középről kifelé haladó oszlopsorrendet.
+     *
+     * @param columns Az oszlopok száma.
+     * @return Az oszlopsorrend új tömbben.
+     */
+    static int[] columnOrder(final int columns) {
+        int[] result = new int[columns];
+        for (int i = 0; i < columns; i++) {
+            // Középen kezdünk, majd felváltva balra és jobbra lépünk
+            result[i] = columns / 2 + (1 - 2 * (i % 2)) * (i + 1) / 2;
+        }
+        return result;
+    }
+
+    /**
+     * Az adott oszlopot a sorrend elejére mozgatja, a többi sorrendjét
+     * megtartva.
+     *
+     * @param moves  A lépéssorrend.
+     * @param column Az előre mozgatandó oszlop.
+     */
+    static void moveToFront(final int[] moves, final int column) {
+        int index = 0;
+        while (moves[index] != column) {
+            index++;
+        }
+        System.arraycopy(moves, 0, moves, 1, index);
+        moves[0] = column;
+    }
+}
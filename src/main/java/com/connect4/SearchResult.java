@@ -0,0 +1,112 @@
+package com.connect4;
+
+/**
+ * A SearchResult osztály egy keresés eredményét és statisztikáit tárolja.
+ */
+public final class SearchResult {
+    /** Egy másodperc nanoszekundumban. */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /** A legjobbnak talált oszlop (-1, ha nincs érvényes lépés). */
+    private final int bestMove;
+
+    /** A legjobb lépés értéke a lépő játékos szemszögéből. */
+    private final int score;
+
+    /** A legmélyebb teljesen befejezett iteráció mélysége. */
+    private final int depth;
+
+    /** A bejárt csomópontok száma. */
+    private final long nodes;
+
+    /** A keresés ideje nanoszekundumban. */
+    private final long elapsedNanos;
+
+    /**
+     * Konstruktor a SearchResult osztályhoz.
+     *
+     * @param bestMoveParam     A legjobb oszlop.
+     * @param scoreParam        A legjobb lépés értéke.
+     * @param depthParam        A befejezett keresési mélység.
+     * @param nodesParam        A bejárt csomópontok száma.
+     * @param elapsedNanosParam A keresés ideje nanoszekundumban.
+     */
+    public SearchResult(final int bestMoveParam, final int scoreParam,
+                        final int depthParam, final long nodesParam,
+                        final long elapsedNanosParam) {
+        this.bestMove = bestMoveParam;
+        this.score = scoreParam;
+        this.depth = depthParam;
+        this.nodes = nodesParam;
+        this.elapsedNanos = elapsedNanosParam;
+    }
+
+    /**
+     * Visszaadja a legjobbnak talált oszlopot.
+     *
+     * @return Az oszlop indexe, vagy -1.
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Visszaadja a legjobb lépés értékét.
+     *
+     * @return Az érték; pozitív, ha a lépő játékos nyerésre áll.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Visszaadja a befejezett keresési mélységet.
+     *
+     * @return A mélység lépésekben.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Visszaadja a bejárt csomópontok számát.
+     *
+     * @return A csomópontok száma.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Visszaadja a keresés idejét.
+     *
+     * @return Az eltelt idő nanoszekundumban.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Visszaadja a másodpercenként bejárt csomópontok számát.
+     *
+     * @return Csomópont per másodperc.
+     */
+    public double getNodesPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0.0;
+        }
+        return nodes * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    /**
+     * Visszaadja az eredmény szöveges összefoglalóját.
+     *
+     * @return Az összefoglaló.
+     */
+    @Override
+    public String toString() {
+        return String.format("lépés=%d érték=%d mélység=%d csomópont=%d "
+                + "(%.0f csomópont/s)", bestMove, score, depth, nodes,
+                getNodesPerSecond());
+    }
+}
@@ -0,0 +1,32 @@
+package com.connect4;
+
+/**
+ * A Searcher interfész egy lépéskereső motort ír le, amelyet az
+ * {@link AIPlayer} a lépései kiválasztásához használ.
+ */
+public interface Searcher {
+    /**
+     * Megkeresi a legjobb lépést a megadott tokenű játékos számára. A
+     * tábla a keresés végére visszakerül az eredeti állapotába.
+     *
+     * @param board A játék tábla.
+     * @param token A lépő játékos tokenje.
+     * @return A keresés eredménye.
+     */
+    SearchResult search(Board board, char token);
+
+    /**
+     * Beállítja a mélységkorlátnál használt állásértékelőt.
+     *
+     * @param evaluator Az értékelő, vagy null: ekkor a mélységkorlátnál
+     *                  minden állás döntetlen értékű.
+     */
+    void setEvaluator(Evaluator evaluator);
+
+    /**
+     * Leállítja a folyamatban lévő keresést; másik szálból hívható. A
+     * keresés ekkor a legjobb addig talált lépéssel tér vissza. A
+     * következő keresés a jelzést törli.
+     */
+    void cancel();
+}
@@ -0,0 +1,320 @@
+package com.connect4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A SelfPlaySimulator osztály konzol nélkül, több szálon játszat le
+ * játszmákat két AI stratégia között.
+ *
+ * <p>Minden munkaszál saját játékospéldányokat kap a megadott
+ * gyártókból, amelyeket a végén lezár, és a közös számlálóból veszi a
+ * következő játszma sorszámát. A páros sorszámú játszmákat az első, a
+ * páratlanokat a második stratégia kezdi. A változatosság kedvéért
+ * minden játszma elején néhány véletlen, a sorszámból
+ * determinisztikusan származtatott nyitólépés történik. A játékosok
+ * gyorsítótára minden játszma előtt kiürül, így egy játszma menete nem
+ * függ attól, melyik szál és milyen sorrendben játszotta; időkorlát
+ * nélküli, determinisztikus játékosokkal az összesítés a munkaszálak
+ * számától függetlenül megismételhető. A ciklusban nincs konzolos ki-
+ * vagy bemenet; a lépésidőket szálanként külön {@link LatencyHistogram}
+ * gyűjti.</p>
+ */
+public final class SelfPlaySimulator {
+    /** Az alapértelmezett véletlen nyitólépések száma. */
+    public static final int DEFAULT_OPENING_PLIES = 2;
+
+    /** Az alapértelmezett játszmaszám a parancssori futtatáshoz. */
+    private static final int DEFAULT_GAMES = 200;
+
+    /** Az alapértelmezett keresési mélység a parancssori futtatáshoz. */
+    private static final int DEFAULT_DEPTH = 4;
+
+    /** A második AI mélységének helye a parancssori argumentumok között. */
+    private static final int ARG_SECOND_DEPTH = 3;
+
+    /** Az első stratégia játékosait előállító gyártó. */
+    private final Supplier<? extends AIPlayer> firstFactory;
+
+    /** A második stratégia játékosait előállító gyártó. */
+    private final Supplier<? extends AIPlayer> secondFactory;
+
+    /** A munkaszálak száma. */
+    private final int workers;
+
+    /** A tábla sorainak száma. */
+    private int rows = Constants.DEFAULT_ROWS;
+
+    /** A tábla oszlopainak száma. */
+    private int columns = Constants.DEFAULT_COLUMNS;
+
+    /** A nyeréshez szükséges tokenek száma egy vonalban. */
+    private int winLength = Constants.DEFAULT_WIN_LENGTH;
+
+    /** A játszmánkénti véletlen nyitólépések száma. */
+    private int openingPlies = DEFAULT_OPENING_PLIES;
+
+    /** A nyitólépések véletlenszám-generátorának magja. */
+    private long seed;
+
+    /**
+     * Konstruktor a SelfPlaySimulator osztályhoz.
+     *
+     * @param firstParam   Az első stratégia játékosait előállító gyártó.
+     * @param secondParam  A második stratégia játékosait előállító gyártó.
+     * @param workersParam A munkaszálak száma.
+     */
+    public SelfPlaySimulator(final Supplier<? extends AIPlayer> firstParam,
+                             final Supplier<? extends AIPlayer> secondParam,
+                             final int workersParam) {
+        if (workersParam < 1) {
+            throw new IllegalArgumentException(
+                    "Legalább egy munkaszál szükséges.");
+        }
+        this.firstFactory = firstParam;
+        this.secondFactory = secondParam;
+        this.workers = workersParam;
+    }
+
+    /**
+     * Beállítja a tábla méretét.
+     *
+     * @param rowsParam    A sorok száma.
+     * @param columnsParam Az oszlopok száma.
+     */
+    public void setBoardSize(final int rowsParam, final int columnsParam) {
+        this.rows = rowsParam;
+        this.columns = columnsParam;
+    }
+
+    /**
+     * Beállítja a nyeréshez szükséges sorozathosszt a változatokhoz.
+     *
+     * @param winLengthParam A nyerő sorozat hossza.
+     */
+    public void setWinLength(final int winLengthParam) {
+        this.winLength = winLengthParam;
+    }
+
+    /**
+     * Beállítja a játszmánkénti véletlen nyitólépések számát.
+     *
+     * @param plies A nyitólépések száma.
+     */
+    public void setOpeningPlies(final int plies) {
+        this.openingPlies = plies;
+    }
+
+    /**
+     * Beállítja a nyitólépések véletlenszám-generátorának magját.
+     *
+     * @param seedParam A mag.
+     */
+    public void setSeed(final long seedParam) {
+        this.seed = seedParam;
+    }
+
+    /**
+     * Lejátssza a megadott számú játszmát, és összesíti az eredményeket.
+     *
+     * @param games A játszmák száma.
+     * @return A szimuláció jelentése.
+     */
+    public SimulationReport run(final int games) {
+        AtomicInteger nextGame = new AtomicInteger();
+        List<Worker> tasks = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            tasks.add(new Worker(nextGame, games));
+        }
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            for (Future<Worker> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("A szimuláció megszakadt.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A szimuláció hibára futott.",
+                    e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        LatencyHistogram latency = new LatencyHistogram();
+        long firstWins = 0;
+        long draws = 0;
+        long secondWins = 0;
+        long moves = 0;
+        for (Worker worker : tasks) {
+            firstWins += worker.firstWins;
+            draws += worker.draws;
+            secondWins += worker.secondWins;
+            moves += worker.moves;
+            latency.add(worker.latency);
+        }
+        return new SimulationReport(firstWins, draws, secondWins, moves,
+                elapsed, latency);
+    }
+
+    /**
+     * Egy munkaszál, amely a közös számlálóból veszi a játszmákat.
+     */
+    private final class Worker implements Callable<Worker> {
+        /** A következő játszma sorszáma. */
+        private final AtomicInteger nextGame;
+
+        /** A lejátszandó játszmák száma. */
+        private final int games;
+
+        /** A lépésidők hisztogramja. */
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        /** Az első stratégia győzelmei. */
+        private long firstWins;
+
+        /** A döntetlenek. */
+        private long draws;
+
+        /** A második stratégia győzelmei. */
+        private long secondWins;
+
+        /** A megtett lépések. */
+        private long moves;
+
+        /**
+         * Konstruktor a Worker osztályhoz.
+         *
+         * @param nextGameParam A közös játszmaszámláló.
+         * @param gamesParam    A lejátszandó játszmák száma.
+         */
+        Worker(final AtomicInteger nextGameParam, final int gamesParam) {
+            this.nextGame = nextGameParam;
+            this.games = gamesParam;
+        }
+
+        /**
+         * Lejátssza a játszmákat, amíg a számláló el nem éri a célt.
+         *
+         * @return Ez a munkaszál az eredményeivel.
+         */
+        @Override
+        public Worker call() {
+            try (AIPlayer first = firstFactory.get();
+                 AIPlayer second = secondFactory.get()) {
+                if (first.getToken() == second.getToken()) {
+                    throw new IllegalArgumentException(
+                            "A két stratégia tokenje nem lehet azonos.");
+                }
+                for (int game = nextGame.getAndIncrement(); game < games;
+                        game = nextGame.getAndIncrement()) {
+                    clearTable(first);
+                    clearTable(second);
+                    boolean firstStarts = game % 2 == 0;
+                    AIPlayer winner = playGame(game,
+                            firstStarts ? first : second,
+                            firstStarts ? second : first);
+                    if (winner == null) {
+                        draws++;
+                    } else if (winner == first) {
+                        firstWins++;
+                    } else {
+                        secondWins++;
+                    }
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Kiüríti a játékos gyorsítótárát, hogy az előző játszmák ne
+         * befolyásolják a következőt.
+         *
+         * @param player A játékos.
+         */
+        private void clearTable(final AIPlayer player) {
+            TranspositionTable table = player.getTranspositionTable();
+            if (table != null) {
+                table.clear();
+            }
+        }
+
+        /**
+         * Lejátszik egy játszmát.
+         *
+         * @param game    A játszma sorszáma.
+         * @param starter A kezdő játékos.
+         * @param other   A másik játékos.
+         * @return A győztes, vagy null döntetlen esetén.
+         */
+        private AIPlayer playGame(final int game, final AIPlayer starter,
+                                  final AIPlayer other) {
+            Board board = new Board(rows, columns, winLength);
+            SplittableRandom random = new SplittableRandom(seed + game);
+            AIPlayer mover = starter;
+            for (int ply = 0; !board.isFull(); ply++) {
+                int column;
+                if (ply < openingPlies) {
+                    do {
+                        column = random.nextInt(columns);
+                    } while (!board.isColumnValid(column));
+                } else {
+                    long start = System.nanoTime();
+                    column = mover.makeMove(board);
+                    latency.record(System.nanoTime() - start);
+                }
+                board.placeToken(column, mover.getToken());
+                moves++;
+                if (board.checkWin()) {
+                    return mover;
+                }
+                mover = mover == starter ? other : starter;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A program belépési pontja: két, eltérő mélységű AI-t játszat
+     * egymás ellen, majd kiírja a jelentést.
+     *
+     * @param args Opcionálisan: játszmák száma, munkaszálak száma, az első
+     *             és a második AI keresési mélysége.
+     */
+    public static void main(final String[] args) {
+        int games = intArg(args, 0, DEFAULT_GAMES);
+        int threads = intArg(args, 1,
+                Runtime.getRuntime().availableProcessors());
+        int firstDepth = intArg(args, 2, DEFAULT_DEPTH);
+        int secondDepth = intArg(args, ARG_SECOND_DEPTH, DEFAULT_DEPTH);
+        SelfPlaySimulator simulator = new SelfPlaySimulator(
+                () -> new AIPlayer("Első", 'X', firstDepth),
+                () -> new AIPlayer("Második", 'O', secondDepth), threads);
+        System.out.println(simulator.run(games));
+    }
+
+    /**
+     * Beolvas egy egész számú parancssori argumentumot.
+     *
+     * @param args         A parancssori argumentumok.
+     * @param index        Az argumentum helye.
+     * @param defaultValue Az érték, ha az argumentum hiányzik.
+     * @return Az argumentum értéke.
+     */
+    private static int intArg(final String[] args, final int index,
+                              final int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index])
+                : defaultValue;
+    }
+}
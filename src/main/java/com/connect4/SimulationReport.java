@@ -0,0 +1,194 @@
+package com.connect4;
+
+/**
+ * A SimulationReport osztály egy önjáték-szimuláció összesített
+ * eredményeit és áteresztőképességét tárolja.
+ */
+public final class SimulationReport {
+    /** Egy másodperc nanoszekundumban. */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /** Egy mikroszekundum nanoszekundumban. */
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    /** A medián percentilise. */
+    private static final double P50 = 50.0;
+
+    /** A 90. percentilis. */
+    private static final double P90 = 90.0;
+
+    /** A 99. percentilis. */
+    private static final double P99 = 99.0;
+
+    /** A 99,9. percentilis. */
+    private static final double P999 = 99.9;
+
+    /** A lejátszott játszmák száma. */
+    private final long games;
+
+    /** Az első stratégia győzelmeinek száma. */
+    private final long firstWins;
+
+    /** A döntetlenek száma. */
+    private final long draws;
+
+    /** A második stratégia győzelmeinek száma. */
+    private final long secondWins;
+
+    /** Az összes megtett lépés száma. */
+    private final long moves;
+
+    /** A szimuláció teljes ideje nanoszekundumban. */
+    private final long elapsedNanos;
+
+    /** A stratégiák lépésenkénti gondolkodási ideje nanoszekundumban. */
+    private final LatencyHistogram moveLatency;
+
+    /**
+     * Konstruktor a SimulationReport osztályhoz.
+     *
+     * @param firstWinsParam    Az első stratégia győzelmei.
+     * @param drawsParam        A döntetlenek.
+     * @param secondWinsParam   A második stratégia győzelmei.
+     * @param movesParam        Az összes lépés száma.
+     * @param elapsedNanosParam A szimuláció ideje nanoszekundumban.
+     * @param moveLatencyParam  A lépésenkénti késleltetés hisztogramja.
+     */
+    public SimulationReport(final long firstWinsParam, final long drawsParam,
+                            final long secondWinsParam, final long movesParam,
+                            final long elapsedNanosParam,
+                            final LatencyHistogram moveLatencyParam) {
+        this.firstWins = firstWinsParam;
+        this.draws = drawsParam;
+        this.secondWins = secondWinsParam;
+        this.games = firstWinsParam + drawsParam + secondWinsParam;
+        this.moves = movesParam;
+        this.elapsedNanos = elapsedNanosParam;
+        this.moveLatency = moveLatencyParam;
+    }
+
+    /**
+     * Visszaadja a lejátszott játszmák számát.
+     *
+     * @return A játszmák száma.
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Visszaadja az első stratégia győzelmeinek számát.
+     *
+     * @return A győzelmek száma.
+     */
+    public long getFirstWins() {
+        return firstWins;
+    }
+
+    /**
+     * Visszaadja a döntetlenek számát.
+     *
+     * @return A döntetlenek száma.
+     */
+    public long getDraws() {
+        return draws;
+    }
+
+    /**
+     * Visszaadja a második stratégia győzelmeinek számát.
+     *
+     * @return A győzelmek száma.
+     */
+    public long getSecondWins() {
+        return secondWins;
+    }
+
+    /**
+     * Visszaadja az összes megtett lépés számát.
+     *
+     * @return A lépések száma.
+     */
+    public long getMoves() {
+        return moves;
+    }
+
+    /**
+     * Visszaadja a szimuláció teljes idejét.
+     *
+     * @return Az idő nanoszekundumban.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Visszaadja a lépésenkénti késleltetés hisztogramját.
+     *
+     * @return A hisztogram nanoszekundumos értékekkel.
+     */
+    public LatencyHistogram getMoveLatency() {
+        return moveLatency;
+    }
+
+    /**
+     * Visszaadja a másodpercenként lejátszott játszmák számát.
+     *
+     * @return Játszma per másodperc.
+     */
+    public double getGamesPerSecond() {
+        return perSecond(games);
+    }
+
+    /**
+     * Visszaadja a másodpercenként megtett lépések számát.
+     *
+     * @return Lépés per másodperc.
+     */
+    public double getMovesPerSecond() {
+        return perSecond(moves);
+    }
+
+    /**
+     * Átszámítja a darabszámot másodpercenkénti értékre.
+     *
+     * @param count A darabszám.
+     * @return Darab per másodperc.
+     */
+    private double perSecond(final long count) {
+        if (elapsedNanos <= 0) {
+            return 0.0;
+        }
+        return count * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    /**
+     * Visszaadja a jelentés szöveges összefoglalóját.
+     *
+     * @return Az összefoglaló több sorban.
+     */
+    @Override
+    public String toString() {
+        return String.format("Játszmák: %d (%.1f játszma/s), lépések: %d "
+                + "(%.1f lépés/s)%n"
+                + "Első nyert: %d, döntetlen: %d, második nyert: %d%n"
+                + "Lépésidő (µs): p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f "
+                + "max=%.1f",
+                games, getGamesPerSecond(), moves, getMovesPerSecond(),
+                firstWins, draws, secondWins,
+                micros(moveLatency.getValueAtPercentile(P50)),
+                micros(moveLatency.getValueAtPercentile(P90)),
+                micros(moveLatency.getValueAtPercentile(P99)),
+                micros(moveLatency.getValueAtPercentile(P999)),
+                micros(moveLatency.getMax()));
+    }
+
+    /**
+     * Átváltja a nanoszekundumot mikroszekundumra.
+     *
+     * @param nanos Az idő nanoszekundumban.
+     * @return Az idő mikroszekundumban.
+     */
+    private static double micros(final long nanos) {
+        return nanos / NANOS_PER_MICRO;
+    }
+}
@@ -0,0 +1,577 @@
+package com.connect4;
+
+/**
+ * A Solver osztály tökéletes játékkal meghatározza egy állás
+ * játékelméleti értékét és a hozzá tartozó legjobb lépést.
+ *
+ * <p>A keresés a játszma végéig tart, ezért csak a bitboardba férő,
+ * négyes nyerő sorozatú táblákon használható (a szabványos 6x7-es tábla
+ * ilyen). Az értéket nullablakos (MTD-szerű) keresések sorozata szűkíti:
+ * minden lépés csak azt dönti el, hogy az érték egy adott küszöb fölött
+ * van-e, és a {@link TranspositionTable} gyorsítótár a korábbi
+ * keresések korlátait is megőrzi. A keresés előre kiszűri a vesztes
+ * lépéseket (amelyek után az ellenfél azonnal nyerne), a maradékot pedig
+ * a lépés után keletkező fenyegetések száma szerint rendezi. A
+ * gyorsítótár kanonikus kulcsokat használ: a tükrözött állást a keresés
+ * lépésenként frissíti, és egy állás a tükörképével közös bejegyzésen
+ * osztozik.</p>
+ *
+ * <p>Az eredmény értéke a {@link SearchEngine} skáláján van: a lépő
+ * játékos {@code n} lépésen belüli győzelme {@code WIN_SCORE - n}, a
+ * veresége ennek ellentettje, a döntetlen 0.</p>
+ */
+public final class Solver implements Searcher {
+    /** A gyorsítótár alapértelmezett méretének kettes alapú logaritmusa. */
+    public static final int DEFAULT_TABLE_BITS = 22;
+
+    /** A megoldható táblák nyerő sorozatának hossza. */
+    private static final int WIN_LENGTH = 4;
+
+    /** A leghosszabb biteltolás a sorozatok keresésekor, oszlopokban. */
+    private static final int MAX_SHIFT = 3;
+
+    /** Ennyi csomópontonként nézzük meg a leállítás jelzését. */
+    private static final long CANCEL_CHECK_MASK = 1023L;
+
+    /** Az állások gyorsítótára. */
+    private final TranspositionTable table;
+
+    /** A sorok száma az utolsó megoldott táblán. */
+    private int rows;
+
+    /** Az oszlopok száma az utolsó megoldott táblán. */
+    private int columns;
+
+    /** A mezők száma. */
+    private int cells;
+
+    /** Egy oszlop bitjeinek száma (sorok + 1 őrbit). */
+    private int stride;
+
+    /** Az oszlopok legalsó bitjei. */
+    private long bottomMask;
+
+    /** A tábla összes mezőjének bitjei. */
+    private long boardMask;
+
+    /** Oszloponként az oszlop mezőinek bitjei. */
+    private long[] columnMasks = new long[0];
+
+    /** Oszloponként a tükrözött oszlopba vivő előjeles biteltolás. */
+    private int[] mirrorShifts = new int[0];
+
+    /** A középről kifelé rendezett oszlopsorrend. */
+    private int[] order = new int[0];
+
+    /** Lépésszámonként a rendezett lépések oszlopai. */
+    private int[][] sortedColumns = new int[0][];
+
+    /** Lépésszámonként a rendezett lépések pontszámai. */
+    private int[][] sortedScores = new int[0][];
+
+    /** Az aktuális megoldás során bejárt csomópontok száma. */
+    private long nodes;
+
+    /** Igaz, ha a megoldást kívülről leállították. */
+    private volatile boolean cancelled;
+
+    /** Igaz, ha az aktuális megoldás a leállítás miatt félbemaradt. */
+    private boolean stopped;
+
+    /**
+     * Konstruktor az alapértelmezett méretű gyorsítótárral.
+     */
+    public Solver() {
+        this(new TranspositionTable(DEFAULT_TABLE_BITS));
+    }
+
+    /**
+     * Konstruktor a Solver osztályhoz.
+     *
+     * @param tableParam Az állások gyorsítótára; csak ez a megoldó
+     *                   használhatja.
+     */
+    public Solver(final TranspositionTable tableParam) {
+        if (tableParam == null) {
+            throw new IllegalArgumentException("A gyorsítótár kötelező.");
+        }
+        this.table = tableParam;
+    }
+
+    /**
+     * Megadja, hogy a tábla megoldható-e ezzel az osztállyal.
+     *
+     * @param board A játék tábla.
+     * @return True, ha a tábla bitboard, és négyes sorozat nyer.
+     */
+    public static boolean supports(final Board board) {
+        return board.isBitboard() && board.getWinLength() == WIN_LENGTH
+                && (board.getRows() + 2) * MAX_SHIFT < Long.SIZE;
+    }
+
+    /**
+     * Visszaadja az állások gyorsítótárát.
+     *
+     * @return A gyorsítótár.
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Megoldja az állást a megadott tokenű játékos számára, aki a soron
+     * következő játékos kell legyen.
+     *
+     * @param board A játék tábla.
+     * @param token A lépő játékos tokenje.
+     * @return A megoldás eredménye.
+     */
+    @Override
+    public SearchResult search(final Board board, final char token) {
+        // A lépő játékosnak a lépések felénél (lefelé kerekítve) nem lehet
+        // több tokenje, bármelyik maszk tartozik is hozzá
+        int slot = board.bindSlot(token);
+        if (Long.bitCount(board.getMask(slot)) != board.moveCount() / 2) {
+            throw new IllegalArgumentException(
+                    "Nem a(z) " + token + " játékos következik.");
+        }
+        return solve(board, slot);
+    }
+
+    /**
+     * A megoldó nem használ állásértékelőt, mert minden ágat a játszma
+     * végéig követ; a hívás hatástalan.
+     *
+     * @param evaluator Figyelmen kívül hagyva.
+     */
+    @Override
+    public void setEvaluator(final Evaluator evaluator) {
+        // A tökéletes játékhoz nincs szükség heurisztikára
+    }
+
+    /**
+     * Leállítja a folyamatban lévő megoldást. A megoldó ekkor a
+     * legközépsőbb nem vesztes lépéssel tér vissza, 0 értékkel és 0
+     * mélységgel, jelezve, hogy az érték nem bizonyított.
+     */
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Megoldja az állást a soron következő játékos számára. A tábla nem
+     * változik.
+     *
+     * @param board A játék tábla.
+     * @return A legjobb lépés, az állás pontos értéke, a hátralévő mezők
+     *         száma mint mélység és a bejárt csomópontok száma.
+     */
+    public SearchResult solve(final Board board) {
+        return solve(board, moverSlot(board));
+    }
+
+    /**
+     * Megoldja az állást a megadott maszk tulajdonosa számára, aki a soron
+     * következő játékos kell legyen.
+     *
+     * @param board A játék tábla.
+     * @param slot  A lépő játékos bitmaszkjának indexe.
+     * @return A megoldás eredménye.
+     */
+    private SearchResult solve(final Board board, final int slot) {
+        long start = System.nanoTime();
+        if (!supports(board)) {
+            throw new IllegalArgumentException(
+                    "A tábla nem oldható meg: bitboard és négyes sorozat "
+                    + "szükséges.");
+        }
+        if (board.checkWin()) {
+            throw new IllegalArgumentException("A játszma már véget ért.");
+        }
+        prepare(board);
+        nodes = 0;
+        stopped = false;
+        cancelled = false;
+        long mask = board.getMask(0) | board.getMask(1);
+        long current = board.getMask(slot);
+        long mirrorMask = board.getMirroredMask(0) | board.getMirroredMask(1);
+        long mirrorCurrent = board.getMirroredMask(slot);
+        int moves = board.moveCount();
+        if (moves == cells) {
+            return new SearchResult(-1, 0, 0, 0, System.nanoTime() - start);
+        }
+
+        long possible = possible(mask);
+        long wins = winning(current, mask) & possible;
+        if (wins != 0) {
+            return new SearchResult(columnOf(Long.lowestOneBit(wins)),
+                    SearchEngine.WIN_SCORE - 1, 1, 1,
+                    System.nanoTime() - start);
+        }
+        long candidates = nonLosingMoves(current, mask);
+        if (candidates == 0) {
+            // Bármelyik lépés után az ellenfél nyer
+            return new SearchResult(columnOf(Long.lowestOneBit(possible)),
+                    -(SearchEngine.WIN_SCORE - 2), 2, 1,
+                    System.nanoTime() - start);
+        }
+
+        int value = solve(current, mask, mirrorCurrent, mirrorMask, moves);
+        int bestMove = -1;
+        for (int col : order) {
+            long move = candidates & columnMasks[col];
+            if (move == 0 || stopped) {
+                continue;
+            }
+            // Csak azt kell igazolni, hogy a lépés eléri az értéket
+            int score = -negamax(current ^ mask, mask | move,
+                    mirrorCurrent ^ mirrorMask,
+                    mirrorMask | mirrored(move, col), moves + 1, -value,
+                    -value + 1);
+            if (!stopped && score >= value) {
+                bestMove = col;
+                break;
+            }
+        }
+        if (stopped) {
+            for (int col : order) {
+                if ((candidates & columnMasks[col]) != 0) {
+                    return new SearchResult(col, 0, 0, nodes,
+                            System.nanoTime() - start);
+                }
+            }
+        }
+        return new SearchResult(bestMove, toSearchScore(value, moves),
+                cells - moves, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Visszaadja az utolsó megoldás során bejárt csomópontok számát.
+     *
+     * @return A csomópontok száma.
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Előkészíti a tábla méretéhez tartozó maszkokat és puffereket. Ha a
+     * méret megváltozott, a gyorsítótárat is üríti.
+     *
+     * @param board A játék tábla.
+     */
+    private void prepare(final Board board) {
+        if (board.getRows() == rows && board.getColumns() == columns) {
+            return;
+        }
+        table.clear();
+        rows = board.getRows();
+        columns = board.getColumns();
+        cells = rows * columns;
+        stride = rows + 1;
+        bottomMask = board.getBottomMask();
+        boardMask = bottomMask * ((1L << rows) - 1);
+        columnMasks = new long[columns];
+        mirrorShifts = new int[columns];
+        for (int col = 0; col < columns; col++) {
+            columnMasks[col] = ((1L << rows) - 1) << (col * stride);
+            mirrorShifts[col] = (columns - 1 - 2 * col) * stride;
+        }
+        order = SearchEngine.columnOrder(columns);
+        sortedColumns = new int[cells + 1][columns];
+        sortedScores = new int[cells + 1][columns];
+    }
+
+    /**
+     * Meghatározza a soron következő játékos bitmaszkjának indexét a
+     * tokenek számából; egyenlő számnál a tábla kezdő játékosáét. A 0.
+     * maszk tulajdonosa nem feltétlenül kezdett.
+     *
+     * @param board A játék tábla.
+     * @return A maszk indexe (0 vagy 1).
+     */
+    private static int moverSlot(final Board board) {
+        int difference = Long.bitCount(board.getMask(0))
+                - Long.bitCount(board.getMask(1));
+        if (Math.abs(difference) <= 1) {
+            return board.sideToMove();
+        }
+        throw new IllegalArgumentException(
+                "A tokenek száma nem felváltva lépett játszmára utal.");
+    }
+
+    /**
+     * Nullablakos keresésekkel meghatározza az állás pontos értékét. A
+     * lépő játékos nem nyerhet azonnal.
+     *
+     * @param current       A lépő játékos tokenjei.
+     * @param mask          Az összes token.
+     * @param mirrorCurrent A lépő játékos tokenjei a tükörképen.
+     * @param mirrorMask    Az összes token a tükörképen.
+     * @param moves         A táblán lévő tokenek száma.
+     * @return Az érték: pozitív, ha a lépő nyer, annál nagyobb, minél
+     *         kevesebb saját tokennel.
+     */
+    private int solve(final long current, final long mask,
+                      final long mirrorCurrent, final long mirrorMask,
+                      final int moves) {
+        int min = -(cells - moves) / 2;
+        int max = (cells + 1 - moves) / 2;
+        while (min < max) {
+            int med = min + (max - min) / 2;
+            // A nulla felé húzott küszöb gyorsabban dönt az előjelről
+            if (med <= 0 && min / 2 < med) {
+                med = min / 2;
+            } else if (med >= 0 && max / 2 > med) {
+                med = max / 2;
+            }
+            int result = negamax(current, mask, mirrorCurrent, mirrorMask,
+                    moves, med, med + 1);
+            if (stopped) {
+                return 0;
+            }
+            if (result <= med) {
+                max = result;
+            } else {
+                min = result;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * A negamax keresés alfa-béta vágással a játszma végéig. A lépő
+     * játékos nem nyerhet azonnal.
+     *
+     * @param current       A lépő játékos tokenjei.
+     * @param mask          Az összes token.
+     * @param mirrorCurrent A lépő játékos tokenjei a tükörképen.
+     * @param mirrorMask    Az összes token a tükörképen.
+     * @param moves         A táblán lévő tokenek száma.
+     * @param alphaParam    Az alsó korlát.
+     * @param betaParam     A felső korlát.
+     * @return Az állás értéke, ha a korlátok közé esik; különben a
+     *         megfelelő korlát felé eső becslés.
+     */
+    private int negamax(final long current, final long mask,
+                        final long mirrorCurrent, final long mirrorMask,
+                        final int moves, final int alphaParam,
+                        final int betaParam) {
+        nodes++;
+        if ((nodes & CANCEL_CHECK_MASK) == 0 && cancelled) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        long next = nonLosingMoves(current, mask);
+        if (next == 0) {
+            return -(cells - moves) / 2;
+        }
+        if (moves >= cells - 2) {
+            return 0;
+        }
+
+        int alpha = alphaParam;
+        int beta = betaParam;
+        int min = -(cells - 2 - moves) / 2;
+        if (alpha < min) {
+            alpha = min;
+            if (alpha >= beta) {
+                return alpha;
+            }
+        }
+        int max = (cells - 1 - moves) / 2;
+        long key = current + mask;
+        long mirrorKey = mirrorCurrent + mirrorMask;
+        boolean mirrored = mirrorKey < key;
+        if (mirrored) {
+            key = mirrorKey;
+        }
+        long entry = table.probe(key);
+        if (entry != 0L) {
+            int score = TranspositionTable.scoreOf(entry);
+            if (TranspositionTable.boundOf(entry)
+                    == TranspositionTable.LOWER_BOUND) {
+                if (alpha < score) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        return alpha;
+                    }
+                }
+            } else if (score < max) {
+                max = score;
+            }
+        }
+        if (beta > max) {
+            beta = max;
+            if (alpha >= beta) {
+                return beta;
+            }
+        }
+
+        int count = sortMoves(current, mask, next, moves);
+        int[] sorted = sortedColumns[moves];
+        for (int i = 0; i < count; i++) {
+            int col = sorted[i];
+            long move = next & columnMasks[col];
+            int score = -negamax(current ^ mask, mask | move,
+                    mirrorCurrent ^ mirrorMask,
+                    mirrorMask | mirrored(move, col), moves + 1, -beta,
+                    -alpha);
+            if (stopped) {
+                return 0; // A félbemaradt érték nem kerülhet a táblába
+            }
+            if (score >= beta) {
+                table.store(key, cells - moves,
+                        TranspositionTable.LOWER_BOUND, score,
+                        mirrored ? columns - 1 - col : col);
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        table.store(key, cells - moves, TranspositionTable.UPPER_BOUND,
+                alpha, -1);
+        return alpha;
+    }
+
+    /**
+     * Csökkenő sorrendbe rendezi a lépéseket a lépés után keletkező
+     * fenyegetések száma szerint; azonos számnál a középsőbb oszlop van
+     * elöl.
+     *
+     * @param current A lépő játékos tokenjei.
+     * @param mask    Az összes token.
+     * @param next    A megengedett lépések bitjei.
+     * @param moves   A táblán lévő tokenek száma (a puffer indexe).
+     * @return A lépések száma.
+     */
+    private int sortMoves(final long current, final long mask,
+                          final long next, final int moves) {
+        int[] sorted = sortedColumns[moves];
+        int[] scores = sortedScores[moves];
+        int count = 0;
+        for (int col : order) {
+            long move = next & columnMasks[col];
+            if (move == 0) {
+                continue;
+            }
+            int score = Long.bitCount(winning(current | move, mask));
+            int i = count++;
+            while (i > 0 && scores[i - 1] < score) {
+                sorted[i] = sorted[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            sorted[i] = col;
+            scores[i] = score;
+        }
+        return count;
+    }
+
+    /**
+     * Visszaadja a lépő játékos azon lépéseit, amelyek után az ellenfél
+     * nem nyerhet azonnal.
+     *
+     * @param current A lépő játékos tokenjei.
+     * @param mask    Az összes token.
+     * @return A lépések bitjei (0, ha minden lépés veszít).
+     */
+    private long nonLosingMoves(final long current, final long mask) {
+        long possible = possible(mask);
+        long threats = winning(current ^ mask, mask);
+        long forced = possible & threats;
+        if (forced != 0) {
+            if ((forced & (forced - 1)) != 0) {
+                return 0L; // Két fenyegetést nem lehet egyszerre blokkolni
+            }
+            possible = forced;
+        }
+        // Nem léphetünk az ellenfél fenyegetett mezője alá
+        return possible & ~(threats >>> 1);
+    }
+
+    /**
+     * Visszaadja a lehetséges lépések bitjeit: oszloponként a legalsó
+     * üres mezőt.
+     *
+     * @param mask Az összes token.
+     * @return A lépések bitjei.
+     */
+    private long possible(final long mask) {
+        return (mask + bottomMask) & boardMask;
+    }
+
+    /**
+     * Visszaadja azokat az üres mezőket, amelyek a játékosnak négyes
+     * sorozatot adnának.
+     *
+     * @param position A játékos tokenjei.
+     * @param mask     Az összes token.
+     * @return A nyerő mezők bitjei.
+     */
+    private long winning(final long position, final long mask) {
+        // Függőleges
+        long result = (position << 1) & (position << 2)
+                & (position << MAX_SHIFT);
+        // Vízszintes és a két átló
+        for (int shift = stride - 1; shift <= stride + 1; shift++) {
+            long pair = (position << shift) & (position << 2 * shift);
+            result |= pair & (position << MAX_SHIFT * shift);
+            result |= pair & (position >>> shift);
+            pair = (position >>> shift) & (position >>> 2 * shift);
+            result |= pair & (position << shift);
+            result |= pair & (position >>> MAX_SHIFT * shift);
+        }
+        return result & (boardMask ^ mask);
+    }
+
+    /**
+     * Áthelyezi egy lépés bitjét a tükrözött oszlop azonos magasságába.
+     *
+     * @param move   A lépés bitje.
+     * @param column A lépés oszlopa.
+     * @return A tükrözött lépés bitje.
+     */
+    private long mirrored(final long move, final int column) {
+        int shift = mirrorShifts[column];
+        return shift >= 0 ? move << shift : move >>> -shift;
+    }
+
+    /**
+     * Visszaadja egy bit oszlopát.
+     *
+     * @param bit A bit.
+     * @return Az oszlop indexe.
+     */
+    private int columnOf(final long bit) {
+        return Long.numberOfTrailingZeros(bit) / stride;
+    }
+
+    /**
+     * Átszámítja az értéket a {@link SearchEngine} skálájára: a nyerő
+     * vagy vesztes értékből a játszma végéig hátralévő lépések száma lesz.
+     *
+     * @param value Az érték a megoldó skáláján.
+     * @param moves A táblán lévő tokenek száma.
+     * @return Az érték a keresőmotor skáláján.
+     */
+    private int toSearchScore(final int value, final int moves) {
+        if (value == 0) {
+            return 0;
+        }
+        // A győztes utolsó lépése előtti tokenszám paritása
+        int parity = value > 0 ? moves & 1 : (moves + 1) & 1;
+        int magnitude = Math.abs(value);
+        int before = cells + 1 - 2 * magnitude;
+        if ((before & 1) != parity) {
+            before = cells - 2 * magnitude;
+        }
+        int plies = before - moves + 1;
+        int score = SearchEngine.WIN_SCORE - plies;
+        return value > 0 ? score : -score;
+    }
+}
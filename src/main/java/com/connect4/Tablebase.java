@@ -0,0 +1,783 @@
+package com.connect4;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A Tablebase osztály kis táblák (legfeljebb 30 mező, például 4x4-től
+ * 5x6-ig) minden állásának pontos értékét tárolja: nyer, döntetlen vagy
+ * veszít a lépő játékos szemszögéből.
+ *
+ * <p>Az állásokat a rangjuk indexeli. A rang két részből áll: az
+ * oszlopmagasságok vektorához tartozó eltolásból, és a kezdő játékos
+ * tokenjeinek helyéből a betöltött mezők között (oszloponként alulról
+ * felfelé), a kombinatorikus számrendszerben. Így minden szabályos
+ * állásnak pontosan egy rang felel meg, a rangtér pedig alig nagyobb a
+ * szabályos állások számánál. Egy értéket két bit tárol: 0 a szabálytalan
+ * vagy már eldöntött állás, 1 a vesztes, 2 a döntetlen, 3 a nyerő.</p>
+ *
+ * <p>A generálás visszafelé halad (retrográd elemzés): a teli tábla
+ * rétegétől az üres tábláig, rétegenként a tokenek száma szerint. Egy
+ * réteg állásainak értéke csak a következő réteg értékeitől függ, ezért a
+ * rétegen belül az állások párhuzamosan, oszlopmagasság-vektoronként
+ * számolhatók. A közös szavakba az írás atomi VAGY művelettel történik.</p>
+ *
+ * <p>A kiírt fájl egy fejléc után a bitcsomagolt értékeket tartalmazza;
+ * megnyitáskor csak olvasható módon a memóriába képeződik le, 2 GB-nál
+ * nagyobb táblánál több szeletben. A tábla csak olvasható, ezért több
+ * szálból is használható.</p>
+ *
+ * <p>A szabványos 6x7-es tábla rangtere ezzel a módszerrel kezelhetetlenül
+ * nagy; a késői, kevés üres mezős állásait a {@link Solver} oldja meg
+ * pontosan.</p>
+ */
+public final class Tablebase {
+    /** Szabálytalan vagy már eldöntött állás értéke. */
+    public static final int INVALID = 0;
+
+    /** A lépő játékos veszít. */
+    public static final int LOSS = 1;
+
+    /** Az állás döntetlen. */
+    public static final int DRAW = 2;
+
+    /** A lépő játékos nyer. */
+    public static final int WIN = 3;
+
+    /** A generálható táblák legnagyobb mezőszáma. */
+    public static final int MAX_CELLS = 30;
+
+    /** A táblafájl azonosítója ("C4TB"). */
+    static final int MAGIC = 0x43345442;
+
+    /** A fájlformátum verziója. */
+    static final int VERSION = 1;
+
+    /** A fejléc mérete bájtban. */
+    static final int HEADER_BYTES = 32;
+
+    /** A fejlécben a sorok számának eltolása. */
+    private static final int ROWS_OFFSET = 8;
+
+    /** A fejlécben az oszlopok számának eltolása. */
+    private static final int COLUMNS_OFFSET = 12;
+
+    /** A fejlécben a nyeréshez szükséges hossz eltolása. */
+    private static final int WIN_LENGTH_OFFSET = 16;
+
+    /** A fejlécben a bejegyzések számának eltolása. */
+    private static final int ENTRIES_OFFSET = 24;
+
+    /** Egy érték bitjeinek száma. */
+    private static final int BITS_PER_ENTRY = 2;
+
+    /** Egy érték bitmaszkja. */
+    private static final int ENTRY_MASK = 3;
+
+    /** Egy {@code long} szóban tárolt értékek számának kettes logaritmusa. */
+    private static final int ENTRIES_PER_WORD_SHIFT = 5;
+
+    /** Egy bájtban tárolt értékek számának kettes logaritmusa. */
+    private static final int ENTRIES_PER_BYTE_SHIFT = 2;
+
+    /** Egy leképezett szelet mérete bájtban (1 GB). */
+    private static final long SEGMENT_BYTES = 1_073_741_824L;
+
+    /** A kiíráskor használt puffer mérete szavakban. */
+    private static final int WRITE_BUFFER_WORDS = 65_536;
+
+    /** A szavak atomi módosításához használt hozzáférő. */
+    private static final VarHandle WORDS =
+            MethodHandles.arrayElementVarHandle(long[].class);
+
+    /** A tablebase-ből választott lépések száma. */
+    private static final Metrics.Counter PROBES =
+            Metrics.registry().counter("tablebase.probes");
+
+    /** A másodpercenkénti nanoszekundumok száma. */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /** Az egy mebibájtban lévő bájtok száma. */
+    private static final double BYTES_PER_MIB = 1_048_576.0;
+
+    /** A parancssorban a fájl argumentum indexe. */
+    private static final int ARG_FILE = 2;
+
+    /** A parancssorban a szálszám argumentum indexe. */
+    private static final int ARG_THREADS = 3;
+
+    /** A tábla sorainak száma. */
+    private final int rows;
+
+    /** A tábla oszlopainak száma. */
+    private final int columns;
+
+    /** A nyeréshez szükséges sorozat hossza. */
+    private final int winLength;
+
+    /** Egy oszlop bitjeinek száma a bitmaszkban. */
+    private final int stride;
+
+    /** A bejegyzések (a rangtér) száma. */
+    private final long entries;
+
+    /** Az oszlopmagasság-vektorok rangeltolásai. */
+    private final long[] offsets;
+
+    /** A binomiális együtthatók: {@code binomial[n][k]}. */
+    private final long[][] binomial;
+
+    /** A generált értékek, vagy null, ha a tábla fájlból jött. */
+    private final long[] words;
+
+    /** A leképezett fájl szeletei, vagy null, ha a tábla generált. */
+    private final ByteBuffer[] segments;
+
+    /** A generálás ideje nanoszekundumban (fájlnál 0). */
+    private long generationNanos;
+
+    /**
+     * Privát konstruktor; a {@link #generate(int, int, int)} és az
+     * {@link #open(Path)} használja.
+     *
+     * @param rowsParam      A sorok száma.
+     * @param columnsParam   Az oszlopok száma.
+     * @param winLengthParam A nyeréshez szükséges sorozat hossza.
+     * @param segmentsParam  A leképezett fájl szeletei, vagy null: ekkor
+     *                       üres értéktömb készül a generáláshoz.
+     */
+    private Tablebase(final int rowsParam, final int columnsParam,
+                      final int winLengthParam,
+                      final ByteBuffer[] segmentsParam) {
+        this.rows = rowsParam;
+        this.columns = columnsParam;
+        this.winLength = winLengthParam;
+        this.stride = rowsParam + 1;
+        int cells = rowsParam * columnsParam;
+        this.binomial = new long[cells + 1][cells + 1];
+        for (int n = 0; n <= cells; n++) {
+            binomial[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                binomial[n][k] = binomial[n - 1][k - 1] + binomial[n - 1][k];
+            }
+        }
+        int vectors = 1;
+        for (int col = 0; col < columnsParam; col++) {
+            vectors *= stride;
+        }
+        this.offsets = new long[vectors];
+        long total = 0;
+        for (int index = 0; index < vectors; index++) {
+            offsets[index] = total;
+            int n = filledCells(index);
+            total += binomial[n][(n + 1) / 2];
+        }
+        this.entries = total;
+        this.segments = segmentsParam;
+        this.words = segmentsParam != null ? null
+                : new long[(int) ((total + (1L << ENTRIES_PER_WORD_SHIFT) - 1)
+                        >>> ENTRIES_PER_WORD_SHIFT)];
+    }
+
+    /**
+     * Megadja, hogy a megadott méretű tábla generálható-e.
+     *
+     * @param rowCount    A sorok száma.
+     * @param columnCount Az oszlopok száma.
+     * @return True, ha a tábla legfeljebb {@link #MAX_CELLS} mezős.
+     */
+    public static boolean supportsSize(final int rowCount,
+                                       final int columnCount) {
+        return rowCount > 0 && columnCount > 0
+                && rowCount * columnCount <= MAX_CELLS;
+    }
+
+    /**
+     * Visszafelé haladó elemzéssel kiszámolja egy tábla minden állásának
+     * értékét, négyes sorozattal nyerő játékra.
+     *
+     * @param rowCount    A sorok száma.
+     * @param columnCount Az oszlopok száma.
+     * @param threads     A generáló szálak száma.
+     * @return A kész tábla.
+     */
+    public static Tablebase generate(final int rowCount,
+                                     final int columnCount,
+                                     final int threads) {
+        return generate(rowCount, columnCount, Constants.DEFAULT_WIN_LENGTH,
+                threads);
+    }
+
+    /**
+     * Visszafelé haladó elemzéssel kiszámolja egy tábla minden állásának
+     * értékét.
+     *
+     * @param rowCount    A sorok száma.
+     * @param columnCount Az oszlopok száma.
+     * @param winLen      A nyeréshez szükséges sorozat hossza.
+     * @param threads     A generáló szálak száma.
+     * @return A kész tábla.
+     * @throws IllegalArgumentException Ha a tábla túl nagy, vagy a
+     *                                  paraméterek érvénytelenek.
+     */
+    public static Tablebase generate(final int rowCount,
+                                     final int columnCount,
+                                     final int winLen, final int threads) {
+        if (!supportsSize(rowCount, columnCount)) {
+            throw new IllegalArgumentException(
+                    "A tábla túl nagy a tablebase-hez.");
+        }
+        if (winLen < 1 || threads < 1) {
+            throw new IllegalArgumentException(
+                    "Érvénytelen sorozathossz vagy szálszám.");
+        }
+        Tablebase base = new Tablebase(rowCount, columnCount, winLen, null);
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "connect4-tablebase");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int n = rowCount * columnCount; n >= 0; n--) {
+                base.generateLayer(n, pool);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        base.generationNanos = System.nanoTime() - start;
+        return base;
+    }
+
+    /**
+     * Memóriába képez le egy táblafájlt.
+     *
+     * @param path A táblafájl elérési útja.
+     * @return A megnyitott tábla.
+     * @throws IOException Ha a fájl nem olvasható, vagy nem táblafájl.
+     */
+    public static Tablebase open(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("A fájl nem tablebase.");
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("A fájl nem tablebase.");
+                }
+            }
+            int rowCount = header.getInt(ROWS_OFFSET);
+            int columnCount = header.getInt(COLUMNS_OFFSET);
+            if (header.getInt(0) != MAGIC
+                    || header.getInt(Integer.BYTES) != VERSION
+                    || !supportsSize(rowCount, columnCount)) {
+                throw new IOException("A fájl nem tablebase.");
+            }
+            long dataBytes = dataBytes(header.getLong(ENTRIES_OFFSET));
+            if (HEADER_BYTES + dataBytes != fileSize) {
+                throw new IOException("A fájl nem tablebase.");
+            }
+            int count = (int) ((dataBytes + SEGMENT_BYTES - 1)
+                    / SEGMENT_BYTES);
+            ByteBuffer[] mapped = new ByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long offset = i * SEGMENT_BYTES;
+                MappedByteBuffer segment = channel.map(
+                        FileChannel.MapMode.READ_ONLY, HEADER_BYTES + offset,
+                        Math.min(SEGMENT_BYTES, dataBytes - offset));
+                mapped[i] = segment;
+            }
+            Tablebase base = new Tablebase(rowCount, columnCount,
+                    header.getInt(WIN_LENGTH_OFFSET), mapped);
+            if (base.entries != header.getLong(ENTRIES_OFFSET)) {
+                throw new IOException("A fájl nem tablebase.");
+            }
+            return base;
+        }
+    }
+
+    /**
+     * Kiírja a generált táblát egy fájlba.
+     *
+     * @param path A táblafájl elérési útja.
+     * @throws IOException           Ha az írás nem sikerül.
+     * @throws IllegalStateException Ha a tábla fájlból jött.
+     */
+    public void write(final Path path) throws IOException {
+        if (words == null) {
+            throw new IllegalStateException(
+                    "Csak generált tábla írható ki.");
+        }
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(columns)
+                    .putInt(winLength).putInt(0).putLong(entries).flip();
+            writeFully(channel, header);
+            ByteBuffer buffer = ByteBuffer.allocate(
+                    WRITE_BUFFER_WORDS * Long.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            for (long word : words) {
+                buffer.putLong(word);
+                if (!buffer.hasRemaining()) {
+                    buffer.flip();
+                    writeFully(channel, buffer);
+                    buffer.clear();
+                }
+            }
+            buffer.flip();
+            writeFully(channel, buffer);
+        }
+    }
+
+    /**
+     * Megadja, hogy a tábla állása szerepel-e a tablebase-ben.
+     *
+     * @param board A tábla.
+     * @return True, ha a méret és a sorozathossz egyezik, a tokenek
+     *         száma felváltott lépésekre utal, és a játszma még nem dőlt
+     *         el.
+     */
+    public boolean supports(final Board board) {
+        if (board.getRows() != rows || board.getColumns() != columns
+                || board.getWinLength() != winLength || !board.isBitboard()) {
+            return false;
+        }
+        return firstSlot(board, board.sideToMove()) >= 0
+                && probe(board) != INVALID;
+    }
+
+    /**
+     * Meghatározza a kezdő játékos bitmaszkjának indexét a tokenek
+     * számából. A tablebase a kezdő tokenjeivel indexel; ez a mátrixból
+     * újraépített táblán az 1. maszk is lehet.
+     *
+     * @param board A tábla.
+     * @param mover A lépő játékos maszkja; egyenlő számnál ő a kezdő.
+     * @return A maszk indexe, vagy -1, ha a számok nem felváltott
+     *         lépésekre utalnak.
+     */
+    private static int firstSlot(final Board board, final int mover) {
+        int difference = Long.bitCount(board.getMask(0))
+                - Long.bitCount(board.getMask(1));
+        if (difference == 0) {
+            return mover;
+        }
+        if (Math.abs(difference) == 1) {
+            return difference > 0 ? 0 : 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Visszaadja az állás értékét a lépő játékos szemszögéből. A táblának
+     * a {@link #supports(Board)} szerint támogatottnak kell lennie.
+     *
+     * @param board A tábla.
+     * @return {@link #WIN}, {@link #DRAW}, {@link #LOSS}, vagy
+     *         {@link #INVALID}, ha a játszma már eldőlt.
+     */
+    public int probe(final Board board) {
+        int slot = firstSlot(board, board.sideToMove());
+        long first = board.getMask(slot);
+        return value(rank(first, first | board.getMask(1 - slot)));
+    }
+
+    /**
+     * Kiválasztja a lépő játékos legjobb lépését: azonnali nyerést, ha van,
+     * különben a legjobb értékű oszlopot, egyenlőségnél a középhez
+     * közelebbit.
+     *
+     * @param board A tábla.
+     * @param token A lépő játékos tokenje.
+     * @return A lépés és az értéke a {@link SearchEngine} skáláján, a
+     *         hátralévő mezők számával mint mélységgel, vagy null, ha az
+     *         állás nem szerepel a táblában, vagy nem a token lép.
+     */
+    public SearchResult bestMove(final Board board, final char token) {
+        long start = System.nanoTime();
+        if (!supports(board)) {
+            return null;
+        }
+        int slot = board.bindSlot(token);
+        int firstSlot = firstSlot(board, slot);
+        long first = board.getMask(firstSlot);
+        long all = first | board.getMask(1 - firstSlot);
+        int filled = Long.bitCount(all);
+        // Páros számú token után a kezdő, páratlan után a másik lép
+        if ((slot == firstSlot) != (filled % 2 == 0)) {
+            return null;
+        }
+        int remaining = rows * columns - filled;
+        int best = -1;
+        int bestValue = INVALID;
+        boolean immediate = false;
+        int probes = 0;
+        for (int col : SearchEngine.columnOrder(columns)) {
+            if (!board.isColumnValid(col)) {
+                continue;
+            }
+            if (board.isWinningMove(col, slot)) {
+                best = col;
+                bestValue = WIN;
+                immediate = true;
+                break;
+            }
+            long bit = 1L << (col * stride + Long.bitCount(
+                    all >>> (col * stride) & columnMask()));
+            int child = value(rank(slot == firstSlot ? first | bit : first,
+                    all | bit));
+            probes++;
+            int own = WIN + LOSS - child;
+            if (own > bestValue) {
+                best = col;
+                bestValue = own;
+            }
+        }
+        if (Metrics.ENABLED) {
+            PROBES.increment();
+        }
+        // A tábla nem tárolja a nyerésig hátralévő lépéseket, ezért a
+        // nyerő érték a legkésőbbi lehetséges nyerésé
+        int score = 0;
+        if (immediate) {
+            score = SearchEngine.WIN_SCORE - 1;
+        } else if (bestValue == WIN) {
+            score = SearchEngine.WIN_SCORE - remaining;
+        } else if (bestValue == LOSS) {
+            score = -(SearchEngine.WIN_SCORE - remaining);
+        }
+        return new SearchResult(best, score, remaining, probes,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Visszaadja a sorok számát.
+     *
+     * @return A sorok száma.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Visszaadja az oszlopok számát.
+     *
+     * @return Az oszlopok száma.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Visszaadja a nyeréshez szükséges sorozat hosszát.
+     *
+     * @return A sorozat hossza.
+     */
+    public int getWinLength() {
+        return winLength;
+    }
+
+    /**
+     * Visszaadja a bejegyzések számát, vagyis a rangtér méretét.
+     *
+     * @return A bejegyzések száma.
+     */
+    public long getEntryCount() {
+        return entries;
+    }
+
+    /**
+     * Visszaadja a bitcsomagolt értékek méretét.
+     *
+     * @return A méret bájtban, a fejléc nélkül.
+     */
+    public long getSizeBytes() {
+        return dataBytes(entries);
+    }
+
+    /**
+     * Visszaadja a generálás idejét.
+     *
+     * @return Az idő nanoszekundumban, vagy 0, ha a tábla fájlból jött.
+     */
+    public long getGenerationNanos() {
+        return generationNanos;
+    }
+
+    /**
+     * Kiszámolja egy réteg (adott számú tokent tartalmazó állások)
+     * értékeit, oszlopmagasság-vektoronként egy feladatban.
+     *
+     * @param n    A tokenek száma.
+     * @param pool A generáló szálak.
+     */
+    private void generateLayer(final int n, final ExecutorService pool) {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int index = 0; index < offsets.length; index++) {
+            if (filledCells(index) == n) {
+                int vector = index;
+                tasks.add(() -> {
+                    generateVector(vector, n);
+                    return null;
+                });
+            }
+        }
+        try {
+            for (Future<Void> done : pool.invokeAll(tasks)) {
+                done.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("A generálás megszakadt.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Kiszámolja egy oszlopmagasság-vektor összes színezésének értékét. A
+     * színezéseket a kezdő játékos mezőinek részhalmazaként, növekvő
+     * bitminta szerint járja be; ez éppen a rangjuk sorrendje.
+     *
+     * @param vector Az oszlopmagasság-vektor indexe.
+     * @param n      A tokenek száma.
+     */
+    private void generateVector(final int vector, final int n) {
+        long[] cellBits = new long[n];
+        int[] heights = new int[columns];
+        int cell = 0;
+        long all = 0;
+        int rest = vector;
+        for (int col = columns - 1; col >= 0; col--) {
+            heights[col] = rest % stride;
+            rest /= stride;
+        }
+        for (int col = 0; col < columns; col++) {
+            for (int row = 0; row < heights[col]; row++) {
+                cellBits[cell++] = 1L << (col * stride + row);
+                all |= 1L << (col * stride + row);
+            }
+        }
+        int firstCount = (n + 1) / 2;
+        long end = 1L << n;
+        long rank = offsets[vector];
+        long subset = (1L << firstCount) - 1;
+        while (subset < end) {
+            long first = 0;
+            for (long bits = subset; bits != 0; bits &= bits - 1) {
+                first |= cellBits[Long.numberOfTrailingZeros(bits)];
+            }
+            int result = solve(first, all, heights, n);
+            if (result != INVALID) {
+                WORDS.getAndBitwiseOr(words,
+                        (int) (rank >>> ENTRIES_PER_WORD_SHIFT),
+                        (long) result << (BITS_PER_ENTRY
+                                * (rank & ((1L << ENTRIES_PER_WORD_SHIFT)
+                                - 1))));
+            }
+            rank++;
+            if (subset == 0) {
+                break;
+            }
+            long lowest = subset & -subset;
+            long ripple = subset + lowest;
+            subset = (((ripple ^ subset) >>> 2) / lowest) | ripple;
+        }
+    }
+
+    /**
+     * Kiszámolja egy állás értékét a következő réteg értékeiből.
+     *
+     * @param first   A kezdő játékos tokenjeinek bitjei.
+     * @param all     Az összes token bitjei.
+     * @param heights Az oszlopok magassága.
+     * @param n       A tokenek száma.
+     * @return Az állás értéke a lépő játékos szemszögéből.
+     */
+    private int solve(final long first, final long all, final int[] heights,
+                      final int n) {
+        long second = all ^ first;
+        if (hasAlignment(first) || hasAlignment(second)) {
+            return INVALID;
+        }
+        if (n == rows * columns) {
+            return DRAW;
+        }
+        boolean firstToMove = n % 2 == 0;
+        long mover = firstToMove ? first : second;
+        for (int col = 0; col < columns; col++) {
+            if (heights[col] < rows && hasAlignment(
+                    mover | 1L << (col * stride + heights[col]))) {
+                return WIN;
+            }
+        }
+        int best = LOSS;
+        for (int col = 0; col < columns && best != WIN; col++) {
+            if (heights[col] < rows) {
+                long bit = 1L << (col * stride + heights[col]);
+                int child = value(rank(firstToMove ? first | bit : first,
+                        all | bit));
+                best = Math.max(best, WIN + LOSS - child);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Kiszámolja egy állás rangját.
+     *
+     * @param first A kezdő játékos tokenjeinek bitjei.
+     * @param all   Az összes token bitjei.
+     * @return A rang.
+     */
+    private long rank(final long first, final long all) {
+        int vector = 0;
+        int cell = 0;
+        int seen = 0;
+        long colouring = 0;
+        for (int col = 0; col < columns; col++) {
+            int height = Long.bitCount(all >>> (col * stride) & columnMask());
+            vector = vector * stride + height;
+            for (int row = 0; row < height; row++) {
+                if ((first >>> (col * stride + row) & 1L) != 0) {
+                    seen++;
+                    colouring += binomial[cell][seen];
+                }
+                cell++;
+            }
+        }
+        return offsets[vector] + colouring;
+    }
+
+    /**
+     * Kiolvassa egy rang értékét.
+     *
+     * @param rank A rang.
+     * @return Az érték.
+     */
+    private int value(final long rank) {
+        if (words != null) {
+            long word = (long) WORDS.getOpaque(words,
+                    (int) (rank >>> ENTRIES_PER_WORD_SHIFT));
+            return (int) (word >>> (BITS_PER_ENTRY
+                    * (rank & ((1L << ENTRIES_PER_WORD_SHIFT) - 1))))
+                    & ENTRY_MASK;
+        }
+        long index = rank >>> ENTRIES_PER_BYTE_SHIFT;
+        byte packed = segments[(int) (index / SEGMENT_BYTES)]
+                .get((int) (index % SEGMENT_BYTES));
+        return packed >>> (BITS_PER_ENTRY
+                * (rank & ((1L << ENTRIES_PER_BYTE_SHIFT) - 1)))
+                & ENTRY_MASK;
+    }
+
+    /**
+     * Megadja, hogy a bitmaszkban van-e nyerő hosszúságú sorozat.
+     *
+     * @param mask A bitmaszk.
+     * @return True, ha van.
+     */
+    private boolean hasAlignment(final long mask) {
+        return Board.hasAlignment(mask, stride, winLength);
+    }
+
+    /**
+     * Visszaadja egy oszlop mezőinek bitmaszkját az alsó pozícióban.
+     *
+     * @return A maszk.
+     */
+    private long columnMask() {
+        return (1L << rows) - 1;
+    }
+
+    /**
+     * Visszaadja egy oszlopmagasság-vektor tokenjeinek számát.
+     *
+     * @param vector A vektor indexe.
+     * @return A tokenek száma.
+     */
+    private int filledCells(final int vector) {
+        int n = 0;
+        for (int rest = vector; rest > 0; rest /= stride) {
+            n += rest % stride;
+        }
+        return n;
+    }
+
+    /**
+     * Visszaadja a bitcsomagolt értékek méretét egész szavakra kerekítve.
+     *
+     * @param entryCount A bejegyzések száma.
+     * @return A méret bájtban.
+     */
+    private static long dataBytes(final long entryCount) {
+        return ((entryCount + (1L << ENTRIES_PER_WORD_SHIFT) - 1)
+                >>> ENTRIES_PER_WORD_SHIFT) * Long.BYTES;
+    }
+
+    /**
+     * Kiírja a puffer teljes tartalmát.
+     *
+     * @param channel A fájl csatornája.
+     * @param buffer  A puffer.
+     * @throws IOException Ha az írás nem sikerül.
+     */
+    private static void writeFully(final FileChannel channel,
+                                   final ByteBuffer buffer)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Generál egy táblát, kiírja fájlba, és jelentést ad a méretéről, a
+     * generálás idejéről és a kezdőállás értékéről.
+     *
+     * @param args A sorok és az oszlopok száma, a fájl, és opcionálisan a
+     *             szálak száma.
+     * @throws IOException Ha a fájl nem írható.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length <= ARG_FILE) {
+            System.out.println("Használat: Tablebase <sorok> <oszlopok>"
+                    + " <fájl> [szálak]");
+            return;
+        }
+        int rowCount = Integer.parseInt(args[0]);
+        int columnCount = Integer.parseInt(args[1]);
+        int threads = args.length > ARG_THREADS
+                ? Integer.parseInt(args[ARG_THREADS])
+                : Runtime.getRuntime().availableProcessors();
+        Tablebase base = generate(rowCount, columnCount, threads);
+        base.write(Paths.get(args[ARG_FILE]));
+        int start = base.value(0);
+        System.out.printf("%dx%d: %d bejegyzés, %.2f MiB, generálás %.1f s"
+                        + " (%d szál), kezdőállás: %s%n",
+                rowCount, columnCount, base.getEntryCount(),
+                base.getSizeBytes() / BYTES_PER_MIB,
+                base.getGenerationNanos() / NANOS_PER_SECOND, threads,
+                start == WIN ? "kezdő nyer" : start == LOSS
+                        ? "kezdő veszít" : "döntetlen");
+    }
+}
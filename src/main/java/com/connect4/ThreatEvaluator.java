@@ -0,0 +1,187 @@
+package com.connect4;
+
+/**
+ * A ThreatEvaluator osztály bitmaszkokból értékeli az állást: a nyitott
+ * kettesek, a fenyegetések (egy hiányzó tokenű nyerő sorozatok üres
+ * mezői) és a középső oszlop tokenjei alapján.
+ *
+ * <p>A fenyegetéseket a sor paritása szerint is súlyozza: a kezdő
+ * játékosnak a páratlan (alulról 1., 3., 5.) sorbeli, a második
+ * játékosnak a páros sorbeli fenyegetés ér többet, mert a játszma végén
+ * ezek válnak kikényszeríthetővé. Minden számítás eltolás-és-ÉS
+ * művelet a játékosok bitmaszkjain, így a kiértékelés nem foglal memóriát
+ * és nem járja be a mátrixot. A bitboardba nem férő táblák értéke 0.</p>
+ */
+public final class ThreatEvaluator implements Evaluator {
+    /** Egy fenyegetés (üres mező egy majdnem teli sorozatban) értéke. */
+    static final int THREAT_WEIGHT = 8;
+
+    /** A kedvező paritású fenyegetés többletértéke. */
+    static final int PARITY_WEIGHT = 8;
+
+    /** Egy nyitott kettes (csak saját és üres mezős ablak) értéke. */
+    static final int TWO_WEIGHT = 2;
+
+    /** Egy középső oszlopbeli token értéke. */
+    static final int CENTER_WEIGHT = 3;
+
+    /** A bitenkénti számláló síkjainak száma (legfeljebb 7 hosszig). */
+    private static final int COUNTER_PLANES = 3;
+
+    /** Az irányok száma: függőleges, vízszintes és a két átló. */
+    private static final int DIRECTIONS = 4;
+
+    /** A páratlan sorokat jelölő bitminta egy oszlopon belül. */
+    private static final long ODD_ROW_PATTERN = 0x5555555555555555L;
+
+    /**
+     * Kiértékeli az állást a lépő játékos szemszögéből.
+     *
+     * @param board A játék tábla.
+     * @param slot  A lépő játékos bitmaszkjának indexe.
+     * @return Az állás értéke.
+     */
+    @Override
+    public int evaluate(final Board board, final int slot) {
+        if (!board.isBitboard()) {
+            return 0;
+        }
+        int rows = board.getRows();
+        int stride = rows + 1;
+        int length = board.getWinLength();
+        long own = board.getMask(slot);
+        long opponent = board.getMask(1 - slot);
+        long bottom = board.getBottomMask();
+        long cells = bottom * ((1L << rows) - 1);
+        long empty = cells & ~(own | opponent);
+        long oddRows = bottom * (ODD_ROW_PATTERN & ((1L << rows) - 1));
+        long center = ((1L << rows) - 1) << (board.getColumns() / 2 * stride);
+
+        // A lépő játékos kezd, ha mindkettőjüknek ugyanannyi tokenje van
+        boolean ownFirst = Long.bitCount(own) >= Long.bitCount(opponent);
+        long ownThreats = threats(own, empty, stride, length);
+        long oppThreats = threats(opponent, empty, stride, length);
+        long ownGood = ownThreats & (ownFirst ? oddRows : ~oddRows);
+        long oppGood = oppThreats & (ownFirst ? ~oddRows : oddRows);
+
+        return THREAT_WEIGHT * (Long.bitCount(ownThreats)
+                - Long.bitCount(oppThreats))
+                + PARITY_WEIGHT * (Long.bitCount(ownGood)
+                - Long.bitCount(oppGood))
+                + TWO_WEIGHT * (openWindows(own, opponent, cells, stride,
+                length) - openWindows(opponent, own, cells, stride, length))
+                + CENTER_WEIGHT * (Long.bitCount(own & center)
+                - Long.bitCount(opponent & center));
+    }
+
+    /**
+     * Kiszámítja azokat az üres mezőket, amelyek egy nyerő sorozatot
+     * tennének teljessé a játékos számára.
+     *
+     * @param player A játékos bitmaszkja.
+     * @param empty  Az üres mezők maszkja.
+     * @param stride Egy oszlop bitjeinek száma.
+     * @param length A nyerő sorozat hossza.
+     * @return A fenyegetett mezők maszkja.
+     */
+    static long threats(final long player, final long empty,
+                        final int stride, final int length) {
+        long result = 0L;
+        for (int d = 0; d < DIRECTIONS; d++) {
+            int shift = direction(stride, d);
+            // A hiányzó mező helye az ablakon belül
+            for (int gap = 0; gap < length; gap++) {
+                long cells = empty;
+                for (int i = 0; i < length && cells != 0; i++) {
+                    if (i != gap) {
+                        cells &= shifted(player, (i - gap) * shift);
+                    }
+                }
+                result |= cells;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Megszámolja azokat a nyerő sorozat hosszú ablakokat, amelyekben a
+     * játékosnak pontosan kettővel kevesebb tokenje van, mint a nyeréshez
+     * kell, a többi mező pedig üres.
+     *
+     * @param player   A játékos bitmaszkja.
+     * @param opponent Az ellenfél bitmaszkja.
+     * @param cells    A tábla mezőinek maszkja.
+     * @param stride   Egy oszlop bitjeinek száma.
+     * @param length   A nyerő sorozat hossza.
+     * @return Az ablakok száma.
+     */
+    static int openWindows(final long player, final long opponent,
+                           final long cells, final int stride,
+                           final int length) {
+        if (length < 2 || length >= 1 << COUNTER_PLANES) {
+            return 0;
+        }
+        long free = cells & ~opponent;
+        int target = length - 2;
+        int count = 0;
+        for (int d = 0; d < DIRECTIONS; d++) {
+            int shift = direction(stride, d);
+            // Az ablakok kezdőbitjei; a számláló síkjai bitenként összeadnak
+            long windows = free;
+            long plane0 = 0L;
+            long plane1 = 0L;
+            long plane2 = 0L;
+            for (int i = 0; i < length; i++) {
+                windows &= shifted(free, i * shift);
+                long bit = shifted(player, i * shift);
+                long carry0 = plane0 & bit;
+                plane0 ^= bit;
+                long carry1 = plane1 & carry0;
+                plane1 ^= carry0;
+                plane2 |= carry1;
+            }
+            long match = windows
+                    & ((target & 1) != 0 ? plane0 : ~plane0)
+                    & ((target & 2) != 0 ? plane1 : ~plane1)
+                    & ((target & 2 * 2) != 0 ? plane2 : ~plane2);
+            count += Long.bitCount(match);
+        }
+        return count;
+    }
+
+    /**
+     * Visszaadja egy irány biteltolását: függőleges, vízszintes és a két
+     * átló, ebben a sorrendben.
+     *
+     * @param stride Egy oszlop bitjeinek száma.
+     * @param index  Az irány sorszáma.
+     * @return Az eltolás.
+     */
+    private static int direction(final int stride, final int index) {
+        switch (index) {
+            case 0:
+                return 1;
+            case 1:
+                return stride;
+            case 2:
+                return stride - 1;
+            default:
+                return stride + 1;
+        }
+    }
+
+    /**
+     * Eltolja a maszkot úgy, hogy az eredmény c. bitje a bemenet
+     * {@code c + distance}. bitje legyen.
+     *
+     * @param mask     A maszk.
+     * @param distance Az előjeles eltolás.
+     * @return Az eltolt maszk (0, ha az eltolás kilóg a 64 bitből).
+     */
+    private static long shifted(final long mask, final int distance) {
+        if (distance >= Long.SIZE || distance <= -Long.SIZE) {
+            return 0L;
+        }
+        return distance >= 0 ? mask >>> distance : mask << -distance;
+    }
+}
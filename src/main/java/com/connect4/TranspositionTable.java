@@ -0,0 +1,260 @@
+package com.connect4;
+
+import java.util.Arrays;
+
+/**
+ * A TranspositionTable osztály a már kiértékelt állások rögzített méretű,
+ * nyílt címzésű gyorsítótára.
+ *
+ * <p>A bejegyzések két primitív {@code long} tömbben élnek: az egyik a
+ * Zobrist-kulcsot, a másik a becsomagolt adatot (érték, legjobb lépés,
+ * mélység és korláttípus) tárolja. Egy kulcs legfeljebb
+ * {@value #PROBE_LIMIT} egymást követő helyre kerülhet; ha mind foglalt,
+ * a legkisebb mélységű bejegyzést írjuk felül.</p>
+ *
+ * <p>A tábla zár nélkül osztható meg több keresőszál között: a kulcs
+ * helyén a kulcs és az adat kizáró vagya áll, így egy félig felülírt
+ * bejegyzés egyszerűen nem egyezik a keresett kulccsal. A számlálók több
+ * szál esetén csak közelítő értékek.</p>
+ */
+public final class TranspositionTable {
+    /** Pontos érték. */
+    public static final int EXACT = 1;
+
+    /** Alsó korlát (béta-vágás történt). */
+    public static final int LOWER_BOUND = 2;
+
+    /** Felső korlát (egyik lépés sem javított az alfán). */
+    public static final int UPPER_BOUND = 3;
+
+    /** Ennyi egymást követő helyen keresünk egy kulcsot. */
+    static final int PROBE_LIMIT = 4;
+
+    /** A lépés mező eltolása a becsomagolt adatban. */
+    private static final int MOVE_SHIFT = 32;
+
+    /** A mélység mező eltolása a becsomagolt adatban. */
+    private static final int DEPTH_SHIFT = 48;
+
+    /** A korláttípus mező eltolása a becsomagolt adatban. */
+    private static final int BOUND_SHIFT = 62;
+
+    /** A lépés és a mélység mező maszkja. */
+    private static final long FIELD_MASK = 0xFFFFL;
+
+    /** A mélység mező legnagyobb értéke. */
+    private static final int MAX_DEPTH = 0x3FFF;
+
+    /** Az érték mező maszkja. */
+    private static final long SCORE_MASK = 0xFFFFFFFFL;
+
+    /** A legnagyobb megengedett tábla mérete kettes alapú logaritmusban. */
+    private static final int MAX_SIZE_BITS = 30;
+
+    /** A bejegyzések kulcsai, az adattal kizáró vagy kapcsolatban. */
+    private final long[] keys;
+
+    /** A bejegyzések becsomagolt adatai (0: üres hely). */
+    private final long[] data;
+
+    /** Az indexeléshez használt bitmaszk. */
+    private final int indexMask;
+
+    /** A sikeres keresések száma. */
+    private long hits;
+
+    /** A sikertelen keresések száma. */
+    private long misses;
+
+    /** A más kulcsú bejegyzést felülíró tárolások száma. */
+    private long collisions;
+
+    /**
+     * Konstruktor a TranspositionTable osztályhoz.
+     *
+     * @param sizeBits A bejegyzések számának kettes alapú logaritmusa.
+     */
+    public TranspositionTable(final int sizeBits) {
+        if (sizeBits < 1 || sizeBits > MAX_SIZE_BITS) {
+            throw new IllegalArgumentException(
+                    "A tábla mérete 1 és " + MAX_SIZE_BITS
+                    + " bit között lehet.");
+        }
+        int capacity = 1 << sizeBits;
+        this.keys = new long[capacity];
+        this.data = new long[capacity];
+        this.indexMask = capacity - 1;
+    }
+
+    /**
+     * Megkeresi a kulcshoz tartozó bejegyzést.
+     *
+     * @param key Az állás kulcsa.
+     * @return A becsomagolt adat, vagy 0, ha nincs bejegyzés.
+     */
+    public long probe(final long key) {
+        int index = indexOf(key);
+        for (int i = 0; i < PROBE_LIMIT; i++) {
+            int slot = (index + i) & indexMask;
+            long entry = data[slot];
+            if (entry != 0 && (keys[slot] ^ entry) == key) {
+                hits++;
+                return entry;
+            }
+        }
+        misses++;
+        return 0L;
+    }
+
+    /**
+     * Eltárol egy bejegyzést. Azonos kulcs esetén felülírja a régit;
+     * ha nincs szabad hely, a legkisebb mélységű bejegyzést cseréli.
+     *
+     * @param key   Az állás kulcsa.
+     * @param depth A keresési mélység.
+     * @param bound A korlát típusa ({@link #EXACT}, {@link #LOWER_BOUND}
+     *              vagy {@link #UPPER_BOUND}).
+     * @param score Az állás értéke.
+     * @param move  A legjobb lépés oszlopa (-1, ha nincs).
+     */
+    public void store(final long key, final int depth, final int bound,
+                      final int score, final int move) {
+        int index = indexOf(key);
+        int victim = index;
+        int victimDepth = Integer.MAX_VALUE;
+        for (int i = 0; i < PROBE_LIMIT; i++) {
+            int slot = (index + i) & indexMask;
+            long entry = data[slot];
+            if (entry == 0 || (keys[slot] ^ entry) == key) {
+                victim = slot;
+                victimDepth = -1;
+                break;
+            }
+            int slotDepth = depthOf(entry);
+            if (slotDepth < victimDepth) {
+                victim = slot;
+                victimDepth = slotDepth;
+            }
+        }
+        if (victimDepth >= 0) {
+            collisions++;
+        }
+        long entry = pack(depth, bound, score, move);
+        keys[victim] = key ^ entry;
+        data[victim] = entry;
+    }
+
+    /**
+     * Kiüríti a táblát és nullázza a számlálókat.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+        hits = 0;
+        misses = 0;
+        collisions = 0;
+    }
+
+    /**
+     * Visszaadja a tábla kapacitását.
+     *
+     * @return A bejegyzések legnagyobb száma.
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    /**
+     * Visszaadja a sikeres keresések számát.
+     *
+     * @return A találatok száma.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Visszaadja a sikertelen keresések számát.
+     *
+     * @return A tévesztések száma.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Visszaadja a más kulcsú bejegyzést kiszorító tárolások számát.
+     *
+     * @return Az ütközések száma.
+     */
+    public long getCollisions() {
+        return collisions;
+    }
+
+    /**
+     * Kiolvassa az értéket a becsomagolt adatból.
+     *
+     * @param entry A becsomagolt adat.
+     * @return Az érték.
+     */
+    public static int scoreOf(final long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Kiolvassa a legjobb lépést a becsomagolt adatból.
+     *
+     * @param entry A becsomagolt adat.
+     * @return A lépés oszlopa, vagy -1.
+     */
+    public static int moveOf(final long entry) {
+        return (int) ((entry >>> MOVE_SHIFT) & FIELD_MASK) - 1;
+    }
+
+    /**
+     * Kiolvassa a keresési mélységet a becsomagolt adatból.
+     *
+     * @param entry A becsomagolt adat.
+     * @return A mélység.
+     */
+    public static int depthOf(final long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & MAX_DEPTH);
+    }
+
+    /**
+     * Kiolvassa a korláttípust a becsomagolt adatból.
+     *
+     * @param entry A becsomagolt adat.
+     * @return A korlát típusa.
+     */
+    public static int boundOf(final long entry) {
+        return (int) (entry >>> BOUND_SHIFT);
+    }
+
+    /**
+     * Egyetlen {@code long} értékbe csomagolja a bejegyzés adatait.
+     *
+     * @param depth A keresési mélység.
+     * @param bound A korlát típusa.
+     * @param score Az érték.
+     * @param move  A legjobb lépés (-1, ha nincs).
+     * @return A becsomagolt adat.
+     */
+    private static long pack(final int depth, final int bound,
+                             final int score, final int move) {
+        return ((long) bound << BOUND_SHIFT)
+                | ((long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT)
+                | (((move + 1) & FIELD_MASK) << MOVE_SHIFT)
+                | (score & SCORE_MASK);
+    }
+
+    /**
+     * Kiszámítja a kulcs kezdő indexét a táblában.
+     *
+     * @param key Az állás kulcsa.
+     * @return A kezdő index.
+     */
+    private int indexOf(final long key) {
+        return (int) (key ^ (key >>> MOVE_SHIFT)) & indexMask;
+    }
+}
@@ -1,8 +1,14 @@
 package com.connect4;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -48,4 +54,46 @@ public class AIPlayerTest {
         // Assert that the AI player returned -1 (no valid column)
         assertEquals(-1, column);
     }
+
+    @Test
+    public void testMakeMove_WinsOnRealBoard() {
+        Board board = new Board(6, 7);
+        board.placeToken(2, 'X');
+        board.placeToken(2, 'O');
+        board.placeToken(3, 'X');
+        board.placeToken(3, 'O');
+        board.placeToken(4, 'X');
+        board.placeToken(4, 'O');
+
+        // Az AI (X) befejezi a sort az 1-es vagy az 5-ös oszlopban
+        int column = aiPlayer.makeMove(board);
+        assertTrue(column == 1 || column == 5);
+        assertNotNull(aiPlayer.getLastSearchResult());
+    }
+
+    @Test
+    public void testMakeMove_BlocksOnRealBoard() {
+        AIPlayer blocker = new AIPlayer("AI", 'O', 4);
+        Board board = new Board(6, 7);
+        board.placeToken(0, 'X');
+        board.placeToken(6, 'O');
+        board.placeToken(0, 'X');
+        board.placeToken(6, 'O');
+        board.placeToken(0, 'X');
+
+        assertEquals(0, blocker.makeMove(board));
+    }
+
+    @Test
+    public void testCloseStopsSearchThreads() {
+        AIPlayer parallel = new AIPlayer("AI", 'X', 4, 0, 2);
+        parallel.setPondering(true);
+        Board board = new Board(6, 7);
+        assertTrue(board.isColumnValid(parallel.makeMove(board)));
+        parallel.close();
+        assertNull(parallel.getPonderer());
+        // A lezárt motor szálkészlete nem fogad új keresést
+        assertThrows(RejectedExecutionException.class,
+                () -> parallel.makeMove(board));
+    }
 }
@@ -0,0 +1,139 @@
+package com.connect4;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutoSaverTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRecordWritesJournalAndSnapshot() throws Exception {
+        Path file = dir.resolve("auto.txt");
+        Board board = new Board(6, 7);
+        try (AutoSaver saver = new AutoSaver(file)) {
+            board.placeToken(3, 'X');
+            saver.record(3, 'X', board);
+            board.placeToken(4, 'O');
+            saver.record(4, 'O', board);
+            saver.flush();
+            assertEquals(2, saver.getRequestCount());
+            assertTrue(saver.getSnapshotCount() >= 1);
+            assertTrue(saver.getSnapshotCount() <= 2);
+            assertNull(saver.getLastError());
+        }
+        assertEquals("3 X\n4 O\n",
+                Files.readString(AutoSaver.journalOf(file)));
+        assertEquals(AutoSaver.toSaveText(board), Files.readString(file));
+        assertFalse(Files.exists(dir.resolve("auto.txt.tmp")));
+    }
+
+    @Test
+    public void testRapidSavesAreCoalesced() throws Exception {
+        Path file = dir.resolve("rapid.txt");
+        Board board = new Board(6, 7);
+        int moves = 0;
+        try (AutoSaver saver = new AutoSaver(file)) {
+            for (int i = 0; i < 500; i++) {
+                int column = i % 7;
+                if (!board.isColumnValid(column)) {
+                    board = new Board(6, 7);
+                }
+                char token = i % 2 == 0 ? 'X' : 'O';
+                board.placeToken(column, token);
+                saver.record(column, token, board);
+                moves++;
+            }
+            saver.flush();
+            assertEquals(moves, saver.getRequestCount());
+            assertTrue(saver.getSnapshotCount() <= moves);
+        }
+        assertEquals(moves,
+                Files.readAllLines(AutoSaver.journalOf(file)).size());
+        assertEquals(AutoSaver.toSaveText(board), Files.readString(file));
+    }
+
+    @Test
+    public void testReplayIgnoresTornLastLine() throws Exception {
+        Path file = dir.resolve("crash.txt");
+        Files.writeString(AutoSaver.journalOf(file), "3 X\n3 O\n4 X\n5",
+                StandardCharsets.UTF_8);
+        Board board = new Board(6, 7);
+        assertEquals(3, AutoSaver.replay(file, board));
+        Board expected = new Board(6, 7);
+        expected.placeToken(3, 'X');
+        expected.placeToken(3, 'O');
+        expected.placeToken(4, 'X');
+        assertEquals(expected, board);
+
+        assertEquals(0, AutoSaver.replay(dir.resolve("none.txt"),
+                new Board(6, 7)));
+    }
+
+    @Test
+    public void testCompleteDeletesJournal() throws Exception {
+        Path file = dir.resolve("done.txt");
+        AutoSaver saver = new AutoSaver(file);
+        Board board = new Board(6, 7);
+        board.placeToken(0, 'X');
+        saver.record(0, 'X', board);
+        saver.complete();
+        assertFalse(Files.exists(AutoSaver.journalOf(file)));
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    public void testInterruptedGameResumesExactly() throws Exception {
+        Path file = dir.resolve("game.txt");
+        InputStream original = System.in;
+        try {
+            System.setIn(new ByteArrayInputStream("0\n1\n2\n".getBytes()));
+            Game game = new Game(6, 7, "A", "B", true);
+            assertEquals(0, game.enableAutoSave(file));
+            game.start();
+
+            Game resumed = new Game(6, 7, "A", "B", true);
+            assertEquals(3, resumed.enableAutoSave(file));
+            assertEquals(game.getBoard(), resumed.getBoard());
+
+            // A második játékos következik, majd az első nyer
+            System.setIn(new ByteArrayInputStream(
+                    "6\n0\n6\n0\n6\n0\n".getBytes()));
+            resumed.start();
+            assertTrue(resumed.getBoard().checkWin());
+            assertEquals('X', resumed.getBoard().getGrid()[2][0]);
+            assertFalse(Files.exists(AutoSaver.journalOf(file)));
+        } finally {
+            System.setIn(original);
+        }
+    }
+
+    @Test
+    public void testLoadedPositionStartsJournal() throws Exception {
+        Path file = dir.resolve("loaded.txt");
+        Game game = new Game(6, 7, "A", "B", true);
+        game.getBoard().placeToken(2, 'X');
+        game.getBoard().placeToken(2, 'O');
+        game.getBoard().placeToken(5, 'X');
+        assertEquals(0, game.enableAutoSave(file));
+        InputStream original = System.in;
+        try {
+            System.setIn(new ByteArrayInputStream(new byte[0]));
+            game.start();
+        } finally {
+            System.setIn(original);
+        }
+        Board replayed = new Board(6, 7);
+        assertEquals(3, AutoSaver.replay(file, replayed));
+        assertEquals(game.getBoard(), replayed);
+    }
+}
@@ -0,0 +1,109 @@
+package com.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchBoardTest {
+
+    /**
+     * Visszajátssza a játszmákat egy-egy táblán, és összeveti az
+     * eredményt és a bitmaszkokat.
+     */
+    private static void assertMatchesBoard(final BatchBoard batch) {
+        for (int g = 0; g < batch.getGameCount(); g++) {
+            Board board = batch.toBoard(g, 'X', 'O');
+            assertEquals(batch.getMoveCount(g), board.moveCount());
+            assertEquals(board.getMask(0), batch.getMask(g, 0));
+            assertEquals(board.getMask(1), batch.getMask(g, 1));
+            int expected = BatchBoard.RUNNING;
+            if (board.checkWin()) {
+                expected = batch.getMoveCount(g) % 2 == 1
+                        ? BatchBoard.FIRST_WON : BatchBoard.SECOND_WON;
+            } else if (board.isFull()) {
+                expected = BatchBoard.DRAW;
+            }
+            assertEquals(expected, batch.getResult(g), "game " + g);
+            assertEquals(batch.getMoveCount(g) % 2, batch.getSideToMove(g));
+        }
+    }
+
+    @Test
+    public void testRandomPlayoutsMatchBoard() {
+        BatchBoard batch = new BatchBoard(500, 6, 7);
+        batch.reset(42);
+        assertEquals(500, batch.stepRandom());
+        assertMatchesBoard(batch);
+        long moves = batch.playOutRandom();
+        assertTrue(moves > 0);
+        assertEquals(0, batch.getRunningCount());
+        assertEquals(500, batch.countResults(BatchBoard.FIRST_WON)
+                + batch.countResults(BatchBoard.SECOND_WON)
+                + batch.countResults(BatchBoard.DRAW));
+        assertMatchesBoard(batch);
+    }
+
+    @Test
+    public void testOtherSizesAndWinLengths() {
+        BatchBoard small = new BatchBoard(300, 4, 4, 3);
+        small.playOutRandom();
+        assertMatchesBoard(small);
+        BatchBoard tall = new BatchBoard(200, 7, 8, 5);
+        tall.playOutRandom();
+        assertMatchesBoard(tall);
+        assertTrue(tall.countResults(BatchBoard.DRAW) > 0);
+    }
+
+    @Test
+    public void testSameSeedReplaysSameGames() {
+        BatchBoard first = new BatchBoard(50, 6, 7);
+        BatchBoard second = new BatchBoard(50, 6, 7);
+        first.reset(7);
+        second.reset(7);
+        first.playOutRandom();
+        second.playOutRandom();
+        boolean different = false;
+        for (int g = 0; g < 50; g++) {
+            assertEquals(first.getMoveCount(g), second.getMoveCount(g));
+            for (int i = 0; i < first.getMoveCount(g); i++) {
+                assertEquals(first.getMove(g, i), second.getMove(g, i));
+            }
+            different |= first.getMask(g, 0) != first.getMask(0, 0);
+        }
+        assertTrue(different);
+    }
+
+    @Test
+    public void testManualMoves() {
+        BatchBoard batch = new BatchBoard(2, 6, 7);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(batch.play(0, 3));
+            assertTrue(batch.play(0, 4));
+        }
+        assertTrue(batch.play(0, 3));
+        assertEquals(BatchBoard.FIRST_WON, batch.getResult(0));
+        assertFalse(batch.play(0, 0));
+        assertFalse(batch.isColumnValid(0, 0));
+        assertEquals(1, batch.getRunningCount());
+
+        for (int i = 0; i < 6; i++) {
+            assertTrue(batch.play(1, 0));
+        }
+        assertFalse(batch.play(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> batch.play(1, 7));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> batch.getMove(1, 6));
+        // A kézzel befejezett játszmát a véletlen léptetés kihagyja
+        batch.playOutRandom();
+        assertEquals(7, batch.getMoveCount(0));
+        assertMatchesBoard(batch);
+    }
+
+    @Test
+    public void testRejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BatchBoard(0, 6, 7));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BatchBoard(10, 8, 8));
+    }
+}
@@ -0,0 +1,125 @@
+package com.connect4;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardRendererTest {
+
+    /** Kimenet, amely számolja az írások számát. */
+    private static final class CountingStream extends ByteArrayOutputStream {
+        private int writes;
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            writes++;
+            super.write(b, off, len);
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            writes++;
+            super.write(b);
+        }
+
+        String text() {
+            return toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    /** A korábbi, mezőnkénti kiírás eredménye. */
+    private static String legacyFrame(final Board board) {
+        StringBuilder sb = new StringBuilder("Tábla:");
+        sb.append(System.lineSeparator());
+        char[][] grid = board.getGrid();
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getColumns(); col++) {
+                sb.append(grid[row][col] == '\0' ? '.' : grid[row][col])
+                        .append(' ');
+            }
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testFullFrameMatchesLegacyOutputInOneWrite()
+            throws IOException {
+        Board board = new Board(6, 7);
+        board.placeToken(3, 'X');
+        board.placeToken(3, 'O');
+        board.placeToken(0, 'X');
+        CountingStream out = new CountingStream();
+        new BoardRenderer().render(board, out);
+        assertEquals(legacyFrame(board), out.text());
+        assertEquals(1, out.writes);
+    }
+
+    @Test
+    public void testDisplayBoardWritesOneFrame() {
+        Board board = new Board(4, 5);
+        board.placeToken(2, 'X');
+        PrintStream original = System.out;
+        CountingStream out = new CountingStream();
+        System.setOut(new PrintStream(out, false, StandardCharsets.UTF_8));
+        try {
+            board.displayBoard();
+            board.displayBoard();
+        } finally {
+            System.setOut(original);
+        }
+        assertEquals(legacyFrame(board) + legacyFrame(board), out.text());
+        assertEquals(2, out.writes);
+    }
+
+    @Test
+    public void testDiffModeEmitsOnlyChangedCells() throws IOException {
+        Board board = new Board(6, 7);
+        BoardRenderer renderer = new BoardRenderer();
+        CountingStream first = new CountingStream();
+        assertEquals(42, renderer.renderDiff(board, first));
+        assertEquals(legacyFrame(board), first.text());
+
+        board.placeToken(3, 'X');
+        CountingStream second = new CountingStream();
+        assertEquals(1, renderer.renderDiff(board, second));
+        assertEquals("5 3 X" + System.lineSeparator(), second.text());
+
+        CountingStream unchanged = new CountingStream();
+        assertEquals(0, renderer.renderDiff(board, unchanged));
+        assertEquals(0, unchanged.writes);
+
+        board.undo();
+        board.placeToken(4, 'O');
+        CountingStream third = new CountingStream();
+        assertEquals(2, renderer.renderDiff(board, third));
+        assertEquals("5 3 ." + System.lineSeparator() + "5 4 O"
+                + System.lineSeparator(), third.text());
+    }
+
+    @Test
+    public void testSizeChangeAndResetRenderFullFrame() throws IOException {
+        BoardRenderer renderer = new BoardRenderer();
+        renderer.renderDiff(new Board(6, 7), new CountingStream());
+        Board small = new Board(4, 4);
+        CountingStream out = new CountingStream();
+        assertEquals(16, renderer.renderDiff(small, out));
+        assertEquals(legacyFrame(small), out.text());
+
+        renderer.reset();
+        assertEquals(16, renderer.renderDiff(small, new CountingStream()));
+    }
+
+    @Test
+    public void testNonAsciiTokens() {
+        Board board = new Board(2, 2);
+        board.placeToken(0, 'é');
+        board.placeToken(1, '●');
+        assertEquals(legacyFrame(board), new BoardRenderer().toText(board));
+    }
+}
@@ -86,4 +86,342 @@ public class BoardTest {
         board.placeToken(0, 'X');
         assertTrue(board.checkWin());
     }
+
+    @Test
+    public void testCheckWinDiagonal() {
+        // Átlós győzelem (/) lépcsőzetes alátámasztással
+        board.placeToken(0, 'X');
+        board.placeToken(1, 'O');
+        board.placeToken(1, 'X');
+        board.placeToken(2, 'O');
+        board.placeToken(2, 'O');
+        board.placeToken(2, 'X');
+        board.placeToken(3, 'O');
+        board.placeToken(3, 'O');
+        board.placeToken(3, 'O');
+        assertFalse(board.checkWin());
+        board.placeToken(3, 'X');
+        assertTrue(board.checkWin());
+    }
+
+    @Test
+    public void testCheckWinAntiDiagonal() {
+        // Átlós győzelem (\) a jobb oldalon
+        board.placeToken(6, 'X');
+        board.placeToken(5, 'O');
+        board.placeToken(5, 'X');
+        board.placeToken(4, 'O');
+        board.placeToken(4, 'O');
+        board.placeToken(4, 'X');
+        board.placeToken(3, 'O');
+        board.placeToken(3, 'O');
+        board.placeToken(3, 'O');
+        assertFalse(board.checkWin());
+        board.placeToken(3, 'X');
+        assertTrue(board.checkWin());
+    }
+
+    @Test
+    public void testNoWinAcrossColumnBoundary() {
+        // Az oszlop teteje és a következő oszlop alja nem alkot sorozatot
+        for (int i = 0; i < 4; i++) {
+            board.placeToken(0, i % 2 == 0 ? 'O' : 'X');
+        }
+        board.placeToken(0, 'X');
+        board.placeToken(0, 'X');
+        board.placeToken(1, 'X');
+        board.placeToken(1, 'X');
+        assertFalse(board.checkWin());
+    }
+
+    @Test
+    public void testGridAdapterWriteIsVisible() {
+        // A kiadott mátrixba írt tokeneket a tábla átveszi
+        char[][] grid = board.getGrid();
+        for (int row = 2; row < 6; row++) {
+            grid[row][4] = 'O';
+        }
+        assertTrue(board.checkWin());
+        assertTrue(board.isColumnValid(4));
+        assertTrue(board.placeToken(4, 'X'));
+        assertEquals('X', board.getGrid()[1][4]);
+    }
+
+    @Test
+    public void testKeptGridReferenceStaysLive() {
+        // A megtartott mátrixba írt újabb tokeneket is átveszi
+        char[][] grid = board.getGrid();
+        grid[5][0] = 'X';
+        assertEquals(1, board.moveCount());
+        grid[4][0] = 'O';
+        assertEquals(2, board.moveCount());
+        grid[4][0] = '\0';
+        assertEquals(1, board.moveCount());
+    }
+
+    @Test
+    public void testSideToMoveAfterGridSync() {
+        // A mátrix oszloponként épül újra, a soron következő mégis X
+        char[][] grid = board.getGrid();
+        grid[5][0] = 'X';
+        grid[5][1] = 'O';
+        grid[5][2] = 'X';
+        grid[4][0] = 'O';
+        assertEquals(4, board.moveCount());
+        assertEquals('X', board.getTokenToMove());
+    }
+
+    @Test
+    public void testSlotLookupDoesNotBind() {
+        // A lekérdezés nem foglal bitmaszkot az ismeretlen tokennek
+        assertEquals(-1, board.slotOf('O'));
+        assertTrue(board.placeToken(0, 'X'));
+        assertEquals(0, board.slotOf('X'));
+        assertEquals(-1, board.slotOf('O'));
+        assertEquals(1, board.bindSlot('O'));
+    }
+
+    @Test
+    public void testLargeBoardWin() {
+        // A 64 bitbe nem férő táblák a soron kívüli ellenőrzést használják
+        Board large = new Board(12, 12);
+        for (int col = 5; col < 8; col++) {
+            large.placeToken(col, 'X');
+        }
+        assertFalse(large.checkWin());
+        large.placeToken(8, 'X');
+        assertTrue(large.checkWin());
+        assertTrue(large.isColumnValid(11));
+        assertFalse(large.isFull());
+    }
+
+    @Test
+    public void testThirdTokenRejected() {
+        board.placeToken(0, 'X');
+        board.placeToken(1, 'O');
+        assertThrows(IllegalArgumentException.class, () -> board.placeToken(2, 'Z'));
+    }
+
+    @Test
+    public void testZobristKeyIndependentOfMoveOrder() {
+        Board other = new Board(6, 7);
+        board.placeToken(0, 'X');
+        board.placeToken(1, 'O');
+        board.placeToken(2, 'X');
+        other.placeToken(2, 'X');
+        other.placeToken(1, 'O');
+        other.placeToken(0, 'X');
+        assertEquals(board.getZobristKey(), other.getZobristKey());
+        assertEquals(board, other);
+        assertEquals(board.hashCode(), other.hashCode());
+    }
+
+    @Test
+    public void testZobristKeyRestoredByUndo() {
+        long empty = board.getZobristKey();
+        board.placeToken(3, 'X');
+        long afterX = board.getZobristKey();
+        assertNotEquals(empty, afterX);
+        board.play(3, board.bindSlot('O'));
+        board.undo();
+        assertEquals(afterX, board.getZobristKey());
+        board.undo();
+        assertEquals(empty, board.getZobristKey());
+    }
+
+    @Test
+    public void testZobristKeyFollowsGridAdapter() {
+        board.placeToken(4, 'O');
+        Board other = new Board(6, 7);
+        other.getGrid()[5][4] = 'O';
+        assertEquals(board.getZobristKey(), other.getZobristKey());
+    }
+
+    @Test
+    public void testPlayAlternatesFromPresetTokens() {
+        Board game = new Board(6, 7, 'X', 'O');
+        assertEquals('X', game.getTokenToMove());
+        assertTrue(game.play(3));
+        assertTrue(game.play(3));
+        assertTrue(game.play(4));
+        assertEquals(3, game.moveCount());
+        assertEquals('X', game.getGrid()[5][3]);
+        assertEquals('O', game.getGrid()[4][3]);
+        assertEquals('X', game.getGrid()[5][4]);
+        assertEquals(4, game.getMove(2));
+        assertEquals('O', game.getTokenToMove());
+    }
+
+    @Test
+    public void testUndoRestoresPosition() {
+        Board game = new Board(6, 7, 'X', 'O');
+        for (char col : "0101010".toCharArray()) {
+            game.play(col - '0');
+        }
+        assertTrue(game.checkWin());
+        game.undo();
+        assertFalse(game.checkWin());
+        assertEquals(6, game.moveCount());
+        assertEquals('X', game.getTokenToMove());
+        assertEquals('\0', game.getGrid()[2][0]);
+        while (game.moveCount() > 0) {
+            game.undo();
+        }
+        assertEquals(new Board(6, 7), game);
+        assertThrows(IllegalStateException.class, game::undo);
+    }
+
+    @Test
+    public void testPlayFollowsPlaceToken() {
+        board.placeToken(2, 'O');
+        board.placeToken(2, 'X');
+        assertEquals('O', board.getTokenToMove());
+        assertTrue(board.play(2));
+        assertEquals('O', board.getGrid()[3][2]);
+        assertEquals(3, board.moveCount());
+    }
+
+    @Test
+    public void testPlayRejectsUnknownTokenAndFullColumn() {
+        assertThrows(IllegalStateException.class, () -> board.play(0));
+        Board small = new Board(1, 2, 'X', 'O');
+        assertTrue(small.play(0));
+        assertFalse(small.play(0));
+        assertThrows(IllegalArgumentException.class, () -> small.play(2));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Board(6, 7, 'X', 'X'));
+    }
+
+    @Test
+    public void testPlayUndoOnLargeBoard() {
+        Board large = new Board(10, 10, 'X', 'O');
+        long empty = large.getZobristKey();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(large.play(i % 10));
+        }
+        assertTrue(large.isFull());
+        for (int i = 0; i < 100; i++) {
+            large.undo();
+        }
+        assertEquals(empty, large.getZobristKey());
+        assertEquals(0, large.moveCount());
+    }
+
+    @Test
+    public void testConfigurableWinLength() {
+        Board five = new Board(6, 7, 5);
+        assertEquals(5, five.getWinLength());
+        for (int col = 0; col < 4; col++) {
+            five.placeToken(col, 'X');
+        }
+        assertFalse(five.checkWin()); // Négy egy sorban még nem elég
+        five.placeToken(4, 'X');
+        assertTrue(five.checkWin());
+        assertNotEquals(new Board(6, 7, 5), new Board(6, 7));
+        assertThrows(IllegalArgumentException.class, () -> new Board(6, 7, 0));
+    }
+
+    @Test
+    public void testConnectSixDiagonalOnLargeBoard() {
+        Board six = new Board(50, 50, 6, 'X', 'O');
+        for (int i = 0; i < 6; i++) {
+            for (int below = 0; below < i; below++) {
+                six.placeToken(20 + i, 'O');
+            }
+            six.placeToken(20 + i, 'X');
+            assertEquals(i == 5, six.checkWin());
+        }
+        six.undo();
+        assertFalse(six.checkWin());
+    }
+
+    @Test
+    public void testWinLengthMatchesFullScan() {
+        java.util.Random random = new java.util.Random(11);
+        int[][] shapes = {{6, 7, 3}, {6, 7, 5}, {7, 8, 6}, {12, 12, 5}, {20, 20, 6}};
+        for (int[] shape : shapes) {
+            for (int game = 0; game < 50; game++) {
+                Board b = new Board(shape[0], shape[1], shape[2], 'X', 'O');
+                while (!b.isFull()) {
+                    int col = random.nextInt(shape[1]);
+                    if (!b.play(col)) {
+                        continue;
+                    }
+                    assertEquals(hasRun(b.getGrid(), shape[2]), b.checkWin());
+                    if (b.checkWin()) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSharedRunDetection() {
+        // 6x7-es tábla: stride 7, a bit = oszlop * 7 + magasság
+        long horizontal = 1L | 1L << 7 | 1L << 14 | 1L << 21;
+        assertTrue(Board.hasRun(horizontal, 7, 4));
+        assertFalse(Board.hasRun(horizontal, 7, 5));
+        assertFalse(Board.hasRun(horizontal, 1, 4));
+        assertTrue(Board.hasAlignment(horizontal, 7, 4));
+        assertFalse(Board.hasAlignment(horizontal | 1L << 35, 7, 5));
+        assertTrue(Board.hasAlignment(horizontal | 1L << 28, 7, 5));
+        // Egy oszlop teteje és a következő alja nem sorozat az őrbit miatt
+        long wrapped = 1L << 4 | 1L << 5 | 1L << 7 | 1L << 8;
+        assertFalse(Board.hasAlignment(wrapped, 7, 4));
+        long diagonal = 1L | 1L << 8 | 1L << 16 | 1L << 24 | 1L << 32;
+        assertTrue(Board.hasAlignment(diagonal, 7, 5));
+        assertFalse(Board.hasAlignment(diagonal, 7, 6));
+    }
+
+    @Test
+    public void testMirroredKeysFollowMovesAndUndo() {
+        java.util.Random random = new java.util.Random(3);
+        for (int[] shape : new int[][] {{6, 7}, {12, 12}}) {
+            Board b = new Board(shape[0], shape[1], 'X', 'O');
+            Board mirror = new Board(shape[0], shape[1], 'X', 'O');
+            for (int ply = 0; ply < 30; ply++) {
+                int col = random.nextInt(shape[1]);
+                if (!b.play(col)) {
+                    continue;
+                }
+                mirror.play(b.mirrorColumn(col));
+                assertEquals(mirror.getZobristKey(), b.getMirroredZobristKey());
+                assertEquals(b.getCanonicalZobristKey(),
+                        mirror.getCanonicalZobristKey());
+                if (ply % 3 == 0) {
+                    b.undo();
+                    mirror.undo();
+                }
+            }
+            assertEquals(mirror.getZobristKey(), b.copy().getMirroredZobristKey());
+        }
+    }
+
+    private static boolean hasRun(char[][] grid, int length) {
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        for (int row = 0; row < grid.length; row++) {
+            for (int col = 0; col < grid[0].length; col++) {
+                char token = grid[row][col];
+                if (token == '\0') {
+                    continue;
+                }
+                for (int[] d : directions) {
+                    int count = 1;
+                    int r = row + d[0];
+                    int c = col + d[1];
+                    while (r >= 0 && r < grid.length && c >= 0 && c < grid[0].length
+                            && grid[r][c] == token) {
+                        count++;
+                        r += d[0];
+                        c += d[1];
+                    }
+                    if (count >= length) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
 }
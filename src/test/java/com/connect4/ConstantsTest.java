@@ -18,6 +18,11 @@ public class ConstantsTest {
         assertEquals(7, Constants.DEFAULT_COLUMNS, "Az alapértelmezett oszlopok számának 7-nek kell lennie.");
     }
 
+    @Test
+    public void testDefaultWinLength() {
+        assertEquals(4, Constants.DEFAULT_WIN_LENGTH, "Az alapértelmezett nyerő sorozatnak 4 hosszúnak kell lennie.");
+    }
+
     @Test
     public void testPrivateConstructor() {
         // Kísérlet a privát konstruktor meghívására
@@ -0,0 +1,170 @@
+package com.connect4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRecordRoundTrip() {
+        GameRecord game = new GameRecord(6, 7, 'X', 'O',
+                new int[] {3, 3, 4, 2, 5});
+        ByteBuffer buffer = ByteBuffer.allocate(game.encodedSize());
+        game.writeTo(buffer);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        assertEquals(game, GameRecord.readFrom(buffer));
+        assertEquals(GameRecord.HEADER_BYTES + 3, game.encodedSize());
+    }
+
+    @Test
+    public void testWideBoardUsesBytePerMove() {
+        GameRecord game = new GameRecord(20, 20, 'A', 'B',
+                new int[] {19, 0, 17});
+        ByteBuffer buffer = ByteBuffer.allocate(game.encodedSize());
+        game.writeTo(buffer);
+        buffer.flip();
+        assertEquals(GameRecord.HEADER_BYTES + 3, game.encodedSize());
+        assertEquals(game, GameRecord.readFrom(buffer));
+    }
+
+    @Test
+    public void testRecordReplaysToBoard() {
+        GameRecord game = new GameRecord(6, 7, 'X', 'O',
+                new int[] {0, 1, 0, 1, 0, 1, 0});
+        Board board = game.toBoard();
+        assertTrue(board.checkWin());
+        assertEquals('X', board.getGrid()[2][0]);
+    }
+
+    @Test
+    public void testCanonicalRecordMergesMirroredGames() {
+        GameRecord game = new GameRecord(6, 7, 'X', 'O',
+                new int[] {3, 5, 2, 0});
+        GameRecord mirror = game.mirror();
+        assertArrayEquals(new int[] {3, 1, 4, 6}, mirror.getMoves());
+        assertEquals(game.canonical(), mirror.canonical());
+        assertEquals(mirror, game.canonical());
+        assertEquals(PositionCodec.encodeCanonical(game.toBoard(), 'X'),
+                PositionCodec.encodeCanonical(mirror.toBoard(), 'X'));
+    }
+
+    @Test
+    public void testRecordRejectsInvalidMoves() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new GameRecord(6, 7, 'X', 'O', new int[] {7}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new GameRecord(6, 7, 'X', 'X', new int[0]));
+        GameRecord overfull = new GameRecord(1, 2, 'X', 'O', new int[] {0, 0});
+        assertThrows(IllegalArgumentException.class, overfull::toBoard);
+    }
+
+    @Test
+    public void testAppendAndReadBack() throws IOException {
+        Path path = dir.resolve("games.c4a");
+        try (GameArchive archive = GameArchive.open(path)) {
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, archive.append(gameOf(i)));
+            }
+            assertEquals(100, archive.size());
+            assertEquals(gameOf(42), archive.read(42));
+            assertThrows(IndexOutOfBoundsException.class,
+                    () -> archive.read(100));
+        }
+        try (GameArchive archive = GameArchive.open(path)) {
+            assertEquals(100, archive.size());
+            assertEquals(gameOf(99), archive.read(99));
+            archive.append(gameOf(100));
+            assertEquals(gameOf(100), archive.read(100));
+        }
+    }
+
+    @Test
+    public void testRebuildsMissingIndex() throws IOException {
+        Path path = dir.resolve("games.c4a");
+        try (GameArchive archive = GameArchive.open(path)) {
+            for (int i = 0; i < 10; i++) {
+                archive.append(gameOf(i));
+            }
+        }
+        Files.delete(dir.resolve("games.c4a.idx"));
+        try (GameArchive archive = GameArchive.open(path)) {
+            assertEquals(10, archive.size());
+            assertEquals(gameOf(7), archive.read(7));
+        }
+    }
+
+    @Test
+    public void testDropsTruncatedTail() throws IOException {
+        Path path = dir.resolve("games.c4a");
+        try (GameArchive archive = GameArchive.open(path)) {
+            for (int i = 0; i < 5; i++) {
+                archive.append(gameOf(i));
+            }
+        }
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+        try (GameArchive archive = GameArchive.open(path)) {
+            assertEquals(4, archive.size());
+            assertEquals(gameOf(3), archive.read(3));
+            assertEquals(4, archive.append(gameOf(4)));
+            assertEquals(gameOf(4), archive.read(4));
+        }
+    }
+
+    @Test
+    public void testCorruptRecordLengthIsIoError() throws IOException {
+        Path path = dir.resolve("games.c4a");
+        try (GameArchive archive = GameArchive.open(path)) {
+            for (int i = 0; i < 3; i++) {
+                archive.append(gameOf(i));
+            }
+        }
+        // A második rekord hossz-előtagja közvetlenül az első után áll
+        long second = GameArchive.HEADER_BYTES + Integer.BYTES
+                + gameOf(0).encodedSize();
+        for (int length : new int[] {-5, Integer.MAX_VALUE}) {
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.WRITE)) {
+                ByteBuffer prefix = ByteBuffer.allocate(Integer.BYTES);
+                prefix.putInt(length).flip();
+                channel.write(prefix, second);
+            }
+            try (GameArchive archive = GameArchive.open(path)) {
+                IOException e = assertThrows(IOException.class,
+                        () -> archive.read(1));
+                assertTrue(e.getMessage().contains("hossz"));
+                assertEquals(gameOf(0), archive.read(0));
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsForeignFile() throws IOException {
+        Path path = dir.resolve("other.txt");
+        Files.writeString(path, "X.O.....\n");
+        assertThrows(IOException.class, () -> GameArchive.open(path));
+    }
+
+    private static GameRecord gameOf(int seed) {
+        int[] moves = new int[seed % 20 + 1];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = (seed + i * i) % 7;
+        }
+        return new GameRecord(6, 7, 'X', 'O', moves);
+    }
+}
@@ -0,0 +1,147 @@
+package com.connect4;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameImporterTest {
+
+    /** Egy függőleges X győzelem. */
+    private static final String X_WINS = "1212121";
+
+    /** Egy teli 4x4-es tábla győzelem nélkül. */
+    private static final String DRAW_4X4 = "1234123434214321";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testParseAndFormatRoundTrip() {
+        GameRecord game = GameRecord.parseMoves("4453", 6, 7);
+        assertArrayEquals(new int[] {3, 3, 4, 2}, game.getMoves());
+        assertEquals('X', game.getFirstToken());
+        assertEquals("4453", game.toMoveString());
+        assertThrows(IllegalArgumentException.class,
+                () -> GameRecord.parseMoves("48", 6, 7));
+        assertThrows(IllegalArgumentException.class,
+                () -> GameRecord.parseMoves("4a", 6, 7));
+    }
+
+    @Test
+    public void testPipelineCountsOutcomes() throws Exception {
+        StringBuilder input = new StringBuilder();
+        int copies = 200;
+        for (int i = 0; i < copies; i++) {
+            input.append(X_WINS).append('\n');
+            input.append("12323212 megjegyzés\n");
+            input.append('\n');
+            input.append("11111").append('\n'); // teli oszlop 4 sornál
+            input.append("12121211\n"); // lépés a győzelem után
+            input.append("123\n"); // befejezetlen
+        }
+        GameImporter importer = new GameImporter(4, 4, 3, 2);
+        List<ReplayResult> results = new ArrayList<>();
+        ImportSummary summary = importer.importGames(
+                new BufferedReader(new StringReader(input.toString())),
+                results::add);
+
+        assertEquals(copies * 5L, summary.getGames());
+        assertEquals(results.size(), summary.getGames());
+        assertEquals(copies * 2L, summary.getInvalid());
+        assertEquals(copies, summary.getFirstWins());
+        assertEquals(copies, summary.getSecondWins());
+        assertEquals(0, summary.getDraws());
+        assertTrue(summary.getGamesPerSecond() > 0);
+
+        boolean[] seen = new boolean[results.size()];
+        for (ReplayResult result : results) {
+            assertFalse(seen[(int) result.getIndex()]);
+            seen[(int) result.getIndex()] = true;
+        }
+    }
+
+    @Test
+    public void testDrawAndErrors() throws Exception {
+        GameImporter importer = new GameImporter(4, 4, 1,
+                GameImporter.DEFAULT_QUEUE_CAPACITY);
+        List<ReplayResult> results = new ArrayList<>();
+        ImportSummary summary = importer.importGames(new BufferedReader(
+                new StringReader(DRAW_4X4 + "\n11111\n19\n")), results::add);
+
+        assertEquals(1, summary.getDraws());
+        assertEquals(2, summary.getInvalid());
+        assertTrue(results.get(0).isDraw());
+        assertEquals(16, results.get(0).getEndPly());
+        assertEquals(4, results.get(1).getEndPly());
+        assertNotNull(results.get(1).getGame());
+        assertNull(results.get(2).getGame());
+    }
+
+    @Test
+    public void testFailuresDoNotHang() {
+        // A munkaszál nem tud táblát foglalni: a hiba a hívóhoz jut
+        GameImporter huge = new GameImporter(Integer.MAX_VALUE, 7, 2, 4);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+                assertThrows(OutOfMemoryError.class, () -> huge.importGames(
+                        new BufferedReader(new StringReader("1\n2\n")),
+                        result -> { })));
+
+        // Az olvasó váratlan kivétele is leállítja a csővezetéket
+        BufferedReader broken = new BufferedReader(new StringReader("")) {
+            private int calls;
+
+            @Override
+            public String readLine() {
+                if (calls++ < 3) {
+                    return X_WINS;
+                }
+                throw new IllegalStateException("hibás bemenet");
+            }
+        };
+        List<ReplayResult> results = new ArrayList<>();
+        GameImporter importer = new GameImporter(6, 7, 2, 1);
+        IllegalStateException e = assertTimeoutPreemptively(
+                Duration.ofSeconds(10), () -> assertThrows(
+                        IllegalStateException.class,
+                        () -> importer.importGames(broken, results::add)));
+        assertEquals("hibás bemenet", e.getMessage());
+        assertEquals(3, results.size());
+    }
+
+    @Test
+    public void testExportImportRoundTrip() throws IOException,
+            InterruptedException {
+        Path archivePath = dir.resolve("games.c4a");
+        try (GameArchive archive = GameArchive.open(archivePath)) {
+            archive.append(GameRecord.parseMoves(X_WINS, 6, 7));
+            archive.append(GameRecord.parseMoves("4453", 6, 7));
+        }
+        StringWriter text = new StringWriter();
+        try (GameArchive archive = GameArchive.open(archivePath)) {
+            assertEquals(2, GameImporter.exportArchive(archive, text));
+        }
+        assertEquals(X_WINS + System.lineSeparator() + "4453"
+                + System.lineSeparator(), text.toString());
+
+        Path textPath = dir.resolve("games.txt");
+        Files.writeString(textPath, text.toString());
+        List<String> moves = new ArrayList<>();
+        ImportSummary summary = new GameImporter(6, 7, 2, 1).importFile(
+                textPath, result -> moves.add(result.getGame()
+                        .toMoveString()));
+        assertEquals(2, summary.getGames());
+        assertEquals(0, summary.getInvalid());
+        assertTrue(moves.contains("4453"));
+    }
+}
@@ -0,0 +1,136 @@
+package com.connect4;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServerTest {
+    private GameServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new GameServer(0, 5_000);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void testHotSeatGameUntilWin() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            assertEquals("OK", client.send("NEW"));
+            for (int i = 0; i < 3; i++) {
+                assertEquals("OK NEXT", client.send("MOVE 0"));
+                assertEquals("OK NEXT", client.send("MOVE 1"));
+            }
+            assertEquals("OK WIN X", client.send("MOVE 0"));
+            assertTrue(client.send("MOVE 2").startsWith("ERR"));
+            assertEquals("OK ......./......./X....../XO...../XO...../XO.....",
+                    client.send("BOARD"));
+            assertEquals("BYE", client.send("QUIT"));
+        }
+    }
+
+    @Test
+    public void testServerAIAnswersMoves() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            assertEquals("OK", client.send("NEW 6 7 4"));
+            // Az AI blokkolja a függőleges hármast
+            assertTrue(client.send("MOVE 0").startsWith("OK AI "));
+            String response = client.send("MOVE 6");
+            assertTrue(response.matches("OK AI [0-6] NEXT"), response);
+        }
+    }
+
+    @Test
+    public void testServerAIDepthIsBounded() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            // A túl nagy mélységet a szerver a saját korlátjára veszi
+            assertEquals("OK", client.send("NEW 6 7 1000000"));
+            long start = System.nanoTime();
+            assertTrue(client.send("MOVE 3").startsWith("OK AI "));
+            assertTrue(System.nanoTime() - start
+                    < 10 * GameSession.AI_MOVE_MILLIS * 1_000_000L);
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidCommands() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            assertTrue(client.send("MOVE 9").startsWith("ERR"));
+            assertTrue(client.send("MOVE x").startsWith("ERR"));
+            assertTrue(client.send("JUMP").startsWith("ERR"));
+            assertTrue(client.send("NEW 0 7").startsWith("ERR"));
+            assertTrue(client.send("NEW 6").startsWith("ERR"));
+            assertTrue(client.send("NEW 6 7 4 2").startsWith("ERR"));
+            assertEquals("OK NEXT", client.send("MOVE 3"));
+        }
+    }
+
+    @Test
+    public void testEvictsIdleSessions() throws Exception {
+        try (GameServer quick = new GameServer(0, 200)) {
+            quick.start();
+            try (Client client = new Client(quick.getPort())) {
+                assertEquals("OK", client.send("NEW"));
+                assertEquals(null, client.in.readLine()); // A szerver bontott
+            }
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (quick.getActiveSessions() > 0
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, quick.getActiveSessions());
+            assertEquals(1, quick.getEvictedSessions());
+        }
+    }
+
+    @Test
+    public void testLoadClientPlaysConcurrentGames() throws Exception {
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        LatencyHistogram latency = LoadTestClient.run(server.getPort(), 200, 2,
+                new PrintStream(report, true, "UTF-8"));
+        assertTrue(latency.getCount() >= 200 * 4);
+        assertTrue(report.toString("UTF-8").contains("sikertelen: 0"));
+        assertTrue(report.toString("UTF-8").contains("p99"));
+        assertEquals(200, server.getAcceptedSessions());
+    }
+
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        Client(int port) throws IOException {
+            socket = new Socket("localhost", port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            out = new PrintWriter(socket.getOutputStream(), true,
+                    StandardCharsets.UTF_8);
+        }
+
+        String send(String command) throws IOException {
+            out.println(command);
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
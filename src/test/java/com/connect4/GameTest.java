@@ -65,6 +65,21 @@ public class GameTest {
         }
     }
 
+    @Test
+    public void testLoadGameFromShortFile() throws IOException {
+        File file = File.createTempFile("rovid", ".txt");
+        file.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("XO");
+            writer.println("X");
+        }
+
+        assertDoesNotThrow(() -> game.loadGameFromFile(file.getPath()));
+        assertEquals(0, game.getBoard().moveCount(),
+                "A hiányos mentés nem módosíthatja a táblát.");
+        file.delete();
+    }
+
     @Test
     public void testSaveGameToFile() {
         String filename = testDirectory + "saveGame.txt";
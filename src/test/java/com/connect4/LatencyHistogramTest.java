@@ -0,0 +1,53 @@
+package com.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentilesOfUniformValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000.5, histogram.getMean(), 0.001);
+        // A vödrök felbontása miatt legfeljebb kb. 3% eltérés megengedett
+        assertEquals(50_000, histogram.getValueAtPercentile(50), 1_600);
+        assertEquals(99_000, histogram.getValueAtPercentile(99), 3_200);
+        assertEquals(100_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(-5); // Negatív érték nullának számít
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(3, histogram.getValueAtPercentile(50));
+        assertEquals(7, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testAddAndReset() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(1_000_000_000L);
+        first.add(second);
+        assertEquals(2, first.getCount());
+        assertEquals(1_000_000_000L, first.getMax());
+        assertEquals(10, first.getMin());
+
+        first.reset();
+        assertEquals(0, first.getCount());
+        assertEquals(0, first.getValueAtPercentile(99));
+        first.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, first.getValueAtPercentile(50));
+    }
+}
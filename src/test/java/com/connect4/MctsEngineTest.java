@@ -0,0 +1,106 @@
+package com.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MctsEngineTest {
+
+    @Test
+    public void testTakesImmediateWin() {
+        try (MctsEngine engine = new MctsEngine(1000, 0, 1, 4096)) {
+            SearchResult result = engine.search(TestBoards.fromMoves("171717"), 'X');
+            assertEquals(0, result.getBestMove());
+            assertEquals(SearchEngine.WIN_SCORE - 1, result.getScore());
+        }
+    }
+
+    @Test
+    public void testBlocksImmediateLoss() {
+        try (MctsEngine engine = new MctsEngine(5000, 0, 1, 1 << 16)) {
+            assertEquals(0, engine.search(TestBoards.fromMoves("17171"), 'O')
+                    .getBestMove());
+        }
+    }
+
+    @Test
+    public void testPlayoutBudgetAndBoardRestored() {
+        Board board = TestBoards.fromMoves("4433");
+        try (MctsEngine engine = new MctsEngine(2000, 0, 1, 1 << 16)) {
+            engine.setSeed(7);
+            SearchResult first = engine.search(board, 'X');
+            assertEquals(2000, first.getNodes());
+            assertTrue(first.getDepth() > 1);
+            assertTrue(engine.getPeakNodes() > 1);
+            assertEquals((long) engine.getPeakNodes()
+                    * MctsEngine.BYTES_PER_NODE, engine.getPeakTreeBytes());
+            // Egy szálon, azonos maggal a keresés ismételhető
+            SearchResult second = engine.search(board, 'X');
+            assertEquals(first.getBestMove(), second.getBestMove());
+            assertEquals(first.getScore(), second.getScore());
+        }
+        assertEquals(TestBoards.fromMoves("4433"), board);
+    }
+
+    @Test
+    public void testParallelPlayoutsWithFullArena() {
+        try (MctsEngine engine = new MctsEngine(20_000, 0, 4, 512)) {
+            Board board = TestBoards.fromMoves("44");
+            SearchResult result = engine.search(board, 'X');
+            assertTrue(board.isColumnValid(result.getBestMove()));
+            assertEquals(20_000, result.getNodes());
+            assertTrue(engine.getPeakNodes() <= 512);
+            assertTrue(engine.getLastPlayoutsPerSecond() > 0);
+            assertEquals(TestBoards.fromMoves("44"), board);
+        }
+    }
+
+    @Test
+    public void testTimeLimitAndCancel() throws Exception {
+        try (MctsEngine engine = new MctsEngine(0, 100, 2, 1 << 16)) {
+            long start = System.nanoTime();
+            SearchResult result = engine.search(new Board(6, 7), 'X');
+            assertTrue(System.nanoTime() - start < 2_000_000_000L);
+            assertTrue(result.getNodes() > 0);
+        }
+        try (MctsEngine engine = new MctsEngine(Long.MAX_VALUE, 0, 1,
+                1 << 16)) {
+            Thread canceller = new Thread(() -> {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                engine.cancel();
+            });
+            canceller.start();
+            SearchResult result = engine.search(new Board(6, 7), 'X');
+            canceller.join();
+            assertTrue(result.getBestMove() >= 0);
+        }
+    }
+
+    @Test
+    public void testPlugsIntoAIPlayer() {
+        try (MctsEngine engine = new MctsEngine(3000, 0, 1, 1 << 16)) {
+            AIPlayer ai = new AIPlayer("MCTS", 'X', engine);
+            assertNull(ai.getTranspositionTable());
+            Board board = TestBoards.fromMoves("171717");
+            assertEquals(0, ai.makeMove(board));
+            AIPlayer second = new AIPlayer("MCTS", 'O', engine);
+            assertTrue(TestBoards.fromMoves("4").isColumnValid(
+                    second.makeMove(TestBoards.fromMoves("4"))));
+            assertEquals(3000, second.getLastSearchResult().getNodes());
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MctsEngine(0, 0, 1, 4096));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MctsEngine(100, 0, 0, 4096));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MctsEngine(100, 0, 1, 16));
+    }
+}
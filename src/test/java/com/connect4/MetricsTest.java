@@ -0,0 +1,95 @@
+package com.connect4;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testCountersAndHistograms() {
+        Metrics metrics = new Metrics();
+        Metrics.Counter moves = metrics.counter("moves");
+        assertSame(moves, metrics.counter("moves"));
+        moves.increment();
+        moves.add(2);
+        Metrics.Histogram nodes = metrics.histogram("nodes");
+        for (int i = 1; i <= 100; i++) {
+            nodes.record(i);
+        }
+
+        assertEquals(3, metrics.getCounters().get("moves"));
+        assertEquals(100, metrics.getHistogramCounts().get("nodes"));
+        assertEquals(100, nodes.snapshot().getMax());
+        assertTrue(metrics.getReport().contains("moves 3"));
+        assertTrue(metrics.getReport().contains("nodes n=100"));
+
+        metrics.reset();
+        assertEquals(0, moves.get());
+        assertEquals(0, nodes.snapshot().getCount());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertFalse(Metrics.ENABLED);
+        assertEquals(0L, Metrics.start());
+    }
+
+    @Test
+    public void testDumpToFile() throws Exception {
+        Metrics metrics = new Metrics();
+        metrics.counter("games").increment();
+        Path file = dir.resolve("metrics.txt");
+        metrics.dumpToFile(file.toString());
+        assertTrue(Files.readString(file).contains("games 1"));
+        assertFalse(Files.exists(dir.resolve("metrics.txt.tmp")));
+    }
+
+    @Test
+    public void testMBeanExposesRegistry() throws Exception {
+        Metrics.registerMBean();
+        Metrics.registerMBean();
+        Metrics.registry().counter("test.mbean").increment();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(Metrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        assertEquals(Boolean.FALSE, server.getAttribute(name, "Enabled"));
+        String report = (String) server.getAttribute(name, "Report");
+        assertTrue(report.contains("test.mbean"));
+        assertNotNull(server.getAttribute(name, "Counters"));
+    }
+
+    @Test
+    public void testConcurrentCounting() throws Exception {
+        Metrics metrics = new Metrics();
+        Metrics.Counter counter = metrics.counter("c");
+        Metrics.Histogram histogram = metrics.histogram("h");
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counter.increment();
+                    histogram.record(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Map<String, Long> counts = metrics.getHistogramCounts();
+        assertEquals(40_000, counter.get());
+        assertEquals(40_000, counts.get("h"));
+    }
+}
@@ -0,0 +1,156 @@
+package com.connect4;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveSchedulerTest {
+
+    @Test
+    public void testBudgetStopsDeepSearchWithValidMove() {
+        Board board = new Board(6, 7);
+        board.placeToken(3, 'X');
+        // Időkorlát nélkül ez a keresés percekig tartana
+        AIPlayer ai = new AIPlayer("AI", 'O', 40);
+        try (MoveScheduler scheduler = new MoveScheduler()) {
+            long start = System.nanoTime();
+            int column = scheduler.requestMove(new EngineMoveSource(ai),
+                    board, 'O', 100);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+            assertTrue(board.isColumnValid(column));
+            assertTrue(elapsedMillis < 2000, "elapsed " + elapsedMillis);
+            assertEquals(1, scheduler.getOverruns());
+            assertEquals(1, scheduler.getLatency().getCount());
+        }
+        // A visszavonás nem ragad be: a következő keresés újra teljes
+        AIPlayer shallow = new AIPlayer("AI", 'O', 2);
+        shallow.cancelSearch();
+        assertTrue(board.isColumnValid(shallow.makeMove(board)));
+    }
+
+    @Test
+    public void testBudgetExpiringBeforeSearchStillStopsIt() {
+        // A keret a keresés indulása előtt lejár, a kereső pedig
+        // induláskor törli a leállítási jelzést
+        SearchEngine engine = new SearchEngine(40, 0L);
+        MoveSource lateStart = new MoveSource() {
+            @Override
+            public int nextMove(Board board, char token) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return engine.search(board, token).getBestMove();
+            }
+
+            @Override
+            public void cancel() {
+                engine.cancel();
+            }
+        };
+        Board board = new Board(6, 7);
+        try (MoveScheduler scheduler = new MoveScheduler()) {
+            int column = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> scheduler.requestMove(lateStart, board, 'X', 20));
+            assertTrue(board.isColumnValid(column));
+            assertEquals(1, scheduler.getOverruns());
+        }
+    }
+
+    @Test
+    public void testMoveChosenRunsAfterTheBudget() {
+        List<String> events = new ArrayList<>();
+        MoveSource source = new MoveSource() {
+            @Override
+            public int nextMove(Board board, char token) {
+                events.add("move");
+                return 4;
+            }
+
+            @Override
+            public void cancel() {
+                events.add("cancel");
+            }
+
+            @Override
+            public void moveChosen(Board board, int column) {
+                events.add("chosen " + column);
+            }
+        };
+        try (MoveScheduler scheduler = new MoveScheduler()) {
+            assertEquals(4, scheduler.requestMove(source, new Board(6, 7),
+                    'X', 1000));
+        }
+        assertEquals(List.of("move", "chosen 4"), events);
+    }
+
+    @Test
+    public void testFastSourceIsNotAnOverrun() {
+        try (MoveScheduler scheduler = new MoveScheduler()) {
+            int column = scheduler.requestMove((board, token) -> 2,
+                    new Board(6, 7), 'X', 1000);
+            assertEquals(2, column);
+            assertEquals(0, scheduler.getOverruns());
+        }
+    }
+
+    @Test
+    public void testPlayMatchReproducesRecord() {
+        int[] moves = {3, 3, 4, 4, 5, 5, 6};
+        GameRecord record = new GameRecord(6, 7, 'X', 'O', moves);
+        try (MoveScheduler scheduler = new MoveScheduler()) {
+            Board board = new Board(6, 7);
+            GameRecord played = scheduler.playMatch(board,
+                    new ReplayMoveSource(record), new ReplayMoveSource(record),
+                    'X', 'O', 50);
+            assertArrayEquals(moves, played.getMoves());
+            assertTrue(board.checkWin());
+        }
+    }
+
+    @Test
+    public void testPlayMatchRejectsInvalidColumn() {
+        try (MoveScheduler scheduler = new MoveScheduler()) {
+            MoveSource broken = (board, token) -> 9;
+            assertThrows(IllegalStateException.class,
+                    () -> scheduler.playMatch(new Board(6, 7), broken,
+                            broken, 'X', 'O', 0));
+        }
+    }
+
+    @Test
+    public void testRemoteSourceReadsMovesAndSendsOpponentMoves() {
+        StringWriter sent = new StringWriter();
+        RemoteMoveSource remote = new RemoteMoveSource(
+                new BufferedReader(new StringReader("4\nabc\n")), sent);
+        Board board = new Board(6, 7);
+        assertEquals(4, remote.nextMove(board, 'O'));
+        assertEquals(-1, remote.nextMove(board, 'O'));
+        assertEquals(-1, remote.nextMove(board, 'O'));
+        remote.opponentMoved(board, 2);
+        assertEquals("MOVE 2\n", sent.toString());
+    }
+
+    @Test
+    public void testGameUsesConfiguredSources() {
+        int[] moves = {0, 1, 0, 1, 0, 1, 0};
+        GameRecord record = new GameRecord(6, 7, 'X', 'O', moves);
+        Game game = new Game(6, 7, "A", "B", true);
+        game.setMoveSources(new ReplayMoveSource(record),
+                new ReplayMoveSource(record));
+        game.setMoveTimeBudget(100);
+        game.start();
+        assertTrue(game.getBoard().checkWin());
+        assertEquals(moves.length, game.getBoard().moveCount());
+        assertThrows(IllegalArgumentException.class,
+                () -> game.setMoveTimeBudget(-1));
+    }
+}
@@ -0,0 +1,131 @@
+package com.connect4;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpeningBookTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testEnumerateCountsDistinctPositions() {
+        // 1 kezdőállás, 7 első lépés, 7 * 7 különböző második lépés; a
+        // tükörképek közül csak a kanonikus alak szerepel
+        assertEquals(1, OpeningBookGenerator.enumerate(6, 7, 4, 2).get(0).size());
+        assertEquals(4, OpeningBookGenerator.enumerate(6, 7, 4, 2).get(1).size());
+        assertEquals(25, OpeningBookGenerator.enumerate(6, 7, 4, 2).get(2).size());
+        // Azonos állás különböző lépéssorrendből csak egyszer szerepel:
+        // 238 állás, ebből 4 önmaga tükörképe
+        assertEquals(121, OpeningBookGenerator.enumerate(6, 7, 4, 3).get(3).size());
+    }
+
+    @Test
+    public void testLookupMatchesSearch() throws IOException {
+        Path path = dir.resolve("book.bin");
+        ByteArrayOutputStream progress = new ByteArrayOutputStream();
+        int count = OpeningBookGenerator.generate(path, 6, 7, 2, 6,
+                new PrintStream(progress, true, "UTF-8"));
+        assertEquals(30, count);
+        assertTrue(progress.toString("UTF-8").contains("30/30"));
+
+        OpeningBook book = OpeningBook.open(path);
+        assertEquals(30, book.size());
+        assertEquals(6, book.getDepth());
+        Board board = new Board(6, 7);
+        board.placeToken(2, 'X');
+        SearchResult booked = book.lookup(board, 'O');
+        assertNotNull(booked);
+        SearchResult searched = new SearchEngine(6, 0).search(board.copy(), 'O');
+        assertEquals(searched.getBestMove(), booked.getBestMove());
+        assertEquals(searched.getScore(), booked.getScore());
+    }
+
+    @Test
+    public void testLookupMapsMirroredMoves() throws IOException {
+        Path path = dir.resolve("book.bin");
+        OpeningBookGenerator.generate(path, 6, 7, 2, 6,
+                new PrintStream(new ByteArrayOutputStream()));
+        OpeningBook book = OpeningBook.open(path);
+        for (int col = 0; col < 7; col++) {
+            Board board = new Board(6, 7);
+            board.placeToken(col, 'X');
+            Board mirror = new Board(6, 7);
+            mirror.placeToken(6 - col, 'X');
+            SearchResult booked = book.lookup(board, 'O');
+            SearchResult mirrored = book.lookup(mirror, 'O');
+            assertEquals(6 - booked.getBestMove(), mirrored.getBestMove());
+            assertEquals(booked.getScore(), mirrored.getScore());
+            assertEquals(new SearchEngine(6, 0).search(board, 'O').getScore(),
+                    booked.getScore());
+        }
+    }
+
+    @Test
+    public void testLookupMisses() throws IOException {
+        Path path = dir.resolve("book.bin");
+        OpeningBookGenerator.generate(path, 6, 7, 1, 4,
+                new PrintStream(new ByteArrayOutputStream()));
+        OpeningBook book = OpeningBook.open(path);
+        Board deep = new Board(6, 7);
+        deep.placeToken(3, 'X');
+        deep.placeToken(3, 'O');
+        assertNull(book.lookup(deep, 'X'));
+        assertNull(book.lookup(new Board(5, 6), 'X'));
+    }
+
+    @Test
+    public void testBookRecordsWinLength() throws IOException {
+        Path path = dir.resolve("five.bin");
+        OpeningBookGenerator.generate(path, 6, 7, 5, 1, 4,
+                new PrintStream(new ByteArrayOutputStream()));
+        OpeningBook book = OpeningBook.open(path);
+        assertEquals(5, book.getWinLength());
+        Board five = new Board(6, 7, 5);
+        five.placeToken(3, 'X');
+        SearchResult booked = book.lookup(five, 'O');
+        assertNotNull(booked);
+        assertEquals(new SearchEngine(4, 0).search(five.copy(), 'O')
+                .getScore(), booked.getScore());
+        // A négyes tábla ugyanazon állása nem a könyvé
+        Board four = new Board(6, 7);
+        four.placeToken(3, 'X');
+        assertNull(book.lookup(four, 'O'));
+
+        Path standard = dir.resolve("four.bin");
+        OpeningBookGenerator.generate(standard, 6, 7, 1, 4,
+                new PrintStream(new ByteArrayOutputStream()));
+        OpeningBook fours = OpeningBook.open(standard);
+        assertEquals(4, fours.getWinLength());
+        assertNotNull(fours.lookup(four, 'O'));
+        assertNull(fours.lookup(five, 'O'));
+    }
+
+    @Test
+    public void testAIPlayerUsesBook() throws IOException {
+        Path path = dir.resolve("book.bin");
+        OpeningBookGenerator.generate(path, 6, 7, 0, 4,
+                new PrintStream(new ByteArrayOutputStream()));
+        AIPlayer player = new AIPlayer("AI", 'X', 8);
+        player.setOpeningBook(OpeningBook.open(path));
+        int move = player.makeMove(new Board(6, 7));
+        assertEquals(3, move);
+        assertEquals(0, player.getLastSearchResult().getNodes());
+        assertEquals(4, player.getLastSearchResult().getDepth());
+    }
+
+    @Test
+    public void testRejectsForeignFile() throws IOException {
+        Path path = dir.resolve("other.txt");
+        Files.writeString(path, "Ez nem egy nyitókönyv, csak szöveg.");
+        assertThrows(IOException.class, () -> OpeningBook.open(path));
+    }
+}
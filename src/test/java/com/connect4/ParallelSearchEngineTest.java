@@ -0,0 +1,71 @@
+package com.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSearchEngineTest {
+
+    @Test
+    public void testDeterministicAcrossThreadCounts() {
+        String[] positions = {"", "4", "4354", "443355", "34454336"};
+        for (String moves : positions) {
+            char token = moves.length() % 2 == 0 ? 'X' : 'O';
+            SearchResult reference = null;
+            for (int threads : new int[] {1, 2, 4}) {
+                try (ParallelSearchEngine engine = new ParallelSearchEngine(
+                        8, 0, new TranspositionTable(16), threads)) {
+                    SearchResult result = engine.search(TestBoards.fromMoves(moves), token);
+                    if (reference == null) {
+                        reference = result;
+                    }
+                    assertEquals(reference.getBestMove(), result.getBestMove(), moves);
+                    assertEquals(reference.getScore(), result.getScore(), moves);
+                    assertEquals(reference.getDepth(), result.getDepth(), moves);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesSequentialSearch() {
+        Board board = TestBoards.fromMoves("4433");
+        SearchResult sequential = new SearchEngine(7, 0).search(board, 'X');
+        try (ParallelSearchEngine engine = new ParallelSearchEngine(
+                7, 0, new TranspositionTable(16), 3)) {
+            SearchResult parallel = engine.search(board, 'X');
+            assertEquals(sequential.getBestMove(), parallel.getBestMove());
+            assertEquals(sequential.getScore(), parallel.getScore());
+        }
+        assertEquals(TestBoards.fromMoves("4433"), board);
+    }
+
+    @Test
+    public void testTakesImmediateWin() {
+        try (ParallelSearchEngine engine = new ParallelSearchEngine(
+                6, 0, new TranspositionTable(10), 2)) {
+            assertEquals(0, engine.search(TestBoards.fromMoves("171717"), 'X').getBestMove());
+        }
+    }
+
+    @Test
+    public void testAIPlayerWithThreads() {
+        try (AIPlayer ai = new AIPlayer("AI", 'O', 6, 0, 2)) {
+            Board board = TestBoards.fromMoves("17273");
+            assertEquals(3, ai.makeMove(board));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new AIPlayer("AI", 'O', 6, 0, 0));
+    }
+
+    @Test
+    public void testScalingReport() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ScalingReport.run(4, new PrintStream(buffer, true));
+        String report = buffer.toString();
+        assertTrue(report.contains("16"));
+        assertFalse(report.contains("NEM"));
+    }
+}
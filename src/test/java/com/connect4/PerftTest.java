@@ -0,0 +1,77 @@
+package com.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTest {
+
+    /** A szabványos tábla ismert lépéssorszámai a 0-8. mélységig. */
+    private static final long[] KNOWN = {
+        1L, 7L, 49L, 343L, 2_401L, 16_807L, 117_649L, 823_536L, 5_673_234L
+    };
+
+    @Test
+    public void testKnownCountsOnStandardBoard() {
+        Board board = new Board(6, 7);
+        for (int depth = 0; depth < KNOWN.length; depth++) {
+            Perft.Result result = Perft.count(board, 'X', 'O', depth);
+            assertEquals(KNOWN[depth], result.getNodes(), "depth " + depth);
+        }
+        // A bejárás visszaállítja a táblát
+        assertEquals(0, board.moveCount());
+        assertEquals(new Board(6, 7), board);
+    }
+
+    @Test
+    public void testTerminalResults() {
+        Board board = new Board(6, 7);
+        Perft.Result six = Perft.count(board, 'X', 'O', 6);
+        assertEquals(0, six.getMoverWins() + six.getOpponentWins());
+        Perft.Result eight = Perft.count(board, 'X', 'O', 8);
+        assertEquals(13_032L, eight.getMoverWins());
+        assertEquals(44_430L, eight.getOpponentWins());
+        assertEquals(0L, eight.getDraws());
+        assertTrue(eight.getNodesPerSecond() > 0);
+    }
+
+    @Test
+    public void testParallelMatchesReference() {
+        Board board = new Board(6, 7);
+        board.placeToken(3, 'X');
+        board.placeToken(3, 'O');
+        Board before = board.copy();
+        Perft.Result reference = Perft.count(board, 'X', 'O', 7);
+        Perft.Result parallel = Perft.countParallel(board, 'X', 'O', 7, 3);
+        assertEquals(reference.getNodes(), parallel.getNodes());
+        assertEquals(reference.getMoverWins(), parallel.getMoverWins());
+        assertEquals(reference.getOpponentWins(),
+                parallel.getOpponentWins());
+        assertEquals(before, board);
+    }
+
+    @Test
+    public void testFullGameTreeOfSmallBoard() {
+        Board board = new Board(2, 4);
+        Perft.Result reference = Perft.count(board, 'X', 'O', 8);
+        Perft.Result parallel = Perft.countParallel(board, 'X', 'O', 8, 2);
+        assertTrue(reference.getDraws() > 0);
+        assertEquals(reference.getDraws(), parallel.getDraws());
+        assertEquals(reference.getNodes(), parallel.getNodes());
+        assertEquals(reference.getMoverWins(), parallel.getMoverWins());
+        // A nyolc hosszú lépéssorok mind a nyolcadik lépéssel végződnek
+        Perft.Result seven = Perft.count(board, 'X', 'O', 7);
+        assertEquals(reference.getNodes(), reference.getDraws()
+                + reference.getMoverWins() + reference.getOpponentWins()
+                - seven.getMoverWins() - seven.getOpponentWins());
+    }
+
+    @Test
+    public void testRejectsInvalidArguments() {
+        Board board = new Board(6, 7);
+        assertThrows(IllegalArgumentException.class,
+                () -> Perft.count(board, 'X', 'O', -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> Perft.countParallel(board, 'X', 'O', 3, 0));
+    }
+}
@@ -0,0 +1,98 @@
+package com.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PondererTest {
+
+    /** Megvárja, hogy a háttérkeresés megjósolja a választ. */
+    private static int awaitPrediction(final Ponderer ponderer)
+            throws InterruptedException {
+        for (int i = 0; i < 1000 && ponderer.getPredictedMove() < 0; i++) {
+            Thread.sleep(10);
+        }
+        return ponderer.getPredictedMove();
+    }
+
+    @Test
+    public void testHitReturnsPonderedResult() throws Exception {
+        AIPlayer ai = new AIPlayer("AI", 'O', 6);
+        ai.setPondering(true);
+        Board board = new Board(6, 7);
+        board.placeToken(3, 'X');
+        int column = ai.makeMove(board);
+        ai.startPondering(board, column);
+        board.placeToken(column, 'O');
+
+        int predicted = awaitPrediction(ai.getPonderer());
+        assertTrue(predicted >= 0);
+        Thread.sleep(200);
+        board.placeToken(predicted, 'X');
+        ai.opponentMoved(predicted);
+        int reply = ai.makeMove(board);
+
+        assertTrue(board.isColumnValid(reply));
+        assertEquals(1, ai.getPonderer().getHits());
+        assertEquals(0, ai.getPonderer().getMisses());
+        assertEquals(1.0, ai.getPonderer().getHitRate());
+        assertTrue(ai.getPonderer().getSavedNanos() > 0);
+        assertEquals(6, ai.getLastSearchResult().getDepth());
+        ai.setPondering(false);
+    }
+
+    @Test
+    public void testMissCancelsPonderingPromptly() {
+        // Időkorlát nélkül ez a háttérkeresés percekig tartana
+        AIPlayer ai = new AIPlayer("AI", 'O', 40);
+        ai.setPondering(true);
+        Board board = new Board(6, 7);
+        board.placeToken(3, 'X');
+        ai.startPondering(board, 3);
+        board.placeToken(3, 'O');
+        board.placeToken(0, 'X');
+        ai.opponentMoved(0);
+
+        long start = System.nanoTime();
+        assertNull(ai.getPonderer().resolve(board));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+        assertTrue(elapsedMillis < 2000, "elapsed " + elapsedMillis);
+        assertEquals(0, ai.getPonderer().getHits());
+        assertEquals(1, ai.getPonderer().getMisses());
+        ai.setPondering(false);
+        assertNull(ai.getPonderer());
+    }
+
+    @Test
+    public void testNoPonderingWhenMoveEndsGame() {
+        AIPlayer ai = new AIPlayer("AI", 'O', 4);
+        ai.setPondering(true);
+        Board board = new Board(6, 7);
+        for (int i = 0; i < 3; i++) {
+            board.placeToken(0, 'X');
+            board.placeToken(1, 'O');
+        }
+        board.placeToken(6, 'X');
+        ai.startPondering(board, 1);
+        assertNull(ai.getPonderer().resolve(board));
+        assertEquals(0, ai.getPonderer().getMisses());
+        ai.setPondering(false);
+    }
+
+    @Test
+    public void testGameAgainstPonderingAi() {
+        Game game = new Game(6, 7, "A", "Gép", false);
+        game.setPondering(true);
+        game.setMoveSources((board, token) -> {
+            for (int col = 0; col < board.getColumns(); col++) {
+                if (board.isColumnValid(col)) {
+                    return col;
+                }
+            }
+            return -1;
+        }, null);
+        game.start();
+        Board board = game.getBoard();
+        assertTrue(board.checkWin() || board.isFull());
+    }
+}
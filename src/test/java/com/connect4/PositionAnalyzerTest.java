@@ -0,0 +1,133 @@
+package com.connect4;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionAnalyzerTest {
+
+    private static Map<Long, PositionAnalysis> analyseAll(String input,
+                                                          int threads)
+            throws Exception {
+        Map<Long, PositionAnalysis> results = new TreeMap<>();
+        try (PositionAnalyzer analyzer = new PositionAnalyzer(5, threads,
+                16)) {
+            long count = analyzer.analyseMoveStrings(
+                    new BufferedReader(new StringReader(input)),
+                    result -> results.put(result.getIndex(), result));
+            assertEquals(results.size(), count);
+        }
+        return results;
+    }
+
+    @Test
+    public void testBestScoreMatchesPlainSearch() {
+        Board board = TestBoards.fromMoves("4433");
+        try (PositionAnalyzer analyzer = new PositionAnalyzer(6, 2, 16)) {
+            PositionAnalysis analysis = analyzer.analyse(board, 'X');
+            SearchEngine plain = new SearchEngine(6, 0);
+            plain.setEvaluator(new ThreatEvaluator());
+            SearchResult expected = plain.search(board, 'X');
+            assertEquals(expected.getScore(),
+                    analysis.getScore(analysis.getBestMove()));
+            for (int col = 0; col < 7; col++) {
+                assertTrue(analysis.getScore(col) <= expected.getScore());
+                int[] variation = analysis.getVariation(col);
+                assertEquals(col, variation[0]);
+                assertTrue(variation.length <= 6);
+                // A változat szabályos lépésekből áll
+                Board replay = board.copy();
+                for (int i = 0; i < variation.length; i++) {
+                    assertTrue(replay.isColumnValid(variation[i]));
+                    replay.placeToken(variation[i], i % 2 == 0 ? 'X' : 'O');
+                }
+            }
+        }
+        assertEquals(TestBoards.fromMoves("4433"), board);
+    }
+
+    @Test
+    public void testWinningAndFullColumns() {
+        try (PositionAnalyzer analyzer = new PositionAnalyzer(4, 1, 12)) {
+            PositionAnalysis analysis = analyzer.analyse(TestBoards.fromMoves("171717"),
+                    'X');
+            assertEquals(0, analysis.getBestMove());
+            assertEquals(SearchEngine.WIN_SCORE - 1, analysis.getScore(0));
+            assertArrayEquals(new int[] {0}, analysis.getVariation(0));
+            // Minden más lépés után az ellenfél nyerhet
+            assertTrue(analysis.getScore(3) < 0);
+
+            Board full = new Board(6, 7);
+            for (int i = 0; i < 6; i++) {
+                full.placeToken(0, i % 2 == 0 ? 'X' : 'O');
+            }
+            PositionAnalysis withFull = analyzer.analyse(full, 'X');
+            assertEquals(PositionAnalysis.NO_SCORE, withFull.getScore(0));
+            assertEquals(0, withFull.getVariation(0).length);
+        }
+    }
+
+    @Test
+    public void testBatchStreamsEveryLineWithErrors() throws Exception {
+        String input = "\n44\n4455\n9\n1111111\n4455667\n5\n4444\n";
+        Map<Long, PositionAnalysis> results = analyseAll(input, 3);
+        assertEquals(8, results.size());
+        assertTrue(results.get(0L).isValid());
+        assertEquals("44", results.get(1L).getMoves());
+        assertFalse(results.get(3L).isValid());
+        assertFalse(results.get(4L).isValid());
+        assertFalse(results.get(5L).isValid());
+        assertNotNull(results.get(5L).getError());
+        for (long index : new long[] {0, 1, 2, 6, 7}) {
+            PositionAnalysis analysis = results.get(index);
+            assertTrue(analysis.isValid(), analysis.toString());
+            assertEquals(7, analysis.getColumnCount());
+            assertTrue(analysis.getBestMove() >= 0);
+            assertTrue(analysis.getNodes() > 0);
+        }
+    }
+
+    @Test
+    public void testResultsIndependentOfThreadCount() throws Exception {
+        StringBuilder input = new StringBuilder();
+        String[] games = {"4", "44", "435", "4354", "43546", "12", "7766"};
+        for (String game : games) {
+            input.append(game).append('\n');
+        }
+        Map<Long, PositionAnalysis> single = analyseAll(input.toString(), 1);
+        Map<Long, PositionAnalysis> parallel =
+                analyseAll(input.toString(), 4);
+        for (long index = 0; index < games.length; index++) {
+            PositionAnalysis expected = single.get(index);
+            PositionAnalysis actual = parallel.get(index);
+            assertEquals(expected.getBestMove(), actual.getBestMove());
+            for (int col = 0; col < 7; col++) {
+                assertEquals(expected.getScore(col), actual.getScore(col));
+            }
+        }
+    }
+
+    @Test
+    public void testAnalyseBoards() {
+        List<Board> boards = new ArrayList<>(Arrays.asList(
+                new Board(6, 7), TestBoards.fromMoves("4"), TestBoards.fromMoves("44")));
+        List<PositionAnalysis> results = new ArrayList<>();
+        try (PositionAnalyzer analyzer = new PositionAnalyzer(4, 2, 12)) {
+            assertEquals(3, analyzer.analyseBoards(boards, results::add));
+        }
+        assertEquals(3, results.size());
+        for (PositionAnalysis result : results) {
+            assertTrue(result.isValid());
+            assertNull(result.getMoves());
+        }
+        assertEquals(0, boards.get(0).moveCount());
+    }
+}
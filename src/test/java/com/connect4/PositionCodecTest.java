@@ -0,0 +1,127 @@
+package com.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionCodecTest {
+
+    @Test
+    public void testRoundTrip() {
+        Board board = TestBoards.fromMoves("44536725");
+        long key = PositionCodec.encode(board, 'X');
+        Board decoded = PositionCodec.decode(key, 6, 7, 'X', 'O');
+        assertEquals(board, decoded);
+        assertEquals(key, PositionCodec.encode(decoded, 'X'));
+    }
+
+    @Test
+    public void testEmptyBoardKeyIsBottomRow() {
+        long key = PositionCodec.encode(new Board(6, 7), 'X');
+        assertEquals(7, Long.bitCount(key));
+        assertEquals(new Board(6, 7), PositionCodec.decode(key, 6, 7, 'X', 'O'));
+    }
+
+    @Test
+    public void testKeysDistinguishPositions() {
+        long first = PositionCodec.encode(TestBoards.fromMoves("12"), 'X');
+        long swapped = PositionCodec.encode(TestBoards.fromMoves("21"), 'X');
+        long stacked = PositionCodec.encode(TestBoards.fromMoves("11"), 'X');
+        assertNotEquals(first, swapped);
+        assertNotEquals(first, stacked);
+        assertNotEquals(swapped, stacked);
+    }
+
+    @Test
+    public void testFullBoardFitsInLargestLayout() {
+        Board board = new Board(7, 8);
+        for (int col = 0; col < 8; col++) {
+            for (int row = 0; row < 7; row++) {
+                board.placeToken(col, (row + col / 2) % 2 == 0 ? 'X' : 'O');
+            }
+        }
+        long key = PositionCodec.encode(board, 'O');
+        assertEquals(board, PositionCodec.decode(key, 7, 8, 'O', 'X'));
+    }
+
+    @Test
+    public void testRejectsLargeBoards() {
+        assertFalse(PositionCodec.fits(8, 8));
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionCodec.encode(new Board(8, 8), 'X'));
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionCodec.decode(1L, 8, 8, 'X', 'O'));
+    }
+
+    @Test
+    public void testRejectsInvalidKey() {
+        // Az első oszlopban nincs magasságjelző bit
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionCodec.decode(0L, 6, 7, 'X', 'O'));
+    }
+
+    @Test
+    public void testCanonicalKeyIsSharedByMirrorImages() {
+        Board board = TestBoards.fromMoves("1236");
+        Board mirror = TestBoards.fromMoves("7652");
+        long canonical = PositionCodec.encodeCanonical(board, 'X');
+        assertEquals(canonical, PositionCodec.encodeCanonical(mirror, 'X'));
+        assertNotEquals(PositionCodec.isMirrored(board, 'X'),
+                PositionCodec.isMirrored(mirror, 'X'));
+        long key = PositionCodec.encode(board, 'X');
+        assertEquals(PositionCodec.encode(mirror, 'X'),
+                PositionCodec.mirror(key, 6, 7));
+        assertEquals(canonical, PositionCodec.canonical(key, 6, 7));
+    }
+
+    @Test
+    public void testSymmetricPositionIsItsOwnMirror() {
+        Board board = TestBoards.fromMoves("1474");
+        long key = PositionCodec.encode(board, 'X');
+        assertEquals(key, PositionCodec.mirror(key, 6, 7));
+        assertFalse(PositionCodec.isMirrored(board, 'X'));
+    }
+
+    @Test
+    public void testEncodeDoesNotBindUnknownToken() {
+        // A kódolás nem rendel maszkot a táblán még nem szereplő tokenhez
+        Board board = new Board(6, 7);
+        board.placeToken(3, 'X');
+        long key = PositionCodec.encode(board, 'O');
+        PositionCodec.encodeCanonical(board, 'O');
+        PositionCodec.isMirrored(board, 'O');
+        assertEquals(-1, board.slotOf('O'));
+        assertEquals(PositionCodec.encode(board, 'O'), key);
+        board.placeToken(3, 'Y');
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionCodec.encode(board, 'O'));
+    }
+
+    @Test
+    public void testDecodeSideToMove() {
+        // Egyenlő számnál a kulcs tokenje, különben a kevesebb tokenes lép
+        Board board = new Board(6, 7);
+        board.placeToken(0, 'X');
+        board.placeToken(1, 'O');
+        board.placeToken(2, 'X');
+        board.placeToken(0, 'O');
+        long key = PositionCodec.encode(board, 'X');
+        assertEquals('X', PositionCodec.decode(key, 6, 7, 'X', 'O')
+                .getTokenToMove());
+        board.placeToken(1, 'X');
+        key = PositionCodec.encode(board, 'O');
+        assertEquals('O', PositionCodec.decode(key, 6, 7, 'O', 'X')
+                .getTokenToMove());
+    }
+
+    @Test
+    public void testDecodeSingleTallColumn() {
+        // 63 sor és 1 oszlop: az oszlop mind a 64 bitet kitölti
+        Board board = new Board(63, 1);
+        for (int i = 0; i < 10; i++) {
+            board.placeToken(0, i % 2 == 0 ? 'X' : 'O');
+        }
+        long key = PositionCodec.encode(board, 'X');
+        assertEquals(board, PositionCodec.decode(key, 63, 1, 'X', 'O'));
+    }
+}
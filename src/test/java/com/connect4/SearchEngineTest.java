@@ -0,0 +1,113 @@
+package com.connect4;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchEngineTest {
+
+    @Test
+    public void testSharedTableSeparatesSideToMove() {
+        // Ugyanazok a tokenek egyszer X, egyszer O lépésével: az oszloponként
+        // újraépített táblán gyakran az O kapja a 0. maszkot, ugyanazt,
+        // amelyet az eredeti táblán az X
+        Random random = new Random(3);
+        int pairs = 0;
+        for (int i = 0; i < 60 && pairs < 20; i++) {
+            Board xToMove = new Board(6, 7);
+            int plies = 2 * (1 + random.nextInt(4));
+            while (xToMove.moveCount() < plies) {
+                int col = random.nextInt(7);
+                if (xToMove.isColumnValid(col)) {
+                    xToMove.placeToken(col, xToMove.moveCount() % 2 == 0
+                            ? 'X' : 'O');
+                }
+            }
+            Board oToMove = TestBoards.viaGrid(xToMove);
+            if (xToMove.checkWin() || oToMove.slotOf('O') != 0) {
+                continue;
+            }
+            pairs++;
+            assertEquals(xToMove.getCanonicalZobristKey(),
+                    oToMove.getCanonicalZobristKey());
+            SearchEngine shared = threatEngine();
+            shared.search(xToMove, 'X');
+            SearchResult reused = shared.search(oToMove, 'O');
+            SearchResult expected = threatEngine().search(oToMove, 'O');
+            assertEquals(expected.getScore(), reused.getScore());
+        }
+        assertEquals(20, pairs);
+    }
+
+    private static SearchEngine threatEngine() {
+        SearchEngine engine = new SearchEngine(8, 0,
+                new TranspositionTable(18));
+        engine.setEvaluator(new ThreatEvaluator());
+        return engine;
+    }
+
+    @Test
+    public void testTakesImmediateWin() {
+        Board board = TestBoards.fromMoves("171717");
+        SearchResult result = new SearchEngine(6, 0).search(board, 'X');
+        assertEquals(0, result.getBestMove());
+        assertTrue(result.getScore() > 0);
+    }
+
+    @Test
+    public void testBlocksOpponentWin() {
+        // X három tokenje az alsó sorban, O-nak blokkolnia kell
+        Board board = TestBoards.fromMoves("17273");
+        SearchResult result = new SearchEngine(4, 0).search(board, 'O');
+        assertEquals(3, result.getBestMove());
+    }
+
+    @Test
+    public void testFindsForcedWin() {
+        // X két oldalról nyitott hármast tud építeni az alsó sorban
+        Board board = TestBoards.fromMoves("3747");
+        SearchResult result = new SearchEngine(7, 0).search(board, 'X');
+        assertTrue(result.getBestMove() == 1 || result.getBestMove() == 4);
+        assertTrue(result.getScore() > 0);
+    }
+
+    @Test
+    public void testBoardRestoredAfterSearch() {
+        Board board = TestBoards.fromMoves("44533");
+        Board copy = TestBoards.fromMoves("44533");
+        new SearchEngine(7, 0).search(board, 'O');
+        assertEquals(copy, board);
+        assertFalse(board.checkWin());
+        for (int col = 0; col < 7; col++) {
+            assertEquals(copy.isColumnValid(col), board.isColumnValid(col));
+        }
+    }
+
+    @Test
+    public void testDeterministicAtFixedDepth() {
+        SearchResult first = new SearchEngine(7, 0).search(TestBoards.fromMoves("4"), 'O');
+        SearchResult second = new SearchEngine(7, 0).search(TestBoards.fromMoves("4"), 'O');
+        assertEquals(first.getBestMove(), second.getBestMove());
+        assertEquals(first.getScore(), second.getScore());
+        assertEquals(first.getNodes(), second.getNodes());
+        assertEquals(7, first.getDepth());
+        assertTrue(first.getNodesPerSecond() > 0);
+    }
+
+    @Test
+    public void testTimeLimitStopsSearch() {
+        long start = System.nanoTime();
+        SearchResult result = new SearchEngine(40, 50).search(new Board(6, 7), 'X');
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMillis < 1000, "A keresés túllépte az időkorlátot.");
+        assertTrue(new Board(6, 7).isColumnValid(result.getBestMove()));
+        assertTrue(result.getDepth() < 40);
+    }
+
+    @Test
+    public void testInvalidDepth() {
+        assertThrows(IllegalArgumentException.class, () -> new SearchEngine(0, 0));
+    }
+}
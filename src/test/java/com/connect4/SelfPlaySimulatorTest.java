@@ -0,0 +1,72 @@
+package com.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SelfPlaySimulatorTest {
+
+    @Test
+    public void testRunTalliesEveryGame() {
+        SelfPlaySimulator simulator = new SelfPlaySimulator(
+                () -> new AIPlayer("Erős", 'X', 4),
+                () -> new AIPlayer("Gyenge", 'O', 1), 2);
+        simulator.setSeed(7);
+        SimulationReport report = simulator.run(20);
+
+        assertEquals(20, report.getGames());
+        assertEquals(20, report.getFirstWins() + report.getDraws() + report.getSecondWins());
+        assertTrue(report.getFirstWins() > report.getSecondWins(),
+                "A mélyebben kereső AI-nak többször kellene nyernie: " + report);
+        assertTrue(report.getMoves() >= 20 * 7);
+        assertTrue(report.getGamesPerSecond() > 0);
+        assertTrue(report.getMovesPerSecond() > report.getGamesPerSecond());
+        LatencyHistogram latency = report.getMoveLatency();
+        assertTrue(latency.getCount() > 0);
+        assertTrue(latency.getValueAtPercentile(50) <= latency.getValueAtPercentile(99));
+        assertTrue(report.toString().contains("p99"));
+    }
+
+    @Test
+    public void testDeterministicWithSeed() {
+        SimulationReport first = newSimulator().run(10);
+        SimulationReport second = newSimulator().run(10);
+        assertEquals(first.getFirstWins(), second.getFirstWins());
+        assertEquals(first.getDraws(), second.getDraws());
+        assertEquals(first.getMoves(), second.getMoves());
+    }
+
+    @Test
+    public void testRepeatableWithSeveralWorkers() {
+        SimulationReport reference = newSimulator(1, 2).run(12);
+        for (int i = 0; i < 2; i++) {
+            SimulationReport report = newSimulator(3, 2).run(12);
+            assertEquals(reference.getFirstWins(), report.getFirstWins());
+            assertEquals(reference.getDraws(), report.getDraws());
+            assertEquals(reference.getSecondWins(), report.getSecondWins());
+            assertEquals(reference.getMoves(), report.getMoves());
+        }
+    }
+
+    @Test
+    public void testRejectsSameTokens() {
+        SelfPlaySimulator simulator = new SelfPlaySimulator(
+                () -> new AIPlayer("A", 'X', 1),
+                () -> new AIPlayer("B", 'X', 1), 1);
+        assertThrows(IllegalStateException.class, () -> simulator.run(1));
+    }
+
+    private static SelfPlaySimulator newSimulator() {
+        return newSimulator(1, 4);
+    }
+
+    private static SelfPlaySimulator newSimulator(final int workers,
+                                                  final int openingPlies) {
+        SelfPlaySimulator simulator = new SelfPlaySimulator(
+                () -> new AIPlayer("A", 'X', 3, 0),
+                () -> new AIPlayer("B", 'O', 2, 0), workers);
+        simulator.setSeed(42);
+        simulator.setOpeningPlies(openingPlies);
+        return simulator;
+    }
+}
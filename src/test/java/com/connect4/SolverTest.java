@@ -0,0 +1,142 @@
+package com.connect4;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolverTest {
+
+    private static Board randomBoard(Random random, int rows, int columns,
+                                     int plies) {
+        Board board = new Board(rows, columns, 'X', 'O');
+        int attempts = 0;
+        while (board.moveCount() < plies && attempts++ < 1000) {
+            int col = random.nextInt(columns);
+            int slot = board.slotOf(board.getTokenToMove());
+            if (board.isColumnValid(col) && !board.isWinningMove(col, slot)) {
+                board.play(col);
+            }
+        }
+        return board;
+    }
+
+    private static int scoreAfter(Board board, int column) {
+        // A lépés értéke teljes mélységű kereséssel, egy lépéssel hosszabb
+        // távolsággal
+        board.play(column);
+        try {
+            if (board.checkWin()) {
+                return SearchEngine.WIN_SCORE - 1;
+            }
+            if (board.isFull()) {
+                return 0;
+            }
+            int child = new SearchEngine(20, 0)
+                    .search(board, board.getTokenToMove()).getScore();
+            if (child > SearchEngine.WIN_THRESHOLD) {
+                return -child + 1;
+            }
+            if (child < -SearchEngine.WIN_THRESHOLD) {
+                return -child - 1;
+            }
+            return -child;
+        } finally {
+            board.undo();
+        }
+    }
+
+    @Test
+    public void testTakesImmediateWin() {
+        SearchResult result = new Solver(new TranspositionTable(16))
+                .solve(TestBoards.fromMoves(6, 7, "171717"));
+        assertEquals(0, result.getBestMove());
+        assertEquals(SearchEngine.WIN_SCORE - 1, result.getScore());
+    }
+
+    @Test
+    public void testMatchesFullDepthSearchOnSmallBoards() {
+        Random random = new Random(5);
+        Solver solver = new Solver(new TranspositionTable(16));
+        for (int game = 0; game < 40; game++) {
+            Board board = randomBoard(random, 4, 5, 4 + random.nextInt(8));
+            if (board.isFull()) {
+                continue;
+            }
+            char token = board.getTokenToMove();
+            SearchResult exact = new SearchEngine(20, 0)
+                    .search(board, token);
+            SearchResult solved = solver.solve(board);
+            assertEquals(exact.getScore(), solved.getScore(),
+                    "Állás " + game);
+            // A megoldó lépése ugyanazt az értéket éri el
+            assertEquals(exact.getScore(),
+                    scoreAfter(board, solved.getBestMove()), "Lépés " + game);
+        }
+    }
+
+    @Test
+    public void testSolvesMidGameQuickly() {
+        Random random = new Random(9);
+        Solver solver = new Solver(new TranspositionTable(20));
+        for (int game = 0; game < 10; game++) {
+            Board board = randomBoard(random, 6, 7, 20);
+            Board copy = board.copy();
+            SearchResult result = solver.solve(board);
+            assertTrue(board.isColumnValid(result.getBestMove()));
+            assertEquals(copy, board);
+            assertTrue(result.getElapsedNanos() < 5_000_000_000L);
+        }
+    }
+
+    @Test
+    public void testGridRebuiltBoardsUseTokenCounts() {
+        // Oszloponkénti újraépítés: X c1, O c0, X c2 után O lép, de az O
+        // kapja a 0. maszkot
+        Board board = new Board(4, 5, 'X', 'O');
+        board.placeToken(1, 'X');
+        board.placeToken(0, 'O');
+        board.placeToken(2, 'X');
+        Board rebuilt = TestBoards.viaGrid(board);
+        assertEquals(0, rebuilt.slotOf('O'));
+        Solver solver = new Solver(new TranspositionTable(20));
+        assertEquals(solver.search(board.copy(), 'O').getScore(),
+                solver.search(rebuilt, 'O').getScore());
+        assertEquals(solver.solve(board.copy()).getScore(),
+                solver.solve(rebuilt).getScore());
+        assertThrows(IllegalArgumentException.class,
+                () -> solver.search(rebuilt, 'X'));
+    }
+
+    @Test
+    public void testSmallBoardIsDraw() {
+        // A 4x4-es tábla tökéletes játékkal döntetlen
+        SearchResult result = new Solver(new TranspositionTable(16))
+                .solve(new Board(4, 4));
+        assertEquals(0, result.getScore());
+    }
+
+    @Test
+    public void testRejectsUnsupportedBoards() {
+        Solver solver = new Solver(new TranspositionTable(4));
+        assertFalse(Solver.supports(new Board(6, 7, 5)));
+        assertFalse(Solver.supports(new Board(10, 10)));
+        assertThrows(IllegalArgumentException.class,
+                () -> solver.solve(new Board(10, 10)));
+        assertThrows(IllegalArgumentException.class,
+                () -> solver.solve(TestBoards.fromMoves(6, 7, "1717171")));
+    }
+
+    @Test
+    public void testPerfectAIPlayerUsesSolver() {
+        AIPlayer player = new AIPlayer("AI", 'O', Difficulty.PERFECT);
+        Board board = TestBoards.fromMoves("4455363");
+        int move = player.makeMove(board);
+        SearchResult solved = new Solver(new TranspositionTable(20))
+                .solve(board);
+        assertEquals(solved.getScore(), player.getLastSearchResult()
+                .getScore());
+        assertTrue(board.isColumnValid(move));
+    }
+}
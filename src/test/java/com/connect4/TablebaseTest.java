@@ -0,0 +1,158 @@
+package com.connect4;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TablebaseTest {
+
+    private static Tablebase small;
+
+    @BeforeAll
+    public static void generate() {
+        small = Tablebase.generate(4, 4, 1);
+    }
+
+    /**
+     * Véletlen lépésekkel felépít egy még el nem dőlt állást.
+     */
+    private static Board randomPosition(final Random random, final int moves) {
+        while (true) {
+            Board board = new Board(4, 4);
+            char token = 'X';
+            boolean live = true;
+            for (int i = 0; i < moves && live; i++) {
+                int col = random.nextInt(4);
+                if (!board.isColumnValid(col)) {
+                    continue;
+                }
+                board.placeToken(col, token);
+                token = token == 'X' ? 'O' : 'X';
+                live = !board.checkWin() && !board.isFull();
+            }
+            if (live) {
+                return board;
+            }
+        }
+    }
+
+    @Test
+    public void testGridRebuiltBoardsUseTokenCounts() {
+        // A mátrixból oszloponként újraépített táblán a 0. maszk gyakran a
+        // második játékosé
+        Random random = new Random(11);
+        int swapped = 0;
+        for (int i = 0; i < 100; i++) {
+            Board board = randomPosition(random, 3 + random.nextInt(8));
+            Board rebuilt = TestBoards.viaGrid(board);
+            char token = board.getTokenToMove();
+            if (rebuilt.slotOf('X') != 0) {
+                swapped++;
+            }
+            assertTrue(small.supports(rebuilt), board.toString());
+            assertEquals(small.bestMove(board, token).getScore(),
+                    small.bestMove(rebuilt, token).getScore());
+            if (board.moveCount() % 2 == 1) {
+                assertEquals(small.probe(board), small.probe(rebuilt));
+            }
+        }
+        assertTrue(swapped > 0);
+    }
+
+    @Test
+    public void testSmallBoardIsDraw() {
+        assertEquals(201_755L, small.getEntryCount());
+        assertEquals(Tablebase.DRAW, small.probe(new Board(4, 4)));
+        assertTrue(small.getGenerationNanos() > 0);
+    }
+
+    @Test
+    public void testValuesAgreeWithSolver() {
+        Random random = new Random(7);
+        Solver solver = new Solver();
+        for (int i = 0; i < 200; i++) {
+            Board board = randomPosition(random, 4 + random.nextInt(8));
+            char token = board.getTokenToMove();
+            assertTrue(small.supports(board));
+            SearchResult exact = solver.search(board.copy(), token);
+            SearchResult known = small.bestMove(board, token);
+            assertEquals(Integer.signum(exact.getScore()),
+                    Integer.signum(known.getScore()), board.toString());
+            Board after = board.copy();
+            after.placeToken(known.getBestMove(), token);
+            if (after.checkWin()) {
+                continue;
+            }
+            int value = small.probe(after);
+            assertEquals(Tablebase.WIN + Tablebase.LOSS - value,
+                    small.probe(board));
+        }
+    }
+
+    @Test
+    public void testParallelGenerationMatchesAndFileRoundTrips(
+            @TempDir final Path dir) throws IOException {
+        Path single = dir.resolve("single.tb");
+        Path parallel = dir.resolve("parallel.tb");
+        small.write(single);
+        Tablebase.generate(4, 4, 3).write(parallel);
+        assertEquals(-1L, Files.mismatch(single, parallel));
+        assertEquals(Tablebase.HEADER_BYTES + small.getSizeBytes(),
+                Files.size(single));
+
+        Tablebase mapped = Tablebase.open(single);
+        assertEquals(small.getEntryCount(), mapped.getEntryCount());
+        Random random = new Random(11);
+        for (int i = 0; i < 100; i++) {
+            Board board = randomPosition(random, random.nextInt(12));
+            assertEquals(small.probe(board), mapped.probe(board));
+        }
+        assertThrows(IllegalStateException.class,
+                () -> mapped.write(dir.resolve("copy.tb")));
+
+        Path broken = dir.resolve("broken.tb");
+        Files.write(broken, new byte[Tablebase.HEADER_BYTES]);
+        assertThrows(IOException.class, () -> Tablebase.open(broken));
+    }
+
+    @Test
+    public void testUnsupportedBoards() {
+        assertFalse(small.supports(new Board(6, 7)));
+        assertFalse(small.supports(new Board(4, 4, 3)));
+        Board won = new Board(4, 4);
+        for (int i = 0; i < 3; i++) {
+            won.placeToken(0, 'X');
+            won.placeToken(1, 'O');
+        }
+        won.placeToken(0, 'X');
+        assertFalse(small.supports(won));
+        assertNull(small.bestMove(won, 'O'));
+        assertFalse(Tablebase.supportsSize(6, 7));
+        assertThrows(IllegalArgumentException.class,
+                () -> Tablebase.generate(6, 7, 1));
+    }
+
+    @Test
+    public void testAIPlayerConsultsTablebase() {
+        Board board = new Board(4, 4);
+        board.placeToken(0, 'X');
+        board.placeToken(3, 'O');
+        board.placeToken(1, 'X');
+        board.placeToken(3, 'O');
+        AIPlayer ai = new AIPlayer("AI", 'X', 1);
+        ai.setTablebase(small);
+        int move = ai.makeMove(board);
+        SearchResult result = ai.getLastSearchResult();
+        assertEquals(small.bestMove(board, 'X').getBestMove(), move);
+        assertEquals(12, result.getDepth());
+        board.placeToken(move, 'X');
+        assertNotEquals(Tablebase.WIN, small.probe(board));
+    }
+}
@@ -0,0 +1,61 @@
+package com.connect4;
+
+/**
+ * Közös táblakészítő segédfüggvények a tesztekhez.
+ */
+final class TestBoards {
+
+    private TestBoards() {
+        throw new UnsupportedOperationException(
+                "Ez egy segédosztály, nem példányosítható.");
+    }
+
+    /**
+     * Felépít egy szabványos (6x7-es) táblát egy lépéssorból.
+     *
+     * @param moves A lépéssor a {@link GameRecord#parseMoves} formátumában:
+     *              számjegyenként egy lépés egytől számozott oszlopa,
+     *              felváltva X és O lépéseivel, X kezd.
+     * @return A tábla.
+     */
+    static Board fromMoves(String moves) {
+        return fromMoves(6, 7, moves);
+    }
+
+    /**
+     * Felépít egy adott méretű táblát egy lépéssorból.
+     *
+     * @param rows    A sorok száma.
+     * @param columns Az oszlopok száma.
+     * @param moves   A lépéssor a {@link GameRecord#parseMoves} formátumában;
+     *                a szöveges alaknál szélesebb táblán is használható.
+     * @return A tábla.
+     */
+    static Board fromMoves(int rows, int columns, String moves) {
+        Board board = new Board(rows, columns);
+        for (int i = 0; i < moves.length(); i++) {
+            board.placeToken(moves.charAt(i) - '1', i % 2 == 0 ? 'X' : 'O');
+        }
+        return board;
+    }
+
+    /**
+     * Lemásolja a táblát a kiadott mátrixon keresztül, ahogy a mentésből
+     * betöltő kód tenné: az új tábla oszloponként, alulról felfelé
+     * építi újra az állást, így a maszkok sorrendje eltérhet.
+     *
+     * @param board A másolandó tábla.
+     * @return Az ugyanazon állást tartalmazó új tábla.
+     */
+    static Board viaGrid(Board board) {
+        Board rebuilt = new Board(board.getRows(), board.getColumns(),
+                board.getWinLength());
+        char[][] grid = rebuilt.getGrid();
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getColumns(); col++) {
+                grid[row][col] = board.tokenAt(row, col);
+            }
+        }
+        return rebuilt;
+    }
+}
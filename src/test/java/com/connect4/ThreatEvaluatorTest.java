@@ -0,0 +1,84 @@
+package com.connect4;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThreatEvaluatorTest {
+
+    private final ThreatEvaluator evaluator = new ThreatEvaluator();
+
+    @Test
+    public void testEmptyBoardIsBalanced() {
+        assertEquals(0, evaluator.evaluate(new Board(6, 7), 0));
+    }
+
+    @Test
+    public void testThreatMaskMarksMissingCell() {
+        // X az alsó sor 0-2. oszlopában, a 3. oszlop alja hiányzik
+        Board board = TestBoards.fromMoves(6, 7, "17273");
+        long empty = board.getBottomMask() * 0x3FL
+                & ~(board.getMask(0) | board.getMask(1));
+        long threats = ThreatEvaluator.threats(board.getMask(0), empty, 7, 4);
+        assertEquals(1L << 21, threats);
+        assertEquals(0L,
+                ThreatEvaluator.threats(board.getMask(1), empty, 7, 4));
+    }
+
+    @Test
+    public void testThreatFavoursItsOwner() {
+        Board board = TestBoards.fromMoves(6, 7, "17273");
+        assertTrue(evaluator.evaluate(board, 1) < 0);
+        assertTrue(evaluator.evaluate(board, 0) > 0);
+    }
+
+    @Test
+    public void testOpenTwoCountsFreeWindows() {
+        // X a 0. és 1. oszlop alján: csak a 0-3. vízszintes ablak nyitott
+        Board board = TestBoards.fromMoves(6, 7, "172");
+        long cells = board.getBottomMask() * 0x3FL;
+        assertEquals(1, ThreatEvaluator.openWindows(board.getMask(0),
+                board.getMask(1), cells, 7, 4));
+    }
+
+    @Test
+    public void testMirrorSymmetry() {
+        Random random = new Random(12);
+        for (int game = 0; game < 50; game++) {
+            Board board = new Board(6, 7);
+            Board mirror = new Board(6, 7);
+            for (int ply = 0; ply < 14 && !board.checkWin(); ply++) {
+                int col = random.nextInt(7);
+                if (!board.isColumnValid(col)) {
+                    continue;
+                }
+                char token = ply % 2 == 0 ? 'X' : 'O';
+                board.placeToken(col, token);
+                mirror.placeToken(6 - col, token);
+            }
+            assertEquals(evaluator.evaluate(board, 0),
+                    evaluator.evaluate(mirror, 0));
+            assertEquals(evaluator.evaluate(board, 1),
+                    evaluator.evaluate(mirror, 1));
+        }
+    }
+
+    @Test
+    public void testWideBoardWithoutBitboardIsNeutral() {
+        Board board = TestBoards.fromMoves(6, 10, "1234");
+        assertFalse(board.isBitboard());
+        assertEquals(0, evaluator.evaluate(board, 0));
+    }
+
+    @Test
+    public void testSearchUsesEvaluatorAtDepthLimit() {
+        Board board = TestBoards.fromMoves(6, 7, "44");
+        SearchEngine engine = new SearchEngine(1, 0);
+        assertEquals(0, engine.search(board, 'X').getScore());
+        engine.setEvaluator(evaluator);
+        int score = engine.search(board, 'X').getScore();
+        assertTrue(score > 0 && score < SearchEngine.WIN_THRESHOLD);
+    }
+}
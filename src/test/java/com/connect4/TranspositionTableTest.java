@@ -0,0 +1,69 @@
+package com.connect4;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(4);
+        table.store(42L, 7, TranspositionTable.LOWER_BOUND, -1234, 3);
+
+        long entry = table.probe(42L);
+        assertNotEquals(0L, entry);
+        assertEquals(7, TranspositionTable.depthOf(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.boundOf(entry));
+        assertEquals(-1234, TranspositionTable.scoreOf(entry));
+        assertEquals(3, TranspositionTable.moveOf(entry));
+        assertEquals(1, table.getHits());
+    }
+
+    @Test
+    public void testMissAndEmptyKey() {
+        TranspositionTable table = new TranspositionTable(4);
+        assertEquals(0L, table.probe(0L)); // Az üres tábla kulcsa 0, mégsem találat
+        assertEquals(1, table.getMisses());
+
+        table.store(0L, 1, TranspositionTable.EXACT, 0, -1);
+        long entry = table.probe(0L);
+        assertEquals(-1, TranspositionTable.moveOf(entry));
+        assertEquals(TranspositionTable.EXACT, TranspositionTable.boundOf(entry));
+    }
+
+    @Test
+    public void testReplacesShallowestEntry() {
+        TranspositionTable table = new TranspositionTable(4);
+        // Azonos kezdőindexű kulcsok töltik meg a próbálkozási sort
+        for (int i = 0; i < TranspositionTable.PROBE_LIMIT; i++) {
+            table.store(i * 16L << 32 | i * 16L, 10 + i, TranspositionTable.EXACT, i, i);
+        }
+        assertEquals(0, table.getCollisions());
+        table.store(99L << 36 | 99L << 4, 20, TranspositionTable.EXACT, 5, 5);
+        assertEquals(1, table.getCollisions());
+        assertEquals(0L, table.probe(0L)); // A legkisebb mélységű kiszorult
+        assertNotEquals(0L, table.probe(99L << 36 | 99L << 4));
+    }
+
+    @Test
+    public void testReducesNodesOfFullSolve() {
+        // Késői középjáték, amelyet mindkét motor a játék végéig kiszámol
+        String moves = "625562146636113516";
+        Board plain = TestBoards.fromMoves(moves);
+        Board cached = TestBoards.fromMoves(moves);
+        int depth = 42 - moves.length();
+        SearchResult without = new SearchEngine(depth, 0).search(plain, 'X');
+        SearchResult with = new SearchEngine(depth, 0, new TranspositionTable(20)).search(cached, 'X');
+
+        assertEquals(without.getScore(), with.getScore());
+        assertTrue(with.getNodes() * 10 < without.getNodes(),
+                "A gyorsítótár nem csökkentette a csomópontok számát: "
+                        + with.getNodes() + " vs " + without.getNodes());
+    }
+
+    @Test
+    public void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+}